@@ -0,0 +1,303 @@
+package com.ravi9a2.grpc;
+
+import io.grpc.CallOptions;
+import io.grpc.ClientCall;
+import io.grpc.ForwardingClientCall;
+import io.grpc.ForwardingClientCallListener;
+import io.grpc.ManagedChannel;
+import io.grpc.Metadata;
+import io.grpc.MethodDescriptor;
+import io.grpc.Status;
+import io.grpc.netty.shaded.io.netty.channel.EventLoopGroup;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A ManagedChannel over several subchannels to the same target, each with its own
+ * HTTP/2 connection, so the concurrent calls of a client are not capped by the
+ * MAX_CONCURRENT_STREAMS the server allows on a single connection.
+ * <p>
+ * Every call is sent on the subchannel with the fewest calls in flight, or on the
+ * next one in turn with round-robin selection, and counts as in flight on it until
+ * it is closed.
+ * <p>
+ * Clients sharing a target share one pool. Each of them holds a reference, taken
+ * with {@link #retain()}, and the subchannels are shut down once every holder has
+ * shut the pool down. Event loops dedicated to the pool are shut down gracefully
+ * once its subchannels have terminated.
+ *
+ * @author raviprakash
+ */
+public final class ChannelPool extends ManagedChannel {
+
+    private final Subchannel[] subchannels;
+    private final Selection selection;
+    private final SubchannelListener listener;
+    private final AtomicInteger next = new AtomicInteger();
+    private final AtomicInteger references = new AtomicInteger(1);
+    private final EventLoopGroup eventLoops;
+
+    public ChannelPool(String target, List<ManagedChannel> channels, Selection selection,
+                       SubchannelListener listener) {
+        this(target, channels, selection, listener, null);
+    }
+
+    /**
+     * @param eventLoops event loops owned by the pool, shut down with it, or null
+     */
+    public ChannelPool(String target, List<ManagedChannel> channels, Selection selection,
+                       SubchannelListener listener, EventLoopGroup eventLoops) {
+        if (Objects.isNull(channels) || channels.isEmpty()) {
+            throw new IllegalArgumentException("No channels for target: " + target);
+        }
+        this.subchannels = new Subchannel[channels.size()];
+        for (int i = 0; i < subchannels.length; i++) {
+            subchannels[i] = new Subchannel(target, i, channels.get(i));
+        }
+        this.selection = Objects.isNull(selection) ? Selection.LEAST_LOADED : selection;
+        this.listener = listener;
+        this.eventLoops = eventLoops;
+    }
+
+    /**
+     * Takes one more reference to the pool, for a client sharing it.
+     */
+    public ChannelPool retain() {
+        references.incrementAndGet();
+        return this;
+    }
+
+    public List<Subchannel> getSubchannels() {
+        return Collections.unmodifiableList(Arrays.asList(subchannels));
+    }
+
+    @Override
+    public <ReqT, RespT> ClientCall<ReqT, RespT> newCall(MethodDescriptor<ReqT, RespT> methodDescriptor,
+                                                         CallOptions callOptions) {
+        Subchannel subchannel = choose();
+        return new InFlightCall<>(subchannel.channel.newCall(methodDescriptor, callOptions), subchannel);
+    }
+
+    @Override
+    public String authority() {
+        return subchannels[0].channel.authority();
+    }
+
+    /**
+     * Releases the reference of one holder, and shuts the subchannels down once no
+     * holder is left.
+     */
+    @Override
+    public ManagedChannel shutdown() {
+        if (references.decrementAndGet() <= 0) {
+            for (Subchannel subchannel : subchannels) {
+                subchannel.channel.shutdown();
+            }
+            releaseEventLoops();
+        }
+        return this;
+    }
+
+    /**
+     * Shuts the subchannels down forcefully, once no holder is left.
+     */
+    @Override
+    public ManagedChannel shutdownNow() {
+        if (references.get() <= 0) {
+            for (Subchannel subchannel : subchannels) {
+                subchannel.channel.shutdownNow();
+            }
+        }
+        return this;
+    }
+
+    @Override
+    public boolean isShutdown() {
+        for (Subchannel subchannel : subchannels) {
+            if (!subchannel.channel.isShutdown()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public boolean isTerminated() {
+        for (Subchannel subchannel : subchannels) {
+            if (!subchannel.channel.isTerminated()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        for (Subchannel subchannel : subchannels) {
+            if (!subchannel.channel.awaitTermination(deadline - System.nanoTime(), TimeUnit.NANOSECONDS)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Shuts the event loops of the pool down once its subchannels have terminated,
+     * checking on the loops themselves, as a channel must not outlive its loops.
+     */
+    private void releaseEventLoops() {
+        if (Objects.isNull(eventLoops) || eventLoops.isShuttingDown()) {
+            return;
+        }
+        if (isTerminated()) {
+            eventLoops.shutdownGracefully();
+        } else {
+            eventLoops.schedule(this::releaseEventLoops, 100, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private Subchannel choose() {
+        int n = subchannels.length;
+        if (n == 1) {
+            return subchannels[0];
+        }
+        int start = (next.getAndIncrement() & Integer.MAX_VALUE) % n;
+        if (selection == Selection.ROUND_ROBIN) {
+            return subchannels[start];
+        }
+        Subchannel chosen = subchannels[start];
+        for (int i = 1; i < n && chosen.getInFlight() > 0; i++) {
+            Subchannel candidate = subchannels[(start + i) % n];
+            if (candidate.getInFlight() < chosen.getInFlight()) {
+                chosen = candidate;
+            }
+        }
+        return chosen;
+    }
+
+    private void publish(Subchannel subchannel) {
+        if (Objects.nonNull(listener)) {
+            listener.onInFlightChanged(subchannel);
+        }
+    }
+
+    /**
+     * How a pool picks the subchannel of a call.
+     */
+    public enum Selection {
+        /**
+         * The subchannel with the fewest calls in flight, ties broken in turn.
+         */
+        LEAST_LOADED,
+        /**
+         * Every subchannel in turn.
+         */
+        ROUND_ROBIN;
+
+        /**
+         * Parses a selection from its configured name, one of least-loaded and
+         * round-robin. Defaults to least-loaded when no name is given.
+         */
+        public static Selection of(String name) {
+            if (Objects.isNull(name) || name.trim().isEmpty()) {
+                return LEAST_LOADED;
+            }
+            switch (name.trim().toLowerCase(Locale.ROOT).replace('_', '-')) {
+                case "least-loaded":
+                    return LEAST_LOADED;
+                case "round-robin":
+                    return ROUND_ROBIN;
+                default:
+                    throw new IllegalArgumentException("Unknown channel pool selection: " + name);
+            }
+        }
+    }
+
+    /**
+     * One channel of a pool, along with its calls in flight.
+     */
+    public static final class Subchannel {
+        private final ManagedChannel channel;
+        private final Map<String, String> tags;
+        private final AtomicInteger inFlight = new AtomicInteger();
+
+        private Subchannel(String target, int index, ManagedChannel channel) {
+            this.channel = channel;
+            Map<String, String> t = new HashMap<>();
+            t.put("target", String.valueOf(target));
+            t.put("subchannel", String.valueOf(index));
+            this.tags = Collections.unmodifiableMap(t);
+        }
+
+        public int getInFlight() {
+            return inFlight.get();
+        }
+
+        /**
+         * Returns the metric tags of the subchannel.
+         */
+        public Map<String, String> getTags() {
+            return tags;
+        }
+    }
+
+    /**
+     * Listens to the calls in flight on the subchannels of a pool, e.g. to emit them
+     * as gauges. Called on the thread that started or closed the call, so it should
+     * not block.
+     */
+    @FunctionalInterface
+    public interface SubchannelListener {
+
+        void onInFlightChanged(Subchannel subchannel);
+    }
+
+    /**
+     * Counts a call as in flight on its subchannel from its start until it is closed.
+     */
+    private final class InFlightCall<ReqT, RespT> extends ForwardingClientCall.SimpleForwardingClientCall<ReqT, RespT> {
+        private final Subchannel subchannel;
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        private InFlightCall(ClientCall<ReqT, RespT> delegate, Subchannel subchannel) {
+            super(delegate);
+            this.subchannel = subchannel;
+        }
+
+        @Override
+        public void start(Listener<RespT> responseListener, Metadata headers) {
+            subchannel.inFlight.incrementAndGet();
+            publish(subchannel);
+            try {
+                super.start(new ForwardingClientCallListener.SimpleForwardingClientCallListener<RespT>(
+                        responseListener) {
+                    @Override
+                    public void onClose(Status status, Metadata trailers) {
+                        release();
+                        super.onClose(status, trailers);
+                    }
+                }, headers);
+            } catch (RuntimeException e) {
+                release();
+                throw e;
+            }
+        }
+
+        private void release() {
+            if (released.compareAndSet(false, true)) {
+                subchannel.inFlight.decrementAndGet();
+                publish(subchannel);
+            }
+        }
+    }
+}
@@ -1,33 +1,58 @@
 package com.ravi9a2.grpc;
 
 import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.MoreExecutors;
+import com.google.common.util.concurrent.SettableFuture;
 import com.google.protobuf.Message;
 import com.ravi9a2.nca.RPCClient;
+import com.ravi9a2.nca.data.Deadline;
 import com.ravi9a2.nca.data.RpcRequestSpec;
 import com.ravi9a2.nca.exceptions.NetworkClientException;
+import io.grpc.CallOptions;
+import io.grpc.ClientCall;
 import io.grpc.ManagedChannel;
 import io.grpc.MethodDescriptor;
-import io.grpc.stub.AbstractStub;
+import io.grpc.stub.ClientCallStreamObserver;
 import io.grpc.stub.ClientCalls;
+import io.grpc.stub.ClientResponseObserver;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.util.Assert;
+import org.reactivestreams.Publisher;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.FluxSink;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.MonoSink;
 
-import java.lang.reflect.Method;
+import java.time.Duration;
+import java.util.List;
+import java.util.Objects;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
  * gRPC client wrapper that implements RPCClient interface.
- * This wrapper provides dynamic gRPC call capabilities using reflection
- * to invoke gRPC service methods based on RpcRequestSpec.
+ * This wrapper provides dynamic gRPC call capabilities, invoking gRPC service
+ * methods based on RpcRequestSpec. Methods are resolved once and cached.
+ * <p>
+ * Server-streaming calls are exposed as a Flux whose demand is the gRPC flow
+ * control of the call: messages are requested from the server only as the
+ * subscriber requests them, so a slow subscriber does not buffer the stream.
+ * Client-streaming and bidirectional calls take their request messages from a
+ * Publisher body, and write them only as the call is ready to send them.
  * 
  * @author raviprakash
  */
 @Slf4j
 public class GrpcClientWrapper implements RPCClient<ManagedChannel> {
 
+    private static final int OUTBOUND_BATCH_SIZE = 64;
+
     private final ManagedChannel channel;
     private final long timeoutSeconds;
+    private final GrpcMethodCache methods = new GrpcMethodCache(CallOptions.DEFAULT);
+    private final AtomicBoolean closed = new AtomicBoolean();
 
     public GrpcClientWrapper(ManagedChannel channel) {
         this(channel, 30);
@@ -46,30 +71,36 @@ public class GrpcClientWrapper implements RPCClient<ManagedChannel> {
 
     @Override
     public <R> ListenableFuture<R> futureUnary(RpcRequestSpec requestSpec) {
+        checkDeadline(requestSpec);
         try {
-            return executeUnaryCall(requestSpec, true);
+            return executeUnaryCall(requestSpec);
         } catch (Exception e) {
             log.error("Error executing unary gRPC call: {}", e.getMessage(), e);
             throw new NetworkClientException(e);
         }
     }
 
+    /**
+     * Returns a future of all the responses of a bidirectional call, as a List.
+     */
     @Override
+    @SuppressWarnings("unchecked")
     public <R> ListenableFuture<R> futureBiDi(RpcRequestSpec requestSpec) {
-        // Bidirectional streaming not yet implemented
-        throw new UnsupportedOperationException("Bidirectional streaming not yet implemented");
+        return toFuture(this.<Object>fluxBiDi(requestSpec).collectList().map(responses -> (R) responses));
     }
 
+    /**
+     * Returns a future of all the responses of a server-streaming call, as a List.
+     */
     @Override
+    @SuppressWarnings("unchecked")
     public <R> ListenableFuture<R> futureServerStreaming(RpcRequestSpec requestSpec) {
-        // Server streaming not yet implemented
-        throw new UnsupportedOperationException("Server streaming not yet implemented");
+        return toFuture(this.<Object>fluxServerStreaming(requestSpec).collectList().map(responses -> (R) responses));
     }
 
     @Override
     public <R> ListenableFuture<R> futureClientStreaming(RpcRequestSpec requestSpec) {
-        // Client streaming not yet implemented
-        throw new UnsupportedOperationException("Client streaming not yet implemented");
+        return toFuture(monoClientStreaming(requestSpec));
     }
 
     @Override
@@ -79,9 +110,13 @@ public class GrpcClientWrapper implements RPCClient<ManagedChannel> {
 
     @Override
     public <R> R blockingUnary(RpcRequestSpec requestSpec) {
+        checkDeadline(requestSpec);
         try {
-            ListenableFuture<R> future = executeUnaryCall(requestSpec, false);
-            return future.get(timeoutSeconds, TimeUnit.SECONDS);
+            ListenableFuture<R> future = executeUnaryCall(requestSpec);
+            Deadline deadline = requestSpec.getDeadline();
+            long timeoutMillis = TimeUnit.SECONDS.toMillis(timeoutSeconds);
+            return future.get(Objects.isNull(deadline) ? timeoutMillis : deadline.cap(timeoutMillis),
+                    TimeUnit.MILLISECONDS);
         } catch (ExecutionException e) {
             log.error("Error executing blocking unary gRPC call: {}", e.getMessage(), e);
             Throwable cause = e.getCause();
@@ -95,71 +130,117 @@ public class GrpcClientWrapper implements RPCClient<ManagedChannel> {
         }
     }
 
+    /**
+     * Returns all the responses of a bidirectional call, as a List.
+     */
     @Override
+    @SuppressWarnings("unchecked")
     public <R> R blockingBiDi(RpcRequestSpec requestSpec) {
-        throw new UnsupportedOperationException("Bidirectional streaming not yet implemented");
+        List<Object> responses = this.<Object>fluxBiDi(requestSpec).collectList().block(timeout(requestSpec));
+        return (R) responses;
     }
 
+    /**
+     * Returns all the responses of a server-streaming call, as a List.
+     */
     @Override
+    @SuppressWarnings("unchecked")
     public <R> R blockingServerStreaming(RpcRequestSpec requestSpec) {
-        throw new UnsupportedOperationException("Server streaming not yet implemented");
+        List<Object> responses = this.<Object>fluxServerStreaming(requestSpec).collectList()
+                .block(timeout(requestSpec));
+        return (R) responses;
+    }
+
+    @Override
+    public <R> Flux<R> fluxServerStreaming(RpcRequestSpec requestSpec) {
+        return Flux.create(sink -> {
+            checkDeadline(requestSpec);
+            ClientCall<Message, Message> call;
+            Message request;
+            try {
+                GrpcMethodCache.ResolvedMethod method = methods.resolve(requestSpec);
+                request = convertToMessage(requestSpec.getBody(), method.getDescriptor().getRequestMarshaller());
+                call = newCall(method, requestSpec);
+            } catch (Exception e) {
+                sink.error(streamingCallError(requestSpec, e));
+                return;
+            }
+            FluxResponseObserver<R> observer = new FluxResponseObserver<>(sink, null);
+            ClientCalls.asyncServerStreamingCall(call, request, observer);
+            sink.onRequest(observer::request);
+            sink.onCancel(observer::cancel);
+        });
+    }
+
+    @Override
+    public <R> Mono<R> monoClientStreaming(RpcRequestSpec requestSpec) {
+        return Mono.create(sink -> {
+            checkDeadline(requestSpec);
+            ClientCall<Message, Message> call;
+            Publisher<Message> requests;
+            try {
+                GrpcMethodCache.ResolvedMethod method = methods.resolve(requestSpec);
+                requests = requests(requestSpec.getBody(), method.getDescriptor().getRequestMarshaller());
+                call = newCall(method, requestSpec);
+            } catch (Exception e) {
+                sink.error(streamingCallError(requestSpec, e));
+                return;
+            }
+            MonoResponseObserver<R> observer = new MonoResponseObserver<>(sink, requests);
+            ClientCalls.asyncClientStreamingCall(call, observer);
+            sink.onCancel(observer::cancel);
+            observer.sendRequests();
+        });
+    }
+
+    @Override
+    public <R> Flux<R> fluxBiDi(RpcRequestSpec requestSpec) {
+        return Flux.create(sink -> {
+            checkDeadline(requestSpec);
+            ClientCall<Message, Message> call;
+            Publisher<Message> requests;
+            try {
+                GrpcMethodCache.ResolvedMethod method = methods.resolve(requestSpec);
+                requests = requests(requestSpec.getBody(), method.getDescriptor().getRequestMarshaller());
+                call = newCall(method, requestSpec);
+            } catch (Exception e) {
+                sink.error(streamingCallError(requestSpec, e));
+                return;
+            }
+            FluxResponseObserver<R> observer = new FluxResponseObserver<>(sink, requests);
+            ClientCalls.asyncBidiStreamingCall(call, observer);
+            sink.onRequest(observer::request);
+            sink.onCancel(observer::cancel);
+            observer.sendRequests();
+        });
     }
 
     @Override
     public <R> R blockingClientStreaming(RpcRequestSpec requestSpec) {
-        throw new UnsupportedOperationException("Client streaming not yet implemented");
+        return this.<R>monoClientStreaming(requestSpec).block(timeout(requestSpec));
     }
 
     /**
-     * Executes a unary gRPC call using reflection to dynamically invoke the service
-     * method.
+     * Executes a unary gRPC call of the method the request spec names, resolved
+     * from the method cache.
      * 
      * @param requestSpec The RPC request specification
-     * @param async       Whether to return a future or block
-     * @return The result or a future
+     * @return A future of the result
      */
     @SuppressWarnings("unchecked")
-    private <R> ListenableFuture<R> executeUnaryCall(RpcRequestSpec requestSpec, boolean async) {
+    private <R> ListenableFuture<R> executeUnaryCall(RpcRequestSpec requestSpec) {
         try {
-            String fqPackageName = requestSpec.getFqPackageName();
-            String serviceName = requestSpec.getServiceName();
-            String methodName = requestSpec.getMethodName();
-
-            Assert.notNull(fqPackageName, "Fully qualified package name cannot be null");
-            Assert.notNull(serviceName, "Service name cannot be null");
-            Assert.notNull(methodName, "Method name cannot be null");
-
-            // Load the service stub class using reflection
-            // Expected pattern: com.ravi9a2.example.proto.OrderServiceGrpc
-            String stubClassName = fqPackageName + "." + serviceName + "Grpc";
-            Class<?> stubClass = Class.forName(stubClassName);
-
-            // Get the newStub method (e.g., OrderServiceGrpc.newStub(channel))
-            Method newStubMethod = stubClass.getMethod("newStub", ManagedChannel.class);
-            AbstractStub<?> stub = (AbstractStub<?>) newStubMethod.invoke(null, channel);
-
-            // Get the method descriptor
-            // Expected pattern: OrderServiceGrpc.getGetOrderMethod()
-            String methodDescriptorMethodName = "get" + methodName + "Method";
-            Method getMethodDescriptor = stubClass.getMethod(methodDescriptorMethodName);
-            MethodDescriptor<Message, Message> methodDescriptor = (MethodDescriptor<Message, Message>) getMethodDescriptor
-                    .invoke(null);
+            GrpcMethodCache.ResolvedMethod method = methods.resolve(requestSpec);
 
             // Convert request body to protobuf message if needed
-            Message request = convertToMessage(requestSpec.getBody(), methodDescriptor.getRequestMarshaller());
+            Message request = convertToMessage(requestSpec.getBody(), method.getDescriptor().getRequestMarshaller());
 
-            // Execute the call
-            if (async) {
-                return (ListenableFuture<R>) ClientCalls.futureUnaryCall(
-                        channel.newCall(methodDescriptor, stub.getCallOptions()),
-                        request);
-            } else {
-                // For blocking, we'll use the async version and get() it
-                ListenableFuture<Message> future = ClientCalls.futureUnaryCall(
-                        channel.newCall(methodDescriptor, stub.getCallOptions()),
-                        request);
-                return (ListenableFuture<R>) future;
-            }
+            CallOptions callOptions = callOptions(method.getCallOptions(), requestSpec.getDeadline());
+
+            // Execute the call, blocking callers get() the future
+            return (ListenableFuture<R>) ClientCalls.futureUnaryCall(
+                    channel.newCall(method.getDescriptor(), callOptions),
+                    request);
         } catch (Exception e) {
             log.error("Error executing gRPC call for {}.{}.{}: {}",
                     requestSpec.getFqPackageName(),
@@ -170,6 +251,59 @@ public class GrpcClientWrapper implements RPCClient<ManagedChannel> {
         }
     }
 
+    private ClientCall<Message, Message> newCall(GrpcMethodCache.ResolvedMethod method, RpcRequestSpec requestSpec) {
+        return channel.newCall(method.getDescriptor(), callOptions(method.getCallOptions(), requestSpec.getDeadline()));
+    }
+
+    private static NetworkClientException streamingCallError(RpcRequestSpec requestSpec, Exception e) {
+        log.error("Error executing streaming gRPC call for {}.{}.{}: {}",
+                requestSpec.getFqPackageName(),
+                requestSpec.getServiceName(),
+                requestSpec.getMethodName(),
+                e.getMessage(), e);
+        return new NetworkClientException(e);
+    }
+
+    /**
+     * Returns how long a blocking call waits, capped by what is left of the request's deadline.
+     */
+    private Duration timeout(RpcRequestSpec requestSpec) {
+        Deadline deadline = requestSpec.getDeadline();
+        long timeoutMillis = TimeUnit.SECONDS.toMillis(timeoutSeconds);
+        return Duration.ofMillis(Objects.isNull(deadline) ? timeoutMillis : deadline.cap(timeoutMillis));
+    }
+
+    /**
+     * Adapts a Mono to a future, cancelling the subscription when the future is cancelled.
+     */
+    private static <R> ListenableFuture<R> toFuture(Mono<R> mono) {
+        SettableFuture<R> future = SettableFuture.create();
+        Disposable subscription = mono.subscribe(future::set, future::setException, () -> future.set(null));
+        future.addListener(() -> {
+            if (future.isCancelled()) {
+                subscription.dispose();
+            }
+        }, MoreExecutors.directExecutor());
+        return future;
+    }
+
+    /**
+     * Sets what is left of the request's deadline as the deadline of the call, so
+     * the server sees it too and the call is cancelled once it passes.
+     */
+    private static CallOptions callOptions(CallOptions callOptions, Deadline deadline) {
+        if (Objects.isNull(deadline)) {
+            return callOptions;
+        }
+        return callOptions.withDeadlineAfter(deadline.cap(0), TimeUnit.MILLISECONDS);
+    }
+
+    private static void checkDeadline(RpcRequestSpec requestSpec) {
+        if (Objects.nonNull(requestSpec.getDeadline())) {
+            requestSpec.getDeadline().check();
+        }
+    }
+
     /**
      * Converts the request body to a protobuf Message.
      * If body is already a Message, returns it as-is.
@@ -196,13 +330,143 @@ public class GrpcClientWrapper implements RPCClient<ManagedChannel> {
     }
 
     /**
-     * Shuts down the underlying channel.
+     * Converts the request body of a client-streaming or bidirectional call, a
+     * Publisher, to a Publisher of protobuf Messages.
+     */
+    private Publisher<Message> requests(Object body, MethodDescriptor.Marshaller<Message> marshaller) {
+        if (!(body instanceof Publisher)) {
+            throw new IllegalArgumentException("Request body of a streaming gRPC call must be a Publisher. Got: "
+                    + (body == null ? "null" : body.getClass().getName()));
+        }
+        return Flux.from((Publisher<?>) body).map(message -> convertToMessage(message, marshaller));
+    }
+
+    /**
+     * Observes a call, and writes its request messages when it has a request
+     * Publisher. The call is cancelled through the writer then, so that the
+     * cancel does not race a write.
+     */
+    private abstract static class CallObserver implements ClientResponseObserver<Message, Message> {
+        private final Publisher<Message> requests;
+        ClientCallStreamObserver<Message> requestStream;
+        private OutboundMessages outbound;
+
+        private CallObserver(Publisher<Message> requests) {
+            this.requests = requests;
+        }
+
+        @Override
+        public void beforeStart(ClientCallStreamObserver<Message> requestStream) {
+            this.requestStream = requestStream;
+            if (Objects.nonNull(requests)) {
+                outbound = new OutboundMessages(requestStream, OUTBOUND_BATCH_SIZE);
+                requestStream.setOnReadyHandler(outbound::drain);
+            }
+        }
+
+        void sendRequests() {
+            if (Objects.nonNull(outbound)) {
+                requests.subscribe(outbound);
+            }
+        }
+
+        void stopSending() {
+            if (Objects.nonNull(outbound)) {
+                outbound.stop();
+            }
+        }
+
+        void cancel() {
+            if (Objects.nonNull(outbound)) {
+                outbound.cancel();
+            } else {
+                requestStream.cancel("Cancelled by subscriber", null);
+            }
+        }
+    }
+
+    /**
+     * Relays the responses of a streaming call to a FluxSink. Automatic inbound flow
+     * control is turned off, and messages are requested from the server as the
+     * sink's subscriber requests them.
+     */
+    private static final class FluxResponseObserver<R> extends CallObserver {
+        private final FluxSink<R> sink;
+
+        private FluxResponseObserver(FluxSink<R> sink, Publisher<Message> requests) {
+            super(requests);
+            this.sink = sink;
+        }
+
+        @Override
+        public void beforeStart(ClientCallStreamObserver<Message> requestStream) {
+            super.beforeStart(requestStream);
+            requestStream.disableAutoRequestWithInitial(0);
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public void onNext(Message value) {
+            sink.next((R) value);
+        }
+
+        @Override
+        public void onError(Throwable t) {
+            stopSending();
+            sink.error(t);
+        }
+
+        @Override
+        public void onCompleted() {
+            stopSending();
+            sink.complete();
+        }
+
+        private void request(long n) {
+            requestStream.request((int) Math.min(n, Integer.MAX_VALUE));
+        }
+    }
+
+    /**
+     * Relays the single response of a client-streaming call to a MonoSink.
+     */
+    private static final class MonoResponseObserver<R> extends CallObserver {
+        private final MonoSink<R> sink;
+        private R response;
+
+        private MonoResponseObserver(MonoSink<R> sink, Publisher<Message> requests) {
+            super(requests);
+            this.sink = sink;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public void onNext(Message value) {
+            response = (R) value;
+        }
+
+        @Override
+        public void onError(Throwable t) {
+            stopSending();
+            sink.error(t);
+        }
+
+        @Override
+        public void onCompleted() {
+            stopSending();
+            sink.success(response);
+        }
+    }
+
+    /**
+     * Shuts down the underlying channel. A channel pool shared with other clients
+     * is only released, and shut down by the last of them.
      */
     public void shutdown() {
-        if (channel != null && !channel.isShutdown()) {
+        if (closed.compareAndSet(false, true) && !channel.isShutdown()) {
             try {
                 channel.shutdown();
-                if (!channel.awaitTermination(5, TimeUnit.SECONDS)) {
+                if (channel.isShutdown() && !channel.awaitTermination(5, TimeUnit.SECONDS)) {
                     channel.shutdownNow();
                 }
             } catch (InterruptedException e) {
@@ -1,28 +1,47 @@
 package com.ravi9a2.grpc;
 
+import com.ravi9a2.instrumentation.processor.MetricEmitter;
 import com.ravi9a2.nca.RPCClientRegistry;
 import io.grpc.ManagedChannel;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.BeanFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
 
 /**
  * Spring configuration for loading gRPC client wrappers.
  * Reads configuration from application.properties with prefix "downstream.rpc".
+ * Clients with the same target and channel settings share one channel pool.
+ * The clients are shut down with the application context, which releases their
+ * pools and the event loops dedicated to them.
  * 
  * @author raviprakash
  */
 @Slf4j
 @Configuration
-public class GrpcClientWrapperBeanLoader {
+public class GrpcClientWrapperBeanLoader implements DisposableBean {
 
     private static final String DEFAULT = "default";
+    private static final String DIRECT = "direct";
+
+    @Autowired(required = false)
+    MetricEmitter metricEmitter;
+
+    @Autowired
+    BeanFactory beanFactory;
+
+    private final List<GrpcClientWrapper> registered = new CopyOnWriteArrayList<>();
 
     @ConfigurationProperties(prefix = "downstream.rpc")
     public static class GrpcClientProperties {
@@ -41,6 +60,18 @@ public class GrpcClientWrapperBeanLoader {
         private String target;
         private Long timeoutSeconds;
         private Boolean usePlaintext;
+        private Integer poolSize;
+        private String poolSelection;
+        private Boolean nativeTransport;
+        private Boolean dedicatedEventLoop;
+        private Integer eventLoopThreads;
+        private String executor;
+        private Long keepAliveTimeSeconds;
+        private Long keepAliveTimeoutSeconds;
+        private Boolean keepAliveWithoutCalls;
+        private Long idleTimeoutSeconds;
+        private Integer initialFlowControlWindow;
+        private Integer maxInboundMessageSize;
 
         public String getTarget() {
             return target;
@@ -65,11 +96,157 @@ public class GrpcClientWrapperBeanLoader {
         public void setUsePlaintext(Boolean usePlaintext) {
             this.usePlaintext = usePlaintext;
         }
+
+        public Integer getPoolSize() {
+            return poolSize;
+        }
+
+        /**
+         * Sets the number of subchannels, each with its own connection, to the target.
+         */
+        public void setPoolSize(Integer poolSize) {
+            this.poolSize = poolSize;
+        }
+
+        public String getPoolSelection() {
+            return poolSelection;
+        }
+
+        /**
+         * Sets how a call picks its subchannel, least-loaded or round-robin.
+         */
+        public void setPoolSelection(String poolSelection) {
+            this.poolSelection = poolSelection;
+        }
+
+        public Boolean getNativeTransport() {
+            return nativeTransport;
+        }
+
+        /**
+         * Runs the channels on epoll where it is available.
+         */
+        public void setNativeTransport(Boolean nativeTransport) {
+            this.nativeTransport = nativeTransport;
+        }
+
+        public Boolean getDedicatedEventLoop() {
+            return dedicatedEventLoop;
+        }
+
+        /**
+         * Runs the channels on event loops of their own instead of the shared ones.
+         */
+        public void setDedicatedEventLoop(Boolean dedicatedEventLoop) {
+            this.dedicatedEventLoop = dedicatedEventLoop;
+        }
+
+        public Integer getEventLoopThreads() {
+            return eventLoopThreads;
+        }
+
+        /**
+         * Sets the number of threads of dedicated event loops.
+         */
+        public void setEventLoopThreads(Integer eventLoopThreads) {
+            this.eventLoopThreads = eventLoopThreads;
+        }
+
+        public String getExecutor() {
+            return executor;
+        }
+
+        /**
+         * Sets the executor of the response callbacks: direct, default, or the name of an Executor bean.
+         */
+        public void setExecutor(String executor) {
+            this.executor = executor;
+        }
+
+        public Long getKeepAliveTimeSeconds() {
+            return keepAliveTimeSeconds;
+        }
+
+        /**
+         * Sets how long a connection stays quiet before it is pinged.
+         */
+        public void setKeepAliveTimeSeconds(Long keepAliveTimeSeconds) {
+            this.keepAliveTimeSeconds = keepAliveTimeSeconds;
+        }
+
+        public Long getKeepAliveTimeoutSeconds() {
+            return keepAliveTimeoutSeconds;
+        }
+
+        /**
+         * Sets how long a keepalive ping waits for its ack before the connection is closed.
+         */
+        public void setKeepAliveTimeoutSeconds(Long keepAliveTimeoutSeconds) {
+            this.keepAliveTimeoutSeconds = keepAliveTimeoutSeconds;
+        }
+
+        public Boolean getKeepAliveWithoutCalls() {
+            return keepAliveWithoutCalls;
+        }
+
+        /**
+         * Pings connections without calls in flight too.
+         */
+        public void setKeepAliveWithoutCalls(Boolean keepAliveWithoutCalls) {
+            this.keepAliveWithoutCalls = keepAliveWithoutCalls;
+        }
+
+        public Long getIdleTimeoutSeconds() {
+            return idleTimeoutSeconds;
+        }
+
+        /**
+         * Sets how long a channel without calls keeps its connections.
+         */
+        public void setIdleTimeoutSeconds(Long idleTimeoutSeconds) {
+            this.idleTimeoutSeconds = idleTimeoutSeconds;
+        }
+
+        public Integer getInitialFlowControlWindow() {
+            return initialFlowControlWindow;
+        }
+
+        /**
+         * Sets the initial HTTP/2 flow-control window in bytes.
+         */
+        public void setInitialFlowControlWindow(Integer initialFlowControlWindow) {
+            this.initialFlowControlWindow = initialFlowControlWindow;
+        }
+
+        public Integer getMaxInboundMessageSize() {
+            return maxInboundMessageSize;
+        }
+
+        /**
+         * Sets the largest response message in bytes.
+         */
+        public void setMaxInboundMessageSize(Integer maxInboundMessageSize) {
+            this.maxInboundMessageSize = maxInboundMessageSize;
+        }
+
+        /**
+         * Returns what a channel pool is shared by: the target and the settings of its channels.
+         */
+        String channelKey() {
+            return String.join("|", String.valueOf(target), String.valueOf(usePlaintext),
+                    String.valueOf(poolSize), String.valueOf(ChannelPool.Selection.of(poolSelection)),
+                    String.valueOf(nativeTransport), String.valueOf(dedicatedEventLoop),
+                    String.valueOf(eventLoopThreads), String.valueOf(executor),
+                    String.valueOf(keepAliveTimeSeconds), String.valueOf(keepAliveTimeoutSeconds),
+                    String.valueOf(keepAliveWithoutCalls), String.valueOf(idleTimeoutSeconds),
+                    String.valueOf(initialFlowControlWindow), String.valueOf(maxInboundMessageSize));
+        }
     }
 
     @Bean
     public RPCClientRegistry grpcClientRegistry(GrpcClientProperties properties) {
         Map<String, GrpcClientWrapper> clients = new HashMap<>();
+        Map<String, ChannelPool> pools = new HashMap<>();
 
         if (properties.getClients() != null && !properties.getClients().isEmpty()) {
             for (Map.Entry<String, GrpcClientConfig> entry : properties.getClients().entrySet()) {
@@ -82,7 +259,10 @@ public class GrpcClientWrapperBeanLoader {
                 }
 
                 GrpcClientWrapperBuilder builder = GrpcClientWrapperBuilder.builder()
-                        .target(config.getTarget());
+                        .target(config.getTarget())
+                        .clientName(serviceName)
+                        .poolSelection(ChannelPool.Selection.of(config.getPoolSelection()))
+                        .metricEmitter(metricEmitter);
 
                 if (config.getTimeoutSeconds() != null) {
                     builder.timeoutSeconds(config.getTimeoutSeconds());
@@ -92,8 +272,25 @@ public class GrpcClientWrapperBeanLoader {
                     builder.usePlaintext(config.getUsePlaintext());
                 }
 
-                GrpcClientWrapper wrapper = builder.build();
+                if (config.getPoolSize() != null) {
+                    builder.poolSize(config.getPoolSize());
+                }
+
+                transport(builder, config);
+
+                ChannelPool pool = pools.get(config.channelKey());
+                if (pool == null) {
+                    pool = builder.buildChannel();
+                    pools.put(config.channelKey(), pool);
+                } else {
+                    pool.retain();
+                    log.info("gRPC client '{}' shares the channel pool of target: {}", serviceName,
+                            config.getTarget());
+                }
+
+                GrpcClientWrapper wrapper = builder.channel(pool).build();
                 clients.put(serviceName, wrapper);
+                registered.add(wrapper);
                 log.info("Registered gRPC client '{}' with target: {}", serviceName, config.getTarget());
             }
         }
@@ -112,6 +309,65 @@ public class GrpcClientWrapperBeanLoader {
         return com.ravi9a2.nca.RPCClientRegistry.of(rpcClients);
     }
 
+    /**
+     * Shuts down the clients, and with the last client of a pool the pool itself.
+     */
+    @Override
+    public void destroy() {
+        for (GrpcClientWrapper wrapper : registered) {
+            wrapper.shutdown();
+        }
+        registered.clear();
+    }
+
+    /**
+     * Sets the event loops, executor, keepalive and flow control of the channels of a client.
+     */
+    private void transport(GrpcClientWrapperBuilder builder, GrpcClientConfig config) {
+        if (config.getNativeTransport() != null) {
+            builder.nativeTransport(config.getNativeTransport());
+        }
+
+        if (config.getDedicatedEventLoop() != null) {
+            builder.dedicatedEventLoop(config.getDedicatedEventLoop());
+        }
+
+        if (config.getEventLoopThreads() != null) {
+            builder.eventLoopThreads(config.getEventLoopThreads());
+        }
+
+        String executor = config.getExecutor();
+        if (DIRECT.equalsIgnoreCase(executor)) {
+            builder.directExecutor(true);
+        } else if (executor != null && !executor.isEmpty() && !DEFAULT.equalsIgnoreCase(executor)) {
+            builder.executor(beanFactory.getBean(executor, Executor.class));
+        }
+
+        if (config.getKeepAliveTimeSeconds() != null) {
+            builder.keepAliveTimeSeconds(config.getKeepAliveTimeSeconds());
+        }
+
+        if (config.getKeepAliveTimeoutSeconds() != null) {
+            builder.keepAliveTimeoutSeconds(config.getKeepAliveTimeoutSeconds());
+        }
+
+        if (config.getKeepAliveWithoutCalls() != null) {
+            builder.keepAliveWithoutCalls(config.getKeepAliveWithoutCalls());
+        }
+
+        if (config.getIdleTimeoutSeconds() != null) {
+            builder.idleTimeoutSeconds(config.getIdleTimeoutSeconds());
+        }
+
+        if (config.getInitialFlowControlWindow() != null) {
+            builder.initialFlowControlWindow(config.getInitialFlowControlWindow());
+        }
+
+        if (config.getMaxInboundMessageSize() != null) {
+            builder.maxInboundMessageSize(config.getMaxInboundMessageSize());
+        }
+    }
+
     @Bean
     public GrpcClientProperties grpcClientProperties() {
         return new GrpcClientProperties();
@@ -1,13 +1,28 @@
 package com.ravi9a2.grpc;
 
+import com.ravi9a2.instrumentation.processor.MetricEmitter;
 import io.grpc.ManagedChannel;
-import io.grpc.ManagedChannelBuilder;
+import io.grpc.netty.shaded.io.grpc.netty.NettyChannelBuilder;
+import io.grpc.netty.shaded.io.netty.channel.EventLoopGroup;
 import lombok.extern.slf4j.Slf4j;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.Executor;
 import java.util.concurrent.TimeUnit;
 
 /**
  * Builder for creating GrpcClientWrapper instances.
+ * <p>
+ * The channel of a client is a ChannelPool of poolSize subchannels to its target,
+ * unless a channel is given, e.g. the pool of another client with the same target.
+ * All the subchannels run on the same event loops, and hand their responses to the
+ * same executor.
+ * <p>
+ * A direct executor runs the response callbacks on the event loop, saving a
+ * thread hop per message. It suits callers that do not block in them, like the
+ * reactive streaming calls, but stalls the channel's I/O when they do.
  * 
  * @author raviprakash
  */
@@ -17,6 +32,22 @@ public class GrpcClientWrapperBuilder {
     private String target;
     private long timeoutSeconds = 30;
     private boolean usePlaintext = false;
+    private int poolSize = 1;
+    private ChannelPool.Selection poolSelection = ChannelPool.Selection.LEAST_LOADED;
+    private MetricEmitter metricEmitter;
+    private ManagedChannel channel;
+    private String clientName;
+    private boolean nativeTransport = false;
+    private boolean dedicatedEventLoop = false;
+    private int eventLoopThreads = 0;
+    private boolean directExecutor = false;
+    private Executor executor;
+    private long keepAliveTimeSeconds = 0;
+    private long keepAliveTimeoutSeconds = 0;
+    private boolean keepAliveWithoutCalls = false;
+    private long idleTimeoutSeconds = 0;
+    private int initialFlowControlWindow = 0;
+    private int maxInboundMessageSize = 0;
 
     private GrpcClientWrapperBuilder() {
     }
@@ -40,20 +71,204 @@ public class GrpcClientWrapperBuilder {
         return this;
     }
 
-    public GrpcClientWrapper build() {
+    /**
+     * Sets the number of subchannels, each with its own connection, the calls of the
+     * client are spread over.
+     */
+    public GrpcClientWrapperBuilder poolSize(int poolSize) {
+        this.poolSize = poolSize;
+        return this;
+    }
+
+    public GrpcClientWrapperBuilder poolSelection(ChannelPool.Selection poolSelection) {
+        this.poolSelection = poolSelection;
+        return this;
+    }
+
+    public GrpcClientWrapperBuilder metricEmitter(MetricEmitter metricEmitter) {
+        this.metricEmitter = metricEmitter;
+        return this;
+    }
+
+    /**
+     * Sets the name of the client, which its dedicated event-loop threads are named after.
+     */
+    public GrpcClientWrapperBuilder clientName(String clientName) {
+        this.clientName = clientName;
+        return this;
+    }
+
+    /**
+     * Runs the channels on epoll where it is available.
+     */
+    public GrpcClientWrapperBuilder nativeTransport(boolean nativeTransport) {
+        this.nativeTransport = nativeTransport;
+        return this;
+    }
+
+    /**
+     * Runs the channels on event loops of their own instead of the shared ones.
+     */
+    public GrpcClientWrapperBuilder dedicatedEventLoop(boolean dedicatedEventLoop) {
+        this.dedicatedEventLoop = dedicatedEventLoop;
+        return this;
+    }
+
+    /**
+     * Sets the number of threads of dedicated event loops.
+     */
+    public GrpcClientWrapperBuilder eventLoopThreads(int eventLoopThreads) {
+        this.eventLoopThreads = eventLoopThreads;
+        return this;
+    }
+
+    /**
+     * Runs the response callbacks on the event loop instead of an executor.
+     */
+    public GrpcClientWrapperBuilder directExecutor(boolean directExecutor) {
+        this.directExecutor = directExecutor;
+        return this;
+    }
+
+    /**
+     * Sets the executor the response callbacks run on, instead of gRPC's cached thread pool.
+     */
+    public GrpcClientWrapperBuilder executor(Executor executor) {
+        this.executor = executor;
+        return this;
+    }
+
+    /**
+     * Sets how long a connection stays quiet before it is pinged, if positive.
+     */
+    public GrpcClientWrapperBuilder keepAliveTimeSeconds(long keepAliveTimeSeconds) {
+        this.keepAliveTimeSeconds = keepAliveTimeSeconds;
+        return this;
+    }
+
+    /**
+     * Sets how long a keepalive ping waits for its ack before the connection is closed, if positive.
+     */
+    public GrpcClientWrapperBuilder keepAliveTimeoutSeconds(long keepAliveTimeoutSeconds) {
+        this.keepAliveTimeoutSeconds = keepAliveTimeoutSeconds;
+        return this;
+    }
+
+    /**
+     * Pings connections without calls in flight too.
+     */
+    public GrpcClientWrapperBuilder keepAliveWithoutCalls(boolean keepAliveWithoutCalls) {
+        this.keepAliveWithoutCalls = keepAliveWithoutCalls;
+        return this;
+    }
+
+    /**
+     * Sets how long a channel without calls keeps its connections, if positive.
+     */
+    public GrpcClientWrapperBuilder idleTimeoutSeconds(long idleTimeoutSeconds) {
+        this.idleTimeoutSeconds = idleTimeoutSeconds;
+        return this;
+    }
+
+    /**
+     * Sets the initial HTTP/2 flow-control window of the channels in bytes, if
+     * positive. gRPC still tunes the window to the bandwidth-delay product from there.
+     */
+    public GrpcClientWrapperBuilder initialFlowControlWindow(int initialFlowControlWindow) {
+        this.initialFlowControlWindow = initialFlowControlWindow;
+        return this;
+    }
+
+    /**
+     * Sets the largest response message in bytes the channels accept, if positive.
+     */
+    public GrpcClientWrapperBuilder maxInboundMessageSize(int maxInboundMessageSize) {
+        this.maxInboundMessageSize = maxInboundMessageSize;
+        return this;
+    }
+
+    /**
+     * Sets the channel of the client instead of building one.
+     */
+    public GrpcClientWrapperBuilder channel(ManagedChannel channel) {
+        this.channel = channel;
+        return this;
+    }
+
+    /**
+     * Builds the channel pool to the target, with a subchannel per connection.
+     */
+    public ChannelPool buildChannel() {
         if (target == null || target.isEmpty()) {
             throw new IllegalArgumentException("Target cannot be null or empty");
         }
 
-        ManagedChannelBuilder<?> channelBuilder = ManagedChannelBuilder.forTarget(target);
+        int size = Math.max(poolSize, 1);
+        EventLoopGroup eventLoops = eventLoops();
+        List<ManagedChannel> channels = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            NettyChannelBuilder channelBuilder = NettyChannelBuilder.forTarget(target);
+
+            if (usePlaintext) {
+                channelBuilder.usePlaintext();
+            }
+
+            if (Objects.nonNull(eventLoops)) {
+                channelBuilder.eventLoopGroup(eventLoops).channelType(GrpcEventLoops.channelType(eventLoops));
+            }
+
+            if (directExecutor) {
+                channelBuilder.directExecutor();
+            } else if (Objects.nonNull(executor)) {
+                channelBuilder.executor(executor);
+            }
+
+            if (keepAliveTimeSeconds > 0) {
+                channelBuilder.keepAliveTime(keepAliveTimeSeconds, TimeUnit.SECONDS);
+            }
+
+            if (keepAliveTimeoutSeconds > 0) {
+                channelBuilder.keepAliveTimeout(keepAliveTimeoutSeconds, TimeUnit.SECONDS);
+            }
+
+            channelBuilder.keepAliveWithoutCalls(keepAliveWithoutCalls);
+
+            if (idleTimeoutSeconds > 0) {
+                channelBuilder.idleTimeout(idleTimeoutSeconds, TimeUnit.SECONDS);
+            }
 
-        if (usePlaintext) {
-            channelBuilder.usePlaintext();
+            if (initialFlowControlWindow > 0) {
+                channelBuilder.initialFlowControlWindow(initialFlowControlWindow);
+            }
+
+            if (maxInboundMessageSize > 0) {
+                channelBuilder.maxInboundMessageSize(maxInboundMessageSize);
+            }
+
+            channels.add(channelBuilder.build());
         }
+        log.info("Created gRPC channel pool of {} for target: {}", size, target);
+
+        return new ChannelPool(target, channels, poolSelection, Metrics.subchannelListener(metricEmitter),
+                dedicatedEventLoop ? eventLoops : null);
+    }
 
-        ManagedChannel channel = channelBuilder.build();
-        log.info("Created gRPC channel for target: {}", target);
+    /**
+     * Returns the event loops of the channels, or null for gRPC's default loops.
+     */
+    private EventLoopGroup eventLoops() {
+        boolean epoll = nativeTransport && GrpcEventLoops.isNativeAvailable();
+        if (nativeTransport && !epoll) {
+            log.warn("Native transport is not available for gRPC target {}, falling back to NIO", target);
+        }
+        if (dedicatedEventLoop) {
+            return GrpcEventLoops.dedicated(Objects.isNull(clientName) ? target : clientName, eventLoopThreads,
+                    epoll);
+        }
+        return epoll ? GrpcEventLoops.shared() : null;
+    }
 
-        return new GrpcClientWrapper(channel, timeoutSeconds);
+    public GrpcClientWrapper build() {
+        return new GrpcClientWrapper(Objects.isNull(channel) ? buildChannel() : channel, timeoutSeconds);
     }
 }
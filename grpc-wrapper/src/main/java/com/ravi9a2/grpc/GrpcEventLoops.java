@@ -0,0 +1,76 @@
+package com.ravi9a2.grpc;
+
+import io.grpc.netty.shaded.io.netty.channel.Channel;
+import io.grpc.netty.shaded.io.netty.channel.EventLoopGroup;
+import io.grpc.netty.shaded.io.netty.channel.epoll.Epoll;
+import io.grpc.netty.shaded.io.netty.channel.epoll.EpollEventLoopGroup;
+import io.grpc.netty.shaded.io.netty.channel.epoll.EpollSocketChannel;
+import io.grpc.netty.shaded.io.netty.channel.nio.NioEventLoopGroup;
+import io.grpc.netty.shaded.io.netty.channel.socket.nio.NioSocketChannel;
+import io.grpc.netty.shaded.io.netty.util.concurrent.DefaultThreadFactory;
+
+import java.util.Objects;
+
+/**
+ * The event loops the gRPC channels run on. Channels share one set of loops, so
+ * the number of event-loop threads does not grow with the number of downstreams
+ * or subchannels, and a latency-critical downstream can opt into loops of its own.
+ * <p>
+ * With native transport, the loops run on epoll, which gRPC bundles for Linux on
+ * x86_64 and aarch64. Channels without native transport or loops of their own run
+ * on the default NIO loops of gRPC, which are shared as well.
+ *
+ * @author raviprakash
+ */
+public final class GrpcEventLoops {
+
+    private static final String SHARED_PREFIX = "grpc-epoll";
+    private static volatile EventLoopGroup shared;
+
+    private GrpcEventLoops() {
+    }
+
+    /**
+     * Returns the epoll loops shared by all channels with native transport, with as
+     * many threads as netty gives its own default loops.
+     */
+    public static EventLoopGroup shared() {
+        EventLoopGroup loops = shared;
+        if (Objects.isNull(loops)) {
+            synchronized (GrpcEventLoops.class) {
+                loops = shared;
+                if (Objects.isNull(loops)) {
+                    loops = new EpollEventLoopGroup(0, new DefaultThreadFactory(SHARED_PREFIX, true));
+                    shared = loops;
+                }
+            }
+        }
+        return loops;
+    }
+
+    /**
+     * Creates loops for a single client, on epoll with native transport and on NIO
+     * otherwise, with the given number of threads, or with as many as netty's
+     * default loops when not positive.
+     */
+    public static EventLoopGroup dedicated(String clientName, int threads, boolean nativeTransport) {
+        DefaultThreadFactory threadFactory = new DefaultThreadFactory(clientName + "-grpc-loop", true);
+        int size = Math.max(threads, 0);
+        return nativeTransport ? new EpollEventLoopGroup(size, threadFactory)
+                : new NioEventLoopGroup(size, threadFactory);
+    }
+
+    /**
+     * Returns the type of the channels the given loops run.
+     */
+    public static Class<? extends Channel> channelType(EventLoopGroup loops) {
+        return loops instanceof EpollEventLoopGroup ? EpollSocketChannel.class : NioSocketChannel.class;
+    }
+
+    /**
+     * Returns whether epoll can be loaded on this platform.
+     */
+    public static boolean isNativeAvailable() {
+        return Epoll.isAvailable();
+    }
+}
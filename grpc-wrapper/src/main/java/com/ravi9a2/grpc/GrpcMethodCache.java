@@ -0,0 +1,117 @@
+package com.ravi9a2.grpc;
+
+import com.google.protobuf.Message;
+import com.ravi9a2.nca.data.RpcRequestSpec;
+import io.grpc.CallOptions;
+import io.grpc.MethodDescriptor;
+import org.springframework.util.Assert;
+
+import java.lang.reflect.InvocationTargetException;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * The gRPC methods a client has called, resolved once per fqPackageName,
+ * serviceName and methodName and held with the base CallOptions of their calls.
+ * <p>
+ * A method is resolved from the descriptor its generated call site passes along,
+ * or else by reflection on the {@code <serviceName>Grpc} class of the service,
+ * only the first time it is called.
+ *
+ * @author raviprakash
+ */
+class GrpcMethodCache {
+
+    private final ConcurrentMap<Key, ResolvedMethod> methods = new ConcurrentHashMap<>();
+    private final CallOptions baseCallOptions;
+
+    GrpcMethodCache(CallOptions baseCallOptions) {
+        this.baseCallOptions = baseCallOptions;
+    }
+
+    ResolvedMethod resolve(RpcRequestSpec requestSpec) {
+        Key key = new Key(requestSpec.getFqPackageName(), requestSpec.getServiceName(), requestSpec.getMethodName());
+        ResolvedMethod method = methods.get(key);
+        if (Objects.isNull(method)) {
+            method = methods.computeIfAbsent(key, k -> new ResolvedMethod(descriptor(k, requestSpec), baseCallOptions));
+        }
+        return method;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static MethodDescriptor<Message, Message> descriptor(Key key, RpcRequestSpec requestSpec) {
+        if (requestSpec.getMethodDescriptor() instanceof MethodDescriptor) {
+            return (MethodDescriptor<Message, Message>) requestSpec.getMethodDescriptor();
+        }
+        Assert.notNull(key.fqPackageName, "Fully qualified package name cannot be null");
+        Assert.notNull(key.serviceName, "Service name cannot be null");
+        Assert.notNull(key.methodName, "Method name cannot be null");
+        // Expected pattern: com.ravi9a2.example.proto.OrderServiceGrpc.getGetOrderMethod()
+        String grpcClassName = key.fqPackageName + "." + key.serviceName + "Grpc";
+        try {
+            Class<?> grpcClass = Class.forName(grpcClassName);
+            return (MethodDescriptor<Message, Message>) grpcClass.getMethod("get" + key.methodName + "Method")
+                    .invoke(null);
+        } catch (ClassNotFoundException | NoSuchMethodException | IllegalAccessException
+                 | InvocationTargetException e) {
+            throw new IllegalArgumentException("Cannot resolve gRPC method " + grpcClassName + "."
+                    + key.methodName, e);
+        }
+    }
+
+    /**
+     * A method descriptor with the call options its calls start from.
+     */
+    static final class ResolvedMethod {
+        private final MethodDescriptor<Message, Message> descriptor;
+        private final CallOptions callOptions;
+
+        private ResolvedMethod(MethodDescriptor<Message, Message> descriptor, CallOptions callOptions) {
+            this.descriptor = descriptor;
+            this.callOptions = callOptions;
+        }
+
+        MethodDescriptor<Message, Message> getDescriptor() {
+            return descriptor;
+        }
+
+        CallOptions getCallOptions() {
+            return callOptions;
+        }
+    }
+
+    private static final class Key {
+        private final String fqPackageName;
+        private final String serviceName;
+        private final String methodName;
+        private final int hash;
+
+        private Key(String fqPackageName, String serviceName, String methodName) {
+            this.fqPackageName = fqPackageName;
+            this.serviceName = serviceName;
+            this.methodName = methodName;
+            this.hash = 31 * (31 * Objects.hashCode(fqPackageName) + Objects.hashCode(serviceName))
+                    + Objects.hashCode(methodName);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key other = (Key) o;
+            return Objects.equals(fqPackageName, other.fqPackageName)
+                    && Objects.equals(serviceName, other.serviceName)
+                    && Objects.equals(methodName, other.methodName);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package com.ravi9a2.grpc;
+
+import com.ravi9a2.instrumentation.processor.MetricEmitter;
+
+import java.util.Objects;
+
+public class Metrics {
+
+    public static final String GRPC_SUBCHANNEL_IN_FLIGHT = "GRPC_SUBCHANNEL_IN_FLIGHT";
+
+    private Metrics() {}
+
+    /**
+     * Emits the calls in flight on every subchannel of a channel pool via the MetricEmitter.
+     */
+    public static ChannelPool.SubchannelListener subchannelListener(MetricEmitter metricEmitter) {
+        if (Objects.isNull(metricEmitter)) {
+            return null;
+        }
+        return subchannel -> metricEmitter.setGauge(GRPC_SUBCHANNEL_IN_FLIGHT, subchannel.getInFlight(),
+                subchannel.getTags());
+    }
+}
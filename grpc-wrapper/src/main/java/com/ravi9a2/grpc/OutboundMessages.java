@@ -0,0 +1,152 @@
+package com.ravi9a2.grpc;
+
+import com.google.protobuf.Message;
+import io.grpc.stub.ClientCallStreamObserver;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Writes the request messages of a client-streaming or bidirectional call as the
+ * call can take them.
+ * <p>
+ * Messages are requested from the request Publisher a batch at a time, and only
+ * while the call is ready, so a fast Publisher does not fill the outbound buffer
+ * of the call. Writing resumes from the onReady handler of the call. All the
+ * messages that arrived since the call was last written are written in one pass,
+ * which the transport flushes together instead of once per message.
+ * <p>
+ * Writes, the half-close and the cancel of the call are serialized by a drain loop,
+ * as the request side of a call is not thread-safe.
+ *
+ * @author raviprakash
+ */
+final class OutboundMessages implements Subscriber<Message> {
+
+    private final ClientCallStreamObserver<Message> requestStream;
+    private final int batchSize;
+    private final Queue<Message> queue = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger wip = new AtomicInteger();
+    private volatile Subscription subscription;
+    private volatile Throwable error;
+    private volatile boolean done;
+    private volatile boolean stopped;
+    private volatile boolean cancelled;
+    private boolean terminated;
+    private boolean callCancelled;
+    private long pending;
+
+    OutboundMessages(ClientCallStreamObserver<Message> requestStream, int batchSize) {
+        this.requestStream = requestStream;
+        this.batchSize = Math.max(batchSize, 1);
+    }
+
+    @Override
+    public void onSubscribe(Subscription s) {
+        if (Objects.nonNull(subscription)) {
+            s.cancel();
+            return;
+        }
+        subscription = s;
+        if (stopped || cancelled) {
+            s.cancel();
+            return;
+        }
+        drain();
+    }
+
+    @Override
+    public void onNext(Message message) {
+        queue.offer(message);
+        drain();
+    }
+
+    @Override
+    public void onError(Throwable t) {
+        error = t;
+        done = true;
+        drain();
+    }
+
+    @Override
+    public void onComplete() {
+        done = true;
+        drain();
+    }
+
+    /**
+     * Stops writing and cancels the request Publisher, as the server has ended the call.
+     */
+    void stop() {
+        stopped = true;
+        drain();
+    }
+
+    /**
+     * Stops writing, cancels the request Publisher and cancels the call.
+     */
+    void cancel() {
+        cancelled = true;
+        drain();
+    }
+
+    /**
+     * Writes what the call can take, and requests more messages when the queue runs low.
+     * Called on every signal of the Publisher and from the onReady handler of the call.
+     */
+    void drain() {
+        if (wip.getAndIncrement() != 0) {
+            return;
+        }
+        int missed = 1;
+        do {
+            drainOnce();
+            missed = wip.addAndGet(-missed);
+        } while (missed != 0);
+    }
+
+    private void drainOnce() {
+        if (stopped || cancelled) {
+            if (!terminated) {
+                terminated = true;
+                queue.clear();
+                if (Objects.nonNull(subscription)) {
+                    subscription.cancel();
+                }
+            }
+            if (cancelled && !callCancelled) {
+                callCancelled = true;
+                requestStream.cancel("Cancelled by subscriber", null);
+            }
+            return;
+        }
+        Subscription s = subscription;
+        if (terminated || Objects.isNull(s)) {
+            return;
+        }
+        int written = 0;
+        Message message;
+        while (requestStream.isReady() && Objects.nonNull(message = queue.poll())) {
+            requestStream.onNext(message);
+            written++;
+        }
+        pending -= written;
+        if (done && queue.isEmpty()) {
+            terminated = true;
+            if (Objects.nonNull(error)) {
+                requestStream.onError(error);
+            } else {
+                requestStream.onCompleted();
+            }
+            return;
+        }
+        if (!done && requestStream.isReady() && pending <= batchSize / 2) {
+            s.request(batchSize - pending);
+            pending = batchSize;
+        }
+    }
+}
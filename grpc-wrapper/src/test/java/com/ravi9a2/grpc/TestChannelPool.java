@@ -0,0 +1,174 @@
+package com.ravi9a2.grpc;
+
+import io.grpc.CallOptions;
+import io.grpc.ClientCall;
+import io.grpc.ManagedChannel;
+import io.grpc.Metadata;
+import io.grpc.MethodDescriptor;
+import io.grpc.Status;
+import io.grpc.inprocess.InProcessChannelBuilder;
+import io.grpc.netty.shaded.io.netty.channel.EventLoopGroup;
+import io.grpc.netty.shaded.io.netty.channel.nio.NioEventLoopGroup;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mockito;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+public class TestChannelPool {
+
+    MethodDescriptor<String, String> method;
+    List<ClientCall<String, String>> calls;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    public void init() {
+        MethodDescriptor.Marshaller<String> marshaller = Mockito.mock(MethodDescriptor.Marshaller.class);
+        method = MethodDescriptor.<String, String>newBuilder()
+                .setType(MethodDescriptor.MethodType.UNARY)
+                .setFullMethodName("test.Service/Call")
+                .setRequestMarshaller(marshaller)
+                .setResponseMarshaller(marshaller)
+                .build();
+        calls = new CopyOnWriteArrayList<>();
+    }
+
+    @Test
+    public void testNewCall_LeastLoadedSubchannel() {
+        ChannelPool pool = new ChannelPool("pool", mockChannels(3), ChannelPool.Selection.LEAST_LOADED, null);
+        start(pool);
+        ClientCall.Listener<String> second = start(pool);
+        start(pool);
+        Assertions.assertEquals(1, pool.getSubchannels().get(1).getInFlight());
+
+        second.onClose(Status.OK, new Metadata());
+        start(pool);
+
+        Assertions.assertEquals(1, pool.getSubchannels().get(0).getInFlight());
+        Assertions.assertEquals(1, pool.getSubchannels().get(1).getInFlight());
+        Assertions.assertEquals(1, pool.getSubchannels().get(2).getInFlight());
+        start(pool);
+        start(pool);
+        start(pool);
+        for (ChannelPool.Subchannel subchannel : pool.getSubchannels()) {
+            Assertions.assertEquals(2, subchannel.getInFlight());
+        }
+    }
+
+    @Test
+    public void testNewCall_RoundRobinIgnoresLoad() {
+        ChannelPool pool = new ChannelPool("pool", mockChannels(2), ChannelPool.Selection.ROUND_ROBIN, null);
+        ClientCall.Listener<String> first = start(pool);
+        start(pool);
+        first.onClose(Status.OK, new Metadata());
+
+        start(pool);
+        start(pool);
+
+        Assertions.assertEquals(1, pool.getSubchannels().get(0).getInFlight());
+        Assertions.assertEquals(2, pool.getSubchannels().get(1).getInFlight());
+    }
+
+    @Test
+    public void testNewCall_ClosedOnceReleasedOnce() {
+        List<Integer> published = new CopyOnWriteArrayList<>();
+        ChannelPool pool = new ChannelPool("pool", mockChannels(1), null,
+                subchannel -> published.add(subchannel.getInFlight()));
+
+        ClientCall.Listener<String> listener = start(pool);
+        listener.onClose(Status.CANCELLED, new Metadata());
+        listener.onClose(Status.CANCELLED, new Metadata());
+
+        Assertions.assertEquals(0, pool.getSubchannels().get(0).getInFlight());
+        Assertions.assertEquals(2, published.size());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testNewCall_FailedStartReleased() {
+        ChannelPool pool = new ChannelPool("pool", mockChannels(1), null, null);
+        ClientCall<String, String> call = pool.newCall(method, CallOptions.DEFAULT);
+        Mockito.doThrow(new IllegalStateException("failed")).when(calls.get(0))
+                .start(ArgumentMatchers.any(), ArgumentMatchers.any());
+
+        Assertions.assertThrows(IllegalStateException.class,
+                () -> call.start(Mockito.mock(ClientCall.Listener.class), new Metadata()));
+        Assertions.assertEquals(0, pool.getSubchannels().get(0).getInFlight());
+    }
+
+    @Test
+    public void testSelection_Of() {
+        Assertions.assertEquals(ChannelPool.Selection.LEAST_LOADED, ChannelPool.Selection.of(null));
+        Assertions.assertEquals(ChannelPool.Selection.LEAST_LOADED, ChannelPool.Selection.of(" "));
+        Assertions.assertEquals(ChannelPool.Selection.LEAST_LOADED, ChannelPool.Selection.of("least_loaded"));
+        Assertions.assertEquals(ChannelPool.Selection.ROUND_ROBIN, ChannelPool.Selection.of("Round-Robin"));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> ChannelPool.Selection.of("random"));
+    }
+
+    @Test
+    public void testShutdown_LastReferenceShutsSubchannelsDown() throws InterruptedException {
+        ChannelPool pool = new ChannelPool("pool", channels(2), null, null).retain();
+
+        pool.shutdown();
+        Assertions.assertFalse(pool.isShutdown());
+        pool.shutdownNow();
+        Assertions.assertFalse(pool.isShutdown());
+
+        pool.shutdown();
+        Assertions.assertTrue(pool.isShutdown());
+        Assertions.assertTrue(pool.awaitTermination(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void testShutdown_OwnedEventLoopsShutDownWithLastReference() throws InterruptedException {
+        EventLoopGroup eventLoops = new NioEventLoopGroup(1);
+        ChannelPool pool = new ChannelPool("pool", channels(2), null, null, eventLoops).retain();
+
+        pool.shutdown();
+        Assertions.assertFalse(eventLoops.isShuttingDown());
+
+        pool.shutdown();
+        Assertions.assertTrue(eventLoops.terminationFuture().await(10, TimeUnit.SECONDS));
+        Assertions.assertTrue(pool.isTerminated());
+    }
+
+    /**
+     * Starts a call on the pool and returns the listener its subchannel call was started with.
+     */
+    @SuppressWarnings("unchecked")
+    private ClientCall.Listener<String> start(ChannelPool pool) {
+        pool.newCall(method, CallOptions.DEFAULT).start(Mockito.mock(ClientCall.Listener.class), new Metadata());
+        ArgumentCaptor<ClientCall.Listener<String>> listener = ArgumentCaptor.forClass(ClientCall.Listener.class);
+        Mockito.verify(calls.get(calls.size() - 1)).start(listener.capture(), ArgumentMatchers.any());
+        return listener.getValue();
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<ManagedChannel> mockChannels(int n) {
+        List<ManagedChannel> channels = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            ManagedChannel channel = Mockito.mock(ManagedChannel.class);
+            Mockito.when(channel.newCall(ArgumentMatchers.any(), ArgumentMatchers.any())).thenAnswer(invocation -> {
+                ClientCall<String, String> call = Mockito.mock(ClientCall.class);
+                calls.add(call);
+                return call;
+            });
+            channels.add(channel);
+        }
+        return channels;
+    }
+
+    private static List<ManagedChannel> channels(int n) {
+        List<ManagedChannel> channels = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            channels.add(InProcessChannelBuilder.forName("pool-" + i).directExecutor().build());
+        }
+        return channels;
+    }
+}
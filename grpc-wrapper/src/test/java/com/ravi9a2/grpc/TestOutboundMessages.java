@@ -0,0 +1,188 @@
+package com.ravi9a2.grpc;
+
+import com.google.protobuf.Message;
+import com.google.protobuf.StringValue;
+import io.grpc.stub.ClientCallStreamObserver;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentMatchers;
+import org.mockito.InOrder;
+import org.mockito.Mockito;
+import org.reactivestreams.Subscription;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class TestOutboundMessages {
+
+    ClientCallStreamObserver<Message> requestStream;
+    Subscription subscription;
+    OutboundMessages messages;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    public void init() {
+        requestStream = Mockito.mock(ClientCallStreamObserver.class);
+        subscription = Mockito.mock(Subscription.class);
+        Mockito.when(requestStream.isReady()).thenReturn(true);
+        messages = new OutboundMessages(requestStream, 4);
+    }
+
+    @Test
+    public void testOnSubscribe_RequestsBatch() {
+        messages.onSubscribe(subscription);
+
+        Mockito.verify(subscription).request(4);
+    }
+
+    @Test
+    public void testOnSubscribe_NothingRequestedWhileNotReady() {
+        Mockito.when(requestStream.isReady()).thenReturn(false);
+
+        messages.onSubscribe(subscription);
+
+        Mockito.verify(subscription, Mockito.never()).request(ArgumentMatchers.anyLong());
+    }
+
+    @Test
+    public void testOnNext_RequestsMoreWhenHalfWritten() {
+        messages.onSubscribe(subscription);
+        messages.onNext(message("a"));
+        Mockito.verify(subscription, Mockito.never()).request(2);
+
+        messages.onNext(message("b"));
+
+        Mockito.verify(requestStream).onNext(message("a"));
+        Mockito.verify(requestStream).onNext(message("b"));
+        Mockito.verify(subscription).request(2);
+    }
+
+    @Test
+    public void testDrain_WritesQueuedMessagesOnceReady() {
+        messages.onSubscribe(subscription);
+        Mockito.when(requestStream.isReady()).thenReturn(false);
+        messages.onNext(message("a"));
+        messages.onNext(message("b"));
+        Mockito.verify(requestStream, Mockito.never()).onNext(ArgumentMatchers.any());
+
+        Mockito.when(requestStream.isReady()).thenReturn(true);
+        messages.drain();
+
+        InOrder inOrder = Mockito.inOrder(requestStream);
+        inOrder.verify(requestStream).onNext(message("a"));
+        inOrder.verify(requestStream).onNext(message("b"));
+    }
+
+    @Test
+    public void testOnComplete_HalfClosesAfterQueuedMessages() {
+        messages.onSubscribe(subscription);
+        Mockito.when(requestStream.isReady()).thenReturn(false);
+        messages.onNext(message("a"));
+        messages.onComplete();
+        Mockito.verify(requestStream, Mockito.never()).onCompleted();
+
+        Mockito.when(requestStream.isReady()).thenReturn(true);
+        messages.drain();
+        messages.drain();
+
+        InOrder inOrder = Mockito.inOrder(requestStream);
+        inOrder.verify(requestStream).onNext(message("a"));
+        inOrder.verify(requestStream).onCompleted();
+        Mockito.verify(requestStream, Mockito.times(1)).onCompleted();
+    }
+
+    @Test
+    public void testOnError_FailsRequestStream() {
+        IllegalStateException failure = new IllegalStateException("failed");
+        messages.onSubscribe(subscription);
+
+        messages.onError(failure);
+
+        Mockito.verify(requestStream).onError(failure);
+        Mockito.verify(requestStream, Mockito.never()).onCompleted();
+    }
+
+    @Test
+    public void testCancel_CancelsPublisherAndCall() {
+        messages.onSubscribe(subscription);
+        Mockito.when(requestStream.isReady()).thenReturn(false);
+        messages.onNext(message("a"));
+
+        messages.cancel();
+        messages.cancel();
+        Mockito.when(requestStream.isReady()).thenReturn(true);
+        messages.drain();
+
+        Mockito.verify(subscription, Mockito.times(1)).cancel();
+        Mockito.verify(requestStream, Mockito.times(1)).cancel(ArgumentMatchers.anyString(), ArgumentMatchers.any());
+        Mockito.verify(requestStream, Mockito.never()).onNext(ArgumentMatchers.any());
+    }
+
+    @Test
+    public void testStop_CancelsPublisherOnly() {
+        messages.onSubscribe(subscription);
+
+        messages.stop();
+        messages.onNext(message("a"));
+        messages.onComplete();
+
+        Mockito.verify(subscription).cancel();
+        Mockito.verify(requestStream, Mockito.never()).cancel(ArgumentMatchers.any(), ArgumentMatchers.any());
+        Mockito.verify(requestStream, Mockito.never()).onNext(ArgumentMatchers.any());
+        Mockito.verify(requestStream, Mockito.never()).onCompleted();
+    }
+
+    @Test
+    public void testOnSubscribe_AfterStopCancelled() {
+        messages.stop();
+
+        messages.onSubscribe(subscription);
+
+        Mockito.verify(subscription).cancel();
+        Mockito.verify(subscription, Mockito.never()).request(ArgumentMatchers.anyLong());
+    }
+
+    @Test
+    public void testOnSubscribe_SecondSubscriptionCancelled() {
+        Subscription second = Mockito.mock(Subscription.class);
+        messages.onSubscribe(subscription);
+
+        messages.onSubscribe(second);
+
+        Mockito.verify(second).cancel();
+        Mockito.verify(subscription, Mockito.never()).cancel();
+    }
+
+    @Test
+    public void testDrain_ConcurrentSignalsWriteEveryMessageOnce() throws InterruptedException {
+        AtomicInteger written = new AtomicInteger();
+        Mockito.doAnswer(invocation -> written.incrementAndGet()).when(requestStream).onNext(ArgumentMatchers.any());
+        messages = new OutboundMessages(requestStream, 1000);
+        messages.onSubscribe(subscription);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        CountDownLatch done = new CountDownLatch(4);
+        for (int t = 0; t < 4; t++) {
+            executor.execute(() -> {
+                for (int i = 0; i < 250; i++) {
+                    messages.onNext(message("m"));
+                    messages.drain();
+                }
+                done.countDown();
+            });
+        }
+
+        Assertions.assertTrue(done.await(10, TimeUnit.SECONDS));
+        executor.shutdown();
+        messages.onComplete();
+        Assertions.assertEquals(1000, written.get());
+        Mockito.verify(requestStream).onCompleted();
+    }
+
+    private static Message message(String value) {
+        return StringValue.of(value);
+    }
+}
@@ -1,8 +1,14 @@
 package com.ravi9a2.httpclient.wrapper;
 
+import com.ravi9a2.instrumentation.processor.MetricEmitter;
 import com.ravi9a2.nca.NonReactiveClient;
 import com.ravi9a2.nca.NonReactiveClientRegistry;
+import com.ravi9a2.nca.codec.Codecs;
+import com.ravi9a2.nca.data.CacheConfig;
+import com.ravi9a2.nca.data.Http2Config;
+import com.ravi9a2.nca.data.OutlierDetection;
 import org.apache.http.client.HttpClient;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.context.annotation.Bean;
@@ -16,6 +22,9 @@ public class ClientConfigBeanLoader {
 
     private static final String DEFAULT = "default";
 
+    @Autowired(required = false)
+    MetricEmitter metricEmitter;
+
     @Bean("clientConfigs")
     @ConfigurationProperties(prefix = "downstream")
     public Map<String, Map<String, String>> webClientConfigs() {
@@ -36,17 +45,58 @@ public class ClientConfigBeanLoader {
         return new HttpClientWrapperBuilder()
                 .clientName(name)
                 .baseUrl(c.get("baseUrl"))
+                .baseUrls(baseUrls(c.get("baseUrls")))
+                .outlierDetection(outlierDetection(c, d))
+                .cacheConfig(cacheConfig(c, d))
+                .http2Config(http2Config(c, d))
+                .metricEmitter(metricEmitter)
                 .writeTimeout(Integer.parseInt(getValue(c, d, "writeTimeout", "10000")))
                 .readTimeout(Integer.parseInt(getValue(c, d, "readTimeout", "10000")))
                 .maxConnections(Integer.parseInt(getValue(c, d, "maxConnections", "100")))
                 .connectTimeout(Integer.parseInt(getValue(c, d, "connectTimeout", "10000")))
                 .socketTimeout(Integer.parseInt(getValue(c, d, "socketTimeout", "0")))
                 .defaultMaxPerRoute(Integer.parseInt(getValue(c,d,"defaultMaxPerRoute", "2")))
+                .codec(getValue(c, d, "codec", Codecs.JSON))
+                .asyncEngine(Boolean.parseBoolean(getValue(c, d, "asyncEngine", "false")))
+                .ioThreads(Integer.parseInt(getValue(c, d, "ioThreads", "0")))
                 .header(c.get("authKey"), c.get("authSecret"))
                 .header(c.get("secondAuthKey"), c.get("secondAuthSecret"))
                 .build();
     }
 
+    private List<String> baseUrls(String baseUrls) {
+        if (Objects.isNull(baseUrls) || baseUrls.trim().isEmpty()) {
+            return null;
+        }
+        return Arrays.stream(baseUrls.split(",")).map(String::trim).filter(u -> !u.isEmpty())
+                .collect(Collectors.toList());
+    }
+
+    private OutlierDetection outlierDetection(Map<String, String> c, Map<String, String> d) {
+        return OutlierDetection.builder()
+                .consecutiveFailures(Integer.parseInt(getValue(c, d, "outlierConsecutiveFailures", "5")))
+                .baseEjectionTime(Long.parseLong(getValue(c, d, "outlierBaseEjectionTime", "30000")))
+                .maxEjectionTime(Long.parseLong(getValue(c, d, "outlierMaxEjectionTime", "300000")))
+                .maxEjectionPercent(Integer.parseInt(getValue(c, d, "outlierMaxEjectionPercent", "50")))
+                .build();
+    }
+
+    private CacheConfig cacheConfig(Map<String, String> c, Map<String, String> d) {
+        return CacheConfig.builder()
+                .enabled(Boolean.parseBoolean(getValue(c, d, "cacheEnabled", "false")))
+                .maxBytes(Long.parseLong(getValue(c, d, "cacheMaxBytes", "16777216")))
+                .negativeTtl(Long.parseLong(getValue(c, d, "cacheNegativeTtl", "5000")))
+                .build();
+    }
+
+    private Http2Config http2Config(Map<String, String> c, Map<String, String> d) {
+        return Http2Config.builder()
+                .protocol(getValue(c, d, "protocol", "http1.1"))
+                .maxConcurrentStreams(Long.parseLong(getValue(c, d, "http2MaxConcurrentStreams", "100")))
+                .initialWindowSize(Integer.parseInt(getValue(c, d, "http2InitialWindowSize", "65535")))
+                .build();
+    }
+
     private String getValue(Map<String, String> c, Map<String, String> d, String k, String v) {
         if (Objects.isNull(d))
             d = Collections.emptyMap();
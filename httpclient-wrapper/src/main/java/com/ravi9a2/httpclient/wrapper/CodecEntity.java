@@ -0,0 +1,51 @@
+package com.ravi9a2.httpclient.wrapper;
+
+import com.ravi9a2.nca.codec.Codec;
+import org.apache.http.entity.AbstractHttpEntity;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+/**
+ * Request entity encoding its body with the codec straight into the connection,
+ * without buffering it first. Sent chunked as its length is not known up front.
+ */
+public class CodecEntity extends AbstractHttpEntity {
+
+    private final Object body;
+    private final Codec codec;
+
+    public CodecEntity(Object body, Codec codec) {
+        this.body = body;
+        this.codec = codec;
+        setContentType(codec.mediaType());
+        setChunked(true);
+    }
+
+    @Override
+    public boolean isRepeatable() {
+        return true;
+    }
+
+    @Override
+    public long getContentLength() {
+        return -1;
+    }
+
+    @Override
+    public InputStream getContent() throws IOException {
+        return new ByteArrayInputStream(codec.encode(body));
+    }
+
+    @Override
+    public void writeTo(OutputStream out) throws IOException {
+        codec.encode(body, out);
+    }
+
+    @Override
+    public boolean isStreaming() {
+        return false;
+    }
+}
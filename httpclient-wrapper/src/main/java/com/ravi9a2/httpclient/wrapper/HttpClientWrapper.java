@@ -1,30 +1,70 @@
 package com.ravi9a2.httpclient.wrapper;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
 import com.ravi9a2.nca.NonReactiveClient;
+import com.ravi9a2.nca.cache.CachedResponse;
+import com.ravi9a2.nca.cache.ResponseCache;
+import com.ravi9a2.nca.codec.Codec;
+import com.ravi9a2.nca.codec.Codecs;
+import com.ravi9a2.nca.data.Deadline;
+import com.ravi9a2.nca.data.RequestTemplate;
 import com.ravi9a2.nca.data.RestRequestSpec;
 import com.ravi9a2.nca.exceptions.NetworkClientException;
-import org.apache.commons.text.StringSubstitutor;
+import com.ravi9a2.nca.lb.Endpoint;
+import com.ravi9a2.nca.lb.EndpointBalancer;
+import com.ravi9a2.nca.transfer.Download;
+import com.ravi9a2.nca.transfer.DownloadSink;
+import com.ravi9a2.nca.transfer.FileBody;
 import org.apache.http.Header;
+import org.apache.http.HttpEntity;
+import org.apache.http.HttpHeaders;
 import org.apache.http.HttpResponse;
 import org.apache.http.HttpStatus;
 import org.apache.http.client.HttpClient;
 import org.apache.http.client.HttpResponseException;
+import org.apache.http.client.config.RequestConfig;
 import org.apache.http.client.methods.*;
-import org.apache.http.entity.StringEntity;
+import org.apache.http.concurrent.FutureCallback;
+import org.apache.http.cookie.SM;
+import org.apache.http.entity.ContentType;
+import org.apache.http.entity.FileEntity;
+import org.apache.http.impl.nio.client.CloseableHttpAsyncClient;
 import org.apache.http.message.BasicHeader;
+import org.apache.http.nio.entity.NByteArrayEntity;
+import org.apache.http.nio.entity.NFileEntity;
 import org.apache.http.util.EntityUtils;
 import org.springframework.util.CollectionUtils;
 
-import java.nio.charset.StandardCharsets;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Function;
 
 public class HttpClientWrapper implements NonReactiveClient<HttpClient> {
 
     protected HttpClient httpClient;
+    protected CloseableHttpAsyncClient asyncClient;
     protected String baseUrl;
+    protected EndpointBalancer balancer;
+    protected ResponseCache responseCache;
+    protected Executor revalidationExecutor;
+    protected RequestConfig requestConfig = RequestConfig.DEFAULT;
+    protected Codec codec = Codecs.json();
     protected Map<String, String> headersMap;
+    private Header[] defaultHeaders = new Header[0];
+
+    private static final int DOWNLOAD_BUFFER_SIZE = 64 * 1024;
 
     public HttpClientWrapper(HttpClient httpClient) {
         this.httpClient = httpClient;
@@ -38,6 +78,7 @@ public class HttpClientWrapper implements NonReactiveClient<HttpClient> {
         if (Objects.nonNull(map)) {
             this.headersMap.putAll(map);
         }
+        this.defaultHeaders = toHeaders(this.headersMap);
         return this;
     }
 
@@ -46,40 +87,88 @@ public class HttpClientWrapper implements NonReactiveClient<HttpClient> {
         return this;
     }
 
+    /**
+     * Sets the balancer picking the base url of every call when the client has
+     * more than one endpoint. Takes precedence over the base url.
+     */
+    public HttpClientWrapper balancer(EndpointBalancer balancer) {
+        this.balancer = balancer;
+        return this;
+    }
+
+    /**
+     * Sets the cache answering GET calls, and the executor revalidating its stale
+     * responses in the background.
+     */
+    public HttpClientWrapper responseCache(ResponseCache responseCache, Executor revalidationExecutor) {
+        this.responseCache = responseCache;
+        this.revalidationExecutor = revalidationExecutor;
+        return this;
+    }
+
+    /**
+     * Sets the request config the HttpClient was built with, which the deadline
+     * of a request caps.
+     */
+    public HttpClientWrapper requestConfig(RequestConfig requestConfig) {
+        this.requestConfig = requestConfig;
+        return this;
+    }
+
+    /**
+     * Sets the non-blocking client making the calls of callAsync. It must be
+     * started, and must not fail responses from its interceptors.
+     */
+    public HttpClientWrapper asyncClient(CloseableHttpAsyncClient asyncClient) {
+        this.asyncClient = asyncClient;
+        return this;
+    }
+
+    /**
+     * Sets the codec encoding the bodies of the calls and decoding the responses
+     * without a Content-Type the registry knows. Calls may override it.
+     */
+    public HttpClientWrapper codec(Codec codec) {
+        this.codec = codec;
+        return this;
+    }
+
     @Override
     public <R> R post(RestRequestSpec requestSpec) {
-        String url = constructPathParam(requestSpec.getUrl(), requestSpec.getPathParams());
-        final StringEntity stringEntity = new StringEntity(JsonUtil.toString(requestSpec.getBody()), StandardCharsets.UTF_8);
-        final HttpPost httpPost = new HttpPost(baseUrl + url);
-        httpPost.setEntity(stringEntity);
+        String url = constructPathParam(requestSpec);
+        Endpoint endpoint = pickEndpoint();
+        final HttpPost httpPost = new HttpPost(resolve(endpoint, url));
+        httpPost.setEntity(entity(requestSpec));
         httpPost.setHeaders(constructHeaders(requestSpec.getHeaders()));
-        return makeRequestAndParseResponse(httpPost, requestSpec);
+        return makeRequestAndParseResponse(httpPost, requestSpec, endpoint);
     }
 
     @Override
     public <R> R put(RestRequestSpec requestSpec) {
-        String url = constructPathParam(requestSpec.getUrl(), requestSpec.getPathParams());
-        final StringEntity stringEntity = new StringEntity(JsonUtil.toString(requestSpec.getBody()), StandardCharsets.UTF_8);
-        final HttpPut httpPut = new HttpPut(baseUrl + url);
-        httpPut.setEntity(stringEntity);
+        String url = constructPathParam(requestSpec);
+        Endpoint endpoint = pickEndpoint();
+        final HttpPut httpPut = new HttpPut(resolve(endpoint, url));
+        httpPut.setEntity(entity(requestSpec));
         httpPut.setHeaders(constructHeaders(requestSpec.getHeaders()));
-        return makeRequestAndParseResponse(httpPut, requestSpec);
+        return makeRequestAndParseResponse(httpPut, requestSpec, endpoint);
     }
 
     @Override
     public <R> R get(RestRequestSpec requestSpec) {
-        String url = constructPathParam(requestSpec.getUrl(), requestSpec.getPathParams());
-        HttpGet httpGet = new HttpGet(baseUrl + url);
+        String url = constructPathParam(requestSpec);
+        Endpoint endpoint = pickEndpoint();
+        HttpGet httpGet = new HttpGet(resolve(endpoint, url));
         httpGet.setHeaders(constructHeaders(requestSpec.getHeaders()));
-        return makeRequestAndParseResponse(httpGet, requestSpec);
+        return makeRequestAndParseResponse(httpGet, requestSpec, endpoint);
     }
 
     @Override
     public <R> R delete(RestRequestSpec requestSpec) {
-        String url = constructPathParam(requestSpec.getUrl(), requestSpec.getPathParams());
-        final HttpDelete httpDelete = new HttpDelete(baseUrl + url);
+        String url = constructPathParam(requestSpec);
+        Endpoint endpoint = pickEndpoint();
+        final HttpDelete httpDelete = new HttpDelete(resolve(endpoint, url));
         httpDelete.setHeaders(constructHeaders(requestSpec.getHeaders()));
-        return makeRequestAndParseResponse(httpDelete, requestSpec);
+        return makeRequestAndParseResponse(httpDelete, requestSpec, endpoint);
     }
 
     @Override
@@ -108,25 +197,428 @@ public class HttpClientWrapper implements NonReactiveClient<HttpClient> {
         }
     }
 
+    @Override
+    public boolean isAsync() {
+        return Objects.nonNull(asyncClient);
+    }
+
+    /**
+     * Makes the call on the non-blocking client. The response is buffered and
+     * decoded on the I/O thread that read it, and GET calls go through the
+     * response cache like blocking ones. Cancelling the future aborts the call.
+     */
+    @Override
+    public <R> CompletableFuture<R> callAsync(RestRequestSpec requestSpec) {
+        if (Objects.isNull(asyncClient)) {
+            return NonReactiveClient.super.callAsync(requestSpec);
+        }
+        Codec requestCodec = codecOf(requestSpec);
+        RequestBuilder builder;
+        try {
+            builder = asyncRequestBuilder(requestSpec, requestCodec);
+        } catch (RuntimeException e) {
+            return failedFuture(e);
+        }
+        Endpoint endpoint = pickEndpoint();
+        HttpUriRequest request = builder.setUri(resolve(endpoint, constructPathParam(requestSpec))).build();
+        request.setHeaders(constructHeaders(requestSpec.getHeaders()));
+        if (!request.containsHeader(HttpHeaders.ACCEPT)) {
+            request.setHeader(HttpHeaders.ACCEPT, Codecs.accept(requestCodec));
+        }
+        try {
+            applyDeadline(request, requestSpec.getDeadline(), endpoint);
+        } catch (RuntimeException e) {
+            return failedFuture(e);
+        }
+        AsyncReader<R> reader = response -> decode(response, requestSpec, requestCodec);
+        if (Objects.isNull(responseCache) || !HttpGet.METHOD_NAME.equals(request.getMethod())) {
+            return executeAsync(request, requestSpec.getUrl(), endpoint, reader);
+        }
+        String key = cacheKey(request);
+        long now = System.currentTimeMillis();
+        CachedResponse cached = lookup(request, key, now);
+        RawResponse hit = fromCache(request, requestSpec.getUrl(), endpoint, key, cached, now);
+        if (Objects.isNull(hit)) {
+            return executeAsync(request, requestSpec.getUrl(), endpoint,
+                    response -> reader.read(store(request, key, cached, response)));
+        }
+        try {
+            return CompletableFuture.completedFuture(reader.read(hit));
+        } catch (IOException e) {
+            return failedFuture(new NetworkClientException(e));
+        }
+    }
+
+    /**
+     * Streams the response body from the connection to the target file through
+     * a DownloadSink. The call bypasses the response cache.
+     */
+    @Override
+    public Download download(RestRequestSpec requestSpec, Path target, int inMemoryThreshold) {
+        String url = constructPathParam(requestSpec);
+        Endpoint endpoint = pickEndpoint();
+        String method = Objects.isNull(requestSpec.getHttpMethod()) ? HttpGet.METHOD_NAME : requestSpec.getHttpMethod();
+        RequestBuilder builder = RequestBuilder.create(method).setUri(resolve(endpoint, url));
+        if (Objects.nonNull(requestSpec.getBody())) {
+            builder.setEntity(entity(requestSpec));
+        }
+        HttpUriRequest request = builder.build();
+        request.setHeaders(constructHeaders(requestSpec.getHeaders()));
+        if (!request.containsHeader(HttpHeaders.ACCEPT)) {
+            request.setHeader(HttpHeaders.ACCEPT, "*/*");
+        }
+        applyDeadline(request, requestSpec.getDeadline(), endpoint);
+        return execute(request, requestSpec.getUrl(), endpoint, (status, response) -> {
+            HttpEntity entity = response.getEntity();
+            String contentType = Objects.isNull(entity) || Objects.isNull(entity.getContentType())
+                    ? null : entity.getContentType().getValue();
+            try (DownloadSink sink = new DownloadSink(target, inMemoryThreshold)) {
+                if (Objects.nonNull(entity)) {
+                    try (InputStream in = entity.getContent()) {
+                        byte[] buffer = new byte[DOWNLOAD_BUFFER_SIZE];
+                        int read;
+                        while ((read = in.read(buffer)) != -1) {
+                            sink.write(buffer, 0, read);
+                        }
+                    }
+                }
+                return sink.finish(status, contentType);
+            }
+        });
+    }
+
     private <R> R makeRequestAndParseResponse(HttpUriRequest httpRequest,
-                                              RestRequestSpec requestSpec) {
-        String responseStr = makeRequest(httpRequest, requestSpec.getUrl());
-        return JsonUtil.parseResponse(responseStr, requestSpec.getType());
+                                              RestRequestSpec requestSpec, Endpoint endpoint) {
+        applyDeadline(httpRequest, requestSpec.getDeadline(), endpoint);
+        Codec requestCodec = codecOf(requestSpec);
+        if (!httpRequest.containsHeader(HttpHeaders.ACCEPT)) {
+            httpRequest.setHeader(HttpHeaders.ACCEPT, Codecs.accept(requestCodec));
+        }
+        if (Objects.nonNull(responseCache) && HttpGet.METHOD_NAME.equals(httpRequest.getMethod())) {
+            RawResponse response = makeCachedRequest(httpRequest, requestSpec.getUrl(), endpoint);
+            try {
+                return decode(response, requestSpec, requestCodec);
+            } catch (IOException e) {
+                throw new NetworkClientException(e);
+            }
+        }
+        // decoded straight from the connection, without buffering the body
+        return execute(httpRequest, requestSpec.getUrl(), endpoint, (status, response) -> {
+            HttpEntity entity = response.getEntity();
+            if (Objects.isNull(entity)) {
+                return null;
+            }
+            String contentType = Objects.isNull(entity.getContentType()) ? null : entity.getContentType().getValue();
+            return Codecs.forContentType(contentType, requestCodec).decode(entity.getContent(), requestSpec.getType());
+        });
+    }
+
+    private static <R> R decode(RawResponse response, RestRequestSpec requestSpec, Codec requestCodec)
+            throws IOException {
+        if (Objects.isNull(response.body)) {
+            return null;
+        }
+        return Codecs.forContentType(contentType(response.headers), requestCodec)
+                .decode(response.body, requestSpec.getType());
+    }
+
+    /**
+     * Starts the request of a non-blocking call. The body is encoded up front, or
+     * sent from its file, so the I/O threads never wait on it.
+     */
+    private static RequestBuilder asyncRequestBuilder(RestRequestSpec requestSpec, Codec requestCodec) {
+        String method = requestSpec.getHttpMethod();
+        if (HttpGet.METHOD_NAME.equals(method) || HttpDelete.METHOD_NAME.equals(method)) {
+            return RequestBuilder.create(method);
+        }
+        if (!HttpPost.METHOD_NAME.equals(method) && !HttpPut.METHOD_NAME.equals(method)) {
+            throw new IllegalArgumentException("Invalid http method.");
+        }
+        if (requestSpec.getBody() instanceof FileBody) {
+            FileBody file = (FileBody) requestSpec.getBody();
+            return RequestBuilder.create(method)
+                    .setEntity(new NFileEntity(file.getPath().toFile(), ContentType.parse(file.getContentType())));
+        }
+        try {
+            return RequestBuilder.create(method).setEntity(new NByteArrayEntity(
+                    requestCodec.encode(requestSpec.getBody()), ContentType.parse(requestCodec.mediaType())));
+        } catch (IOException e) {
+            throw new NetworkClientException(e);
+        }
+    }
+
+    /**
+     * Returns the request entity of the body: a FileBody is streamed from its
+     * file, anything else is encoded with the codec of the call.
+     */
+    private HttpEntity entity(RestRequestSpec requestSpec) {
+        if (requestSpec.getBody() instanceof FileBody) {
+            FileBody file = (FileBody) requestSpec.getBody();
+            return new FileEntity(file.getPath().toFile(), ContentType.parse(file.getContentType()));
+        }
+        return new CodecEntity(requestSpec.getBody(), codecOf(requestSpec));
+    }
+
+    private Codec codecOf(RestRequestSpec requestSpec) {
+        return Objects.isNull(requestSpec.getCodec()) ? codec : requestSpec.getCodec();
+    }
+
+    /**
+     * Caps the timeouts of the request with what is left of its deadline, or fails
+     * it without sending it if the deadline has passed. The socket timeout bounds
+     * each read rather than the whole response, so a slowly trickling response
+     * can still overrun the deadline.
+     */
+    private void applyDeadline(HttpUriRequest request, Deadline deadline, Endpoint endpoint) {
+        if (Objects.isNull(deadline) || !(request instanceof HttpRequestBase)) {
+            return;
+        }
+        if (deadline.isExpired()) {
+            cancelEndpoint(endpoint);
+            throw deadline.exceeded();
+        }
+        ((HttpRequestBase) request).setConfig(RequestConfig.copy(requestConfig)
+                .setConnectTimeout((int) deadline.cap(requestConfig.getConnectTimeout()))
+                .setConnectionRequestTimeout((int) deadline.cap(requestConfig.getConnectionRequestTimeout()))
+                .setSocketTimeout((int) deadline.cap(requestConfig.getSocketTimeout()))
+                .build());
+    }
+
+    /**
+     * Answers a GET call from the response cache when it holds a fresh response,
+     * otherwise makes the call, conditionally if the cached response has
+     * validators, and stores its response. A response within its
+     * stale-while-revalidate window is served and revalidated in the background.
+     */
+    private RawResponse makeCachedRequest(HttpUriRequest request, String urlTemplate, Endpoint endpoint) {
+        String key = cacheKey(request);
+        long now = System.currentTimeMillis();
+        CachedResponse cached = lookup(request, key, now);
+        RawResponse hit = fromCache(request, urlTemplate, endpoint, key, cached, now);
+        return Objects.nonNull(hit) ? hit : exchangeAndStore(request, urlTemplate, endpoint, key, cached);
+    }
+
+    private static String cacheKey(HttpUriRequest request) {
+        return ResponseCache.key(request.getMethod(), pathAndQuery(request.getURI()),
+                header(request, HttpHeaders.AUTHORIZATION), header(request, SM.COOKIE));
+    }
+
+    private CachedResponse lookup(HttpUriRequest request, String key, long now) {
+        Function<String, String> requestHeader = name -> header(request, name);
+        return ResponseCache.isLookupAllowed(requestHeader) ? responseCache.lookup(key, requestHeader, now) : null;
+    }
+
+    /**
+     * Returns the cached response if it can be served, revalidating it in the
+     * background when it is within its stale-while-revalidate window. Otherwise
+     * sets its validators on the request, if any, and returns null.
+     */
+    private RawResponse fromCache(HttpUriRequest request, String urlTemplate, Endpoint endpoint, String key,
+                                  CachedResponse cached, long now) {
+        if (Objects.isNull(cached)) {
+            return null;
+        }
+        switch (cached.freshness(now)) {
+            case FRESH:
+                cancelEndpoint(endpoint);
+                return new RawResponse(cached.getStatus(), cached.getHeaders(), cached.getBody());
+            case STALE_WHILE_REVALIDATE:
+                cancelEndpoint(endpoint);
+                revalidateInBackground(request, urlTemplate, key, cached);
+                return new RawResponse(cached.getStatus(), cached.getHeaders(), cached.getBody());
+            default:
+                setValidators(request, cached);
+                return null;
+        }
+    }
+
+    private RawResponse exchangeAndStore(HttpUriRequest request, String urlTemplate, Endpoint endpoint,
+                                         String key, CachedResponse cached) {
+        return store(request, key, cached, makeRequest(request, urlTemplate, endpoint));
+    }
+
+    private RawResponse store(HttpUriRequest request, String key, CachedResponse cached, RawResponse response) {
+        Function<String, String> requestHeader = name -> header(request, name);
+        if (Objects.nonNull(cached) && response.status == HttpStatus.SC_NOT_MODIFIED) {
+            CachedResponse refreshed = responseCache.revalidated(key, cached, response.headers, requestHeader,
+                    System.currentTimeMillis());
+            return new RawResponse(refreshed.getStatus(), refreshed.getHeaders(), refreshed.getBody());
+        }
+        if (Objects.nonNull(response.body)) {
+            responseCache.store(key, response.status, response.headers, response.body, requestHeader,
+                    System.currentTimeMillis());
+        }
+        return response;
     }
 
-    private String makeRequest(HttpUriRequest request, String urlTemplate) {
+    private void revalidateInBackground(HttpUriRequest request, String urlTemplate, String key, CachedResponse cached) {
+        if (!responseCache.startRevalidation(key)) {
+            return;
+        }
+        // sent to the endpoint of the original call, outside of load balancing
+        HttpGet revalidation = new HttpGet(request.getURI());
+        revalidation.setHeaders(request.getAllHeaders());
+        setValidators(revalidation, cached);
         try {
-            HttpResponse httpResponse = httpClient.execute(request);
-            emitResponseMetrics(request.getRequestLine().getMethod(), urlTemplate,
-                    Objects.nonNull(httpResponse.getStatusLine()) ? httpResponse.getStatusLine().getStatusCode() : HttpStatus.SC_INTERNAL_SERVER_ERROR);
-            return EntityUtils.toString(httpResponse.getEntity());
+            revalidationExecutor.execute(() -> {
+                try {
+                    exchangeAndStore(revalidation, urlTemplate, null, key, cached);
+                } catch (RuntimeException e) {
+                    // the stale response stays cached until it can be revalidated
+                } finally {
+                    responseCache.endRevalidation(key);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            responseCache.endRevalidation(key);
+        }
+    }
+
+    private RawResponse makeRequest(HttpUriRequest request, String urlTemplate, Endpoint endpoint) {
+        return execute(request, urlTemplate, endpoint, (status, response) -> {
+            byte[] body = status == HttpStatus.SC_NOT_MODIFIED && Objects.isNull(response.getEntity())
+                    ? null : EntityUtils.toByteArray(response.getEntity());
+            return new RawResponse(status, toMap(response.getAllHeaders()), body);
+        });
+    }
+
+    /**
+     * Sends the request and hands the response to the reader, releasing the
+     * connection once it is read.
+     */
+    private <T> T execute(HttpUriRequest request, String urlTemplate, Endpoint endpoint,
+                          ResponseReader<T> reader) {
+        long start = System.nanoTime();
+        HttpResponse httpResponse;
+        try {
+            httpResponse = httpClient.execute(request);
         } catch (HttpResponseException hre) {
             emitResponseMetrics(request.getRequestLine().getMethod(), urlTemplate, hre.getStatusCode());
+            releaseEndpoint(endpoint, start, hre.getStatusCode() >= HttpStatus.SC_INTERNAL_SERVER_ERROR);
             throw new NetworkClientException(hre);
         } catch (Exception e) {
             emitResponseMetrics(request.getRequestLine().getMethod(), urlTemplate, HttpStatus.SC_INTERNAL_SERVER_ERROR);
+            releaseEndpoint(endpoint, start, true);
             throw new NetworkClientException(e);
         }
+        int statusCode = Objects.nonNull(httpResponse.getStatusLine()) ? httpResponse.getStatusLine().getStatusCode() : HttpStatus.SC_INTERNAL_SERVER_ERROR;
+        emitResponseMetrics(request.getRequestLine().getMethod(), urlTemplate, statusCode);
+        try {
+            T result = reader.read(statusCode, httpResponse);
+            releaseEndpoint(endpoint, start, statusCode >= HttpStatus.SC_INTERNAL_SERVER_ERROR);
+            return result;
+        } catch (JsonProcessingException e) {
+            // the endpoint answered, only its body did not decode
+            releaseEndpoint(endpoint, start, statusCode >= HttpStatus.SC_INTERNAL_SERVER_ERROR);
+            throw new NetworkClientException(e);
+        } catch (IOException e) {
+            releaseEndpoint(endpoint, start, true);
+            throw new NetworkClientException(e);
+        } catch (RuntimeException e) {
+            releaseEndpoint(endpoint, start, statusCode >= HttpStatus.SC_INTERNAL_SERVER_ERROR);
+            throw e;
+        } finally {
+            EntityUtils.consumeQuietly(httpResponse.getEntity());
+        }
+    }
+
+    /**
+     * Sends the request on the non-blocking client and completes the future with
+     * what the reader makes of the buffered response, on the I/O thread that read
+     * it. 4XX and 5XX responses fail the future like they fail blocking calls.
+     * Cancelling the future aborts the request.
+     */
+    private <T> CompletableFuture<T> executeAsync(HttpUriRequest request, String urlTemplate, Endpoint endpoint,
+                                                  AsyncReader<T> reader) {
+        long start = System.nanoTime();
+        String method = request.getRequestLine().getMethod();
+        CompletableFuture<T> promise = new CompletableFuture<>();
+        Future<HttpResponse> call;
+        try {
+            call = asyncClient.execute(request, new FutureCallback<HttpResponse>() {
+                @Override
+                public void completed(HttpResponse response) {
+                    int statusCode = Objects.nonNull(response.getStatusLine()) ? response.getStatusLine().getStatusCode() : HttpStatus.SC_INTERNAL_SERVER_ERROR;
+                    emitResponseMetrics(method, urlTemplate, statusCode);
+                    releaseEndpoint(endpoint, start, statusCode >= HttpStatus.SC_INTERNAL_SERVER_ERROR);
+                    try {
+                        OutBoundInterceptor.check(request.getRequestLine().getUri(), statusCode);
+                    } catch (NetworkClientException e) {
+                        promise.completeExceptionally(new NetworkClientException(e));
+                        return;
+                    }
+                    try {
+                        byte[] body = Objects.isNull(response.getEntity()) ? null : EntityUtils.toByteArray(response.getEntity());
+                        promise.complete(reader.read(new RawResponse(statusCode, toMap(response.getAllHeaders()), body)));
+                    } catch (IOException e) {
+                        promise.completeExceptionally(new NetworkClientException(e));
+                    } catch (RuntimeException e) {
+                        promise.completeExceptionally(e);
+                    }
+                }
+
+                @Override
+                public void failed(Exception e) {
+                    emitResponseMetrics(method, urlTemplate, HttpStatus.SC_INTERNAL_SERVER_ERROR);
+                    releaseEndpoint(endpoint, start, true);
+                    promise.completeExceptionally(new NetworkClientException(e));
+                }
+
+                @Override
+                public void cancelled() {
+                    cancelEndpoint(endpoint);
+                    promise.cancel(false);
+                }
+            });
+        } catch (RuntimeException e) {
+            emitResponseMetrics(method, urlTemplate, HttpStatus.SC_INTERNAL_SERVER_ERROR);
+            releaseEndpoint(endpoint, start, true);
+            promise.completeExceptionally(new NetworkClientException(e));
+            return promise;
+        }
+        promise.whenComplete((r, th) -> {
+            if (promise.isCancelled()) {
+                call.cancel(true);
+            }
+        });
+        return promise;
+    }
+
+    private static <T> CompletableFuture<T> failedFuture(Throwable th) {
+        CompletableFuture<T> failed = new CompletableFuture<>();
+        failed.completeExceptionally(th);
+        return failed;
+    }
+
+    private Endpoint pickEndpoint() {
+        return Objects.isNull(balancer) ? null : balancer.pick();
+    }
+
+    private void cancelEndpoint(Endpoint endpoint) {
+        if (Objects.nonNull(endpoint)) {
+            balancer.onCancel(endpoint);
+        }
+    }
+
+    private String resolve(Endpoint endpoint, String url) {
+        if (Objects.isNull(endpoint)) {
+            return baseUrl + url;
+        }
+        if (url.isEmpty() || url.charAt(0) == '/' || url.charAt(0) == '?') {
+            return endpoint.getUrl() + url;
+        }
+        return endpoint.getUrl() + "/" + url;
+    }
+
+    private void releaseEndpoint(Endpoint endpoint, long start, boolean failed) {
+        if (Objects.isNull(endpoint)) {
+            return;
+        }
+        if (failed) {
+            balancer.onFailure(endpoint, System.nanoTime() - start, true);
+        } else {
+            balancer.onSuccess(endpoint, System.nanoTime() - start);
+        }
     }
 
     private void emitResponseMetrics(String method, String urlTemplate, int statusCode) {
@@ -135,28 +627,66 @@ public class HttpClientWrapper implements NonReactiveClient<HttpClient> {
                 "statusSeries=" + statusCode / 100);
     }
 
-    private static String constructPathParam(String templateUrl, Map<String, String> pathParams) {
-        if (Objects.isNull(pathParams) || pathParams.isEmpty()) {
-            return templateUrl;
+    private static void setValidators(HttpUriRequest request, CachedResponse cached) {
+        if (Objects.nonNull(cached.getEtag())) {
+            request.setHeader(HttpHeaders.IF_NONE_MATCH, cached.getEtag());
+        }
+        if (Objects.nonNull(cached.getLastModified())) {
+            request.setHeader(HttpHeaders.IF_MODIFIED_SINCE, cached.getLastModified());
+        }
+    }
+
+    private static String header(HttpUriRequest request, String name) {
+        Header header = request.getFirstHeader(name);
+        return Objects.isNull(header) ? null : header.getValue();
+    }
+
+    private static String contentType(Map<String, List<String>> headers) {
+        List<String> values = headers.get(HttpHeaders.CONTENT_TYPE);
+        return CollectionUtils.isEmpty(values) ? null : values.get(0);
+    }
+
+    private static String pathAndQuery(URI uri) {
+        String path = uri.getRawPath();
+        String query = uri.getRawQuery();
+        return Objects.isNull(query) ? path : path + '?' + query;
+    }
+
+    private static Map<String, List<String>> toMap(Header[] headers) {
+        Map<String, List<String>> map = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+        for (Header header : headers) {
+            map.computeIfAbsent(header.getName(), k -> new ArrayList<>(1)).add(header.getValue());
         }
-        StringSubstitutor rootQuery = new StringSubstitutor(pathParams);
-        return rootQuery.replace(templateUrl);
+        return map;
+    }
+
+    private static String constructPathParam(RestRequestSpec requestSpec) {
+        RequestTemplate template = requestSpec.getTemplate();
+        if (!template.hasVariables() || CollectionUtils.isEmpty(requestSpec.getPathParams())) {
+            return requestSpec.getUrl();
+        }
+        return template.expand(template.bind(requestSpec.getPathParams(), null));
     }
 
     private Header[] constructHeaders(Map<String, String> headers) {
-        int headerSize = getMapSize(this.headersMap) + getMapSize(headers);
-        if (headerSize == 0) return null;
-        Header[] heads = new Header[headerSize];
-        int i = 0;
-        if (getMapSize(this.headersMap) > 0) {
-            for (final String headerKey : this.headersMap.keySet()) {
-                heads[i++] = new BasicHeader(headerKey, this.headersMap.get(headerKey));
-            }
+        int callHeaderSize = getMapSize(headers);
+        if (callHeaderSize == 0) {
+            return defaultHeaders.length == 0 ? null : defaultHeaders;
         }
-        if (getMapSize(headers) > 0) {
-            for (final String headerKey : headers.keySet()) {
-                heads[i++] = new BasicHeader(headerKey, headers.get(headerKey));
-            }
+        Header[] heads = new Header[defaultHeaders.length + callHeaderSize];
+        System.arraycopy(defaultHeaders, 0, heads, 0, defaultHeaders.length);
+        int i = defaultHeaders.length;
+        for (final Map.Entry<String, String> header : headers.entrySet()) {
+            heads[i++] = new BasicHeader(header.getKey(), header.getValue());
+        }
+        return heads;
+    }
+
+    private static Header[] toHeaders(Map<String, String> headers) {
+        Header[] heads = new Header[headers.size()];
+        int i = 0;
+        for (final Map.Entry<String, String> header : headers.entrySet()) {
+            heads[i++] = new BasicHeader(header.getKey(), header.getValue());
         }
         return heads;
     }
@@ -165,4 +695,25 @@ public class HttpClientWrapper implements NonReactiveClient<HttpClient> {
         return !CollectionUtils.isEmpty(headersMap) ? headersMap.size() :  0;
     }
 
+    @FunctionalInterface
+    private interface ResponseReader<T> {
+        T read(int status, HttpResponse response) throws IOException;
+    }
+
+    @FunctionalInterface
+    private interface AsyncReader<T> {
+        T read(RawResponse response) throws IOException;
+    }
+
+    private static final class RawResponse {
+        private final int status;
+        private final Map<String, List<String>> headers;
+        private final byte[] body;
+
+        private RawResponse(int status, Map<String, List<String>> headers, byte[] body) {
+            this.status = status;
+            this.headers = headers;
+            this.body = body;
+        }
+    }
 }
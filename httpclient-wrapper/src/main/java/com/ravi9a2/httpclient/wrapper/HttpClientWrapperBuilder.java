@@ -1,7 +1,15 @@
 package com.ravi9a2.httpclient.wrapper;
 
+import com.ravi9a2.instrumentation.processor.MetricEmitter;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import com.ravi9a2.nca.ClientBuilder;
+import com.ravi9a2.nca.cache.ResponseCache;
+import com.ravi9a2.nca.codec.Codecs;
+import com.ravi9a2.nca.data.CacheConfig;
 import com.ravi9a2.nca.data.ClientConfig;
+import com.ravi9a2.nca.data.Http2Config;
+import com.ravi9a2.nca.data.OutlierDetection;
+import com.ravi9a2.nca.lb.EndpointBalancer;
 import org.apache.http.client.HttpClient;
 import org.apache.http.client.config.RequestConfig;
 import org.apache.http.config.Registry;
@@ -11,20 +19,36 @@ import org.apache.http.conn.socket.PlainConnectionSocketFactory;
 import org.apache.http.conn.ssl.SSLConnectionSocketFactory;
 import org.apache.http.impl.client.HttpClientBuilder;
 import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.apache.http.impl.nio.client.CloseableHttpAsyncClient;
+import org.apache.http.impl.nio.client.HttpAsyncClients;
+import org.apache.http.impl.nio.reactor.IOReactorConfig;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.context.annotation.Configuration;
 
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 
 @Configuration
 public class HttpClientWrapperBuilder implements ClientBuilder<HttpClientWrapper> {
 
     public static final String HTTP = "http";
     public static final String HTTPS = "https";
+    private static final int REVALIDATION_QUEUE_CAPACITY = 1024;
+    private static final Logger logger = LoggerFactory.getLogger(HttpClientWrapperBuilder.class);
 
     protected String clientName;
     protected String baseUrl;
+    protected List<String> baseUrls;
+    protected OutlierDetection outlierDetection;
+    protected CacheConfig cacheConfig;
+    protected Http2Config http2Config;
+    protected MetricEmitter metricEmitter;
     protected int maxConnections;
     protected int defaultMaxPerRoute;
     protected int connectTimeout;
@@ -32,6 +56,9 @@ public class HttpClientWrapperBuilder implements ClientBuilder<HttpClientWrapper
     protected long writeTimeout;
     protected long socketTimeout;
     protected Map<String, String> headers;
+    protected String codec;
+    protected boolean asyncEngine;
+    protected int ioThreads;
 
     public HttpClientWrapperBuilder clientName(String clientName) {
         this.clientName = clientName;
@@ -43,6 +70,43 @@ public class HttpClientWrapperBuilder implements ClientBuilder<HttpClientWrapper
         return this;
     }
 
+    /**
+     * Sets the endpoints to balance calls across. With more than one endpoint,
+     * every call picks its base url with the power of two choices.
+     */
+    public HttpClientWrapperBuilder baseUrls(List<String> baseUrls) {
+        this.baseUrls = baseUrls;
+        return this;
+    }
+
+    public HttpClientWrapperBuilder outlierDetection(OutlierDetection outlierDetection) {
+        this.outlierDetection = outlierDetection;
+        return this;
+    }
+
+    /**
+     * Sets the response cache of the client's GET calls. Caching is off unless
+     * the config is enabled.
+     */
+    public HttpClientWrapperBuilder cacheConfig(CacheConfig cacheConfig) {
+        this.cacheConfig = cacheConfig;
+        return this;
+    }
+
+    /**
+     * Sets the HTTP protocol of the client. The Apache client speaks HTTP/1.1
+     * only, so h2 and h2c fall back to its pool of HTTP/1.1 connections.
+     */
+    public HttpClientWrapperBuilder http2Config(Http2Config http2Config) {
+        this.http2Config = http2Config;
+        return this;
+    }
+
+    public HttpClientWrapperBuilder metricEmitter(MetricEmitter metricEmitter) {
+        this.metricEmitter = metricEmitter;
+        return this;
+    }
+
     public HttpClientWrapperBuilder maxConnections(int maxConnections) {
         this.maxConnections = maxConnections;
         return this;
@@ -94,6 +158,33 @@ public class HttpClientWrapperBuilder implements ClientBuilder<HttpClientWrapper
         return this;
     }
 
+    /**
+     * Sets the name of the codec of the client's bodies, JSON when not set.
+     */
+    public HttpClientWrapperBuilder codec(String codec) {
+        this.codec = codec;
+        return this;
+    }
+
+    /**
+     * Adds a non-blocking engine to the client, on which executors make their
+     * async calls without holding a thread for the round-trip. Its connections
+     * are pooled apart from those of the blocking client, with the same limits.
+     */
+    public HttpClientWrapperBuilder asyncEngine(boolean asyncEngine) {
+        this.asyncEngine = asyncEngine;
+        return this;
+    }
+
+    /**
+     * Sets the number of I/O threads of the non-blocking engine, one per core
+     * when not set.
+     */
+    public HttpClientWrapperBuilder ioThreads(int ioThreads) {
+        this.ioThreads = ioThreads;
+        return this;
+    }
+
     @Override
     public HttpClientWrapper build() {
         return constructHttpClientWrapper();
@@ -103,17 +194,26 @@ public class HttpClientWrapperBuilder implements ClientBuilder<HttpClientWrapper
     public HttpClientWrapper build(ClientConfig cc) {
         this.clientName = cc.getClientName();
         this.baseUrl = cc.getBaseUrl();
+        this.baseUrls = cc.getBaseUrls();
+        this.outlierDetection = cc.getOutlierDetection();
+        this.cacheConfig = cc.getCacheConfig();
+        this.http2Config = cc.getHttp2Config();
         this.maxConnections = cc.getTimeouts().getMaxConnections();
         this.defaultMaxPerRoute = cc.getTimeouts().getDefaultMaxPerRoute();
         this.connectTimeout = cc.getTimeouts().getConnectTimeout();
         this.socketTimeout = cc.getTimeouts().getSocketTimeout();
         this.readTimeout = cc.getTimeouts().getReadTimeout();
+        this.codec = cc.getCodec();
         setSpecialHeaders(cc.getAuthentication().getAuthKey(), cc.getAuthentication().getAuthSecret());
         setSpecialHeaders(cc.getAuthentication().getSecondAuthKey(), cc.getAuthentication().getSecondAuthSecret());
         return constructHttpClientWrapper();
     }
 
     private HttpClientWrapper constructHttpClientWrapper() {
+        if (Objects.nonNull(this.http2Config) && this.http2Config.isEnabled()) {
+            logger.warn("Client {} falls back from {} to HTTP/1.1 with up to {} connections per route",
+                    this.clientName, this.http2Config.getProtocol(), this.defaultMaxPerRoute);
+        }
         Registry<ConnectionSocketFactory> socketFactoryRegistry = RegistryBuilder.<ConnectionSocketFactory>create()
                 .register(HTTP, PlainConnectionSocketFactory.getSocketFactory())
                 .register(HTTPS, SSLConnectionSocketFactory.getSocketFactory()).build();
@@ -130,9 +230,58 @@ public class HttpClientWrapperBuilder implements ClientBuilder<HttpClientWrapper
                 .setConnectionManager(pooledConnectionManager)
                 .addInterceptorLast(new OutBoundInterceptor())
                 .build();
-        return new HttpClientWrapper(httpClient)
+        HttpClientWrapper wrapper = new HttpClientWrapper(httpClient)
                 .headers(this.headers)
-                .baseUrl(this.baseUrl);
+                .requestConfig(requestConfig)
+                .codec(Codecs.get(this.codec));
+        if (this.asyncEngine) {
+            wrapper.asyncClient(asyncClient(requestConfig));
+        }
+        if (Objects.nonNull(this.cacheConfig) && this.cacheConfig.isEnabled()) {
+            wrapper.responseCache(new ResponseCache(this.clientName, this.cacheConfig,
+                    Metrics.cacheListener(this.metricEmitter)), revalidationExecutor());
+        }
+        if (Objects.isNull(this.baseUrls) || this.baseUrls.isEmpty()) {
+            return wrapper.baseUrl(this.baseUrl);
+        }
+        if (this.baseUrls.size() == 1) {
+            return wrapper.baseUrl(this.baseUrls.get(0));
+        }
+        return wrapper.balancer(new EndpointBalancer(this.clientName, this.baseUrls, this.outlierDetection,
+                Metrics.endpointListener(this.metricEmitter)));
+    }
+
+    /**
+     * Builds and starts the non-blocking client. Responses are checked by the
+     * wrapper rather than by the OutBoundInterceptor, as an exception thrown
+     * from an interceptor would stop the I/O reactor.
+     */
+    private CloseableHttpAsyncClient asyncClient(RequestConfig requestConfig) {
+        CloseableHttpAsyncClient asyncClient = HttpAsyncClients.custom()
+                .setDefaultIOReactorConfig(IOReactorConfig.custom()
+                        .setIoThreadCount(this.ioThreads > 0 ? this.ioThreads : Runtime.getRuntime().availableProcessors())
+                        .setConnectTimeout(this.connectTimeout)
+                        .setSoTimeout((int) this.socketTimeout)
+                        .build())
+                .setDefaultRequestConfig(requestConfig)
+                .setMaxConnTotal(this.maxConnections)
+                .setMaxConnPerRoute(this.defaultMaxPerRoute)
+                .setThreadFactory(new ThreadFactoryBuilder().setDaemon(true).setNameFormat(this.clientName + "-io-reactor-%d").build())
+                .build();
+        asyncClient.start();
+        return asyncClient;
+    }
+
+    /**
+     * A single daemon thread revalidating the stale responses of the cache in the
+     * background. Revalidations that do not fit into its queue are dropped.
+     */
+    private ThreadPoolExecutor revalidationExecutor() {
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(1, 1, 60, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(REVALIDATION_QUEUE_CAPACITY),
+                new ThreadFactoryBuilder().setDaemon(true).setNameFormat(this.clientName + "-cache-revalidation-%d").build());
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
     }
 
     private void setSpecialHeaders(String key, String value) {
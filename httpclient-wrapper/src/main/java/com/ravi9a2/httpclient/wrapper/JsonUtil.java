@@ -1,42 +1,66 @@
 package com.ravi9a2.httpclient.wrapper;
 
 
-import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ravi9a2.nca.codec.Codec;
+import com.ravi9a2.nca.codec.Codecs;
 import com.ravi9a2.nca.exceptions.NetworkClientException;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.lang.reflect.Type;
+import java.nio.charset.StandardCharsets;
 
+/**
+ * Reads and writes JSON with the registered JSON codec, so parameterized types
+ * like {@code List<User>} are decoded as such.
+ */
 public class JsonUtil {
 
     private JsonUtil() {
     }
 
-    private static final ObjectMapper mapper = new ObjectMapper();
+    private static final Codec codec = Codecs.json();
 
-    public static <T> T parseResponse(String str, Type type) {
-        if (type instanceof Class) {
-            Class<?> clazz = (Class<?>) type;
-            return (T) parseResponse(str, clazz);
-        } else {
-            return null;
-        }
+    /**
+     * Decodes the stream as the given type without buffering it into a String.
+     *
+     * @throws IOException if reading the stream fails
+     */
+    public static <T> T parseResponse(InputStream in, Type type) throws IOException {
+        return codec.decode(in, type);
     }
 
-    public static <T> T parseResponse(String str, Class<T> type) {
+    public static <T> T parseResponse(byte[] bytes, Type type) {
         try {
-            return mapper.readValue(str, type);
-        } catch (JsonProcessingException e) {
+            return codec.decode(bytes, type);
+        } catch (IOException e) {
             throw new NetworkClientException(e);
         }
     }
 
+    public static <T> T parseResponse(String str, Type type) {
+        return parseResponse(str.getBytes(StandardCharsets.UTF_8), type);
+    }
+
+    public static <T> T parseResponse(String str, Class<T> type) {
+        return parseResponse(str, (Type) type);
+    }
+
     public static <T> String toString(T object) {
         try {
-            return mapper.writeValueAsString(object);
-        } catch (JsonProcessingException e) {
+            return new String(codec.encode(object), StandardCharsets.UTF_8);
+        } catch (IOException e) {
             throw new NetworkClientException(e);
         }
     }
 
+    /**
+     * Encodes the object straight into the stream. The stream is not closed.
+     *
+     * @throws IOException if writing to the stream fails
+     */
+    public static void write(Object object, OutputStream out) throws IOException {
+        codec.encode(object, out);
+    }
 }
@@ -1,9 +1,89 @@
 package com.ravi9a2.httpclient.wrapper;
 
+import com.ravi9a2.instrumentation.processor.MetricEmitter;
+import com.ravi9a2.nca.cache.CacheListener;
+import com.ravi9a2.nca.lb.EndpointListener;
+
+import java.util.Objects;
+
 public class Metrics {
 
+    public static final String LB_ENDPOINT_IN_FLIGHT = "LB_ENDPOINT_IN_FLIGHT";
+    public static final String LB_ENDPOINT_EWMA_LATENCY = "LB_ENDPOINT_EWMA_LATENCY";
+    public static final String LB_ENDPOINT_EJECTED = "LB_ENDPOINT_EJECTED";
+    public static final String LB_ENDPOINT_READMITTED = "LB_ENDPOINT_READMITTED";
+    public static final String HTTP_CACHE_HIT = "HTTP_CACHE_HIT";
+    public static final String HTTP_CACHE_STALE_HIT = "HTTP_CACHE_STALE_HIT";
+    public static final String HTTP_CACHE_MISS = "HTTP_CACHE_MISS";
+    public static final String HTTP_CACHE_REVALIDATED = "HTTP_CACHE_REVALIDATED";
+    public static final String HTTP_CACHE_EVICTED = "HTTP_CACHE_EVICTED";
+    public static final String HTTP_CACHE_SERVED_BYTES = "HTTP_CACHE_SERVED_BYTES";
+    public static final String HTTP_CACHE_SIZE_BYTES = "HTTP_CACHE_SIZE_BYTES";
+
     private Metrics() {}
 
     public static void increment(String key, String tags) {
     }
+
+    /**
+     * Emits the per-endpoint stats of a load balanced client via the MetricEmitter.
+     */
+    public static EndpointListener endpointListener(MetricEmitter metricEmitter) {
+        if (Objects.isNull(metricEmitter)) {
+            return null;
+        }
+        return (event, endpoint) -> {
+            switch (event) {
+                case COMPLETED:
+                    metricEmitter.setGauge(LB_ENDPOINT_IN_FLIGHT, endpoint.getInFlight(), endpoint.getTags());
+                    metricEmitter.setGauge(LB_ENDPOINT_EWMA_LATENCY, endpoint.getEwmaLatency(), endpoint.getTags());
+                    break;
+                case EJECTED:
+                    metricEmitter.incrementCounter(LB_ENDPOINT_EJECTED, endpoint.getTags());
+                    break;
+                case READMITTED:
+                    metricEmitter.incrementCounter(LB_ENDPOINT_READMITTED, endpoint.getTags());
+                    break;
+                default:
+                    break;
+            }
+        };
+    }
+
+    /**
+     * Emits the hit, miss and byte stats of a client's response cache via the MetricEmitter.
+     */
+    public static CacheListener cacheListener(MetricEmitter metricEmitter) {
+        if (Objects.isNull(metricEmitter)) {
+            return null;
+        }
+        return (event, cache, bytes) -> {
+            switch (event) {
+                case HIT:
+                    metricEmitter.incrementCounter(HTTP_CACHE_HIT, cache.getTags());
+                    metricEmitter.incrementCounter(HTTP_CACHE_SERVED_BYTES, bytes, cache.getTags());
+                    break;
+                case STALE_HIT:
+                    metricEmitter.incrementCounter(HTTP_CACHE_STALE_HIT, cache.getTags());
+                    metricEmitter.incrementCounter(HTTP_CACHE_SERVED_BYTES, bytes, cache.getTags());
+                    break;
+                case MISS:
+                    metricEmitter.incrementCounter(HTTP_CACHE_MISS, cache.getTags());
+                    break;
+                case REVALIDATED:
+                    metricEmitter.incrementCounter(HTTP_CACHE_REVALIDATED, cache.getTags());
+                    metricEmitter.incrementCounter(HTTP_CACHE_SERVED_BYTES, bytes, cache.getTags());
+                    break;
+                case STORED:
+                    metricEmitter.setGauge(HTTP_CACHE_SIZE_BYTES, cache.getWeightedBytes(), cache.getTags());
+                    break;
+                case EVICTED:
+                    metricEmitter.incrementCounter(HTTP_CACHE_EVICTED, cache.getTags());
+                    metricEmitter.setGauge(HTTP_CACHE_SIZE_BYTES, cache.getWeightedBytes(), cache.getTags());
+                    break;
+                default:
+                    break;
+            }
+        };
+    }
 }
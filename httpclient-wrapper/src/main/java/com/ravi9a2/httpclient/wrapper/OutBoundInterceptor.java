@@ -20,20 +20,27 @@ public class OutBoundInterceptor implements HttpResponseInterceptor {
 //        Metrics.increment("HTTP_STATUS", "uri=" + requestUri + "," +
 //                "method=" + request.getRequestLine().getMethod() + ",statusCode=" + statusCode + "," +
 //                "statusSeries=" + statusCode / 100);
+        check(requestUri, statusCode);
+    }
+
+    /**
+     * Fails a 4XX or 5XX response of the request uri, for the non-blocking client
+     * which must not throw from its interceptors.
+     */
+    static void check(String requestUri, int statusCode) {
         if (is4XX(statusCode)) {
             throw new Status4XXException(requestUri + " returned " + statusCode, statusCode);
         }
         else if(is5XX(statusCode)) {
             throw new Status5XXException(requestUri + " returned " + statusCode, statusCode);
         }
-
     }
 
-    private boolean is5XX(int statusCode) {
+    private static boolean is5XX(int statusCode) {
         return 499 < statusCode && statusCode < 600;
     }
 
-    private boolean is4XX(int statusCode) {
+    private static boolean is4XX(int statusCode) {
         return 399 < statusCode && statusCode < 500;
     }
 }
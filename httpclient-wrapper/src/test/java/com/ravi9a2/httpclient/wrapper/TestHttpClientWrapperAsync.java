@@ -0,0 +1,202 @@
+package com.ravi9a2.httpclient.wrapper;
+
+import com.ravi9a2.nca.cache.ResponseCache;
+import com.ravi9a2.nca.data.CacheConfig;
+import com.ravi9a2.nca.data.Deadline;
+import com.ravi9a2.nca.data.RestRequestSpec;
+import com.ravi9a2.nca.exceptions.NetworkClientException;
+import com.ravi9a2.nca.exceptions.Status4XXException;
+import com.ravi9a2.nca.exceptions.Status5XXException;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.apache.http.impl.client.HttpClients;
+import org.apache.http.impl.nio.client.CloseableHttpAsyncClient;
+import org.apache.http.impl.nio.client.HttpAsyncClients;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Calls a local server through the non-blocking engine of the wrapper.
+ */
+public class TestHttpClientWrapperAsync {
+
+    HttpServer server;
+    ExecutorService serverThreads;
+    CloseableHttpAsyncClient asyncClient;
+    HttpClientWrapper wrapper;
+    List<String> received;
+    CountDownLatch slowReleased;
+
+    @BeforeEach
+    public void init() throws IOException {
+        received = new CopyOnWriteArrayList<>();
+        slowReleased = new CountDownLatch(1);
+        serverThreads = Executors.newCachedThreadPool();
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.setExecutor(serverThreads);
+        server.createContext("/", this::handle);
+        server.start();
+        asyncClient = HttpAsyncClients.custom().setMaxConnPerRoute(1).setMaxConnTotal(1).build();
+        asyncClient.start();
+        wrapper = new HttpClientWrapper(HttpClients.createDefault())
+                .baseUrl("http://127.0.0.1:" + server.getAddress().getPort())
+                .asyncClient(asyncClient);
+    }
+
+    @AfterEach
+    public void destroy() throws IOException {
+        slowReleased.countDown();
+        asyncClient.close();
+        server.stop(0);
+        serverThreads.shutdownNow();
+    }
+
+    @Test
+    public void testCallAsync_DecodesResponse() throws Exception {
+        Map<String, Object> user = wrapper.<Map<String, Object>>callAsync(get("/users/1").build())
+                .get(5, TimeUnit.SECONDS);
+
+        Assertions.assertTrue(wrapper.isAsync());
+        Assertions.assertEquals("ravi", user.get("name"));
+        Assertions.assertEquals(Collections.singletonList("GET /users/1 application/json"), received);
+    }
+
+    @Test
+    public void testCallAsync_PostsEncodedBody() throws Exception {
+        Map<String, Object> echoed = wrapper.<Map<String, Object>>callAsync(RestRequestSpec.builder()
+                .httpMethod("POST")
+                .url("/echo")
+                .body(Collections.singletonMap("name", "ravi"))
+                .type(Map.class)
+                .build()).get(5, TimeUnit.SECONDS);
+
+        Assertions.assertEquals("ravi", echoed.get("name"));
+    }
+
+    @Test
+    public void testCallAsync_ErrorStatusesFailTheFuture() {
+        ExecutionException notFound = Assertions.assertThrows(ExecutionException.class,
+                () -> wrapper.callAsync(get("/status/404").build()).get(5, TimeUnit.SECONDS));
+        ExecutionException unavailable = Assertions.assertThrows(ExecutionException.class,
+                () -> wrapper.callAsync(get("/status/503").build()).get(5, TimeUnit.SECONDS));
+
+        Assertions.assertTrue(notFound.getCause() instanceof NetworkClientException);
+        Assertions.assertTrue(notFound.getCause().getCause() instanceof Status4XXException);
+        Assertions.assertTrue(unavailable.getCause().getCause() instanceof Status5XXException);
+    }
+
+    @Test
+    public void testCallAsync_ExpiredDeadlineNotSent() {
+        CompletableFuture<Object> call = wrapper.callAsync(get("/users/1").deadline(Deadline.after(-1)).build());
+
+        Assertions.assertTrue(call.isCompletedExceptionally());
+        Assertions.assertTrue(received.isEmpty());
+    }
+
+    @Test
+    public void testCallAsync_CancelAbortsRequest() throws Exception {
+        CompletableFuture<Object> slow = wrapper.callAsync(get("/slow").build());
+        awaitReceived(1);
+
+        Assertions.assertTrue(slow.cancel(true));
+        Map<String, Object> user = wrapper.<Map<String, Object>>callAsync(get("/users/1").build())
+                .get(5, TimeUnit.SECONDS);
+
+        // the only pooled connection was freed while the slow response was still pending
+        Assertions.assertEquals("ravi", user.get("name"));
+        Assertions.assertThrows(CancellationException.class, slow::join);
+    }
+
+    @Test
+    public void testCallAsync_CachedPerCookie() throws Exception {
+        ResponseCache cache = new ResponseCache("users", CacheConfig.builder().enabled(true).build(), null);
+        wrapper.responseCache(cache, Runnable::run);
+
+        Assertions.assertEquals("a", cookieCall("session=a"));
+        Assertions.assertEquals("b", cookieCall("session=b"));
+        Assertions.assertEquals("a", cookieCall("session=a"));
+        Assertions.assertEquals("b", cookieCall("session=b"));
+
+        Assertions.assertEquals(2, received.size());
+        Assertions.assertEquals(2, cache.size());
+    }
+
+    private String cookieCall(String cookie) throws Exception {
+        Map<String, Object> session = wrapper.<Map<String, Object>>callAsync(get("/session")
+                .header("Cookie", cookie).build()).get(5, TimeUnit.SECONDS);
+        return String.valueOf(session.get("session"));
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        String path = exchange.getRequestURI().getPath();
+        received.add(exchange.getRequestMethod() + " " + path + " "
+                + exchange.getRequestHeaders().getFirst("Accept"));
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        if (path.startsWith("/status/")) {
+            respond(exchange, Integer.parseInt(path.substring("/status/".length())), "{}");
+        } else if (path.equals("/echo")) {
+            respond(exchange, 200, read(exchange.getRequestBody()));
+        } else if (path.equals("/session")) {
+            String cookie = exchange.getRequestHeaders().getFirst("Cookie");
+            exchange.getResponseHeaders().add("Cache-Control", "max-age=60");
+            respond(exchange, 200, "{\"session\":\"" + cookie.substring(cookie.indexOf('=') + 1) + "\"}");
+        } else if (path.equals("/slow")) {
+            try {
+                slowReleased.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            respond(exchange, 200, "{}");
+        } else {
+            respond(exchange, 200, "{\"name\":\"ravi\"}");
+        }
+    }
+
+    private void awaitReceived(int count) throws InterruptedException {
+        long until = System.currentTimeMillis() + 5_000;
+        while (received.size() < count && System.currentTimeMillis() < until) {
+            Thread.sleep(10);
+        }
+        Assertions.assertEquals(count, received.size());
+    }
+
+    private static RestRequestSpec.Builder get(String url) {
+        return RestRequestSpec.builder().httpMethod("GET").url(url).type(Map.class);
+    }
+
+    private static void respond(HttpExchange exchange, int status, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    private static String read(InputStream in) throws IOException {
+        StringBuilder text = new StringBuilder();
+        byte[] buffer = new byte[256];
+        for (int n = in.read(buffer); n >= 0; n = in.read(buffer)) {
+            text.append(new String(buffer, 0, n, StandardCharsets.UTF_8));
+        }
+        return text.toString();
+    }
+}
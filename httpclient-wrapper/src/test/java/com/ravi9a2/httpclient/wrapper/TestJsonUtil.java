@@ -0,0 +1,96 @@
+package com.ravi9a2.httpclient.wrapper;
+
+import com.ravi9a2.nca.exceptions.NetworkClientException;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+public class TestJsonUtil {
+
+    @Test
+    public void testParseResponse_StreamedGenericList() throws IOException {
+        List<User> users = JsonUtil.parseResponse(stream("[{\"name\":\"a\"},{\"name\":\"b\"}]"),
+                parameterized(List.class, User.class));
+
+        Assertions.assertEquals(2, users.size());
+        Assertions.assertEquals("a", users.get(0).name);
+        Assertions.assertEquals("b", users.get(1).name);
+    }
+
+    @Test
+    public void testParseResponse_StreamedGenericMap() throws IOException {
+        Map<String, List<User>> users = JsonUtil.parseResponse(stream("{\"team\":[{\"name\":\"a\"}]}"),
+                parameterized(Map.class, String.class, parameterized(List.class, User.class)));
+
+        Assertions.assertEquals("a", users.get("team").get(0).name);
+    }
+
+    @Test
+    public void testParseResponse_BufferedBytes() {
+        List<User> users = JsonUtil.parseResponse("[{\"name\":\"a\"}]".getBytes(StandardCharsets.UTF_8),
+                parameterized(List.class, User.class));
+
+        Assertions.assertEquals("a", users.get(0).name);
+    }
+
+    @Test
+    public void testParseResponse_MalformedBodyFails() {
+        Assertions.assertThrows(NetworkClientException.class,
+                () -> JsonUtil.parseResponse("{", parameterized(List.class, User.class)));
+    }
+
+    @Test
+    public void testWrite_RoundTrip() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        JsonUtil.write(Collections.singletonList(new User("a")), out);
+        List<User> users = JsonUtil.parseResponse(out.toByteArray(), parameterized(List.class, User.class));
+
+        Assertions.assertEquals("a", users.get(0).name);
+        Assertions.assertEquals("[{\"name\":\"a\"}]", JsonUtil.toString(Collections.singletonList(new User("a"))));
+    }
+
+    private static InputStream stream(String json) {
+        return new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static ParameterizedType parameterized(Type raw, Type... args) {
+        return new ParameterizedType() {
+            @Override
+            public Type[] getActualTypeArguments() {
+                return args;
+            }
+
+            @Override
+            public Type getRawType() {
+                return raw;
+            }
+
+            @Override
+            public Type getOwnerType() {
+                return null;
+            }
+        };
+    }
+
+    public static class User {
+        public String name;
+
+        public User() {
+        }
+
+        User(String name) {
+            this.name = name;
+        }
+    }
+}
@@ -4,6 +4,7 @@ import com.netflix.hystrix.HystrixCommand;
 import com.netflix.hystrix.HystrixCommandGroupKey;
 import com.netflix.hystrix.HystrixCommandKey;
 import com.netflix.hystrix.HystrixCommandProperties;
+import com.netflix.hystrix.HystrixObservableCommand;
 import com.netflix.hystrix.HystrixThreadPoolKey;
 import com.netflix.hystrix.HystrixThreadPoolProperties;
 import com.ravi9a2.hystrix.config.HystrixCommandPropertiesRegistry;
@@ -17,6 +18,9 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+import rx.Observable;
+import rx.RxReactiveStreams;
 
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.Future;
@@ -32,6 +36,7 @@ import java.util.concurrent.Future;
 public class HystrixNonReactiveExecutor<C> implements NonReactiveExecutor<C> {
 
     private static final Logger logger = LoggerFactory.getLogger(HystrixNonReactiveExecutor.class);
+    private static final String NON_BLOCKING_SUFFIX = "-non-blocking";
 
     private final HystrixCommandPropertiesRegistry commandPropertiesRegistry;
     private final HystrixThreadPoolPropertiesRegistry threadPoolPropertiesRegistry;
@@ -54,6 +59,9 @@ public class HystrixNonReactiveExecutor<C> implements NonReactiveExecutor<C> {
     public <D extends CallDefinition, R> CompletableFuture<R> executeWithCompletionStage(NonReactiveClient<C> client,
             D callDef) {
         RestCallDefinition cd = (RestCallDefinition) callDef;
+        if (client.isAsync()) {
+            return makeNonBlockingCall(client, cd);
+        }
         return makeCallAsync(client, cd);
     }
 
@@ -134,15 +142,54 @@ public class HystrixNonReactiveExecutor<C> implements NonReactiveExecutor<C> {
         });
     }
 
+    /**
+     * Runs the call of a non-blocking client in an observable command, isolated by
+     * a semaphore rather than a thread, so no thread waits on the response.
+     * <p>
+     * Hystrix fixes the properties of a command key the first time it is used, so
+     * the command has a key of its own, next to the thread-isolated one of the
+     * blocking calls of the same circuit breaker.
+     */
+    private <R> CompletableFuture<R> makeNonBlockingCall(NonReactiveClient<C> client, RestCallDefinition cd) {
+        HystrixCommandProperties.Setter commandProperties = commandPropertiesRegistry.semaphoreIsolated(
+                cd.isCircuitBreakerEnabled()
+                        ? commandPropertiesRegistry.getCommandProperties(cd.getCbTag())
+                        : commandPropertiesRegistry.getDefaultCommandProperties());
+
+        HystrixObservableCommand<R> command = new HystrixObservableCommand<R>(
+                HystrixObservableCommand.Setter
+                        .withGroupKey(HystrixCommandGroupKey.Factory.asKey(cd.getServiceTag()))
+                        .andCommandKey(HystrixCommandKey.Factory.asKey(cd.getCbTag() + NON_BLOCKING_SUFFIX))
+                        .andCommandPropertiesDefaults(commandProperties)) {
+
+            @Override
+            protected Observable<R> construct() {
+                Mono<R> mono = Mono.fromFuture(client.<R>callAsync(getRequestSpec(cd)));
+                return RxReactiveStreams.toObservable(mono);
+            }
+
+            @Override
+            protected Observable<R> resumeWithFallback() {
+                logger.warn("Hystrix fallback triggered for service: {}", cd.getServiceTag());
+                if (cd.isSilentFailure()) {
+                    return Observable.empty();
+                }
+                return Observable.error(new RuntimeException("Hystrix circuit breaker open or execution failed"));
+            }
+        };
+
+        return Mono.from(RxReactiveStreams.toPublisher(command.observe())).toFuture();
+    }
+
     private RestRequestSpec getRequestSpec(RestCallDefinition cd) {
         return RestRequestSpec.builder()
-                .httpMethod(String.valueOf(cd.getHttpMethod()))
-                .url(cd.getPath())
+                .template(cd.getTemplate())
                 .body(cd.getPayload())
                 .pathParams(cd.getPathParams())
                 .requestParams(cd.getQueryParams())
                 .headers(cd.getHttpHeaders())
                 .type(cd.getResponseType())
+                .codec(cd.getCodec())
                 .build();
     }
 }
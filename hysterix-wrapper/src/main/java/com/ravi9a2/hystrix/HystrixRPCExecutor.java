@@ -6,6 +6,7 @@ import com.netflix.hystrix.HystrixCommand;
 import com.netflix.hystrix.HystrixCommandGroupKey;
 import com.netflix.hystrix.HystrixCommandKey;
 import com.netflix.hystrix.HystrixCommandProperties;
+import com.netflix.hystrix.HystrixObservableCommand;
 import com.netflix.hystrix.HystrixThreadPoolKey;
 import com.netflix.hystrix.HystrixThreadPoolProperties;
 import com.ravi9a2.hystrix.config.HystrixCommandPropertiesRegistry;
@@ -15,12 +16,18 @@ import com.ravi9a2.nea.core.data.CallDefinition;
 import com.ravi9a2.nea.core.data.RPCCallDefinition;
 import com.ravi9a2.nca.RPCClient;
 import com.ravi9a2.nca.data.RpcRequestSpec;
+import org.reactivestreams.Publisher;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import rx.Observable;
+import rx.RxReactiveStreams;
 
 import java.util.concurrent.Future;
+import java.util.function.Function;
 
 /**
  * Implements the RPCExecutor interface using Netflix Hystrix.
@@ -57,6 +64,24 @@ public class HystrixRPCExecutor<C> implements RPCExecutor<C> {
         return makeCallAsync(client, cd);
     }
 
+    @Override
+    public <D extends CallDefinition, R> Flux<R> executeServerStreaming(RPCClient<C> client, D callDef) {
+        RPCCallDefinition cd = (RPCCallDefinition) callDef;
+        return makeStreamingCall(cd, client::fluxServerStreaming);
+    }
+
+    @Override
+    public <D extends CallDefinition, R> Mono<R> executeClientStreaming(RPCClient<C> client, D callDef) {
+        RPCCallDefinition cd = (RPCCallDefinition) callDef;
+        return Mono.from(this.<R>makeStreamingCall(cd, client::monoClientStreaming));
+    }
+
+    @Override
+    public <D extends CallDefinition, R> Flux<R> executeBiDi(RPCClient<C> client, D callDef) {
+        RPCCallDefinition cd = (RPCCallDefinition) callDef;
+        return makeStreamingCall(cd, client::fluxBiDi);
+    }
+
     private <R> R makeCall(RPCClient<C> client, RPCCallDefinition cd) {
         HystrixCommandProperties.Setter commandProperties = cd.isCircuitBreakerEnabled()
                 ? commandPropertiesRegistry.getCommandProperties(cd.getCbTag())
@@ -133,6 +158,40 @@ public class HystrixRPCExecutor<C> implements RPCExecutor<C> {
         return JdkFutureAdapters.listenInPoolThread(hystrixFuture);
     }
 
+    /**
+     * Wraps a streaming call in a HystrixObservableCommand. The stream runs on the
+     * gRPC threads, semaphore isolated, and the demand of the subscriber reaches
+     * the call through the reactive-streams bridge.
+     */
+    private <R> Flux<R> makeStreamingCall(RPCCallDefinition cd, Function<RpcRequestSpec, Publisher<R>> call) {
+        HystrixCommandProperties.Setter commandProperties = cd.isCircuitBreakerEnabled()
+                ? commandPropertiesRegistry.getCommandProperties(cd.getCbTag())
+                : commandPropertiesRegistry.getDefaultCommandProperties();
+
+        HystrixObservableCommand<R> command = new HystrixObservableCommand<R>(
+                HystrixObservableCommand.Setter
+                        .withGroupKey(HystrixCommandGroupKey.Factory.asKey(cd.getServiceTag()))
+                        .andCommandKey(HystrixCommandKey.Factory.asKey(cd.getCbTag()))
+                        .andCommandPropertiesDefaults(commandProperties)) {
+
+            @Override
+            protected Observable<R> construct() {
+                return RxReactiveStreams.toObservable(call.apply(getRequestSpec(cd)));
+            }
+
+            @Override
+            protected Observable<R> resumeWithFallback() {
+                logger.warn("Hystrix fallback triggered for service: {}", cd.getServiceTag());
+                if (cd.isSilentFailure()) {
+                    return Observable.empty();
+                }
+                return Observable.error(new RuntimeException("Hystrix circuit breaker open or execution failed"));
+            }
+        };
+
+        return Flux.from(RxReactiveStreams.toPublisher(command.toObservable()));
+    }
+
     private RpcRequestSpec getRequestSpec(RPCCallDefinition cd) {
         return RpcRequestSpec.builder()
                 .rpcMethod(cd.getRpcMethod().toString())
@@ -142,6 +201,7 @@ public class HystrixRPCExecutor<C> implements RPCExecutor<C> {
                 .body(cd.getPayload())
                 .type(cd.getResponseType())
                 .headers(cd.getGrpcHeaders())
+                .methodDescriptor(cd.getMethodDescriptor())
                 .build();
     }
 }
@@ -118,13 +118,13 @@ public class HystrixReactiveExecutor<C> implements ReactiveExecutor<C> {
 
     private RestRequestSpec getRequestSpec(RestCallDefinition cd) {
         return RestRequestSpec.builder()
-                .httpMethod(String.valueOf(cd.getHttpMethod()))
-                .url(cd.getPath())
+                .template(cd.getTemplate())
                 .body(cd.getPayload())
                 .pathParams(cd.getPathParams())
                 .requestParams(cd.getQueryParams())
                 .headers(cd.getHttpHeaders())
                 .type(cd.getResponseType())
+                .codec(cd.getCodec())
                 .build();
     }
 }
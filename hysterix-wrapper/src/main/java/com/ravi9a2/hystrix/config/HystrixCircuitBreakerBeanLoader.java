@@ -39,6 +39,10 @@ public class HystrixCircuitBreakerBeanLoader {
     public static final String EXECUTION_ISOLATION_THREAD_TIMEOUT_DEFAULT = "10000";
     public static final String EXECUTION_ISOLATION_STRATEGY = "executionIsolationStrategy";
     public static final String EXECUTION_ISOLATION_STRATEGY_DEFAULT = "THREAD";
+    public static final String EXECUTION_ISOLATION_SEMAPHORE_MAX_CONCURRENT_REQUESTS =
+            "executionIsolationSemaphoreMaxConcurrentRequests";
+    public static final String EXECUTION_ISOLATION_SEMAPHORE_MAX_CONCURRENT_REQUESTS_DEFAULT =
+            String.valueOf(HystrixCommandPropertiesRegistry.SEMAPHORE_MAX_CONCURRENT_REQUESTS_DEFAULT);
 
     private static final Logger LOGGER = LoggerFactory.getLogger(HystrixCircuitBreakerBeanLoader.class);
     private static final String CB_SETUP_COMPLETE_MSG = "[Hystrix CB] Circuit breaker setup complete for: {}";
@@ -108,6 +112,11 @@ public class HystrixCircuitBreakerBeanLoader {
             setter.withExecutionIsolationStrategy(HystrixCommandProperties.ExecutionIsolationStrategy.THREAD);
         }
 
+        setter.withExecutionIsolationSemaphoreMaxConcurrentRequests(
+                Integer.parseInt(getValue(config, defaultConfig, EXECUTION_ISOLATION_SEMAPHORE_MAX_CONCURRENT_REQUESTS,
+                        EXECUTION_ISOLATION_SEMAPHORE_MAX_CONCURRENT_REQUESTS_DEFAULT))
+        );
+
         return setter;
     }
 
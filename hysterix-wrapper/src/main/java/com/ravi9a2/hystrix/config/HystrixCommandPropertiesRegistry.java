@@ -3,6 +3,7 @@ package com.ravi9a2.hystrix.config;
 import com.netflix.hystrix.HystrixCommandProperties;
 
 import java.util.Map;
+import java.util.Objects;
 import java.util.concurrent.ConcurrentHashMap;
 
 /**
@@ -13,6 +14,13 @@ import java.util.concurrent.ConcurrentHashMap;
  */
 public class HystrixCommandPropertiesRegistry {
 
+    /**
+     * Calls a semaphore-isolated command admits at once when its properties do not
+     * set executionIsolationSemaphoreMaxConcurrentRequests. Hystrix's own default
+     * of 10 would throttle a non-blocking client far below what it can carry.
+     */
+    public static final int SEMAPHORE_MAX_CONCURRENT_REQUESTS_DEFAULT = 1000;
+
     private final Map<String, HystrixCommandProperties.Setter> commandPropertiesMap;
 
     public HystrixCommandPropertiesRegistry() {
@@ -37,4 +45,83 @@ public class HystrixCommandPropertiesRegistry {
                 .withExecutionTimeoutInMilliseconds(10000)
                 .withExecutionIsolationThreadTimeoutInMilliseconds(10000);
     }
+
+    /**
+     * Returns a copy of the given properties isolated by a semaphore instead of a
+     * thread, for commands that do not block. The given properties are left as
+     * they are, as they are shared by the thread-isolated commands.
+     */
+    public HystrixCommandProperties.Setter semaphoreIsolated(HystrixCommandProperties.Setter properties) {
+        HystrixCommandProperties.Setter copy = HystrixCommandProperties.Setter();
+        if (Objects.nonNull(properties.getCircuitBreakerEnabled())) {
+            copy.withCircuitBreakerEnabled(properties.getCircuitBreakerEnabled());
+        }
+        if (Objects.nonNull(properties.getCircuitBreakerErrorThresholdPercentage())) {
+            copy.withCircuitBreakerErrorThresholdPercentage(properties.getCircuitBreakerErrorThresholdPercentage());
+        }
+        if (Objects.nonNull(properties.getCircuitBreakerForceClosed())) {
+            copy.withCircuitBreakerForceClosed(properties.getCircuitBreakerForceClosed());
+        }
+        if (Objects.nonNull(properties.getCircuitBreakerForceOpen())) {
+            copy.withCircuitBreakerForceOpen(properties.getCircuitBreakerForceOpen());
+        }
+        if (Objects.nonNull(properties.getCircuitBreakerRequestVolumeThreshold())) {
+            copy.withCircuitBreakerRequestVolumeThreshold(properties.getCircuitBreakerRequestVolumeThreshold());
+        }
+        if (Objects.nonNull(properties.getCircuitBreakerSleepWindowInMilliseconds())) {
+            copy.withCircuitBreakerSleepWindowInMilliseconds(properties.getCircuitBreakerSleepWindowInMilliseconds());
+        }
+        if (Objects.nonNull(properties.getExecutionIsolationThreadTimeoutInMilliseconds())) {
+            copy.withExecutionIsolationThreadTimeoutInMilliseconds(
+                    properties.getExecutionIsolationThreadTimeoutInMilliseconds());
+        }
+        if (Objects.nonNull(properties.getExecutionTimeoutInMilliseconds())) {
+            copy.withExecutionTimeoutInMilliseconds(properties.getExecutionTimeoutInMilliseconds());
+        }
+        if (Objects.nonNull(properties.getExecutionTimeoutEnabled())) {
+            copy.withExecutionTimeoutEnabled(properties.getExecutionTimeoutEnabled());
+        }
+        if (Objects.nonNull(properties.getFallbackEnabled())) {
+            copy.withFallbackEnabled(properties.getFallbackEnabled());
+        }
+        if (Objects.nonNull(properties.getMetricsHealthSnapshotIntervalInMilliseconds())) {
+            copy.withMetricsHealthSnapshotIntervalInMilliseconds(
+                    properties.getMetricsHealthSnapshotIntervalInMilliseconds());
+        }
+        if (Objects.nonNull(properties.getMetricsRollingPercentileBucketSize())) {
+            copy.withMetricsRollingPercentileBucketSize(properties.getMetricsRollingPercentileBucketSize());
+        }
+        if (Objects.nonNull(properties.getMetricsRollingPercentileEnabled())) {
+            copy.withMetricsRollingPercentileEnabled(properties.getMetricsRollingPercentileEnabled());
+        }
+        if (Objects.nonNull(properties.getMetricsRollingPercentileWindowInMilliseconds())) {
+            copy.withMetricsRollingPercentileWindowInMilliseconds(
+                    properties.getMetricsRollingPercentileWindowInMilliseconds());
+        }
+        if (Objects.nonNull(properties.getMetricsRollingPercentileWindowBuckets())) {
+            copy.withMetricsRollingPercentileWindowBuckets(properties.getMetricsRollingPercentileWindowBuckets());
+        }
+        if (Objects.nonNull(properties.getMetricsRollingStatisticalWindowInMilliseconds())) {
+            copy.withMetricsRollingStatisticalWindowInMilliseconds(
+                    properties.getMetricsRollingStatisticalWindowInMilliseconds());
+        }
+        if (Objects.nonNull(properties.getMetricsRollingStatisticalWindowBuckets())) {
+            copy.withMetricsRollingStatisticalWindowBuckets(properties.getMetricsRollingStatisticalWindowBuckets());
+        }
+        if (Objects.nonNull(properties.getRequestCacheEnabled())) {
+            copy.withRequestCacheEnabled(properties.getRequestCacheEnabled());
+        }
+        if (Objects.nonNull(properties.getRequestLogEnabled())) {
+            copy.withRequestLogEnabled(properties.getRequestLogEnabled());
+        }
+        int maxConcurrentRequests = Objects.nonNull(properties.getExecutionIsolationSemaphoreMaxConcurrentRequests())
+                ? properties.getExecutionIsolationSemaphoreMaxConcurrentRequests()
+                : SEMAPHORE_MAX_CONCURRENT_REQUESTS_DEFAULT;
+        int maxConcurrentFallbacks = Objects.nonNull(properties.getFallbackIsolationSemaphoreMaxConcurrentRequests())
+                ? properties.getFallbackIsolationSemaphoreMaxConcurrentRequests()
+                : maxConcurrentRequests;
+        return copy.withExecutionIsolationStrategy(HystrixCommandProperties.ExecutionIsolationStrategy.SEMAPHORE)
+                .withExecutionIsolationSemaphoreMaxConcurrentRequests(maxConcurrentRequests)
+                .withFallbackIsolationSemaphoreMaxConcurrentRequests(maxConcurrentFallbacks);
+    }
 }
@@ -1,6 +1,10 @@
 package com.ravi9a2.nca;
 
 import com.ravi9a2.nca.data.RestRequestSpec;
+import com.ravi9a2.nca.transfer.Download;
+
+import java.nio.file.Path;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * The non-reactive client-wrapper that takes in a non-reactive client like Spring's
@@ -69,4 +73,34 @@ public interface NonReactiveClient<C> extends Client {
      */
     <R> R call(RestRequestSpec requestSpec);
 
+    /**
+     * Returns whether the client makes callAsync calls on a non-blocking engine,
+     * so they hold no thread for the round-trip.
+     */
+    default boolean isAsync() {
+        return false;
+    }
+
+    /**
+     * Makes the HTTP call of the request spec without blocking the caller.
+     *
+     * @param <R> Response generic type.
+     * @return A future of `R`, completed on the I/O threads of the client.
+     * @throws UnsupportedOperationException if the client is not async.
+     */
+    default <R> CompletableFuture<R> callAsync(RestRequestSpec requestSpec) {
+        throw new UnsupportedOperationException(getClass().getSimpleName() + " has no non-blocking engine");
+    }
+
+    /**
+     * Makes the HTTP call of the request spec and streams its response body to
+     * the target file, instead of decoding it. A body of up to inMemoryThreshold
+     * bytes is kept in memory. A FileBody body is uploaded from its file.
+     *
+     * @param target            the file to write the body to, or null for a temporary file
+     * @param inMemoryThreshold the size up to which a body is kept in memory
+     * @return A handle with the size and checksum of the body.
+     */
+    Download download(RestRequestSpec requestSpec, Path target, int inMemoryThreshold);
+
 }
@@ -2,6 +2,8 @@ package com.ravi9a2.nca;
 
 import com.google.common.util.concurrent.ListenableFuture;
 import com.ravi9a2.nca.data.RpcRequestSpec;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 
 public interface RPCClient<C> extends Client {
 
@@ -15,6 +17,25 @@ public interface RPCClient<C> extends Client {
 
     <R> ListenableFuture<R> futureClientStreaming(RpcRequestSpec requestSpec);
 
+    /**
+     * Calls a server-streaming method, emitting its responses as they arrive. The
+     * responses are read from the server only as they are requested downstream.
+     */
+    <R> Flux<R> fluxServerStreaming(RpcRequestSpec requestSpec);
+
+    /**
+     * Calls a client-streaming method with the messages of the request body, a
+     * Publisher, emitting the response once the server sends it. The messages are
+     * requested from the body only as the call can send them.
+     */
+    <R> Mono<R> monoClientStreaming(RpcRequestSpec requestSpec);
+
+    /**
+     * Calls a bidirectional-streaming method with the messages of the request body,
+     * a Publisher, emitting the responses as they are requested downstream.
+     */
+    <R> Flux<R> fluxBiDi(RpcRequestSpec requestSpec);
+
     <R> R blocking(RpcRequestSpec requestSpec);
 
     <R> R blockingUnary(RpcRequestSpec requestSpec);
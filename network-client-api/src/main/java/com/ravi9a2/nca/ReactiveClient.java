@@ -1,9 +1,13 @@
 package com.ravi9a2.nca;
 
+import com.ravi9a2.nca.data.RawResponse;
 import com.ravi9a2.nca.data.RestRequestSpec;
+import com.ravi9a2.nca.transfer.Download;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.nio.file.Path;
+
 /**
  * The reactive client-wrapper that takes in a reactive client like Spring's Webflux etc.,
  * as generic parameter. It wraps the boilerplate setups for the clients and provides
@@ -125,4 +129,25 @@ public interface ReactiveClient<C> extends Client {
      * @return A type of `Flux<R>`.
      */
     <R> Flux<R> callToFlux(RestRequestSpec requestSpec);
+
+    /**
+     * Registers the HTTP call of the request spec to stream its response body to
+     * the target file, instead of decoding it. A body of up to inMemoryThreshold
+     * bytes is kept in memory. A FileBody body is uploaded from its file.
+     *
+     * @param target            the file to write the body to, or null for a temporary file
+     * @param inMemoryThreshold the size up to which a body is kept in memory
+     * @return A Mono of the handle with the size and checksum of the body.
+     */
+    Mono<Download> download(RestRequestSpec requestSpec, Path target, int inMemoryThreshold);
+
+    /**
+     * Registers the HTTP call of the request spec to return its response as is,
+     * with the body as the undecoded buffers of the client. The calls of the other
+     * methods return the same when their response type is RawResponse.
+     *
+     * @param <B> Buffer type of the client.
+     * @return A Mono of the status, headers and body of the response.
+     */
+    <B> Mono<RawResponse<B>> exchange(RestRequestSpec requestSpec);
 }
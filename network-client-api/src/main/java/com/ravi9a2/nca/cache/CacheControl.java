@@ -0,0 +1,123 @@
+package com.ravi9a2.nca.cache;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+
+/**
+ * The directives of a Cache-Control header that the ResponseCache acts on.
+ * Unknown directives are ignored.
+ *
+ * @author raviiii1
+ */
+public final class CacheControl {
+
+    static final CacheControl EMPTY = new CacheControl(-1, 0, false, false, false);
+
+    private final long maxAge;
+    private final long staleWhileRevalidate;
+    private final boolean noStore;
+    private final boolean noCache;
+    private final boolean privateOnly;
+
+    private CacheControl(long maxAge, long staleWhileRevalidate, boolean noStore, boolean noCache,
+                         boolean privateOnly) {
+        this.maxAge = maxAge;
+        this.staleWhileRevalidate = staleWhileRevalidate;
+        this.noStore = noStore;
+        this.noCache = noCache;
+        this.privateOnly = privateOnly;
+    }
+
+    /**
+     * Parses the values of the Cache-Control headers of a request or response.
+     *
+     * @param values header values, may be null
+     * @return the parsed CacheControl
+     */
+    public static CacheControl parse(List<String> values) {
+        if (Objects.isNull(values) || values.isEmpty()) {
+            return EMPTY;
+        }
+        long maxAge = -1;
+        long staleWhileRevalidate = 0;
+        boolean noStore = false;
+        boolean noCache = false;
+        boolean privateOnly = false;
+        for (String value : values) {
+            if (Objects.isNull(value)) {
+                continue;
+            }
+            for (String directive : value.split(",")) {
+                String d = directive.trim().toLowerCase(Locale.ROOT);
+                int eq = d.indexOf('=');
+                String name = eq < 0 ? d : d.substring(0, eq).trim();
+                String arg = eq < 0 ? null : d.substring(eq + 1).trim();
+                switch (name) {
+                    case "max-age":
+                        maxAge = seconds(arg, maxAge);
+                        break;
+                    case "stale-while-revalidate":
+                        staleWhileRevalidate = seconds(arg, staleWhileRevalidate);
+                        break;
+                    case "no-store":
+                        noStore = true;
+                        break;
+                    case "no-cache":
+                        noCache = true;
+                        break;
+                    case "private":
+                        privateOnly = true;
+                        break;
+                    default:
+                        break;
+                }
+            }
+        }
+        return new CacheControl(maxAge, staleWhileRevalidate, noStore, noCache, privateOnly);
+    }
+
+    /**
+     * Returns the max-age in seconds, -1 if absent.
+     */
+    public long getMaxAge() {
+        return maxAge;
+    }
+
+    /**
+     * Returns the stale-while-revalidate window in seconds, 0 if absent.
+     */
+    public long getStaleWhileRevalidate() {
+        return staleWhileRevalidate;
+    }
+
+    public boolean isNoStore() {
+        return noStore;
+    }
+
+    public boolean isNoCache() {
+        return noCache;
+    }
+
+    /**
+     * Returns whether the response is meant for a single user, with or without a
+     * list of fields. It is never kept in a cache shared by all callers of a client.
+     */
+    public boolean isPrivate() {
+        return privateOnly;
+    }
+
+    private static long seconds(String arg, long def) {
+        if (Objects.isNull(arg)) {
+            return def;
+        }
+        if (arg.length() > 1 && arg.charAt(0) == '"' && arg.charAt(arg.length() - 1) == '"') {
+            arg = arg.substring(1, arg.length() - 1);
+        }
+        try {
+            return Math.max(0, Long.parseLong(arg));
+        } catch (NumberFormatException e) {
+            return def;
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package com.ravi9a2.nca.cache;
+
+/**
+ * The events a ResponseCache publishes about its lookups and entries.
+ *
+ * @author raviiii1
+ */
+public enum CacheEvent {
+    /**
+     * A fresh response was served from the cache.
+     */
+    HIT,
+    /**
+     * A stale response was served while it is revalidated in the background.
+     */
+    STALE_HIT,
+    /**
+     * No usable response was cached.
+     */
+    MISS,
+    /**
+     * A cached response was confirmed by the downstream with a 304.
+     */
+    REVALIDATED,
+    /**
+     * A response was stored.
+     */
+    STORED,
+    /**
+     * A response was evicted to make room for others.
+     */
+    EVICTED
+}
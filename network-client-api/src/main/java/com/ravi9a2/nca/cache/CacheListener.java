@@ -0,0 +1,18 @@
+package com.ravi9a2.nca.cache;
+
+/**
+ * Listens to the events of a ResponseCache, e.g. to emit hit, miss and byte
+ * metrics. Called on the thread that made the call, so it should not block.
+ *
+ * @author raviiii1
+ */
+@FunctionalInterface
+public interface CacheListener {
+
+    /**
+     * @param event the event
+     * @param cache the cache publishing the event
+     * @param bytes size of the body served, stored or evicted, 0 for a miss
+     */
+    void onEvent(CacheEvent event, ResponseCache cache, int bytes);
+}
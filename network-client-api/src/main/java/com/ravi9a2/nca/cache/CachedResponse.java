@@ -0,0 +1,121 @@
+package com.ravi9a2.nca.cache;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * An immutable response held by the ResponseCache: its status, headers and body
+ * along with until when it may be served.
+ *
+ * @author raviiii1
+ */
+public final class CachedResponse {
+
+    /**
+     * Rough size of an entry's headers and bookkeeping, added to its body size
+     * when weighing it against the cache's capacity.
+     */
+    private static final int OVERHEAD = 256;
+
+    private final int status;
+    private final Map<String, List<String>> headers;
+    private final byte[] body;
+    private final String etag;
+    private final String lastModified;
+    private final Map<String, String> vary;
+    private final long freshUntil;
+    private final long staleUntil;
+
+    CachedResponse(int status, Map<String, List<String>> headers, byte[] body, String etag, String lastModified,
+                   Map<String, String> vary, long freshUntil, long staleUntil) {
+        this.status = status;
+        this.headers = Collections.unmodifiableMap(headers);
+        this.body = body;
+        this.etag = etag;
+        this.lastModified = lastModified;
+        this.vary = vary;
+        this.freshUntil = freshUntil;
+        this.staleUntil = staleUntil;
+    }
+
+    public int getStatus() {
+        return status;
+    }
+
+    /**
+     * Returns the response headers, keyed case-insensitively.
+     */
+    public Map<String, List<String>> getHeaders() {
+        return headers;
+    }
+
+    /**
+     * Returns the body. Callers must not modify the returned array.
+     */
+    public byte[] getBody() {
+        return body;
+    }
+
+    public String getEtag() {
+        return etag;
+    }
+
+    public String getLastModified() {
+        return lastModified;
+    }
+
+    /**
+     * Returns whether the response can be revalidated with a conditional request.
+     */
+    public boolean hasValidators() {
+        return Objects.nonNull(etag) || Objects.nonNull(lastModified);
+    }
+
+    /**
+     * Returns whether the response may be served as is at the given time.
+     *
+     * @param now current time in epoch milliseconds
+     */
+    public Freshness freshness(long now) {
+        if (now < freshUntil) {
+            return Freshness.FRESH;
+        }
+        return now < staleUntil ? Freshness.STALE_WHILE_REVALIDATE : Freshness.STALE;
+    }
+
+    int weight() {
+        return body.length + OVERHEAD;
+    }
+
+    Map<String, String> getVary() {
+        return vary;
+    }
+
+    long getFreshUntil() {
+        return freshUntil;
+    }
+
+    long getStaleUntil() {
+        return staleUntil;
+    }
+
+    /**
+     * How a cached response may be served.
+     */
+    public enum Freshness {
+        /**
+         * Served without contacting the downstream.
+         */
+        FRESH,
+        /**
+         * Served while it is revalidated in the background.
+         */
+        STALE_WHILE_REVALIDATE,
+        /**
+         * Revalidated before it is served, if it has validators.
+         */
+        STALE
+    }
+}
@@ -0,0 +1,547 @@
+package com.ravi9a2.nca.cache;
+
+import com.ravi9a2.nca.data.CacheConfig;
+
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * An in-memory HTTP response cache of a Client, bounded to a number of bytes.
+ * <p>
+ * Responses are cached as the Cache-Control and Expires headers of the downstream
+ * allow. A response is served as is while it is fresh, served and revalidated in
+ * the background within its stale-while-revalidate window, and revalidated with
+ * If-None-Match or If-Modified-Since after that. A 404 or 410 without explicit
+ * freshness is cached for the negative TTL of the client.
+ * <p>
+ * Entries are evicted with the W-TinyLFU policy. New entries go to a small LRU
+ * window. An entry leaving the window only gets into the main space, a segmented
+ * LRU, if it was accessed more often than the entry it would evict there, as
+ * estimated by a FrequencySketch. That keeps one-off responses from flushing
+ * out the popular ones.
+ *
+ * @author raviiii1
+ */
+public final class ResponseCache {
+
+    private static final String CACHE_CONTROL = "Cache-Control";
+    private static final String PRAGMA = "Pragma";
+    private static final String EXPIRES = "Expires";
+    private static final String DATE = "Date";
+    private static final String AGE = "Age";
+    private static final String ETAG = "ETag";
+    private static final String LAST_MODIFIED = "Last-Modified";
+    private static final String VARY = "Vary";
+    private static final byte[] EMPTY_BODY = new byte[0];
+    private static final Set<Integer> CACHEABLE_STATUSES = new HashSet<>(Arrays.asList(200, 203, 300, 301, 404, 410));
+    private static final Set<Integer> NEGATIVE_STATUSES = new HashSet<>(Arrays.asList(404, 410));
+    private static final Set<String> UNSTORED_HEADERS = new HashSet<>(Arrays.asList(
+            "connection", "keep-alive", "proxy-authenticate", "proxy-authorization", "te", "trailer",
+            "transfer-encoding", "upgrade", "content-length", "set-cookie"));
+
+    /**
+     * Share of the capacity given to the window and, of the rest, to the protected segment.
+     */
+    private static final int WINDOW_PERCENT = 1;
+    private static final int PROTECTED_PERCENT = 80;
+    /**
+     * Expected average entry size, used to size the frequency sketch.
+     */
+    private static final int EXPECTED_ENTRY_BYTES = 4096;
+
+    private final String name;
+    private final Map<String, String> tags;
+    private final long maxBytes;
+    private final long maxWindowBytes;
+    private final long maxMainBytes;
+    private final long maxProtectedBytes;
+    private final long negativeTtl;
+    private final CacheListener listener;
+    private final FrequencySketch sketch;
+    private final Set<String> revalidating = ConcurrentHashMap.newKeySet();
+
+    private final Object lock = new Object();
+    private final LinkedHashMap<String, CachedResponse> window = new LinkedHashMap<>();
+    private final LinkedHashMap<String, CachedResponse> probation = new LinkedHashMap<>();
+    private final LinkedHashMap<String, CachedResponse> protectedSegment = new LinkedHashMap<>();
+    private long windowBytes;
+    private long probationBytes;
+    private long protectedBytes;
+
+    public ResponseCache(String clientName, CacheConfig config, CacheListener listener) {
+        this.name = String.valueOf(clientName);
+        this.tags = Collections.singletonMap("client", this.name);
+        this.maxBytes = config.getMaxBytes();
+        this.maxWindowBytes = Math.max(1, maxBytes * WINDOW_PERCENT / 100);
+        this.maxMainBytes = maxBytes - maxWindowBytes;
+        this.maxProtectedBytes = maxMainBytes * PROTECTED_PERCENT / 100;
+        this.negativeTtl = config.getNegativeTtl();
+        this.listener = listener;
+        this.sketch = new FrequencySketch((int) Math.min(Integer.MAX_VALUE, maxBytes / EXPECTED_ENTRY_BYTES));
+    }
+
+    /**
+     * Returns the cache key of a compiled request. The authorization and the cookies
+     * are part of the key so that responses are never shared across credentials.
+     *
+     * @param method        the http method
+     * @param pathAndQuery  the expanded path and query of the request
+     * @param authorization the Authorization header of the request, may be null
+     * @param cookie        the Cookie header of the request, may be null
+     * @return the cache key
+     */
+    public static String key(String method, String pathAndQuery, String authorization, String cookie) {
+        String key = method + ' ' + pathAndQuery;
+        if (Objects.nonNull(authorization)) {
+            key += "\nAuthorization: " + authorization;
+        }
+        if (Objects.nonNull(cookie)) {
+            key += "\nCookie: " + cookie;
+        }
+        return key;
+    }
+
+    /**
+     * Returns whether a request may be answered from the cache, i.e. it does not
+     * ask for a response straight from the downstream.
+     *
+     * @param requestHeader looks up a request header by name
+     */
+    public static boolean isLookupAllowed(Function<String, String> requestHeader) {
+        CacheControl cc = CacheControl.parse(Collections.singletonList(requestHeader.apply(CACHE_CONTROL)));
+        String pragma = requestHeader.apply(PRAGMA);
+        return !cc.isNoCache() && !cc.isNoStore()
+                && (Objects.isNull(pragma) || !pragma.toLowerCase(Locale.ROOT).contains("no-cache"));
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Returns the metric tags of the cache.
+     */
+    public Map<String, String> getTags() {
+        return tags;
+    }
+
+    /**
+     * Returns the total weight of the cached entries in bytes.
+     */
+    public long getWeightedBytes() {
+        synchronized (lock) {
+            return windowBytes + probationBytes + protectedBytes;
+        }
+    }
+
+    public int size() {
+        synchronized (lock) {
+            return window.size() + probation.size() + protectedSegment.size();
+        }
+    }
+
+    /**
+     * Looks up the response cached for a request.
+     *
+     * @param key           the cache key of the request
+     * @param requestHeader looks up a request header by name, case-insensitively, to match the Vary of the response
+     * @param now           current time in epoch milliseconds
+     * @return the cached response, or null if none can be served or revalidated
+     */
+    public CachedResponse lookup(String key, Function<String, String> requestHeader, long now) {
+        CachedResponse cached = get(key);
+        if (Objects.nonNull(cached) && !matchesVary(cached, requestHeader)) {
+            cached = null;
+        }
+        if (Objects.nonNull(cached) && cached.freshness(now) == CachedResponse.Freshness.STALE && !cached.hasValidators()) {
+            invalidate(key);
+            cached = null;
+        }
+        if (Objects.isNull(cached)) {
+            publish(CacheEvent.MISS, 0);
+            return null;
+        }
+        switch (cached.freshness(now)) {
+            case FRESH:
+                publish(CacheEvent.HIT, cached.getBody().length);
+                break;
+            case STALE_WHILE_REVALIDATE:
+                publish(CacheEvent.STALE_HIT, cached.getBody().length);
+                break;
+            default:
+                publish(CacheEvent.MISS, 0);
+                break;
+        }
+        return cached;
+    }
+
+    /**
+     * Returns whether a response would be stored, so that the body of one that
+     * would not needs not be buffered.
+     *
+     * @param status        the response status
+     * @param headers       the response headers
+     * @param requestHeader looks up a request header by name
+     */
+    public boolean isStorable(int status, Map<String, List<String>> headers, Function<String, String> requestHeader) {
+        return CACHEABLE_STATUSES.contains(status)
+                && !CacheControl.parse(Collections.singletonList(requestHeader.apply(CACHE_CONTROL))).isNoStore()
+                && Objects.nonNull(newEntry(status, copyHeaders(headers, null), EMPTY_BODY, requestHeader, 0));
+    }
+
+    /**
+     * Stores a response if its status and headers allow it.
+     *
+     * @param key           the cache key of the request
+     * @param status        the response status
+     * @param headers       the response headers
+     * @param body          the response body, not copied
+     * @param requestHeader looks up a request header by name
+     * @param now           current time in epoch milliseconds
+     * @return the stored response, or null if it was not stored
+     */
+    public CachedResponse store(String key, int status, Map<String, List<String>> headers, byte[] body,
+                                Function<String, String> requestHeader, long now) {
+        if (!CACHEABLE_STATUSES.contains(status)
+                || CacheControl.parse(Collections.singletonList(requestHeader.apply(CACHE_CONTROL))).isNoStore()) {
+            return null;
+        }
+        Map<String, List<String>> stored = copyHeaders(headers, null);
+        CachedResponse cached = newEntry(status, stored, body, requestHeader, now);
+        if (Objects.isNull(cached) || cached.weight() > maxBytes) {
+            return null;
+        }
+        put(key, cached);
+        publish(CacheEvent.STORED, body.length);
+        return cached;
+    }
+
+    /**
+     * Refreshes a cached response after the downstream answered its revalidation
+     * with a 304, merging in the headers of the 304.
+     *
+     * @param key           the cache key of the request
+     * @param cached        the revalidated response
+     * @param headers       the headers of the 304
+     * @param requestHeader looks up a request header by name
+     * @param now           current time in epoch milliseconds
+     * @return the refreshed response
+     */
+    public CachedResponse revalidated(String key, CachedResponse cached, Map<String, List<String>> headers,
+                                      Function<String, String> requestHeader, long now) {
+        Map<String, List<String>> merged = copyHeaders(headers, cached.getHeaders());
+        CachedResponse refreshed = newEntry(cached.getStatus(), merged, cached.getBody(), requestHeader, now);
+        if (Objects.isNull(refreshed)) {
+            invalidate(key);
+            refreshed = new CachedResponse(cached.getStatus(), merged, cached.getBody(), cached.getEtag(),
+                    cached.getLastModified(), cached.getVary(), now, now);
+        } else {
+            put(key, refreshed);
+        }
+        publish(CacheEvent.REVALIDATED, cached.getBody().length);
+        return refreshed;
+    }
+
+    /**
+     * Marks a key as being revalidated in the background.
+     *
+     * @return false if it already is
+     */
+    public boolean startRevalidation(String key) {
+        return revalidating.add(key);
+    }
+
+    public void endRevalidation(String key) {
+        revalidating.remove(key);
+    }
+
+    public void invalidate(String key) {
+        synchronized (lock) {
+            CachedResponse removed;
+            if (Objects.nonNull(removed = window.remove(key))) {
+                windowBytes -= removed.weight();
+            } else if (Objects.nonNull(removed = probation.remove(key))) {
+                probationBytes -= removed.weight();
+            } else if (Objects.nonNull(removed = protectedSegment.remove(key))) {
+                protectedBytes -= removed.weight();
+            }
+        }
+    }
+
+    /**
+     * Returns the entry of a key, recording the access. An entry in the window or
+     * the protected segment moves to its most recently used end, one on probation
+     * is promoted to the protected segment.
+     */
+    private CachedResponse get(String key) {
+        synchronized (lock) {
+            sketch.increment(key);
+            CachedResponse cached;
+            if (Objects.nonNull(cached = window.remove(key))) {
+                window.put(key, cached);
+            } else if (Objects.nonNull(cached = probation.remove(key))) {
+                probationBytes -= cached.weight();
+                protectedSegment.put(key, cached);
+                protectedBytes += cached.weight();
+                demoteProtected();
+            } else if (Objects.nonNull(cached = protectedSegment.remove(key))) {
+                protectedSegment.put(key, cached);
+            }
+            return cached;
+        }
+    }
+
+    private void put(String key, CachedResponse cached) {
+        List<CachedResponse> evicted = new ArrayList<>(0);
+        synchronized (lock) {
+            sketch.increment(key);
+            int weight = cached.weight();
+            CachedResponse previous;
+            if (Objects.nonNull(previous = window.remove(key))) {
+                window.put(key, cached);
+                windowBytes += weight - previous.weight();
+            } else if (Objects.nonNull(previous = probation.remove(key))) {
+                probation.put(key, cached);
+                probationBytes += weight - previous.weight();
+            } else if (Objects.nonNull(previous = protectedSegment.remove(key))) {
+                protectedSegment.put(key, cached);
+                protectedBytes += weight - previous.weight();
+                demoteProtected();
+            } else {
+                window.put(key, cached);
+                windowBytes += weight;
+            }
+            evictFromWindow(evicted);
+            evictFromMain(evicted);
+        }
+        for (CachedResponse e : evicted) {
+            publish(CacheEvent.EVICTED, e.getBody().length);
+        }
+    }
+
+    /**
+     * Moves the least recently used entries out of the window while it is over
+     * capacity, each either into probation or out of the cache.
+     */
+    private void evictFromWindow(List<CachedResponse> evicted) {
+        while (windowBytes > maxWindowBytes && window.size() > 1) {
+            Iterator<Map.Entry<String, CachedResponse>> it = window.entrySet().iterator();
+            Map.Entry<String, CachedResponse> candidate = it.next();
+            it.remove();
+            windowBytes -= candidate.getValue().weight();
+            admit(candidate.getKey(), candidate.getValue(), evicted);
+        }
+    }
+
+    /**
+     * Admits an entry leaving the window into probation, evicting the least recently
+     * used entries of the main space while they are accessed less often than it. If
+     * one of them is accessed at least as often, the entry itself is evicted.
+     */
+    private void admit(String key, CachedResponse candidate, List<CachedResponse> evicted) {
+        int weight = candidate.weight();
+        int frequency = sketch.frequency(key);
+        while (probationBytes + protectedBytes + weight > maxMainBytes) {
+            LinkedHashMap<String, CachedResponse> segment = probation.isEmpty() ? protectedSegment : probation;
+            if (segment.isEmpty()) {
+                evicted.add(candidate);
+                return;
+            }
+            Iterator<Map.Entry<String, CachedResponse>> it = segment.entrySet().iterator();
+            Map.Entry<String, CachedResponse> victim = it.next();
+            if (frequency <= sketch.frequency(victim.getKey())) {
+                evicted.add(candidate);
+                return;
+            }
+            it.remove();
+            if (segment == probation) {
+                probationBytes -= victim.getValue().weight();
+            } else {
+                protectedBytes -= victim.getValue().weight();
+            }
+            evicted.add(victim.getValue());
+        }
+        probation.put(key, candidate);
+        probationBytes += weight;
+    }
+
+    /**
+     * Evicts from the main space while it is over capacity, which only happens when
+     * an entry already in it was replaced by a larger one.
+     */
+    private void evictFromMain(List<CachedResponse> evicted) {
+        while (probationBytes + protectedBytes > maxMainBytes) {
+            LinkedHashMap<String, CachedResponse> segment = probation.isEmpty() ? protectedSegment : probation;
+            Iterator<Map.Entry<String, CachedResponse>> it = segment.entrySet().iterator();
+            CachedResponse victim = it.next().getValue();
+            it.remove();
+            if (segment == probation) {
+                probationBytes -= victim.weight();
+            } else {
+                protectedBytes -= victim.weight();
+            }
+            evicted.add(victim);
+        }
+    }
+
+    private void demoteProtected() {
+        while (protectedBytes > maxProtectedBytes && !protectedSegment.isEmpty()) {
+            Iterator<Map.Entry<String, CachedResponse>> it = protectedSegment.entrySet().iterator();
+            Map.Entry<String, CachedResponse> demoted = it.next();
+            it.remove();
+            protectedBytes -= demoted.getValue().weight();
+            probation.put(demoted.getKey(), demoted.getValue());
+            probationBytes += demoted.getValue().weight();
+        }
+    }
+
+    /**
+     * Builds the entry of a response, or returns null if it may not be cached. The
+     * cache is shared by all callers of the client, so a private response is never
+     * kept. A response without explicit freshness is only kept if it can be revalidated.
+     */
+    private CachedResponse newEntry(int status, Map<String, List<String>> headers, byte[] body,
+                                    Function<String, String> requestHeader, long now) {
+        CacheControl cc = CacheControl.parse(headers.get(CACHE_CONTROL));
+        if (cc.isNoStore() || cc.isPrivate()) {
+            return null;
+        }
+        Map<String, String> vary = vary(headers.get(VARY), requestHeader);
+        if (Objects.isNull(vary)) {
+            return null;
+        }
+        String etag = first(headers.get(ETAG));
+        String lastModified = first(headers.get(LAST_MODIFIED));
+        long lifetime = lifetime(status, cc, headers, now);
+        if (lifetime <= 0 && Objects.isNull(etag) && Objects.isNull(lastModified)) {
+            return null;
+        }
+        long freshUntil = now + Math.max(0, lifetime);
+        long staleUntil = lifetime > 0 ? freshUntil + cc.getStaleWhileRevalidate() * 1000 : freshUntil;
+        return new CachedResponse(status, headers, body, etag, lastModified, vary, freshUntil, staleUntil);
+    }
+
+    /**
+     * Returns for how many milliseconds a response is fresh.
+     */
+    private long lifetime(int status, CacheControl cc, Map<String, List<String>> headers, long now) {
+        if (cc.isNoCache()) {
+            return 0;
+        }
+        if (cc.getMaxAge() >= 0) {
+            long age = parseLong(first(headers.get(AGE)));
+            return (cc.getMaxAge() - age) * 1000;
+        }
+        String expires = first(headers.get(EXPIRES));
+        if (Objects.nonNull(expires)) {
+            long expiresAt = parseDate(expires);
+            long date = parseDate(first(headers.get(DATE)));
+            return expiresAt - (date > 0 ? date : now);
+        }
+        return NEGATIVE_STATUSES.contains(status) ? negativeTtl : 0;
+    }
+
+    /**
+     * Returns the request header values the response varies by, or null if it varies by all.
+     */
+    private static Map<String, String> vary(List<String> values, Function<String, String> requestHeader) {
+        if (Objects.isNull(values) || values.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        Map<String, String> vary = new HashMap<>();
+        for (String value : values) {
+            for (String name : value.split(",")) {
+                String n = name.trim().toLowerCase(Locale.ROOT);
+                if (n.equals("*")) {
+                    return null;
+                }
+                if (!n.isEmpty()) {
+                    vary.put(n, requestHeader.apply(n));
+                }
+            }
+        }
+        return vary;
+    }
+
+    private static boolean matchesVary(CachedResponse cached, Function<String, String> requestHeader) {
+        for (Map.Entry<String, String> v : cached.getVary().entrySet()) {
+            if (!Objects.equals(v.getValue(), requestHeader.apply(v.getKey()))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Copies the headers that are stored with a response, case-insensitively keyed,
+     * over the given base headers.
+     */
+    private static Map<String, List<String>> copyHeaders(Map<String, List<String>> headers,
+                                                         Map<String, List<String>> base) {
+        Map<String, List<String>> copy = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+        if (Objects.nonNull(base)) {
+            copy.putAll(base);
+        }
+        if (Objects.nonNull(headers)) {
+            for (Map.Entry<String, List<String>> header : headers.entrySet()) {
+                if (Objects.nonNull(header.getKey()) && Objects.nonNull(header.getValue())
+                        && !UNSTORED_HEADERS.contains(header.getKey().toLowerCase(Locale.ROOT))) {
+                    copy.put(header.getKey(), Collections.unmodifiableList(new ArrayList<>(header.getValue())));
+                }
+            }
+        }
+        return copy;
+    }
+
+    private static String first(List<String> values) {
+        return Objects.isNull(values) || values.isEmpty() ? null : values.get(0);
+    }
+
+    private static long parseLong(String value) {
+        if (Objects.isNull(value)) {
+            return 0;
+        }
+        try {
+            return Math.max(0, Long.parseLong(value.trim()));
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+
+    /**
+     * Parses an HTTP date, returning 0 for a missing or invalid one, which makes
+     * an Expires header already expired as the spec requires.
+     */
+    private static long parseDate(String value) {
+        if (Objects.isNull(value)) {
+            return 0;
+        }
+        try {
+            return ZonedDateTime.parse(value.trim(), DateTimeFormatter.RFC_1123_DATE_TIME).toInstant().toEpochMilli();
+        } catch (DateTimeParseException e) {
+            return 0;
+        }
+    }
+
+    private void publish(CacheEvent event, int bytes) {
+        if (Objects.nonNull(listener)) {
+            listener.onEvent(event, this, bytes);
+        }
+    }
+}
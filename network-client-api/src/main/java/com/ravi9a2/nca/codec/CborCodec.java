@@ -0,0 +1,16 @@
+package com.ravi9a2.nca.codec;
+
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+
+/**
+ * Encodes and decodes CBOR (RFC 8949). Maps the same types as the JSON codec.
+ * Needs jackson-dataformat-cbor on the classpath.
+ *
+ * @author raviiii1
+ */
+public class CborCodec extends JacksonCodec {
+
+    public CborCodec() {
+        super(Codecs.CBOR, "application/cbor", new CBORMapper());
+    }
+}
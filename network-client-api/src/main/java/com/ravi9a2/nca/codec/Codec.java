@@ -0,0 +1,56 @@
+package com.ravi9a2.nca.codec;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.reflect.Type;
+
+/**
+ * Encodes request bodies and decodes response bodies of one media type.
+ * Implementations must be thread-safe, as a single instance serves every call
+ * of every client using it.
+ * <p>
+ * Besides the built-in codecs, implementations listed in
+ * {@code META-INF/services/com.ravi9a2.nca.codec.Codec} are registered with
+ * {@link Codecs} under their name and media type.
+ *
+ * @author raviiii1
+ */
+public interface Codec {
+
+    /**
+     * The name the codec is selected by in the client config, e.g. "json".
+     */
+    String name();
+
+    /**
+     * The media type sent as Content-Type and Accept, without parameters.
+     */
+    String mediaType();
+
+    /**
+     * Encodes the value into the stream without closing it.
+     *
+     * @throws IOException if writing to the stream fails
+     */
+    void encode(Object value, OutputStream out) throws IOException;
+
+    /**
+     * Decodes the stream as the given type, which may be parameterized.
+     *
+     * @throws IOException if reading or decoding the stream fails
+     */
+    <T> T decode(InputStream in, Type type) throws IOException;
+
+    default byte[] encode(Object value) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        encode(value, out);
+        return out.toByteArray();
+    }
+
+    default <T> T decode(byte[] bytes, Type type) throws IOException {
+        return decode(new ByteArrayInputStream(bytes), type);
+    }
+}
@@ -0,0 +1,131 @@
+package com.ravi9a2.nca.codec;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.ServiceLoader;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * The registry of codecs, looked up by name when a client is configured and by
+ * media type when a response is decoded. Holds JSON, Smile, CBOR and protobuf
+ * out of the box, along with the codecs found through {@link ServiceLoader}.
+ * <p>
+ * Built-in binary codecs are only instantiated when first used, so their
+ * libraries are needed on the classpath only by the applications using them.
+ *
+ * @author raviiii1
+ */
+public final class Codecs {
+
+    public static final String JSON = "json";
+    public static final String SMILE = "smile";
+    public static final String CBOR = "cbor";
+    public static final String PROTOBUF = "protobuf";
+
+    private static final Map<String, Supplier<Codec>> FACTORIES = new ConcurrentHashMap<>();
+    private static final Map<String, Codec> CODECS = new ConcurrentHashMap<>();
+    private static final Map<String, String> NAMES_BY_MEDIA_TYPE = new ConcurrentHashMap<>();
+
+    static {
+        // lambdas rather than constructor references, so the codec classes are not loaded up front
+        builtIn(JSON, "application/json", () -> new JsonCodec());
+        builtIn(SMILE, "application/x-jackson-smile", () -> new SmileCodec());
+        builtIn(CBOR, "application/cbor", () -> new CborCodec());
+        builtIn(PROTOBUF, "application/x-protobuf", () -> new ProtobufCodec());
+        NAMES_BY_MEDIA_TYPE.put("application/protobuf", PROTOBUF);
+        for (Codec codec : ServiceLoader.load(Codec.class, Codecs.class.getClassLoader())) {
+            register(codec);
+        }
+    }
+
+    private Codecs() {
+    }
+
+    /**
+     * Registers the codec under its name and media type, replacing any codec
+     * registered under them before.
+     */
+    public static void register(Codec codec) {
+        String name = codec.name().toLowerCase(Locale.ROOT);
+        CODECS.put(name, codec);
+        NAMES_BY_MEDIA_TYPE.put(baseType(codec.mediaType()), name);
+    }
+
+    public static Codec json() {
+        return get(JSON);
+    }
+
+    /**
+     * Returns the codec registered under the name, the JSON codec if the name is
+     * empty.
+     *
+     * @throws IllegalArgumentException if no codec is registered under the name
+     * @throws IllegalStateException    if the library of the codec is missing
+     */
+    public static Codec get(String name) {
+        String key = Objects.isNull(name) || name.trim().isEmpty() ? JSON : name.trim().toLowerCase(Locale.ROOT);
+        Codec codec = CODECS.get(key);
+        if (Objects.nonNull(codec)) {
+            return codec;
+        }
+        Supplier<Codec> factory = FACTORIES.get(key);
+        if (Objects.isNull(factory)) {
+            throw new IllegalArgumentException("No codec named " + name);
+        }
+        return CODECS.computeIfAbsent(key, k -> {
+            try {
+                return factory.get();
+            } catch (NoClassDefFoundError e) {
+                throw new IllegalStateException("The " + k + " codec needs its library on the classpath", e);
+            }
+        });
+    }
+
+    /**
+     * Returns the name of the codec of the content type, ignoring its parameters,
+     * or null if no codec handles it. Any {@code +json} type is handled by the JSON
+     * codec.
+     */
+    public static String nameOf(String contentType) {
+        if (Objects.isNull(contentType)) {
+            return null;
+        }
+        String type = baseType(contentType);
+        String name = NAMES_BY_MEDIA_TYPE.get(type);
+        return Objects.isNull(name) && type.endsWith("+json") ? JSON : name;
+    }
+
+    /**
+     * Returns the codec of the content type. The fallback is returned if it
+     * handles the content type itself, so a call-specific codec is kept, or if
+     * no codec handles it, e.g. for a missing Content-Type.
+     */
+    public static Codec forContentType(String contentType, Codec fallback) {
+        String name = nameOf(contentType);
+        return Objects.isNull(name) || name.equals(fallback.name()) ? fallback : get(name);
+    }
+
+    /**
+     * Returns the Accept header of a call using the codec. Calls with a binary
+     * codec accept JSON at a lower preference too, so a server not speaking the
+     * codec can still answer.
+     */
+    public static String accept(Codec codec) {
+        if (JSON.equals(codec.name())) {
+            return codec.mediaType();
+        }
+        return codec.mediaType() + ", application/json;q=0.5";
+    }
+
+    private static void builtIn(String name, String mediaType, Supplier<Codec> factory) {
+        FACTORIES.put(name, factory);
+        NAMES_BY_MEDIA_TYPE.put(mediaType, name);
+    }
+
+    private static String baseType(String mediaType) {
+        int i = mediaType.indexOf(';');
+        return (i < 0 ? mediaType : mediaType.substring(0, i)).trim().toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,429 @@
+package com.ravi9a2.nca.codec;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * A JSON codec of one call, made of a reader of its response type and a writer of
+ * its payload type that the annotation processor generates at compile time. They
+ * go through Jackson's streaming parser and generator, without reflection or
+ * introspection. Other types are handed to the registered JSON codec.
+ * <p>
+ * A reader is called with the parser on the first token of the value and leaves
+ * it on the last. Unknown properties are skipped. A value of the wrong JSON type
+ * fails with a JsonParseException. Scalars are coerced as Jackson's defaults do,
+ * e.g. a number in a string is read as a number.
+ *
+ * @param <R> response type
+ * @param <P> payload type
+ * @author raviiii1
+ */
+public class GeneratedJsonCodec<R, P> implements Codec {
+
+    private static final JsonFactory FACTORY = new JsonFactory()
+            .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+
+    private final Type responseType;
+    private final Reader<R> reader;
+    private final Class<P> payloadType;
+    private final Writer<P> writer;
+
+    /**
+     * @param responseType the response type of the call, null if it has no reader
+     * @param reader       reads the response, may be null
+     * @param payloadType  the payload type of the call, null if it has no writer
+     * @param writer       writes the payload, may be null
+     */
+    public GeneratedJsonCodec(Type responseType, Reader<R> reader, Class<P> payloadType, Writer<P> writer) {
+        this.responseType = responseType;
+        this.reader = reader;
+        this.payloadType = payloadType;
+        this.writer = writer;
+    }
+
+    @Override
+    public String name() {
+        return Codecs.JSON;
+    }
+
+    @Override
+    public String mediaType() {
+        return "application/json";
+    }
+
+    @Override
+    public void encode(Object value, OutputStream out) throws IOException {
+        if (Objects.isNull(writer) || !payloadType.isInstance(value)) {
+            Codecs.json().encode(value, out);
+            return;
+        }
+        try (JsonGenerator g = FACTORY.createGenerator(out)) {
+            writer.write(g, payloadType.cast(value));
+        }
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T decode(InputStream in, Type type) throws IOException {
+        if (Objects.isNull(reader) || !sameType(responseType, type)) {
+            return Codecs.json().decode(in, type);
+        }
+        try (JsonParser p = FACTORY.createParser(in)) {
+            return p.nextToken() == null ? null : (T) reader.read(p);
+        }
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T decode(byte[] bytes, Type type) throws IOException {
+        if (Objects.isNull(reader) || !sameType(responseType, type)) {
+            return Codecs.json().decode(bytes, type);
+        }
+        try (JsonParser p = FACTORY.createParser(bytes)) {
+            return p.nextToken() == null ? null : (T) reader.read(p);
+        }
+    }
+
+    /**
+     * Compares types structurally, as the generated parameterized types do not
+     * implement equals.
+     */
+    static boolean sameType(Type a, Type b) {
+        if (a instanceof ParameterizedType && b instanceof ParameterizedType) {
+            ParameterizedType pa = (ParameterizedType) a;
+            ParameterizedType pb = (ParameterizedType) b;
+            if (!sameType(pa.getRawType(), pb.getRawType())) {
+                return false;
+            }
+            Type[] aArgs = pa.getActualTypeArguments();
+            Type[] bArgs = pb.getActualTypeArguments();
+            if (aArgs.length != bArgs.length) {
+                return false;
+            }
+            for (int i = 0; i < aArgs.length; i++) {
+                if (!sameType(aArgs[i], bArgs[i])) {
+                    return false;
+                }
+            }
+            return true;
+        }
+        return Objects.equals(a, b);
+    }
+
+    @FunctionalInterface
+    public interface Reader<T> {
+        T read(JsonParser p) throws IOException;
+    }
+
+    @FunctionalInterface
+    public interface Writer<T> {
+        void write(JsonGenerator g, T value) throws IOException;
+    }
+
+    /**
+     * Fails unless the parser is on the token, for the start of objects and arrays.
+     */
+    public static void expect(JsonParser p, JsonToken token) throws IOException {
+        if (p.currentToken() != token) {
+            throw new JsonParseException(p, "Expected " + token + " but was " + p.currentToken());
+        }
+    }
+
+    /**
+     * Reads a string. Numbers and booleans are read as their text, like Jackson does.
+     */
+    public static String readString(JsonParser p) throws IOException {
+        JsonToken token = p.currentToken();
+        if (token == JsonToken.VALUE_NULL) {
+            return null;
+        }
+        if (!token.isScalarValue()) {
+            throw mismatch(p, "String");
+        }
+        return p.getText();
+    }
+
+    /**
+     * Reads a boolean, also from the strings "true" and "false".
+     */
+    public static Boolean readBoolean(JsonParser p) throws IOException {
+        switch (p.currentToken()) {
+            case VALUE_NULL:
+                return null;
+            case VALUE_TRUE:
+                return Boolean.TRUE;
+            case VALUE_FALSE:
+                return Boolean.FALSE;
+            case VALUE_STRING:
+                String text = p.getText().trim();
+                if ("true".equals(text)) {
+                    return Boolean.TRUE;
+                }
+                if ("false".equals(text)) {
+                    return Boolean.FALSE;
+                }
+                throw new JsonParseException(p, "Cannot read Boolean from \"" + text + "\"");
+            default:
+                throw mismatch(p, "Boolean");
+        }
+    }
+
+    public static Integer readInteger(JsonParser p) throws IOException {
+        return p.currentToken() == JsonToken.VALUE_NULL ? null
+                : (int) readIntegral(p, "Integer", Integer.MIN_VALUE, Integer.MAX_VALUE);
+    }
+
+    public static Long readLong(JsonParser p) throws IOException {
+        return p.currentToken() == JsonToken.VALUE_NULL ? null
+                : readIntegral(p, "Long", Long.MIN_VALUE, Long.MAX_VALUE);
+    }
+
+    public static Short readShort(JsonParser p) throws IOException {
+        return p.currentToken() == JsonToken.VALUE_NULL ? null
+                : (short) readIntegral(p, "Short", Short.MIN_VALUE, Short.MAX_VALUE);
+    }
+
+    public static Byte readByte(JsonParser p) throws IOException {
+        return p.currentToken() == JsonToken.VALUE_NULL ? null
+                : (byte) readIntegral(p, "Byte", Byte.MIN_VALUE, Byte.MAX_VALUE);
+    }
+
+    public static Double readDouble(JsonParser p) throws IOException {
+        return p.currentToken() == JsonToken.VALUE_NULL ? null : readFloating(p, "Double");
+    }
+
+    public static Float readFloat(JsonParser p) throws IOException {
+        return p.currentToken() == JsonToken.VALUE_NULL ? null : (float) readFloating(p, "Float");
+    }
+
+    public static BigDecimal readBigDecimal(JsonParser p) throws IOException {
+        switch (p.currentToken()) {
+            case VALUE_NULL:
+                return null;
+            case VALUE_NUMBER_INT:
+            case VALUE_NUMBER_FLOAT:
+                return p.getDecimalValue();
+            case VALUE_STRING:
+                try {
+                    return new BigDecimal(p.getText().trim());
+                } catch (NumberFormatException e) {
+                    throw new JsonParseException(p, "Cannot read BigDecimal from \"" + p.getText() + "\"", e);
+                }
+            default:
+                throw mismatch(p, "BigDecimal");
+        }
+    }
+
+    public static BigInteger readBigInteger(JsonParser p) throws IOException {
+        switch (p.currentToken()) {
+            case VALUE_NULL:
+                return null;
+            case VALUE_NUMBER_INT:
+                return p.getBigIntegerValue();
+            case VALUE_NUMBER_FLOAT:
+                return p.getDecimalValue().toBigInteger();
+            case VALUE_STRING:
+                try {
+                    return new BigInteger(p.getText().trim());
+                } catch (NumberFormatException e) {
+                    throw new JsonParseException(p, "Cannot read BigInteger from \"" + p.getText() + "\"", e);
+                }
+            default:
+                throw mismatch(p, "BigInteger");
+        }
+    }
+
+    /**
+     * Reads an enum constant by its name.
+     *
+     * @throws IOException if the value is not the name of a constant
+     */
+    public static <E extends Enum<E>> E readEnum(JsonParser p, Function<String, E> valueOf) throws IOException {
+        if (p.currentToken() != JsonToken.VALUE_NULL && p.currentToken() != JsonToken.VALUE_STRING) {
+            throw mismatch(p, "enum");
+        }
+        String name = readString(p);
+        if (Objects.isNull(name)) {
+            return null;
+        }
+        try {
+            return valueOf.apply(name);
+        } catch (IllegalArgumentException e) {
+            throw new JsonParseException(p, "Unknown enum constant \"" + name + "\"", e);
+        }
+    }
+
+    public static <E> List<E> readList(JsonParser p, Reader<E> element) throws IOException {
+        return readInto(p, new ArrayList<>(), element);
+    }
+
+    public static <E> Set<E> readSet(JsonParser p, Reader<E> element) throws IOException {
+        return readInto(p, new LinkedHashSet<>(), element);
+    }
+
+    public static <V> Map<String, V> readMap(JsonParser p, Reader<V> value) throws IOException {
+        if (p.currentToken() == JsonToken.VALUE_NULL) {
+            return null;
+        }
+        expect(p, JsonToken.START_OBJECT);
+        Map<String, V> map = new LinkedHashMap<>();
+        while (p.nextToken() == JsonToken.FIELD_NAME) {
+            String key = p.getCurrentName();
+            p.nextToken();
+            map.put(key, value.read(p));
+        }
+        return map;
+    }
+
+    private static <E, C extends Collection<E>> C readInto(JsonParser p, C collection, Reader<E> element)
+            throws IOException {
+        if (p.currentToken() == JsonToken.VALUE_NULL) {
+            return null;
+        }
+        expect(p, JsonToken.START_ARRAY);
+        while (p.nextToken() != JsonToken.END_ARRAY) {
+            collection.add(element.read(p));
+        }
+        return collection;
+    }
+
+    /**
+     * Reads an integral number in the range, also from a string. A floating point
+     * number is truncated, like Jackson does.
+     */
+    private static long readIntegral(JsonParser p, String type, long min, long max) throws IOException {
+        long value;
+        switch (p.currentToken()) {
+            case VALUE_NUMBER_INT:
+                value = p.getLongValue();
+                break;
+            case VALUE_NUMBER_FLOAT:
+                double d = p.getDoubleValue();
+                if (d < min || d > max) {
+                    throw new JsonParseException(p, "Value " + p.getText() + " is out of range of " + type);
+                }
+                value = (long) d;
+                break;
+            case VALUE_STRING:
+                try {
+                    value = Long.parseLong(p.getText().trim());
+                } catch (NumberFormatException e) {
+                    throw new JsonParseException(p, "Cannot read " + type + " from \"" + p.getText() + "\"", e);
+                }
+                break;
+            default:
+                throw mismatch(p, type);
+        }
+        if (value < min || value > max) {
+            throw new JsonParseException(p, "Value " + p.getText() + " is out of range of " + type);
+        }
+        return value;
+    }
+
+    private static double readFloating(JsonParser p, String type) throws IOException {
+        switch (p.currentToken()) {
+            case VALUE_NUMBER_INT:
+            case VALUE_NUMBER_FLOAT:
+                return p.getDoubleValue();
+            case VALUE_STRING:
+                try {
+                    return Double.parseDouble(p.getText().trim());
+                } catch (NumberFormatException e) {
+                    throw new JsonParseException(p, "Cannot read " + type + " from \"" + p.getText() + "\"", e);
+                }
+            default:
+                throw mismatch(p, type);
+        }
+    }
+
+    private static JsonParseException mismatch(JsonParser p, String type) {
+        return new JsonParseException(p, "Cannot read " + type + " from " + p.currentToken());
+    }
+
+    public static void writeString(JsonGenerator g, String value) throws IOException {
+        g.writeString(value);
+    }
+
+    public static void writeBoolean(JsonGenerator g, Boolean value) throws IOException {
+        if (Objects.isNull(value)) {
+            g.writeNull();
+        } else {
+            g.writeBoolean(value);
+        }
+    }
+
+    public static void writeNumber(JsonGenerator g, Number value) throws IOException {
+        if (Objects.isNull(value)) {
+            g.writeNull();
+        } else if (value instanceof Integer || value instanceof Short || value instanceof Byte) {
+            g.writeNumber(value.intValue());
+        } else if (value instanceof Long) {
+            g.writeNumber(value.longValue());
+        } else if (value instanceof Double) {
+            g.writeNumber(value.doubleValue());
+        } else if (value instanceof Float) {
+            g.writeNumber(value.floatValue());
+        } else if (value instanceof BigDecimal) {
+            g.writeNumber((BigDecimal) value);
+        } else if (value instanceof BigInteger) {
+            g.writeNumber((BigInteger) value);
+        } else {
+            g.writeNumber(value.toString());
+        }
+    }
+
+    public static void writeEnum(JsonGenerator g, Enum<?> value) throws IOException {
+        g.writeString(Objects.isNull(value) ? null : value.name());
+    }
+
+    public static <E> void writeCollection(JsonGenerator g, Collection<E> values, Writer<E> element)
+            throws IOException {
+        if (Objects.isNull(values)) {
+            g.writeNull();
+            return;
+        }
+        g.writeStartArray();
+        for (E value : values) {
+            element.write(g, value);
+        }
+        g.writeEndArray();
+    }
+
+    public static <V> void writeMap(JsonGenerator g, Map<String, V> values, Writer<V> value) throws IOException {
+        if (Objects.isNull(values)) {
+            g.writeNull();
+            return;
+        }
+        g.writeStartObject();
+        for (Map.Entry<String, V> entry : values.entrySet()) {
+            g.writeFieldName(entry.getKey());
+            value.write(g, entry.getValue());
+        }
+        g.writeEndObject();
+    }
+
+    @Override
+    public String toString() {
+        return "GeneratedJsonCodec[" + responseType + ", " + payloadType + "]";
+    }
+}
@@ -0,0 +1,75 @@
+package com.ravi9a2.nca.codec;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.reflect.Type;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A codec backed by a Jackson ObjectMapper. Readers are created once per type
+ * and cached. The cache is keyed by the resolved JavaType, as the parameterized
+ * types of generated call definitions are new instances on every call.
+ *
+ * @author raviiii1
+ */
+public abstract class JacksonCodec implements Codec {
+
+    private final String name;
+    private final String mediaType;
+    private final ObjectMapper mapper;
+    private final ObjectWriter writer;
+    private final Map<JavaType, ObjectReader> readers = new ConcurrentHashMap<>();
+
+    protected JacksonCodec(String name, String mediaType, ObjectMapper mapper) {
+        this.name = name;
+        this.mediaType = mediaType;
+        this.mapper = mapper;
+        this.writer = mapper.writer().without(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+    }
+
+    @Override
+    public String name() {
+        return name;
+    }
+
+    @Override
+    public String mediaType() {
+        return mediaType;
+    }
+
+    @Override
+    public void encode(Object value, OutputStream out) throws IOException {
+        writer.writeValue(out, value);
+    }
+
+    @Override
+    public byte[] encode(Object value) throws IOException {
+        return writer.writeValueAsBytes(value);
+    }
+
+    @Override
+    public <T> T decode(InputStream in, Type type) throws IOException {
+        return reader(type).readValue(in);
+    }
+
+    @Override
+    public <T> T decode(byte[] bytes, Type type) throws IOException {
+        return reader(type).readValue(bytes);
+    }
+
+    int readerCount() {
+        return readers.size();
+    }
+
+    private ObjectReader reader(Type type) {
+        return readers.computeIfAbsent(mapper.getTypeFactory().constructType(type), mapper::readerFor);
+    }
+}
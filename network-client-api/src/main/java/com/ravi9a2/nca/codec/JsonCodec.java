@@ -0,0 +1,15 @@
+package com.ravi9a2.nca.codec;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Encodes and decodes JSON. The default codec of every client.
+ *
+ * @author raviiii1
+ */
+public class JsonCodec extends JacksonCodec {
+
+    public JsonCodec() {
+        super(Codecs.JSON, "application/json", new ObjectMapper());
+    }
+}
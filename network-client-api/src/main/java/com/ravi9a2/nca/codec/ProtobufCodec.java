@@ -0,0 +1,75 @@
+package com.ravi9a2.nca.codec;
+
+import com.google.protobuf.MessageLite;
+import com.google.protobuf.Parser;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.reflect.Type;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Encodes and decodes protobuf messages over HTTP. Bodies and response types
+ * must be generated protobuf message classes; collections and other types are
+ * not supported. Needs protobuf-java on the classpath.
+ *
+ * @author raviiii1
+ */
+public class ProtobufCodec implements Codec {
+
+    private final Map<Type, Parser<?>> parsers = new ConcurrentHashMap<>();
+
+    @Override
+    public String name() {
+        return Codecs.PROTOBUF;
+    }
+
+    @Override
+    public String mediaType() {
+        return "application/x-protobuf";
+    }
+
+    @Override
+    public void encode(Object value, OutputStream out) throws IOException {
+        if (!(value instanceof MessageLite)) {
+            throw new IllegalArgumentException("Not a protobuf message: "
+                    + (value == null ? null : value.getClass().getName()));
+        }
+        ((MessageLite) value).writeTo(out);
+    }
+
+    @Override
+    public byte[] encode(Object value) throws IOException {
+        if (!(value instanceof MessageLite)) {
+            return Codec.super.encode(value);
+        }
+        return ((MessageLite) value).toByteArray();
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T decode(InputStream in, Type type) throws IOException {
+        return (T) parser(type).parseFrom(in);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T decode(byte[] bytes, Type type) throws IOException {
+        return (T) parser(type).parseFrom(bytes);
+    }
+
+    private Parser<?> parser(Type type) {
+        return parsers.computeIfAbsent(type, t -> {
+            if (!(t instanceof Class) || !MessageLite.class.isAssignableFrom((Class<?>) t)) {
+                throw new IllegalArgumentException("Not a protobuf message type: " + t.getTypeName());
+            }
+            try {
+                return ((MessageLite) ((Class<?>) t).getMethod("getDefaultInstance").invoke(null)).getParserForType();
+            } catch (ReflectiveOperationException e) {
+                throw new IllegalArgumentException("Not a generated protobuf message type: " + t.getTypeName(), e);
+            }
+        });
+    }
+}
@@ -0,0 +1,16 @@
+package com.ravi9a2.nca.codec;
+
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
+
+/**
+ * Encodes and decodes Smile, Jackson's binary form of JSON. Maps the same
+ * types as the JSON codec. Needs jackson-dataformat-smile on the classpath.
+ *
+ * @author raviiii1
+ */
+public class SmileCodec extends JacksonCodec {
+
+    public SmileCodec() {
+        super(Codecs.SMILE, "application/x-jackson-smile", new SmileMapper());
+    }
+}
@@ -0,0 +1,67 @@
+package com.ravi9a2.nca.data;
+
+/**
+ * A pojo holding whether and how a Client caches the responses of its GET calls.
+ * <p>
+ * Responses are cached for as long as their Cache-Control or Expires headers
+ * allow, in a store bounded to {@code maxBytes}. A 404 or 410 without explicit
+ * freshness is cached for {@code negativeTtl} milliseconds.
+ *
+ * @author raviiii1
+ */
+public class CacheConfig {
+    protected boolean enabled;
+    protected long maxBytes;
+    protected long negativeTtl;
+
+    private CacheConfig(boolean enabled, long maxBytes, long negativeTtl) {
+        this.enabled = enabled;
+        this.maxBytes = maxBytes;
+        this.negativeTtl = negativeTtl;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public long getMaxBytes() {
+        return maxBytes;
+    }
+
+    public long getNegativeTtl() {
+        return negativeTtl;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public static class Builder {
+        private boolean enabled;
+        private long maxBytes = 16 * 1024 * 1024;
+        private long negativeTtl = 5000;
+
+        public Builder enabled(boolean enabled) {
+            this.enabled = enabled;
+            return this;
+        }
+
+        public Builder maxBytes(long maxBytes) {
+            this.maxBytes = maxBytes;
+            return this;
+        }
+
+        public Builder negativeTtl(long negativeTtl) {
+            this.negativeTtl = negativeTtl;
+            return this;
+        }
+
+        public CacheConfig build() {
+            return new CacheConfig(
+                    this.enabled,
+                    this.maxBytes,
+                    this.negativeTtl
+            );
+        }
+    }
+}
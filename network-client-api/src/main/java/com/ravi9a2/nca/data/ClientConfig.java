@@ -1,6 +1,9 @@
 package com.ravi9a2.nca.data;
 
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 
@@ -14,17 +17,27 @@ public class ClientConfig {
     protected String clientName;
     protected Timeouts timeouts;
     protected String baseUrl;
+    protected List<String> baseUrls;
+    protected OutlierDetection outlierDetection;
+    protected CacheConfig cacheConfig;
+    protected Http2Config http2Config;
     protected Authentication authentication;
     protected Map<String, String> headers;
     protected int inMemoryBufferSizeInKB;
+    protected String codec;
 
     protected ClientConfig(Builder builder) {
         this.clientName = builder.clientName;
         this.timeouts = builder.timeouts;
         this.authentication = builder.authentication;
         this.baseUrl = builder.baseUrl;
+        this.baseUrls = builder.baseUrls;
+        this.outlierDetection = builder.outlierDetection;
+        this.cacheConfig = builder.cacheConfig;
+        this.http2Config = builder.http2Config;
         this.headers = builder.headers;
         this.inMemoryBufferSizeInKB = builder.inMemoryBufferSizeInKB;
+        this.codec = builder.codec;
     }
 
     public String getClientName() {
@@ -39,6 +52,32 @@ public class ClientConfig {
         return baseUrl;
     }
 
+    /**
+     * Returns the endpoints the Client balances its calls across. Falls back to
+     * the single base url when no list of endpoints was configured.
+     */
+    public List<String> getBaseUrls() {
+        if (Objects.nonNull(baseUrls) && !baseUrls.isEmpty()) {
+            return baseUrls;
+        }
+        return Objects.isNull(baseUrl) ? Collections.emptyList() : Collections.singletonList(baseUrl);
+    }
+
+    public OutlierDetection getOutlierDetection() {
+        return outlierDetection;
+    }
+
+    public CacheConfig getCacheConfig() {
+        return cacheConfig;
+    }
+
+    /**
+     * Returns the HTTP protocol of the Client, HTTP/1.1 when none was configured.
+     */
+    public Http2Config getHttp2Config() {
+        return Objects.isNull(http2Config) ? Http2Config.builder().build() : http2Config;
+    }
+
     public Authentication getAuthentication() {
         return authentication;
     }
@@ -51,6 +90,14 @@ public class ClientConfig {
         return inMemoryBufferSizeInKB;
     }
 
+    /**
+     * Returns the name of the codec encoding and decoding the Client's bodies,
+     * null for JSON.
+     */
+    public String getCodec() {
+        return codec;
+    }
+
     public static Builder builder() {
         return new Builder();
     }
@@ -59,9 +106,14 @@ public class ClientConfig {
         private String clientName;
         private Timeouts timeouts;
         private String baseUrl;
+        private List<String> baseUrls;
+        private OutlierDetection outlierDetection;
+        private CacheConfig cacheConfig;
+        private Http2Config http2Config;
         private Authentication authentication;
         private Map<String, String> headers;
         private int inMemoryBufferSizeInKB;
+        private String codec;
 
         public Builder clientName(String clientName) {
             this.clientName = clientName;
@@ -78,6 +130,28 @@ public class ClientConfig {
             return this;
         }
 
+        public Builder baseUrls(List<String> baseUrls) {
+            if (Objects.nonNull(baseUrls)) {
+                this.baseUrls = Collections.unmodifiableList(new ArrayList<>(baseUrls));
+            }
+            return this;
+        }
+
+        public Builder outlierDetection(OutlierDetection outlierDetection) {
+            this.outlierDetection = outlierDetection;
+            return this;
+        }
+
+        public Builder cacheConfig(CacheConfig cacheConfig) {
+            this.cacheConfig = cacheConfig;
+            return this;
+        }
+
+        public Builder http2Config(Http2Config http2Config) {
+            this.http2Config = http2Config;
+            return this;
+        }
+
         public Builder authentication(Authentication authentication) {
             this.authentication = authentication;
             return this;
@@ -108,6 +182,11 @@ public class ClientConfig {
             return this;
         }
 
+        public Builder codec(String codec) {
+            this.codec = codec;
+            return this;
+        }
+
         public ClientConfig build() {
             return new ClientConfig(this);
         }
@@ -0,0 +1,133 @@
+package com.ravi9a2.nca.data;
+
+import com.ravi9a2.nca.exceptions.DeadlineExceededException;
+
+import java.time.Duration;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The point in time by which a call must complete. Every stage a call goes
+ * through spends from the same budget, and each client caps its own timeouts
+ * with what is left of it when the request is sent.
+ * <p>
+ * A deadline reaches the executors either on the call definition, in the
+ * Reactor Context under {@link #CONTEXT_KEY}, or on the calling thread through
+ * {@link #attach()}. The earliest of them applies.
+ *
+ * @author raviiii1
+ */
+public final class Deadline {
+
+    /**
+     * The key of the deadline in the Reactor Context.
+     */
+    public static final String CONTEXT_KEY = Deadline.class.getName();
+
+    private static final ThreadLocal<Deadline> CURRENT = new ThreadLocal<>();
+
+    private final long expiresAtNanos;
+
+    private Deadline(long expiresAtNanos) {
+        this.expiresAtNanos = expiresAtNanos;
+    }
+
+    public static Deadline after(long millis) {
+        return new Deadline(System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(millis));
+    }
+
+    public static Deadline after(Duration duration) {
+        return new Deadline(System.nanoTime() + duration.toNanos());
+    }
+
+    /**
+     * Returns the deadline attached to the current thread, or null if there is none.
+     */
+    public static Deadline current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * Returns the earlier of the two deadlines, either of which may be null.
+     */
+    public static Deadline earliest(Deadline a, Deadline b) {
+        if (Objects.isNull(a)) {
+            return b;
+        }
+        if (Objects.isNull(b)) {
+            return a;
+        }
+        return a.expiresAtNanos - b.expiresAtNanos <= 0 ? a : b;
+    }
+
+    /**
+     * Attaches this deadline to the current thread until the returned scope is
+     * closed, which restores the deadline attached before.
+     */
+    public Scope attach() {
+        Deadline previous = CURRENT.get();
+        CURRENT.set(this);
+        return new Scope(previous);
+    }
+
+    /**
+     * Returns the milliseconds left, zero or negative once the deadline has passed.
+     */
+    public long remainingMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(expiresAtNanos - System.nanoTime());
+    }
+
+    public boolean isExpired() {
+        return expiresAtNanos - System.nanoTime() <= 0;
+    }
+
+    /**
+     * Caps a configured timeout with the time left, never going below one
+     * millisecond. A configured timeout of zero or less means no timeout.
+     *
+     * @param timeoutMillis the configured timeout
+     * @return the timeout to apply to the request
+     */
+    public long cap(long timeoutMillis) {
+        long remaining = Math.max(1, remainingMillis());
+        return timeoutMillis <= 0 ? remaining : Math.min(timeoutMillis, remaining);
+    }
+
+    /**
+     * Throws a DeadlineExceededException if the deadline has passed.
+     */
+    public void check() {
+        if (isExpired()) {
+            throw exceeded();
+        }
+    }
+
+    public DeadlineExceededException exceeded() {
+        return new DeadlineExceededException(Math.max(0, -remainingMillis()));
+    }
+
+    @Override
+    public String toString() {
+        return "Deadline[" + remainingMillis() + " ms]";
+    }
+
+    /**
+     * Detaches a deadline from the thread it was attached to.
+     */
+    public static final class Scope implements AutoCloseable {
+        private final Deadline previous;
+
+        private Scope(Deadline previous) {
+            this.previous = previous;
+        }
+
+        @Override
+        public void close() {
+            if (Objects.isNull(previous)) {
+                CURRENT.remove();
+            } else {
+                CURRENT.set(previous);
+            }
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package com.ravi9a2.nca.data;
+
+import java.util.Locale;
+import java.util.Objects;
+
+/**
+ * A pojo holding the HTTP protocol a Client speaks to its downstream.
+ * <p>
+ * With {@code H2} the Client negotiates HTTP/2 over TLS with ALPN, with
+ * {@code H2C} it upgrades a cleartext connection. Either way it falls back to
+ * HTTP/1.1 when the downstream does not speak HTTP/2. Over HTTP/2 concurrent
+ * calls share a connection as streams, up to the lower of
+ * {@code maxConcurrentStreams} and the limit announced by the downstream, and a
+ * new connection is opened only when all of them are full. The flow-control
+ * window of every stream is {@code initialWindowSize} bytes.
+ *
+ * @author raviiii1
+ */
+public class Http2Config {
+    protected Protocol protocol;
+    protected long maxConcurrentStreams;
+    protected int initialWindowSize;
+
+    private Http2Config(Protocol protocol, long maxConcurrentStreams, int initialWindowSize) {
+        this.protocol = protocol;
+        this.maxConcurrentStreams = maxConcurrentStreams;
+        this.initialWindowSize = initialWindowSize;
+    }
+
+    public Protocol getProtocol() {
+        return protocol;
+    }
+
+    /**
+     * Returns whether the Client tries HTTP/2 before falling back to HTTP/1.1.
+     */
+    public boolean isEnabled() {
+        return protocol != Protocol.HTTP11;
+    }
+
+    public long getMaxConcurrentStreams() {
+        return maxConcurrentStreams;
+    }
+
+    public int getInitialWindowSize() {
+        return initialWindowSize;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public enum Protocol {
+        HTTP11, H2, H2C;
+
+        /**
+         * Parses a protocol from its configured name, one of http1.1, h2 and h2c.
+         * Defaults to HTTP/1.1 when no name is given.
+         */
+        public static Protocol of(String name) {
+            if (Objects.isNull(name) || name.trim().isEmpty()) {
+                return HTTP11;
+            }
+            switch (name.trim().toLowerCase(Locale.ROOT)) {
+                case "http1.1":
+                case "http11":
+                    return HTTP11;
+                case "h2":
+                    return H2;
+                case "h2c":
+                    return H2C;
+                default:
+                    throw new IllegalArgumentException("Unknown HTTP protocol: " + name);
+            }
+        }
+    }
+
+    public static class Builder {
+        private Protocol protocol = Protocol.HTTP11;
+        private long maxConcurrentStreams = 100;
+        private int initialWindowSize = 65535;
+
+        public Builder protocol(Protocol protocol) {
+            this.protocol = Objects.isNull(protocol) ? Protocol.HTTP11 : protocol;
+            return this;
+        }
+
+        public Builder protocol(String protocol) {
+            this.protocol = Protocol.of(protocol);
+            return this;
+        }
+
+        public Builder maxConcurrentStreams(long maxConcurrentStreams) {
+            this.maxConcurrentStreams = maxConcurrentStreams;
+            return this;
+        }
+
+        public Builder initialWindowSize(int initialWindowSize) {
+            this.initialWindowSize = initialWindowSize;
+            return this;
+        }
+
+        public Http2Config build() {
+            return new Http2Config(
+                    this.protocol,
+                    this.maxConcurrentStreams,
+                    this.initialWindowSize
+            );
+        }
+    }
+}
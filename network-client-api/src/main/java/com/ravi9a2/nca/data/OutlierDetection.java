@@ -0,0 +1,86 @@
+package com.ravi9a2.nca.data;
+
+/**
+ * A pojo holding when an endpoint of a Client is ejected from load balancing
+ * and for how long.
+ * <p>
+ * An endpoint is ejected after {@code consecutiveFailures} 5XX responses or
+ * timeouts in a row, for {@code baseEjectionTime} times the number of times
+ * it has been ejected in a row, capped at {@code maxEjectionTime}. It is
+ * re-admitted once that time has passed. At most {@code maxEjectionPercent}
+ * percent of the endpoints are ejected at a time.
+ *
+ * @author raviiii1
+ */
+public class OutlierDetection {
+    protected int consecutiveFailures;
+    protected long baseEjectionTime;
+    protected long maxEjectionTime;
+    protected int maxEjectionPercent;
+
+    private OutlierDetection(int consecutiveFailures,
+                             long baseEjectionTime,
+                             long maxEjectionTime,
+                             int maxEjectionPercent) {
+        this.consecutiveFailures = consecutiveFailures;
+        this.baseEjectionTime = baseEjectionTime;
+        this.maxEjectionTime = maxEjectionTime;
+        this.maxEjectionPercent = maxEjectionPercent;
+    }
+
+    public int getConsecutiveFailures() {
+        return consecutiveFailures;
+    }
+
+    public long getBaseEjectionTime() {
+        return baseEjectionTime;
+    }
+
+    public long getMaxEjectionTime() {
+        return maxEjectionTime;
+    }
+
+    public int getMaxEjectionPercent() {
+        return maxEjectionPercent;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public static class Builder {
+        private int consecutiveFailures = 5;
+        private long baseEjectionTime = 30000;
+        private long maxEjectionTime = 300000;
+        private int maxEjectionPercent = 50;
+
+        public Builder consecutiveFailures(int consecutiveFailures) {
+            this.consecutiveFailures = consecutiveFailures;
+            return this;
+        }
+
+        public Builder baseEjectionTime(long baseEjectionTime) {
+            this.baseEjectionTime = baseEjectionTime;
+            return this;
+        }
+
+        public Builder maxEjectionTime(long maxEjectionTime) {
+            this.maxEjectionTime = maxEjectionTime;
+            return this;
+        }
+
+        public Builder maxEjectionPercent(int maxEjectionPercent) {
+            this.maxEjectionPercent = maxEjectionPercent;
+            return this;
+        }
+
+        public OutlierDetection build() {
+            return new OutlierDetection(
+                    this.consecutiveFailures,
+                    this.baseEjectionTime,
+                    this.maxEjectionTime,
+                    this.maxEjectionPercent
+            );
+        }
+    }
+}
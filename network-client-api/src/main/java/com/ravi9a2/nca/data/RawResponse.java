@@ -0,0 +1,60 @@
+package com.ravi9a2.nca.data;
+
+import reactor.core.publisher.Flux;
+
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A response passed through undecoded: its status, its headers and its body as
+ * the buffers the client received, DataBuffers for WebClient. Buffers are handed
+ * over as they arrive, so they can be written to another response without being
+ * copied.
+ * <p>
+ * The body must be subscribed to exactly once, or the connection is not released.
+ * Whoever consumes the buffers is responsible for releasing them.
+ *
+ * @param <B> the buffer type of the client
+ * @author raviiii1
+ */
+public final class RawResponse<B> {
+
+    private final int status;
+    private final Map<String, List<String>> headers;
+    private final Flux<B> body;
+
+    public RawResponse(int status, Map<String, List<String>> headers, Flux<B> body) {
+        this.status = status;
+        this.headers = Collections.unmodifiableMap(headers);
+        this.body = body;
+    }
+
+    public int getStatus() {
+        return status;
+    }
+
+    public Map<String, List<String>> getHeaders() {
+        return headers;
+    }
+
+    public Flux<B> getBody() {
+        return body;
+    }
+
+    /**
+     * Tells whether a response type asks for the raw response, so the call
+     * passes its body through instead of decoding it.
+     */
+    public static boolean isRawType(Type type) {
+        Type raw = type instanceof ParameterizedType ? ((ParameterizedType) type).getRawType() : type;
+        return RawResponse.class.equals(raw);
+    }
+
+    @Override
+    public String toString() {
+        return "RawResponse[" + status + "]";
+    }
+}
@@ -10,11 +10,13 @@ public class RequestSpec {
     protected Map<String, String> headers;
     protected Object body;
     protected Type type;
+    protected Deadline deadline;
 
     protected RequestSpec(Builder builder) {
         this.body = builder.body;
         this.type = builder.type;
         this.headers = builder.headers;
+        this.deadline = builder.deadline;
     }
 
     public Map<String, String> getHeaders() {
@@ -29,15 +31,33 @@ public class RequestSpec {
         return type;
     }
 
+    /**
+     * Returns the deadline of the request, or null if it is bound by the client's
+     * timeouts alone.
+     */
+    public Deadline getDeadline() {
+        return deadline;
+    }
+
     public abstract static class Builder<T> {
         private Map<String, String> headers;
         private Object body;
         private Type type;
+        private Deadline deadline;
+        private boolean sharedHeaders;
 
+        /**
+         * The first non-null map is adopted as is and only copied if it is
+         * modified through this builder afterwards, so callers must not mutate
+         * the passed map once it is handed over.
+         */
         public T headers(Map<String, String> headers) {
-            if (Objects.isNull(this.headers)) {
-                this.headers = new HashMap<>();
+            if (Objects.isNull(this.headers) && Objects.nonNull(headers)) {
+                this.headers = headers;
+                this.sharedHeaders = true;
+                return this.getThis();
             }
+            ownHeaders();
             if (Objects.nonNull(headers)) {
                 this.headers.putAll(headers);
             }
@@ -45,9 +65,7 @@ public class RequestSpec {
         }
 
         public T header(String k, String v) {
-            if (Objects.isNull(this.headers)) {
-                this.headers = new HashMap<>();
-            }
+            ownHeaders();
             if (Objects.nonNull(k) && Objects.nonNull(v)) {
                 this.headers.put(k, v);
             }
@@ -64,8 +82,22 @@ public class RequestSpec {
             return this.getThis();
         }
 
+        public T deadline(Deadline deadline) {
+            this.deadline = deadline;
+            return this.getThis();
+        }
+
         public abstract RequestSpec build();
 
         protected abstract T getThis();
+
+        private void ownHeaders() {
+            if (Objects.isNull(this.headers)) {
+                this.headers = new HashMap<>();
+            } else if (sharedHeaders) {
+                this.headers = new HashMap<>(this.headers);
+            }
+            sharedHeaders = false;
+        }
     }
 }
@@ -0,0 +1,231 @@
+package com.ravi9a2.nca.data;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.UnaryOperator;
+
+/**
+ * A compiled, immutable form of a REST request's static parts: the http method
+ * and the url template.
+ * <p>
+ * The url template is parsed exactly once into literal segments and variable
+ * slots. Both `{name}` and `${name}` placeholders are understood. Per call,
+ * the values are bound into a slot array sized to the number of variables and
+ * the url is expanded into a pre-sized buffer, so no template is re-parsed and
+ * no intermediate map is built on the request path.
+ * <p>
+ * Templates obtained via {@link #of(String, String)} are cached for the
+ * lifetime of the JVM.
+ *
+ * @author raviiii1
+ */
+public final class RequestTemplate {
+
+    static final int MAX_CACHED_TEMPLATES = 4096;
+
+    private static final ConcurrentMap<String, ConcurrentMap<String, RequestTemplate>> TEMPLATES = new ConcurrentHashMap<>();
+    private static final String[] NO_SLOTS = new String[0];
+
+    private final String httpMethod;
+    private final String url;
+    private final String[] literals;
+    private final String[] variables;
+    private final String[] placeholders;
+    private final int literalLength;
+
+    private RequestTemplate(Builder builder) {
+        this.httpMethod = builder.httpMethod;
+        this.url = builder.url;
+
+        List<String> literalList = new ArrayList<>();
+        List<String> variableList = new ArrayList<>();
+        List<String> placeholderList = new ArrayList<>();
+        parse(this.url, literalList, variableList, placeholderList);
+        this.literals = literalList.toArray(new String[0]);
+        this.variables = variableList.toArray(new String[0]);
+        this.placeholders = placeholderList.toArray(new String[0]);
+        int length = 0;
+        for (String literal : literals) {
+            length += literal.length();
+        }
+        this.literalLength = length;
+    }
+
+    /**
+     * Returns the cached template for the given method and url template,
+     * compiling it on first use.
+     *
+     * @param httpMethod the http method, e.g. "GET"
+     * @param url        the url template, e.g. "/users/{id}"
+     * @return the compiled RequestTemplate
+     */
+    public static RequestTemplate of(String httpMethod, String url) {
+        String urlKey = Objects.isNull(url) ? "" : url;
+        String methodKey = Objects.isNull(httpMethod) ? "" : httpMethod;
+        ConcurrentMap<String, RequestTemplate> byMethod = TEMPLATES.get(urlKey);
+        if (Objects.isNull(byMethod)) {
+            if (TEMPLATES.size() >= MAX_CACHED_TEMPLATES) {
+                return builder().httpMethod(httpMethod).url(url).build();
+            }
+            byMethod = TEMPLATES.computeIfAbsent(urlKey, k -> new ConcurrentHashMap<>(4));
+        }
+        RequestTemplate template = byMethod.get(methodKey);
+        if (Objects.isNull(template)) {
+            template = byMethod.computeIfAbsent(methodKey,
+                    k -> builder().httpMethod(httpMethod).url(url).build());
+        }
+        return template;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public String getHttpMethod() {
+        return httpMethod;
+    }
+
+    public String getUrl() {
+        return url;
+    }
+
+    public int getVariableCount() {
+        return variables.length;
+    }
+
+    public String getVariableName(int slot) {
+        return variables[slot];
+    }
+
+    public boolean hasVariables() {
+        return variables.length > 0;
+    }
+
+    /**
+     * Binds the call's values into the template's slots. Request params take
+     * precedence over path params of the same name. Unbound slots are left null.
+     *
+     * @param pathParams    path params of the call, may be null
+     * @param requestParams request params of the call, may be null
+     * @return an array holding one value per template variable
+     */
+    public String[] bind(Map<String, String> pathParams, Map<String, String> requestParams) {
+        if (variables.length == 0) {
+            return NO_SLOTS;
+        }
+        String[] slots = new String[variables.length];
+        boolean hasPathParams = Objects.nonNull(pathParams) && !pathParams.isEmpty();
+        boolean hasRequestParams = Objects.nonNull(requestParams) && !requestParams.isEmpty();
+        for (int i = 0; i < variables.length; i++) {
+            String value = null;
+            if (hasRequestParams) {
+                value = requestParams.get(variables[i]);
+            }
+            if (Objects.isNull(value) && hasPathParams) {
+                value = pathParams.get(variables[i]);
+            }
+            slots[i] = value;
+        }
+        return slots;
+    }
+
+    /**
+     * Expands the url using the bound slots, leaving unbound placeholders as is.
+     *
+     * @param slots values returned by {@link #bind(Map, Map)}
+     * @return the expanded url
+     */
+    public String expand(String[] slots) {
+        return expand(slots, UnaryOperator.identity());
+    }
+
+    /**
+     * Expands the url using the bound slots, passing every bound value through
+     * the given encoder. Unbound placeholders are left as is.
+     *
+     * @param slots   values returned by {@link #bind(Map, Map)}
+     * @param encoder encoder applied to each bound value
+     * @return the expanded url
+     */
+    public String expand(String[] slots, UnaryOperator<String> encoder) {
+        if (variables.length == 0) {
+            return url;
+        }
+        String[] values = new String[variables.length];
+        int length = literalLength;
+        for (int i = 0; i < variables.length; i++) {
+            String value = i < slots.length ? slots[i] : null;
+            values[i] = Objects.isNull(value) ? placeholders[i] : encoder.apply(value);
+            length += values[i].length();
+        }
+        StringBuilder sb = new StringBuilder(length);
+        for (int i = 0; i < variables.length; i++) {
+            sb.append(literals[i]).append(values[i]);
+        }
+        return sb.append(literals[variables.length]).toString();
+    }
+
+    /**
+     * Binds the given path params and expands the url in one go.
+     *
+     * @param pathParams path params of the call, may be null
+     * @return the expanded url
+     */
+    public String expand(Map<String, String> pathParams) {
+        return expand(bind(pathParams, null));
+    }
+
+    private static void parse(String url, List<String> literals, List<String> variables, List<String> placeholders) {
+        if (Objects.isNull(url)) {
+            literals.add("");
+            return;
+        }
+        int literalStart = 0;
+        int i = 0;
+        while (i < url.length()) {
+            char c = url.charAt(i);
+            int open = -1;
+            if (c == '{') {
+                open = i;
+            } else if (c == '$' && i + 1 < url.length() && url.charAt(i + 1) == '{') {
+                open = i + 1;
+            }
+            if (open >= 0) {
+                int close = url.indexOf('}', open + 1);
+                if (close > open + 1) {
+                    literals.add(url.substring(literalStart, i));
+                    variables.add(url.substring(open + 1, close).trim());
+                    placeholders.add(url.substring(i, close + 1));
+                    i = close + 1;
+                    literalStart = i;
+                    continue;
+                }
+            }
+            i++;
+        }
+        literals.add(url.substring(literalStart));
+    }
+
+    public static class Builder {
+        private String httpMethod;
+        private String url;
+
+        public Builder httpMethod(String httpMethod) {
+            this.httpMethod = httpMethod;
+            return this;
+        }
+
+        public Builder url(String url) {
+            this.url = url;
+            return this;
+        }
+
+        public RequestTemplate build() {
+            return new RequestTemplate(this);
+        }
+    }
+}
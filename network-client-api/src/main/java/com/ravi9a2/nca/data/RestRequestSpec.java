@@ -1,5 +1,7 @@
 package com.ravi9a2.nca.data;
 
+import com.ravi9a2.nca.codec.Codec;
+
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Objects;
@@ -10,6 +12,8 @@ public class RestRequestSpec extends RequestSpec {
     protected Map<String, String> pathParams;
     protected String url;
     protected String httpMethod;
+    protected RequestTemplate template;
+    protected Codec codec;
 
     private RestRequestSpec(Builder builder) {
         super(builder);
@@ -17,6 +21,8 @@ public class RestRequestSpec extends RequestSpec {
         this.pathParams = builder.pathParams;
         this.requestParams = builder.requestParams;
         this.httpMethod = builder.httpMethod;
+        this.template = builder.template;
+        this.codec = builder.codec;
     }
 
     public Map<String, String> getRequestParams() {
@@ -35,6 +41,26 @@ public class RestRequestSpec extends RequestSpec {
         return httpMethod;
     }
 
+    /**
+     * Returns the codec of this call, or null to use the codec of the client.
+     */
+    public Codec getCodec() {
+        return codec;
+    }
+
+    /**
+     * Returns the compiled template of this request, resolving it from the
+     * template cache if none was supplied while building.
+     *
+     * @return RequestTemplate for the http method and url of this request
+     */
+    public RequestTemplate getTemplate() {
+        if (Objects.isNull(template)) {
+            template = RequestTemplate.of(httpMethod, url);
+        }
+        return template;
+    }
+
     public static Builder builder() {
         return new RestRequestSpec.Builder();
     }
@@ -44,11 +70,23 @@ public class RestRequestSpec extends RequestSpec {
         private Map<String, String> pathParams;
         private String url;
         private String httpMethod;
-
+        private RequestTemplate template;
+        private Codec codec;
+        private boolean sharedRequestParams;
+        private boolean sharedPathParams;
+
+        /**
+         * The first non-null map is adopted as is and only copied if it is
+         * modified through this builder afterwards, so callers must not mutate
+         * the passed map once it is handed over.
+         */
         public Builder requestParams(Map<String, String> requestParams) {
-            if (Objects.isNull(this.requestParams)) {
-                this.requestParams = new HashMap<>();
+            if (Objects.isNull(this.requestParams) && Objects.nonNull(requestParams)) {
+                this.requestParams = requestParams;
+                this.sharedRequestParams = true;
+                return this;
             }
+            ownRequestParams();
             if (Objects.nonNull(requestParams)) {
                 this.requestParams.putAll(requestParams);
             }
@@ -56,19 +94,25 @@ public class RestRequestSpec extends RequestSpec {
         }
 
         public Builder requestParam(String k, String v) {
-            if (Objects.isNull(this.requestParams)) {
-                this.requestParams = new HashMap<>();
-            }
+            ownRequestParams();
             if (Objects.nonNull(k) && Objects.nonNull(v)) {
                 this.requestParams.put(k, v);
             }
             return this;
         }
 
+        /**
+         * The first non-null map is adopted as is and only copied if it is
+         * modified through this builder afterwards, so callers must not mutate
+         * the passed map once it is handed over.
+         */
         public Builder pathParams(Map<String, String> pathParams) {
-            if (Objects.isNull(this.pathParams)) {
-                this.pathParams = new HashMap<>();
+            if (Objects.isNull(this.pathParams) && Objects.nonNull(pathParams)) {
+                this.pathParams = pathParams;
+                this.sharedPathParams = true;
+                return this;
             }
+            ownPathParams();
             if (Objects.nonNull(pathParams)) {
                 this.pathParams.putAll(pathParams);
             }
@@ -76,9 +120,7 @@ public class RestRequestSpec extends RequestSpec {
         }
 
         public Builder pathParam(String k, String v) {
-            if (Objects.isNull(this.pathParams)) {
-                this.pathParams = new HashMap<>();
-            }
+            ownPathParams();
             if (Objects.nonNull(k) && Objects.nonNull(v)) {
                 this.pathParams.put(k, v);
             }
@@ -95,8 +137,32 @@ public class RestRequestSpec extends RequestSpec {
             return this;
         }
 
+        /**
+         * Overrides the codec of the client for this call.
+         */
+        public Builder codec(Codec codec) {
+            this.codec = codec;
+            return this;
+        }
+
+        /**
+         * Sets the compiled template along with its http method and url.
+         */
+        public Builder template(RequestTemplate template) {
+            this.template = template;
+            if (Objects.nonNull(template)) {
+                this.httpMethod = template.getHttpMethod();
+                this.url = template.getUrl();
+            }
+            return this;
+        }
+
         @Override
         public RestRequestSpec build() {
+            if (Objects.nonNull(template)
+                    && (!Objects.equals(template.getUrl(), url) || !Objects.equals(template.getHttpMethod(), httpMethod))) {
+                template = null;
+            }
             return new RestRequestSpec(this);
         }
 
@@ -104,5 +170,23 @@ public class RestRequestSpec extends RequestSpec {
         protected Builder getThis() {
             return this;
         }
+
+        private void ownRequestParams() {
+            if (Objects.isNull(this.requestParams)) {
+                this.requestParams = new HashMap<>();
+            } else if (sharedRequestParams) {
+                this.requestParams = new HashMap<>(this.requestParams);
+            }
+            sharedRequestParams = false;
+        }
+
+        private void ownPathParams() {
+            if (Objects.isNull(this.pathParams)) {
+                this.pathParams = new HashMap<>();
+            } else if (sharedPathParams) {
+                this.pathParams = new HashMap<>(this.pathParams);
+            }
+            sharedPathParams = false;
+        }
     }
 }
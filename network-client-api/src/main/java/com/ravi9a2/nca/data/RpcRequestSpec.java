@@ -6,6 +6,7 @@ public class RpcRequestSpec extends RequestSpec {
     protected String methodName;
     protected String serviceName;
     protected String rpcMethod;
+    protected Object methodDescriptor;
 
     protected RpcRequestSpec(Builder builder) {
         super(builder);
@@ -13,6 +14,7 @@ public class RpcRequestSpec extends RequestSpec {
         this.serviceName = builder.serviceName;
         this.fqPackageName = builder.fqPackageName;
         this.rpcMethod = builder.rpcMethod;
+        this.methodDescriptor = builder.methodDescriptor;
     }
 
     public static Builder builder() {
@@ -35,11 +37,21 @@ public class RpcRequestSpec extends RequestSpec {
         return rpcMethod;
     }
 
+    /**
+     * Returns the method descriptor of the call when the caller resolved it at
+     * compile time, an io.grpc.MethodDescriptor for gRPC. Null if the client must
+     * resolve it from the package, service and method names.
+     */
+    public Object getMethodDescriptor() {
+        return methodDescriptor;
+    }
+
     public static class Builder extends RequestSpec.Builder<Builder> {
         private String methodName;
         private String serviceName;
         private String fqPackageName;
         private String rpcMethod;
+        private Object methodDescriptor;
 
         public Builder fqPackageName(String fqPackageName) {
             this.fqPackageName = fqPackageName;
@@ -61,6 +73,11 @@ public class RpcRequestSpec extends RequestSpec {
             return this.getThis();
         }
 
+        public Builder methodDescriptor(Object methodDescriptor) {
+            this.methodDescriptor = methodDescriptor;
+            return this.getThis();
+        }
+
         @Override
         public RpcRequestSpec build() {
             return new RpcRequestSpec(this);
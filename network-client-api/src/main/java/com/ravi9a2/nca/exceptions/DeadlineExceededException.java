@@ -0,0 +1,14 @@
+package com.ravi9a2.nca.exceptions;
+
+/**
+ * Thrown instead of making a call whose deadline has already passed. It is
+ * never retried, as there is no budget left to retry in.
+ *
+ * @author raviiii1
+ */
+public class DeadlineExceededException extends TimeoutException {
+
+    public DeadlineExceededException(long overdueMillis) {
+        super("Deadline exceeded " + overdueMillis + " ms ago");
+    }
+}
@@ -24,4 +24,8 @@ public class NetworkClientException extends RuntimeException {
         super("[Status Code - "+statusCode+"]: " + message);
         this.statusCode = statusCode;
     }
+
+    public int getStatusCode() {
+        return statusCode;
+    }
 }
@@ -11,4 +11,8 @@ public class TimeoutException extends NetworkClientException {
     public TimeoutException(Throwable th) {
         super(th, 504);
     }
+
+    public TimeoutException(String message) {
+        super(message, 504);
+    }
 }
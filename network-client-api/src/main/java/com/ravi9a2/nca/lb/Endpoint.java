@@ -0,0 +1,146 @@
+package com.ravi9a2.nca.lb;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * One base url of a Client along with the load and health stats the
+ * EndpointBalancer picks it by.
+ *
+ * @author raviiii1
+ */
+public final class Endpoint {
+
+    /**
+     * Weight of the latest sample in the latency EWMA.
+     */
+    private static final double EWMA_ALPHA = 0.3;
+
+    private final String url;
+    private final Map<String, String> tags;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicLong ewmaLatencyBits = new AtomicLong(Double.doubleToLongBits(0));
+    private final AtomicInteger consecutiveFailures = new AtomicInteger();
+    private final AtomicInteger ejections = new AtomicInteger();
+    private final AtomicLong ejectedUntil = new AtomicLong();
+    private final AtomicLong readmittedAt = new AtomicLong();
+
+    Endpoint(String clientName, String url) {
+        this.url = url.endsWith("/") ? url.substring(0, url.length() - 1) : url;
+        Map<String, String> t = new HashMap<>();
+        t.put("client", String.valueOf(clientName));
+        t.put("endpoint", this.url);
+        this.tags = Collections.unmodifiableMap(t);
+    }
+
+    /**
+     * Returns the base url of the endpoint, without a trailing slash.
+     */
+    public String getUrl() {
+        return url;
+    }
+
+    /**
+     * Returns the metric tags of the endpoint.
+     */
+    public Map<String, String> getTags() {
+        return tags;
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    /**
+     * Returns the exponentially weighted moving average of the endpoint's latency in milliseconds.
+     */
+    public double getEwmaLatency() {
+        return Double.longBitsToDouble(ewmaLatencyBits.get());
+    }
+
+    public boolean isEjected() {
+        return ejectedUntil.get() != 0;
+    }
+
+    /**
+     * The expected cost of sending one more call to the endpoint. An endpoint that
+     * hasn't answered yet has no latency, so it is picked by its in-flight calls alone.
+     */
+    double cost() {
+        return (getEwmaLatency() + 1) * (inFlight.get() + 1);
+    }
+
+    void acquire() {
+        inFlight.incrementAndGet();
+    }
+
+    void release(long latencyNanos) {
+        inFlight.decrementAndGet();
+        if (latencyNanos < 0) {
+            return;
+        }
+        double sample = latencyNanos / 1_000_000d;
+        long current;
+        long next;
+        do {
+            current = ewmaLatencyBits.get();
+            double ewma = Double.longBitsToDouble(current);
+            next = Double.doubleToLongBits(ewma == 0 ? sample : ewma + EWMA_ALPHA * (sample - ewma));
+        } while (!ewmaLatencyBits.compareAndSet(current, next));
+    }
+
+    /**
+     * Counts a healthy call. The ejections in a row are forgotten once the endpoint
+     * has stayed admitted for the given interval since it was last re-admitted, so an
+     * endpoint that flaps keeps backing off for longer.
+     */
+    void onSuccess(long now, long healthyIntervalNanos) {
+        consecutiveFailures.set(0);
+        long at = readmittedAt.get();
+        if (at != 0 && now - at >= healthyIntervalNanos && readmittedAt.compareAndSet(at, 0)) {
+            ejections.set(0);
+        }
+    }
+
+    int getEjections() {
+        return ejections.get();
+    }
+
+    int onFailure() {
+        return consecutiveFailures.incrementAndGet();
+    }
+
+    /**
+     * Ejects the endpoint for the base ejection time times the number of ejections in a row.
+     *
+     * @return true if this call ejected the endpoint
+     */
+    boolean eject(long now, long baseEjectionNanos, long maxEjectionNanos) {
+        long duration = Math.min(maxEjectionNanos, baseEjectionNanos * (ejections.get() + 1));
+        if (!ejectedUntil.compareAndSet(0, Math.max(1, now + duration))) {
+            return false;
+        }
+        readmittedAt.set(0);
+        ejections.incrementAndGet();
+        return true;
+    }
+
+    /**
+     * Re-admits the endpoint if its ejection time is over. A re-admitted endpoint
+     * is ejected again on its next failure.
+     *
+     * @return true if this call re-admitted the endpoint
+     */
+    boolean readmitIfDue(long now, int consecutiveFailuresToEject) {
+        long until = ejectedUntil.get();
+        if (until == 0 || now - until < 0 || !ejectedUntil.compareAndSet(until, 0)) {
+            return false;
+        }
+        consecutiveFailures.set(Math.max(0, consecutiveFailuresToEject - 1));
+        readmittedAt.set(Math.max(1, now));
+        return true;
+    }
+}
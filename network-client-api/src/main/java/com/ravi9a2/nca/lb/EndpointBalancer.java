@@ -0,0 +1,166 @@
+package com.ravi9a2.nca.lb;
+
+import com.ravi9a2.nca.data.OutlierDetection;
+import com.ravi9a2.nca.exceptions.NetworkClientException;
+import com.ravi9a2.nca.exceptions.Status4XXException;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Client-side load balancer over the base urls of a Client.
+ * <p>
+ * Endpoints are picked with the power of two choices: two random endpoints are
+ * sampled and the one with the lower in-flight calls times EWMA latency wins.
+ * Endpoints failing with 5XX responses, timeouts or connection errors in a row
+ * are ejected as configured by the OutlierDetection and re-admitted once their
+ * ejection time is over. If every endpoint is ejected, all of them are picked from.
+ * <p>
+ * Every picked endpoint must be released with exactly one of
+ * {@link #onSuccess}, {@link #onFailure} or {@link #onCancel}.
+ *
+ * @author raviiii1
+ */
+public final class EndpointBalancer {
+
+    private final Endpoint[] endpoints;
+    private final int consecutiveFailures;
+    private final long baseEjectionNanos;
+    private final long maxEjectionNanos;
+    private final int maxEjected;
+    private final EndpointListener listener;
+
+    public EndpointBalancer(String clientName, List<String> baseUrls, OutlierDetection outlierDetection,
+                            EndpointListener listener) {
+        if (Objects.isNull(baseUrls) || baseUrls.isEmpty()) {
+            throw new IllegalArgumentException("No base urls for client: " + clientName);
+        }
+        if (Objects.isNull(outlierDetection)) {
+            outlierDetection = OutlierDetection.builder().build();
+        }
+        this.endpoints = baseUrls.stream().map(url -> new Endpoint(clientName, url)).toArray(Endpoint[]::new);
+        this.consecutiveFailures = outlierDetection.getConsecutiveFailures();
+        this.baseEjectionNanos = TimeUnit.MILLISECONDS.toNanos(outlierDetection.getBaseEjectionTime());
+        this.maxEjectionNanos = TimeUnit.MILLISECONDS.toNanos(outlierDetection.getMaxEjectionTime());
+        this.maxEjected = outlierDetection.getMaxEjectionPercent() <= 0 ? 0
+                : Math.max(1, endpoints.length * outlierDetection.getMaxEjectionPercent() / 100);
+        this.listener = listener;
+    }
+
+    /**
+     * Picks the endpoint for the next call and counts the call as in flight on it.
+     *
+     * @return the picked endpoint
+     */
+    public Endpoint pick() {
+        Endpoint endpoint = choose();
+        endpoint.acquire();
+        return endpoint;
+    }
+
+    /**
+     * Releases an endpoint whose call succeeded.
+     *
+     * @param latencyNanos latency of the call in nanoseconds
+     */
+    public void onSuccess(Endpoint endpoint, long latencyNanos) {
+        endpoint.release(latencyNanos);
+        endpoint.onSuccess(System.nanoTime(), maxEjectionNanos);
+        publish(EndpointEvent.COMPLETED, endpoint);
+    }
+
+    /**
+     * Releases an endpoint whose call failed.
+     *
+     * @param latencyNanos latency of the call in nanoseconds
+     * @param outlier      whether the failure counts towards ejecting the endpoint,
+     *                     see {@link #isOutlierFailure(Throwable)}
+     */
+    public void onFailure(Endpoint endpoint, long latencyNanos, boolean outlier) {
+        endpoint.release(latencyNanos);
+        if (!outlier) {
+            endpoint.onSuccess(System.nanoTime(), maxEjectionNanos);
+        } else if (endpoint.onFailure() >= consecutiveFailures && ejectedCount() < maxEjected
+                && endpoint.eject(System.nanoTime(), baseEjectionNanos, maxEjectionNanos)) {
+            publish(EndpointEvent.EJECTED, endpoint);
+        }
+        publish(EndpointEvent.COMPLETED, endpoint);
+    }
+
+    /**
+     * Releases an endpoint whose call was cancelled before it completed.
+     */
+    public void onCancel(Endpoint endpoint) {
+        endpoint.release(-1);
+        publish(EndpointEvent.COMPLETED, endpoint);
+    }
+
+    public List<Endpoint> getEndpoints() {
+        return Collections.unmodifiableList(Arrays.asList(endpoints));
+    }
+
+    /**
+     * Whether a failure is a sign of an unhealthy endpoint: 5XX responses, timeouts
+     * and connection errors are, 4XX responses and local errors are not.
+     */
+    public static boolean isOutlierFailure(Throwable th) {
+        return th instanceof NetworkClientException && !(th instanceof Status4XXException);
+    }
+
+    private Endpoint choose() {
+        int n = endpoints.length;
+        if (n == 1) {
+            return endpoints[0];
+        }
+        long now = System.nanoTime();
+        int[] available = new int[n];
+        int size = 0;
+        for (int i = 0; i < n; i++) {
+            Endpoint endpoint = endpoints[i];
+            if (endpoint.readmitIfDue(now, consecutiveFailures)) {
+                publish(EndpointEvent.READMITTED, endpoint);
+            }
+            if (!endpoint.isEjected()) {
+                available[size++] = i;
+            }
+        }
+        if (size == 0) {
+            for (int i = 0; i < n; i++) {
+                available[i] = i;
+            }
+            size = n;
+        }
+        if (size == 1) {
+            return endpoints[available[0]];
+        }
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int first = random.nextInt(size);
+        int second = random.nextInt(size - 1);
+        if (second >= first) {
+            second++;
+        }
+        Endpoint a = endpoints[available[first]];
+        Endpoint b = endpoints[available[second]];
+        return a.cost() <= b.cost() ? a : b;
+    }
+
+    private int ejectedCount() {
+        int ejected = 0;
+        for (Endpoint endpoint : endpoints) {
+            if (endpoint.isEjected()) {
+                ejected++;
+            }
+        }
+        return ejected;
+    }
+
+    private void publish(EndpointEvent event, Endpoint endpoint) {
+        if (Objects.nonNull(listener)) {
+            listener.onEvent(event, endpoint);
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package com.ravi9a2.nca.lb;
+
+/**
+ * The events an EndpointBalancer publishes about its endpoints.
+ *
+ * @author raviiii1
+ */
+public enum EndpointEvent {
+    /**
+     * A call to the endpoint completed, its load and latency stats changed.
+     */
+    COMPLETED,
+    /**
+     * The endpoint was ejected from load balancing.
+     */
+    EJECTED,
+    /**
+     * The endpoint's ejection time was over and it is picked again.
+     */
+    READMITTED
+}
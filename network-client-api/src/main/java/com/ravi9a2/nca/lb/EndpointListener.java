@@ -0,0 +1,14 @@
+package com.ravi9a2.nca.lb;
+
+/**
+ * Listens to the events of the endpoints of an EndpointBalancer, e.g. to emit
+ * per-endpoint metrics. Called on the thread that completed the call, so it
+ * should not block.
+ *
+ * @author raviiii1
+ */
+@FunctionalInterface
+public interface EndpointListener {
+
+    void onEvent(EndpointEvent event, Endpoint endpoint);
+}
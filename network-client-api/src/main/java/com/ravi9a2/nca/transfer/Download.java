@@ -0,0 +1,88 @@
+package com.ravi9a2.nca.transfer;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Objects;
+
+/**
+ * The handle of a downloaded response body. A body within the in-memory
+ * threshold of the download is held as bytes, a larger one is in a file.
+ *
+ * @author raviiii1
+ */
+public final class Download {
+
+    private final int status;
+    private final String contentType;
+    private final long size;
+    private final String sha256;
+    private final byte[] bytes;
+    private final Path path;
+
+    Download(int status, String contentType, long size, String sha256, byte[] bytes, Path path) {
+        this.status = status;
+        this.contentType = contentType;
+        this.size = size;
+        this.sha256 = sha256;
+        this.bytes = bytes;
+        this.path = path;
+    }
+
+    public int getStatus() {
+        return status;
+    }
+
+    /**
+     * Returns the Content-Type of the response, or null if it had none.
+     */
+    public String getContentType() {
+        return contentType;
+    }
+
+    /**
+     * Returns the number of bytes of the body.
+     */
+    public long getSize() {
+        return size;
+    }
+
+    /**
+     * Returns the SHA-256 of the body as lower-case hex.
+     */
+    public String getSha256() {
+        return sha256;
+    }
+
+    public boolean isInMemory() {
+        return Objects.isNull(path);
+    }
+
+    /**
+     * Returns the body if it is held in memory, otherwise null.
+     */
+    public byte[] getBytes() {
+        return bytes;
+    }
+
+    /**
+     * Returns the file holding the body, or null if it is held in memory.
+     */
+    public Path getPath() {
+        return path;
+    }
+
+    /**
+     * Opens the body for reading, wherever it is held.
+     */
+    public InputStream openStream() throws IOException {
+        return isInMemory() ? new ByteArrayInputStream(bytes) : Files.newInputStream(path);
+    }
+
+    @Override
+    public String toString() {
+        return "Download[" + size + " bytes, " + (isInMemory() ? "in memory" : path) + "]";
+    }
+}
@@ -0,0 +1,136 @@
+package com.ravi9a2.nca.transfer;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Objects;
+
+/**
+ * Receives a response body buffer by buffer, computing its size and SHA-256.
+ * The body is kept in memory up to the in-memory threshold and spilled to the
+ * target file once it grows past it, so a download never holds more than the
+ * threshold in memory. A threshold of zero or less writes every body to the file.
+ * <p>
+ * Closing the sink before {@link #finish} deletes what it wrote, so an aborted
+ * download leaves no partial file behind.
+ *
+ * @author raviiii1
+ */
+public final class DownloadSink implements Closeable {
+
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+    private final Path target;
+    private final int inMemoryThreshold;
+    private final MessageDigest digest;
+    private ByteArrayOutputStream memory = new ByteArrayOutputStream();
+    private Path file;
+    private FileChannel channel;
+    private long size;
+    private boolean finished;
+
+    /**
+     * @param target            the file to write a large body to, truncated if it exists; a temporary
+     *                          file owned by the caller is created if it is null
+     * @param inMemoryThreshold the size up to which a body is kept in memory
+     */
+    public DownloadSink(Path target, int inMemoryThreshold) {
+        this.target = target;
+        this.inMemoryThreshold = inMemoryThreshold;
+        try {
+            this.digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Writes the remaining bytes of the buffer, consuming them.
+     */
+    public void write(ByteBuffer buffer) throws IOException {
+        int length = buffer.remaining();
+        size += length;
+        digest.update(buffer.duplicate());
+        if (Objects.isNull(channel) && memory.size() + (long) length <= inMemoryThreshold) {
+            if (buffer.hasArray()) {
+                memory.write(buffer.array(), buffer.arrayOffset() + buffer.position(), length);
+                buffer.position(buffer.limit());
+            } else {
+                byte[] bytes = new byte[length];
+                buffer.get(bytes);
+                memory.write(bytes, 0, length);
+            }
+            return;
+        }
+        if (Objects.isNull(channel)) {
+            spill();
+        }
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+
+    public void write(byte[] bytes, int offset, int length) throws IOException {
+        write(ByteBuffer.wrap(bytes, offset, length));
+    }
+
+    /**
+     * Completes the download, closing its file if the body was spilled.
+     */
+    public Download finish(int status, String contentType) throws IOException {
+        if (Objects.isNull(channel) && inMemoryThreshold <= 0) {
+            spill();
+        }
+        finished = true;
+        String sha256 = hex(digest.digest());
+        if (Objects.isNull(channel)) {
+            return new Download(status, contentType, size, sha256, memory.toByteArray(), null);
+        }
+        channel.close();
+        return new Download(status, contentType, size, sha256, null, file);
+    }
+
+    @Override
+    public void close() {
+        if (finished) {
+            return;
+        }
+        try {
+            if (Objects.nonNull(channel)) {
+                channel.close();
+            }
+            if (Objects.nonNull(file)) {
+                Files.deleteIfExists(file);
+            }
+        } catch (IOException e) {
+            // the partial file is left behind if it can not be deleted
+        }
+    }
+
+    private void spill() throws IOException {
+        file = Objects.isNull(target) ? Files.createTempFile("download-", ".tmp") : target;
+        channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING);
+        ByteBuffer held = ByteBuffer.wrap(memory.toByteArray());
+        while (held.hasRemaining()) {
+            channel.write(held);
+        }
+        memory = null;
+    }
+
+    private static String hex(byte[] bytes) {
+        char[] chars = new char[bytes.length * 2];
+        for (int i = 0; i < bytes.length; i++) {
+            chars[i * 2] = HEX[(bytes[i] >> 4) & 0xf];
+            chars[i * 2 + 1] = HEX[bytes[i] & 0xf];
+        }
+        return new String(chars);
+    }
+}
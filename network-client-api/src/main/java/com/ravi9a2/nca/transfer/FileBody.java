@@ -0,0 +1,48 @@
+package com.ravi9a2.nca.transfer;
+
+import java.nio.file.Path;
+import java.util.Objects;
+
+/**
+ * A request body streamed from a file instead of being encoded by a codec. Set
+ * as the body of a POST, PUT or PATCH call to upload the file; the clients read
+ * it from disk while sending, never holding it in memory.
+ *
+ * @author raviiii1
+ */
+public final class FileBody {
+
+    public static final String OCTET_STREAM = "application/octet-stream";
+
+    private final Path path;
+    private final String contentType;
+
+    private FileBody(Path path, String contentType) {
+        this.path = Objects.requireNonNull(path, "path");
+        this.contentType = Objects.isNull(contentType) ? OCTET_STREAM : contentType;
+    }
+
+    public static FileBody of(Path path) {
+        return new FileBody(path, OCTET_STREAM);
+    }
+
+    public static FileBody of(Path path, String contentType) {
+        return new FileBody(path, contentType);
+    }
+
+    public Path getPath() {
+        return path;
+    }
+
+    /**
+     * Returns the Content-Type the file is sent with, unless the call sets one.
+     */
+    public String getContentType() {
+        return contentType;
+    }
+
+    @Override
+    public String toString() {
+        return "FileBody[" + path + ", " + contentType + "]";
+    }
+}
@@ -0,0 +1,58 @@
+package com.ravi9a2.nca.cache;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+public class TestCacheControl {
+
+    @Test
+    public void testParse_Empty() {
+        Assertions.assertSame(CacheControl.EMPTY, CacheControl.parse(null));
+        Assertions.assertSame(CacheControl.EMPTY, CacheControl.parse(Collections.emptyList()));
+
+        CacheControl cc = CacheControl.parse(Collections.singletonList(null));
+        Assertions.assertEquals(-1, cc.getMaxAge());
+        Assertions.assertEquals(0, cc.getStaleWhileRevalidate());
+        Assertions.assertFalse(cc.isNoStore());
+        Assertions.assertFalse(cc.isNoCache());
+        Assertions.assertFalse(cc.isPrivate());
+    }
+
+    @Test
+    public void testParse_Directives() {
+        CacheControl cc = CacheControl.parse(Collections.singletonList(
+                "public, Max-Age=60 , stale-while-revalidate=30, no-cache"));
+
+        Assertions.assertEquals(60, cc.getMaxAge());
+        Assertions.assertEquals(30, cc.getStaleWhileRevalidate());
+        Assertions.assertTrue(cc.isNoCache());
+        Assertions.assertFalse(cc.isNoStore());
+    }
+
+    @Test
+    public void testParse_SeveralHeaderValues() {
+        CacheControl cc = CacheControl.parse(Arrays.asList("max-age=\"10\"", "NO-STORE"));
+
+        Assertions.assertEquals(10, cc.getMaxAge());
+        Assertions.assertTrue(cc.isNoStore());
+    }
+
+    @Test
+    public void testParse_Private() {
+        Assertions.assertTrue(CacheControl.parse(Collections.singletonList("Private, max-age=60")).isPrivate());
+        Assertions.assertTrue(CacheControl.parse(Collections.singletonList("private=\"Set-Cookie\"")).isPrivate());
+        Assertions.assertFalse(CacheControl.parse(Collections.singletonList("public, max-age=60")).isPrivate());
+    }
+
+    @Test
+    public void testParse_InvalidSeconds() {
+        Assertions.assertEquals(-1, CacheControl.parse(Collections.singletonList("max-age=soon")).getMaxAge());
+        Assertions.assertEquals(-1, CacheControl.parse(Collections.singletonList("max-age")).getMaxAge());
+        Assertions.assertEquals(0, CacheControl.parse(Collections.singletonList("max-age=-5")).getMaxAge());
+        Assertions.assertEquals(20, CacheControl.parse(Collections.singletonList("max-age=20, max-age=x"))
+                .getMaxAge());
+    }
+}
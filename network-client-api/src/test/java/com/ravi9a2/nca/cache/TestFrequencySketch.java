@@ -0,0 +1,48 @@
+package com.ravi9a2.nca.cache;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class TestFrequencySketch {
+
+    @Test
+    public void testIncrement_CountsAccesses() {
+        FrequencySketch sketch = new FrequencySketch(1024);
+
+        Assertions.assertEquals(0, sketch.frequency("key"));
+        for (int i = 0; i < 5; i++) {
+            sketch.increment("key");
+        }
+
+        Assertions.assertEquals(5, sketch.frequency("key"));
+        Assertions.assertEquals(0, sketch.frequency("other"));
+    }
+
+    @Test
+    public void testIncrement_SaturatesAtFifteen() {
+        FrequencySketch sketch = new FrequencySketch(1024);
+
+        for (int i = 0; i < 100; i++) {
+            sketch.increment("key");
+        }
+
+        Assertions.assertEquals(15, sketch.frequency("key"));
+    }
+
+    @Test
+    public void testReset_HalvesCounters() {
+        FrequencySketch sketch = new FrequencySketch(16);
+        for (int i = 0; i < 15; i++) {
+            sketch.increment("hot");
+        }
+        Assertions.assertEquals(15, sketch.frequency("hot"));
+
+        int frequency = 15;
+        for (int i = 0; i < 1000 && frequency == 15; i++) {
+            sketch.increment(i);
+            frequency = sketch.frequency("hot");
+        }
+
+        Assertions.assertEquals(7, frequency);
+    }
+}
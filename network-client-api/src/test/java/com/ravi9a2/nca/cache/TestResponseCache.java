@@ -0,0 +1,253 @@
+package com.ravi9a2.nca.cache;
+
+import com.ravi9a2.nca.data.CacheConfig;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Function;
+
+public class TestResponseCache {
+
+    private static final Function<String, String> NO_HEADERS = name -> null;
+    private static final byte[] BODY = "body".getBytes();
+
+    List<CacheEvent> events;
+    ResponseCache cache;
+
+    @BeforeEach
+    public void init() {
+        events = new CopyOnWriteArrayList<>();
+        cache = cache(1024 * 1024);
+    }
+
+    @Test
+    public void testFreshness_MaxAge() {
+        cache.store("k", 200, headers("Cache-Control", "max-age=60"), BODY, NO_HEADERS, 0);
+
+        Assertions.assertEquals(CachedResponse.Freshness.FRESH, cache.lookup("k", NO_HEADERS, 59_999).freshness(59_999));
+        Assertions.assertNull(cache.lookup("k", NO_HEADERS, 60_000));
+        Assertions.assertEquals(0, cache.size());
+        Assertions.assertEquals(Collections.singletonList(CacheEvent.HIT), events.subList(1, 2));
+    }
+
+    @Test
+    public void testFreshness_MaxAgeLessAge() {
+        CachedResponse cached = cache.store("k", 200, headers("Cache-Control", "max-age=60", "Age", "50"), BODY,
+                NO_HEADERS, 0);
+
+        Assertions.assertEquals(CachedResponse.Freshness.FRESH, cached.freshness(9_999));
+        Assertions.assertEquals(CachedResponse.Freshness.STALE, cached.freshness(10_000));
+    }
+
+    @Test
+    public void testFreshness_ExpiresRelativeToDate() {
+        CachedResponse cached = cache.store("k", 200, headers(
+                "Date", "Tue, 15 Nov 1994 08:12:31 GMT",
+                "Expires", "Tue, 15 Nov 1994 08:13:01 GMT"), BODY, NO_HEADERS, 1_000);
+
+        Assertions.assertEquals(CachedResponse.Freshness.FRESH, cached.freshness(30_999));
+        Assertions.assertEquals(CachedResponse.Freshness.STALE, cached.freshness(31_000));
+    }
+
+    @Test
+    public void testFreshness_InvalidExpiresNotStored() {
+        Assertions.assertNull(cache.store("k", 200, headers("Expires", "0"), BODY, NO_HEADERS, 0));
+    }
+
+    @Test
+    public void testFreshness_StaleWhileRevalidate() {
+        cache.store("k", 200, headers("Cache-Control", "max-age=10, stale-while-revalidate=20"), BODY, NO_HEADERS, 0);
+
+        CachedResponse cached = cache.lookup("k", NO_HEADERS, 15_000);
+
+        Assertions.assertEquals(CachedResponse.Freshness.STALE_WHILE_REVALIDATE, cached.freshness(15_000));
+        Assertions.assertEquals(CacheEvent.STALE_HIT, events.get(events.size() - 1));
+        Assertions.assertTrue(cache.startRevalidation("k"));
+        Assertions.assertFalse(cache.startRevalidation("k"));
+        cache.endRevalidation("k");
+        Assertions.assertTrue(cache.startRevalidation("k"));
+    }
+
+    @Test
+    public void testNegativeCaching_NotFound() {
+        CachedResponse cached = cache.store("k", 404, headers(), BODY, NO_HEADERS, 0);
+
+        Assertions.assertEquals(404, cached.getStatus());
+        Assertions.assertEquals(CachedResponse.Freshness.FRESH, cached.freshness(4_999));
+        Assertions.assertNull(cache.lookup("k", NO_HEADERS, 5_000));
+        Assertions.assertNotNull(cache.store("gone", 410, headers(), BODY, NO_HEADERS, 0));
+    }
+
+    @Test
+    public void testNegativeCaching_ExplicitFreshnessWins() {
+        CachedResponse cached = cache.store("k", 404, headers("Cache-Control", "max-age=1"), BODY, NO_HEADERS, 0);
+
+        Assertions.assertEquals(CachedResponse.Freshness.STALE, cached.freshness(1_000));
+        Assertions.assertNull(cache.store("k", 404, headers("Cache-Control", "no-store"), BODY, NO_HEADERS, 0));
+    }
+
+    @Test
+    public void testStore_NotCacheable() {
+        Assertions.assertNull(cache.store("k", 200, headers(), BODY, NO_HEADERS, 0));
+        Assertions.assertNull(cache.store("k", 500, headers("Cache-Control", "max-age=60"), BODY, NO_HEADERS, 0));
+        Assertions.assertNull(cache.store("k", 200, headers("Cache-Control", "max-age=60"), BODY,
+                name -> "Cache-Control".equals(name) ? "no-store" : null, 0));
+        Assertions.assertNull(cache.store("k", 200, headers("Cache-Control", "max-age=60", "Vary", "*"), BODY,
+                NO_HEADERS, 0));
+        Assertions.assertNull(cache.store("k", 200, headers("Cache-Control", "private, max-age=60"), BODY,
+                NO_HEADERS, 0));
+        Assertions.assertFalse(cache.isStorable(200, headers("Cache-Control", "private", "ETag", "\"v1\""),
+                NO_HEADERS));
+        Assertions.assertFalse(cache.isStorable(200, headers(), NO_HEADERS));
+        Assertions.assertTrue(cache.isStorable(200, headers("ETag", "\"v1\""), NO_HEADERS));
+        Assertions.assertEquals(0, cache.size());
+    }
+
+    @Test
+    public void testStore_UnstoredHeadersDropped() {
+        CachedResponse cached = cache.store("k", 200, headers("Cache-Control", "max-age=60", "Set-Cookie", "a=b",
+                "Content-Type", "application/json"), BODY, NO_HEADERS, 0);
+
+        Assertions.assertFalse(cached.getHeaders().containsKey("set-cookie"));
+        Assertions.assertEquals(Collections.singletonList("application/json"), cached.getHeaders().get("content-type"));
+    }
+
+    @Test
+    public void testRevalidated_MergesHeadersAndRefreshes() {
+        cache.store("k", 200, headers("ETag", "\"v1\"", "Content-Type", "text/plain"), BODY, NO_HEADERS, 0);
+        CachedResponse stale = cache.lookup("k", NO_HEADERS, 1_000);
+        Assertions.assertEquals(CachedResponse.Freshness.STALE, stale.freshness(1_000));
+        Assertions.assertTrue(stale.hasValidators());
+
+        CachedResponse refreshed = cache.revalidated("k", stale, headers("Cache-Control", "max-age=30"), NO_HEADERS,
+                1_000);
+
+        Assertions.assertEquals(CachedResponse.Freshness.FRESH, refreshed.freshness(30_999));
+        Assertions.assertSame(BODY, refreshed.getBody());
+        Assertions.assertEquals("\"v1\"", refreshed.getEtag());
+        Assertions.assertEquals(Collections.singletonList("text/plain"), refreshed.getHeaders().get("Content-Type"));
+        Assertions.assertSame(refreshed, cache.lookup("k", NO_HEADERS, 2_000));
+    }
+
+    @Test
+    public void testLookup_Vary() {
+        Map<String, String> request = new HashMap<>();
+        request.put("accept", "application/json");
+        cache.store("k", 200, headers("Cache-Control", "max-age=60", "Vary", "Accept"), BODY, request::get, 0);
+
+        Assertions.assertNotNull(cache.lookup("k", request::get, 1));
+        request.put("accept", "text/plain");
+        Assertions.assertNull(cache.lookup("k", request::get, 1));
+    }
+
+    @Test
+    public void testKey_SeparatesCredentials() {
+        Assertions.assertEquals("GET /users?page=1", ResponseCache.key("GET", "/users?page=1", null, null));
+        Assertions.assertNotEquals(ResponseCache.key("GET", "/users", "Bearer a", null),
+                ResponseCache.key("GET", "/users", "Bearer b", null));
+        Assertions.assertNotEquals(ResponseCache.key("GET", "/users", null, "session=a"),
+                ResponseCache.key("GET", "/users", null, "session=b"));
+        Assertions.assertNotEquals(ResponseCache.key("GET", "/users", null, null),
+                ResponseCache.key("GET", "/users", null, "session=a"));
+        Assertions.assertNotEquals(ResponseCache.key("GET", "/users", "x", null),
+                ResponseCache.key("GET", "/users", null, "x"));
+    }
+
+    @Test
+    public void testIsLookupAllowed() {
+        Assertions.assertTrue(ResponseCache.isLookupAllowed(NO_HEADERS));
+        Assertions.assertFalse(ResponseCache.isLookupAllowed(name -> "Cache-Control".equals(name) ? "no-cache" : null));
+        Assertions.assertFalse(ResponseCache.isLookupAllowed(name -> "Pragma".equals(name) ? "No-Cache" : null));
+    }
+
+    @Test
+    public void testEviction_BoundedByBytes() {
+        ResponseCache small = cache(10_000);
+        byte[] body = new byte[744];
+
+        for (int i = 0; i < 50; i++) {
+            small.store("k" + i, 200, headers("Cache-Control", "max-age=60"), body, NO_HEADERS, 0);
+        }
+
+        Assertions.assertTrue(small.getWeightedBytes() <= 10_000 + 1_000);
+        Assertions.assertEquals(10, small.size());
+        Assertions.assertEquals(40, Collections.frequency(events, CacheEvent.EVICTED));
+        Assertions.assertNull(small.store("large", 200, headers("Cache-Control", "max-age=60"), new byte[10_000],
+                NO_HEADERS, 0));
+    }
+
+    @Test
+    public void testAdmission_FrequentEntryReplacesColdOne() {
+        ResponseCache small = cache(10_000);
+        byte[] body = new byte[744];
+        for (int i = 0; i < 10; i++) {
+            small.store("cold" + i, 200, headers("Cache-Control", "max-age=60"), body, NO_HEADERS, 0);
+        }
+
+        for (int i = 0; i < 3; i++) {
+            Assertions.assertNull(small.lookup("hot", NO_HEADERS, 0));
+        }
+        small.store("hot", 200, headers("Cache-Control", "max-age=60"), body, NO_HEADERS, 0);
+        small.store("next", 200, headers("Cache-Control", "max-age=60"), body, NO_HEADERS, 0);
+
+        Assertions.assertNotNull(small.lookup("hot", NO_HEADERS, 0));
+        Assertions.assertNull(small.lookup("cold0", NO_HEADERS, 0));
+        Assertions.assertEquals(10, small.size());
+    }
+
+    @Test
+    public void testAdmission_OneOffFloodKeepsPopularEntries() {
+        ResponseCache small = cache(10_000);
+        byte[] body = new byte[744];
+        for (int i = 0; i < 9; i++) {
+            small.store("popular" + i, 200, headers("Cache-Control", "max-age=60"), body, NO_HEADERS, 0);
+        }
+        small.store("window", 200, headers("Cache-Control", "max-age=60"), body, NO_HEADERS, 0);
+        for (int round = 0; round < 3; round++) {
+            for (int i = 0; i < 9; i++) {
+                Assertions.assertNotNull(small.lookup("popular" + i, NO_HEADERS, 0));
+            }
+        }
+
+        for (int i = 0; i < 100; i++) {
+            small.store("once" + i, 200, headers("Cache-Control", "max-age=60"), body, NO_HEADERS, 0);
+        }
+
+        for (int i = 0; i < 9; i++) {
+            Assertions.assertNotNull(small.lookup("popular" + i, NO_HEADERS, 0), "popular" + i);
+        }
+    }
+
+    @Test
+    public void testInvalidate() {
+        cache.store("k", 200, headers("Cache-Control", "max-age=60"), BODY, NO_HEADERS, 0);
+        Assertions.assertEquals(BODY.length + 256, cache.getWeightedBytes());
+
+        cache.invalidate("k");
+
+        Assertions.assertEquals(0, cache.size());
+        Assertions.assertEquals(0, cache.getWeightedBytes());
+        Assertions.assertNull(cache.lookup("k", NO_HEADERS, 0));
+    }
+
+    private ResponseCache cache(long maxBytes) {
+        return new ResponseCache("users", CacheConfig.builder().enabled(true).maxBytes(maxBytes).negativeTtl(5_000)
+                .build(), (event, c, bytes) -> events.add(event));
+    }
+
+    private static Map<String, List<String>> headers(String... keyValues) {
+        Map<String, List<String>> headers = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+        for (int i = 0; i < keyValues.length; i += 2) {
+            headers.computeIfAbsent(keyValues[i], k -> new ArrayList<>()).add(keyValues[i + 1]);
+        }
+        return headers;
+    }
+}
@@ -0,0 +1,195 @@
+package com.ravi9a2.nca.codec;
+
+import com.google.protobuf.StringValue;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+public class TestCodecs {
+
+    @Test
+    public void testGet_BuiltInCodecsByName() {
+        Assertions.assertEquals("application/json", Codecs.get(Codecs.JSON).mediaType());
+        Assertions.assertEquals("application/x-jackson-smile", Codecs.get(Codecs.SMILE).mediaType());
+        Assertions.assertEquals("application/cbor", Codecs.get(" CBOR ").mediaType());
+        Assertions.assertEquals("application/x-protobuf", Codecs.get(Codecs.PROTOBUF).mediaType());
+        Assertions.assertSame(Codecs.json(), Codecs.get(""));
+        Assertions.assertSame(Codecs.json(), Codecs.get(null));
+        Assertions.assertSame(Codecs.get(Codecs.SMILE), Codecs.get(Codecs.SMILE));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> Codecs.get("yaml"));
+    }
+
+    @Test
+    public void testNameOf_MatchesBaseMediaType() {
+        Assertions.assertEquals(Codecs.JSON, Codecs.nameOf("application/json"));
+        Assertions.assertEquals(Codecs.JSON, Codecs.nameOf("Application/JSON; charset=UTF-8"));
+        Assertions.assertEquals(Codecs.JSON, Codecs.nameOf("application/problem+json"));
+        Assertions.assertEquals(Codecs.SMILE, Codecs.nameOf("application/x-jackson-smile"));
+        Assertions.assertEquals(Codecs.CBOR, Codecs.nameOf("application/cbor"));
+        Assertions.assertEquals(Codecs.PROTOBUF, Codecs.nameOf("application/x-protobuf"));
+        Assertions.assertEquals(Codecs.PROTOBUF, Codecs.nameOf("application/protobuf; proto=users.User"));
+        Assertions.assertNull(Codecs.nameOf("text/plain"));
+        Assertions.assertNull(Codecs.nameOf(null));
+    }
+
+    @Test
+    public void testForContentType_NegotiatesResponseCodec() {
+        Codec json = Codecs.json();
+        Codec generated = new NamedCodec(Codecs.JSON, "application/json");
+
+        Assertions.assertSame(Codecs.get(Codecs.CBOR), Codecs.forContentType("application/cbor", json));
+        Assertions.assertSame(json, Codecs.forContentType("application/json", Codecs.get(Codecs.SMILE)));
+        Assertions.assertSame(generated, Codecs.forContentType("application/json; charset=UTF-8", generated));
+        Assertions.assertSame(generated, Codecs.forContentType(null, generated));
+        Assertions.assertSame(generated, Codecs.forContentType("text/html", generated));
+    }
+
+    @Test
+    public void testAccept_BinaryCodecsAcceptJsonToo() {
+        Assertions.assertEquals("application/json", Codecs.accept(Codecs.json()));
+        Assertions.assertEquals("application/x-jackson-smile, application/json;q=0.5",
+                Codecs.accept(Codecs.get(Codecs.SMILE)));
+        Assertions.assertEquals("application/x-protobuf, application/json;q=0.5",
+                Codecs.accept(Codecs.get(Codecs.PROTOBUF)));
+    }
+
+    @Test
+    public void testRegister_LookedUpByNameAndMediaType() {
+        Codec codec = new NamedCodec("Test-Text", "application/x-test-text; charset=UTF-8");
+
+        Codecs.register(codec);
+
+        Assertions.assertSame(codec, Codecs.get("test-text"));
+        Assertions.assertEquals("test-text", Codecs.nameOf("application/x-test-text"));
+    }
+
+    @Test
+    public void testSmile_RoundTrip() throws IOException {
+        assertRoundTrip(Codecs.get(Codecs.SMILE));
+    }
+
+    @Test
+    public void testCbor_RoundTrip() throws IOException {
+        assertRoundTrip(Codecs.get(Codecs.CBOR));
+    }
+
+    @Test
+    public void testProtobuf_RoundTrip() throws IOException {
+        Codec codec = Codecs.get(Codecs.PROTOBUF);
+        StringValue value = StringValue.of("ravi");
+
+        byte[] bytes = codec.encode(value);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        codec.encode(value, out);
+
+        Assertions.assertArrayEquals(value.toByteArray(), bytes);
+        Assertions.assertArrayEquals(bytes, out.toByteArray());
+        Assertions.assertEquals(value, codec.decode(bytes, StringValue.class));
+        Assertions.assertEquals(value, codec.decode(new ByteArrayInputStream(bytes), StringValue.class));
+    }
+
+    @Test
+    public void testProtobuf_RejectsOtherTypes() {
+        Codec codec = Codecs.get(Codecs.PROTOBUF);
+
+        Assertions.assertThrows(IllegalArgumentException.class, () -> codec.encode("ravi"));
+        Assertions.assertThrows(IllegalArgumentException.class,
+                () -> codec.decode(new byte[0], TestJacksonCodec.listOf(String.class)));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> codec.decode(new byte[0], String.class));
+    }
+
+    private static void assertRoundTrip(Codec codec) throws IOException {
+        Item item = new Item();
+        item.name = "ravi";
+        item.count = 3;
+        item.tags = Arrays.asList("a", "b");
+        Map<String, List<Integer>> scores = new LinkedHashMap<>();
+        scores.put("a", Arrays.asList(1, 2));
+        scores.put("b", Collections.emptyList());
+
+        byte[] itemBytes = codec.encode(item);
+        byte[] scoreBytes = codec.encode(scores);
+        Item decoded = codec.decode(new ByteArrayInputStream(itemBytes), Item.class);
+        Map<String, List<Integer>> decodedScores = codec.decode(scoreBytes, mapOfLists());
+
+        Assertions.assertNotEquals('{', itemBytes[0]);
+        Assertions.assertEquals("ravi", decoded.name);
+        Assertions.assertEquals(3, decoded.count);
+        Assertions.assertEquals(Arrays.asList("a", "b"), decoded.tags);
+        Assertions.assertEquals(scores, decodedScores);
+    }
+
+    private static Type mapOfLists() {
+        return new ParameterizedType() {
+            @Override
+            public Type[] getActualTypeArguments() {
+                return new Type[]{String.class, TestJacksonCodec.listOf(Integer.class)};
+            }
+
+            @Override
+            public Type getRawType() {
+                return Map.class;
+            }
+
+            @Override
+            public Type getOwnerType() {
+                return null;
+            }
+        };
+    }
+
+    public static class Item {
+        public String name;
+        public int count;
+        public List<String> tags;
+    }
+
+    private static final class NamedCodec implements Codec {
+        private final String name;
+        private final String mediaType;
+
+        private NamedCodec(String name, String mediaType) {
+            this.name = name;
+            this.mediaType = mediaType;
+        }
+
+        @Override
+        public String name() {
+            return name;
+        }
+
+        @Override
+        public String mediaType() {
+            return mediaType;
+        }
+
+        @Override
+        public void encode(Object value, OutputStream out) throws IOException {
+            out.write(String.valueOf(value).getBytes(StandardCharsets.UTF_8));
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public <T> T decode(InputStream in, Type type) throws IOException {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            byte[] buffer = new byte[256];
+            for (int n = in.read(buffer); n >= 0; n = in.read(buffer)) {
+                out.write(buffer, 0, n);
+            }
+            return (T) new String(out.toByteArray(), StandardCharsets.UTF_8);
+        }
+    }
+}
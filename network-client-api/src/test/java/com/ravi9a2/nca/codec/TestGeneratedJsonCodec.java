@@ -0,0 +1,84 @@
+package com.ravi9a2.nca.codec;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.concurrent.TimeUnit;
+
+public class TestGeneratedJsonCodec {
+
+    private static final JsonFactory FACTORY = new JsonFactory();
+
+    @Test
+    public void testReadScalars() throws IOException {
+        Assertions.assertEquals("a", GeneratedJsonCodec.readString(parser("\"a\"")));
+        Assertions.assertEquals("12", GeneratedJsonCodec.readString(parser("12")));
+        Assertions.assertEquals(Boolean.TRUE, GeneratedJsonCodec.readBoolean(parser("true")));
+        Assertions.assertEquals(Boolean.FALSE, GeneratedJsonCodec.readBoolean(parser("\"false\"")));
+        Assertions.assertEquals(12, GeneratedJsonCodec.readInteger(parser("12")));
+        Assertions.assertEquals(12, GeneratedJsonCodec.readInteger(parser("\"12\"")));
+        Assertions.assertEquals(12, GeneratedJsonCodec.readInteger(parser("12.7")));
+        Assertions.assertEquals(1L << 40, GeneratedJsonCodec.readLong(parser(String.valueOf(1L << 40))));
+        Assertions.assertEquals((short) -3, GeneratedJsonCodec.readShort(parser("-3")));
+        Assertions.assertEquals((byte) 7, GeneratedJsonCodec.readByte(parser("7")));
+        Assertions.assertEquals(1.5, GeneratedJsonCodec.readDouble(parser("1.5")));
+        Assertions.assertEquals(2.0f, GeneratedJsonCodec.readFloat(parser("\"2\"")));
+        Assertions.assertEquals(new BigDecimal("1.25"), GeneratedJsonCodec.readBigDecimal(parser("\"1.25\"")));
+        Assertions.assertEquals(BigInteger.TEN, GeneratedJsonCodec.readBigInteger(parser("10")));
+        Assertions.assertEquals(TimeUnit.SECONDS, GeneratedJsonCodec.readEnum(parser("\"SECONDS\""), TimeUnit::valueOf));
+    }
+
+    @Test
+    public void testReadNulls() throws IOException {
+        Assertions.assertNull(GeneratedJsonCodec.readString(parser("null")));
+        Assertions.assertNull(GeneratedJsonCodec.readBoolean(parser("null")));
+        Assertions.assertNull(GeneratedJsonCodec.readInteger(parser("null")));
+        Assertions.assertNull(GeneratedJsonCodec.readDouble(parser("null")));
+        Assertions.assertNull(GeneratedJsonCodec.readBigDecimal(parser("null")));
+        Assertions.assertNull(GeneratedJsonCodec.readEnum(parser("null"), TimeUnit::valueOf));
+    }
+
+    @Test
+    public void testRead_MismatchedTokenFails() {
+        Assertions.assertThrows(JsonParseException.class, () -> GeneratedJsonCodec.readString(parser("{}")));
+        Assertions.assertThrows(JsonParseException.class, () -> GeneratedJsonCodec.readString(parser("[1]")));
+        Assertions.assertThrows(JsonParseException.class, () -> GeneratedJsonCodec.readBoolean(parser("1")));
+        Assertions.assertThrows(JsonParseException.class, () -> GeneratedJsonCodec.readBoolean(parser("\"yes\"")));
+        Assertions.assertThrows(JsonParseException.class, () -> GeneratedJsonCodec.readInteger(parser("true")));
+        Assertions.assertThrows(JsonParseException.class, () -> GeneratedJsonCodec.readInteger(parser("\"twelve\"")));
+        Assertions.assertThrows(JsonParseException.class, () -> GeneratedJsonCodec.readLong(parser("{}")));
+        Assertions.assertThrows(JsonParseException.class, () -> GeneratedJsonCodec.readDouble(parser("[]")));
+        Assertions.assertThrows(JsonParseException.class, () -> GeneratedJsonCodec.readBigDecimal(parser("false")));
+        Assertions.assertThrows(JsonParseException.class, () -> GeneratedJsonCodec.readBigInteger(parser("\"x\"")));
+    }
+
+    @Test
+    public void testRead_OutOfRangeFails() {
+        Assertions.assertThrows(IOException.class, () -> GeneratedJsonCodec.readInteger(parser("4294967296")));
+        Assertions.assertThrows(IOException.class, () -> GeneratedJsonCodec.readShort(parser("40000")));
+        Assertions.assertThrows(IOException.class, () -> GeneratedJsonCodec.readByte(parser("\"300\"")));
+        Assertions.assertThrows(IOException.class, () -> GeneratedJsonCodec.readLong(parser("1e40")));
+    }
+
+    @Test
+    public void testReadEnum_UnknownConstantFails() {
+        JsonParseException e = Assertions.assertThrows(JsonParseException.class,
+                () -> GeneratedJsonCodec.readEnum(parser("\"FORTNIGHTS\""), TimeUnit::valueOf));
+
+        Assertions.assertTrue(e.getCause() instanceof IllegalArgumentException);
+        Assertions.assertThrows(JsonParseException.class,
+                () -> GeneratedJsonCodec.readEnum(parser("3"), TimeUnit::valueOf));
+    }
+
+    private static JsonParser parser(String json) throws IOException {
+        JsonParser p = FACTORY.createParser(json);
+        p.nextToken();
+        return p;
+    }
+}
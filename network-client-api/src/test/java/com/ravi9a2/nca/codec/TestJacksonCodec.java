@@ -0,0 +1,66 @@
+package com.ravi9a2.nca.codec;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+
+public class TestJacksonCodec {
+
+    private static final byte[] NUMBERS = "[1,2,3]".getBytes(StandardCharsets.UTF_8);
+
+    JsonCodec codec;
+
+    @BeforeEach
+    public void init() {
+        codec = new JsonCodec();
+    }
+
+    @Test
+    public void testDecode_GenericTypeReadAsSuch() throws IOException {
+        List<Integer> numbers = codec.decode(NUMBERS, listOf(Integer.class));
+
+        Assertions.assertEquals(Arrays.asList(1, 2, 3), numbers);
+    }
+
+    @Test
+    public void testDecode_ReaderCachedPerResolvedType() throws IOException {
+        for (int i = 0; i < 100; i++) {
+            codec.decode(NUMBERS, listOf(Integer.class));
+            codec.decode(new ByteArrayInputStream(NUMBERS), listOf(Integer.class));
+        }
+        codec.decode(NUMBERS, listOf(Long.class));
+
+        Assertions.assertEquals(2, codec.readerCount());
+    }
+
+    /**
+     * Builds a new parameterized type per call, without equals or hashCode,
+     * the way generated call definitions do.
+     */
+    static ParameterizedType listOf(Type arg) {
+        return new ParameterizedType() {
+            @Override
+            public Type[] getActualTypeArguments() {
+                return new Type[]{arg};
+            }
+
+            @Override
+            public Type getRawType() {
+                return List.class;
+            }
+
+            @Override
+            public Type getOwnerType() {
+                return null;
+            }
+        };
+    }
+}
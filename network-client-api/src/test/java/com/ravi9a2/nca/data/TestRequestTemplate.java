@@ -0,0 +1,114 @@
+package com.ravi9a2.nca.data;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.io.UnsupportedEncodingException;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+public class TestRequestTemplate {
+
+    @Test
+    public void testParse_PathVariables() {
+        RequestTemplate template = RequestTemplate.of("GET", "/users/{id}/orders/${orderId}");
+
+        Assertions.assertEquals(2, template.getVariableCount());
+        Assertions.assertEquals("id", template.getVariableName(0));
+        Assertions.assertEquals("orderId", template.getVariableName(1));
+        Assertions.assertEquals("/users/42/orders/7", template.expand(params("id", "42", "orderId", "7")));
+    }
+
+    @Test
+    public void testExpand_UnboundPlaceholderKept() {
+        RequestTemplate template = RequestTemplate.of("GET", "/users/{id}/orders/${orderId}");
+
+        Assertions.assertEquals("/users/42/orders/${orderId}", template.expand(params("id", "42")));
+    }
+
+    @Test
+    public void testExpand_NoVariables() {
+        RequestTemplate template = RequestTemplate.of("GET", "/users");
+
+        Assertions.assertFalse(template.hasVariables());
+        Assertions.assertEquals("/users", template.expand(params("id", "42")));
+    }
+
+    @Test
+    public void testExpand_Query() {
+        RequestTemplate template = RequestTemplate.of("GET", "/users?page={page}&size={size}");
+
+        String[] slots = template.bind(params("page", "1"), params("size", "20"));
+
+        Assertions.assertEquals("/users?page=1&size=20", template.expand(slots));
+    }
+
+    @Test
+    public void testBind_RequestParamsOverPathParams() {
+        RequestTemplate template = RequestTemplate.of("GET", "/users/{id}");
+
+        String[] slots = template.bind(params("id", "path"), params("id", "request"));
+
+        Assertions.assertEquals("/users/request", template.expand(slots));
+    }
+
+    @Test
+    public void testExpand_Encoding() {
+        RequestTemplate template = RequestTemplate.of("GET", "/search/{term}?q={query}");
+
+        String[] slots = template.bind(params("term", "a/b", "query", "x y&z"), null);
+        String url = template.expand(slots, TestRequestTemplate::encode);
+
+        Assertions.assertEquals("/search/a%2Fb?q=x+y%26z", url);
+    }
+
+    @Test
+    public void testExpand_AbsoluteUrl() {
+        RequestTemplate template = RequestTemplate.of("POST", "https://{host}:8443/v1/items/{id}");
+
+        Assertions.assertEquals("POST", template.getHttpMethod());
+        Assertions.assertEquals("https://api.local:8443/v1/items/9",
+                template.expand(params("host", "api.local", "id", "9")));
+    }
+
+    @Test
+    public void testParse_EmptyBracesAreLiteral() {
+        RequestTemplate template = RequestTemplate.of("GET", "/users/{}/{id}");
+
+        Assertions.assertEquals(1, template.getVariableCount());
+        Assertions.assertEquals("/users/{}/5", template.expand(params("id", "5")));
+    }
+
+    @Test
+    public void testOf_Cached() {
+        Assertions.assertSame(RequestTemplate.of("GET", "/cached/{id}"), RequestTemplate.of("GET", "/cached/{id}"));
+        Assertions.assertNotSame(RequestTemplate.of("GET", "/cached/{id}"),
+                RequestTemplate.of("DELETE", "/cached/{id}"));
+    }
+
+    @Test
+    public void testBind_NullParams() {
+        RequestTemplate template = RequestTemplate.of("GET", "/users/{id}");
+
+        Assertions.assertEquals("/users/{id}", template.expand(template.bind(null, Collections.emptyMap())));
+    }
+
+    private static Map<String, String> params(String... keyValues) {
+        Map<String, String> params = new HashMap<>();
+        for (int i = 0; i < keyValues.length; i += 2) {
+            params.put(keyValues[i], keyValues[i + 1]);
+        }
+        return params;
+    }
+
+    private static String encode(String value) {
+        try {
+            return URLEncoder.encode(value, StandardCharsets.UTF_8.name());
+        } catch (UnsupportedEncodingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package com.ravi9a2.nca.lb;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class TestEndpoint {
+
+    private static final long BASE = 10;
+    private static final long MAX = 100;
+
+    @Test
+    public void testEject_BacksOffWithEveryEjection() {
+        Endpoint endpoint = new Endpoint("client", "http://a.local/");
+
+        Assertions.assertTrue(endpoint.eject(0, BASE, MAX));
+        Assertions.assertFalse(endpoint.eject(0, BASE, MAX));
+        Assertions.assertFalse(endpoint.readmitIfDue(BASE - 1, 5));
+        Assertions.assertTrue(endpoint.readmitIfDue(BASE, 5));
+        Assertions.assertTrue(endpoint.eject(BASE, BASE, MAX));
+        Assertions.assertFalse(endpoint.readmitIfDue(BASE + 2 * BASE - 1, 5));
+        Assertions.assertTrue(endpoint.readmitIfDue(BASE + 2 * BASE, 5));
+        Assertions.assertEquals(2, endpoint.getEjections());
+    }
+
+    @Test
+    public void testOnSuccess_SoonAfterReadmissionKeepsEjections() {
+        Endpoint endpoint = new Endpoint("client", "http://a.local");
+        endpoint.eject(0, BASE, MAX);
+        endpoint.readmitIfDue(BASE, 5);
+
+        endpoint.onSuccess(BASE + MAX - 1, MAX);
+
+        Assertions.assertEquals(1, endpoint.getEjections());
+        Assertions.assertTrue(endpoint.eject(BASE + MAX - 1, BASE, MAX));
+        Assertions.assertFalse(endpoint.readmitIfDue(BASE + MAX - 1 + 2 * BASE - 1, 5));
+    }
+
+    @Test
+    public void testOnSuccess_AfterHealthyIntervalResetsEjections() {
+        Endpoint endpoint = new Endpoint("client", "http://a.local");
+        endpoint.eject(0, BASE, MAX);
+        endpoint.readmitIfDue(BASE, 5);
+
+        endpoint.onSuccess(BASE + MAX, MAX);
+
+        Assertions.assertEquals(0, endpoint.getEjections());
+    }
+
+    @Test
+    public void testOnSuccess_WhileEjectedKeepsEjections() {
+        Endpoint endpoint = new Endpoint("client", "http://a.local");
+        endpoint.eject(0, BASE, MAX);
+        endpoint.readmitIfDue(BASE, 5);
+        endpoint.eject(BASE, BASE, MAX);
+
+        endpoint.onSuccess(BASE + 10 * MAX, MAX);
+
+        Assertions.assertEquals(2, endpoint.getEjections());
+    }
+
+    @Test
+    public void testOnSuccess_ResetsConsecutiveFailures() {
+        Endpoint endpoint = new Endpoint("client", "http://a.local");
+        endpoint.onFailure();
+        endpoint.onFailure();
+
+        endpoint.onSuccess(0, MAX);
+
+        Assertions.assertEquals(1, endpoint.onFailure());
+    }
+
+    @Test
+    public void testRelease_Ewma() {
+        Endpoint endpoint = new Endpoint("client", "http://a.local");
+        endpoint.acquire();
+        endpoint.release(10_000_000);
+        endpoint.acquire();
+        endpoint.release(20_000_000);
+
+        Assertions.assertEquals(13.0, endpoint.getEwmaLatency(), 1e-9);
+        Assertions.assertEquals(0, endpoint.getInFlight());
+        Assertions.assertEquals("http://a.local", endpoint.getUrl());
+    }
+}
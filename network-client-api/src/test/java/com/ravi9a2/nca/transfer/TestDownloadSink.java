@@ -0,0 +1,165 @@
+package com.ravi9a2.nca.transfer;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.util.Arrays;
+
+public class TestDownloadSink {
+
+    private static final byte[] BODY = "0123456789abcdefghijklmnopqrstuvwxyz".getBytes(StandardCharsets.UTF_8);
+
+    @TempDir
+    Path dir;
+
+    @Test
+    public void testFinish_SmallBodyKeptInMemory() throws Exception {
+        Path target = dir.resolve("body");
+        DownloadSink sink = new DownloadSink(target, BODY.length);
+
+        sink.write(BODY, 0, 10);
+        sink.write(ByteBuffer.wrap(BODY, 10, BODY.length - 10));
+        Download download = sink.finish(200, "text/plain");
+
+        Assertions.assertTrue(download.isInMemory());
+        Assertions.assertArrayEquals(BODY, download.getBytes());
+        Assertions.assertNull(download.getPath());
+        Assertions.assertEquals(BODY.length, download.getSize());
+        Assertions.assertEquals(200, download.getStatus());
+        Assertions.assertEquals("text/plain", download.getContentType());
+        Assertions.assertFalse(Files.exists(target));
+    }
+
+    @Test
+    public void testFinish_SpilledPastThreshold() throws Exception {
+        Path target = dir.resolve("body");
+        DownloadSink sink = new DownloadSink(target, 16);
+
+        sink.write(BODY, 0, 10);
+        Assertions.assertFalse(Files.exists(target));
+        sink.write(BODY, 10, 10);
+        Assertions.assertTrue(Files.exists(target));
+        sink.write(ByteBuffer.wrap(BODY, 20, BODY.length - 20));
+        Download download = sink.finish(200, null);
+
+        Assertions.assertFalse(download.isInMemory());
+        Assertions.assertNull(download.getBytes());
+        Assertions.assertEquals(target, download.getPath());
+        Assertions.assertArrayEquals(BODY, Files.readAllBytes(target));
+        Assertions.assertArrayEquals(BODY, read(download));
+        Assertions.assertEquals(BODY.length, download.getSize());
+    }
+
+    @Test
+    public void testFinish_ZeroThresholdAlwaysWritesFile() throws Exception {
+        Path target = dir.resolve("body");
+        DownloadSink sink = new DownloadSink(target, 0);
+
+        Download download = sink.finish(204, null);
+
+        Assertions.assertEquals(target, download.getPath());
+        Assertions.assertEquals(0, download.getSize());
+        Assertions.assertEquals(0, Files.size(target));
+    }
+
+    @Test
+    public void testFinish_TruncatesExistingTarget() throws Exception {
+        Path target = dir.resolve("body");
+        Files.write(target, new byte[100]);
+        DownloadSink sink = new DownloadSink(target, 0);
+
+        sink.write(BODY, 0, 4);
+        sink.finish(200, null);
+
+        Assertions.assertArrayEquals(Arrays.copyOf(BODY, 4), Files.readAllBytes(target));
+    }
+
+    @Test
+    public void testFinish_TemporaryFileWithoutTarget() throws Exception {
+        DownloadSink sink = new DownloadSink(null, 4);
+
+        sink.write(BODY, 0, BODY.length);
+        Download download = sink.finish(200, null);
+
+        try {
+            Assertions.assertNotNull(download.getPath());
+            Assertions.assertArrayEquals(BODY, Files.readAllBytes(download.getPath()));
+        } finally {
+            Files.deleteIfExists(download.getPath());
+        }
+    }
+
+    @Test
+    public void testFinish_Sha256OfWholeBody() throws Exception {
+        String expected = sha256(BODY);
+        DownloadSink inMemory = new DownloadSink(dir.resolve("a"), BODY.length);
+        DownloadSink spilled = new DownloadSink(dir.resolve("b"), 8);
+        ByteBuffer direct = ByteBuffer.allocateDirect(BODY.length);
+        direct.put(BODY).flip();
+
+        inMemory.write(BODY, 0, BODY.length);
+        for (int i = 0; i < BODY.length; i += 5) {
+            spilled.write(BODY, i, Math.min(5, BODY.length - i));
+        }
+        DownloadSink fromDirect = new DownloadSink(dir.resolve("c"), 8);
+        fromDirect.write(direct);
+
+        Assertions.assertEquals(expected, inMemory.finish(200, null).getSha256());
+        Assertions.assertEquals(expected, spilled.finish(200, null).getSha256());
+        Assertions.assertEquals(expected, fromDirect.finish(200, null).getSha256());
+        Assertions.assertFalse(direct.hasRemaining());
+        Assertions.assertEquals("e3b0c44298fc1c149afbf4c8996fb92427ae41e4649b934ca495991b7852b855",
+                new DownloadSink(null, 10).finish(200, null).getSha256());
+    }
+
+    @Test
+    public void testClose_AbortDeletesPartialFile() throws Exception {
+        Path target = dir.resolve("body");
+        try (DownloadSink sink = new DownloadSink(target, 8)) {
+            sink.write(BODY, 0, BODY.length);
+            Assertions.assertTrue(Files.exists(target));
+        }
+
+        Assertions.assertFalse(Files.exists(target));
+    }
+
+    @Test
+    public void testClose_AfterFinishKeepsFile() throws Exception {
+        Path target = dir.resolve("body");
+        Download download;
+        try (DownloadSink sink = new DownloadSink(target, 8)) {
+            sink.write(BODY, 0, BODY.length);
+            download = sink.finish(200, null);
+        }
+
+        Assertions.assertArrayEquals(BODY, Files.readAllBytes(download.getPath()));
+    }
+
+    private static byte[] read(Download download) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (InputStream in = download.openStream()) {
+            byte[] buffer = new byte[8];
+            for (int n = in.read(buffer); n >= 0; n = in.read(buffer)) {
+                out.write(buffer, 0, n);
+            }
+        }
+        return out.toByteArray();
+    }
+
+    private static String sha256(byte[] bytes) throws Exception {
+        StringBuilder hex = new StringBuilder();
+        for (byte b : MessageDigest.getInstance("SHA-256").digest(bytes)) {
+            hex.append(String.format("%02x", b));
+        }
+        return hex.toString();
+    }
+}
@@ -0,0 +1,36 @@
+package com.ravi9a2.nea.annotations;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Batches concurrent calls of a single-item method into one call to a bulk
+ * endpoint. Goes along with the call annotation that describes the bulk endpoint.
+ * The method takes the key as its only parameter and returns a Mono or a
+ * CompletableFuture of the item. The bulk endpoint responds with a JSON object of
+ * the items keyed by their keys.
+ *
+ * @author raviprakash
+ */
+@Retention(RetentionPolicy.CLASS)
+@Target(ElementType.METHOD)
+public @interface BatchCall {
+
+    /**
+     * Name of the query param carrying the comma-separated keys. The keys are sent
+     * as a JSON array payload when empty.
+     */
+    String param() default "";
+
+    /**
+     * The most keys sent in one bulk call.
+     */
+    int maxSize() default 100;
+
+    /**
+     * How long in milliseconds a batch waits for more keys before it is sent.
+     */
+    long window() default 5;
+}
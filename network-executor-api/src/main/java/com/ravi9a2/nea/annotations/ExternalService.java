@@ -14,4 +14,11 @@ import java.lang.annotation.Target;
 @Retention(RetentionPolicy.CLASS)
 @Target(ElementType.TYPE)
 public @interface ExternalService {
+
+    /**
+     * Generates reflection-free JSON codecs for the payload and response types
+     * of the HTTP methods returning a value, a Mono or a CompletableFuture. Types
+     * the generator does not support are bound by Jackson at runtime.
+     */
+    boolean generateCodecs() default false;
 }
@@ -32,4 +32,24 @@ public @interface GetCall {
     String circuitBreaker() default "";
 
     String fallback() default "";
+
+    /**
+     * Name of the hedge configuration to hedge this call with. A slow call is
+     * duplicated and the first response wins. Hedging is off when empty.
+     */
+    String hedge() default "";
+
+    /**
+     * Whether concurrent identical calls share a single in-flight request. The
+     * callers then share the same response instance, so it must not be mutated.
+     * A call carrying a {@code Cache-Control: no-cache} header is never shared.
+     */
+    boolean coalesce() default false;
+
+    /**
+     * How old, in milliseconds, the last successful response of this call may be
+     * to still be served in place of a failure, when the circuit is open, the
+     * bulkhead is full or the downstream answers with a 5XX. Off when 0.
+     */
+    long staleIfError() default 0;
 }
@@ -36,6 +36,12 @@ public @interface UnaryRPCCall {
 
     String fallback() default "";
 
+    /**
+     * Name of the hedge configuration to hedge this call with. A slow call is
+     * duplicated and the first response wins. Hedging is off when empty.
+     */
+    String hedge() default "";
+
     String fqPackageName() default "";
 
     String className() default "";
@@ -0,0 +1,181 @@
+package com.ravi9a2.nea.core;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.ravi9a2.nca.data.Deadline;
+import reactor.core.publisher.Mono;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Collects the keys of concurrent single-item calls and loads them with one bulk
+ * call, in the DataLoader pattern. A batch is sent once it holds {@code maxSize}
+ * distinct keys or {@code window} milliseconds after its first key, whichever
+ * comes first. Identical keys within a batch are sent once.
+ * <p>
+ * The bulk call responds with a map keyed by {@code String.valueOf(key)}. A key
+ * missing from it completes with null, and a failed bulk call fails every key of
+ * the batch.
+ * <p>
+ * The bulk call is made with the earliest deadline of the callers in the batch,
+ * taken from the subscriber's context for {@link #loadMono} and from the thread for
+ * {@link #load}. Batches flushed by their window are sent from the dispatcher, so
+ * a slow bulk call never holds up the timer that flushes the other batches.
+ *
+ * @param <K> key type
+ * @param <V> value type
+ * @author raviprakash
+ */
+public class BatchLoader<K, V> {
+
+    private static final ScheduledExecutorService TIMER = Executors.newSingleThreadScheduledExecutor(
+            new ThreadFactoryBuilder().setNameFormat("batch-loader-%d").setDaemon(true).build());
+    private static final Executor DISPATCHER = Executors.newCachedThreadPool(
+            new ThreadFactoryBuilder().setNameFormat("batch-dispatcher-%d").setDaemon(true).build());
+
+    private final int maxSize;
+    private final long window;
+    private final BiFunction<List<K>, Deadline, CompletionStage<Map<String, V>>> bulkCall;
+    private final Executor dispatcher;
+    private Batch<K, V> pending;
+    private ScheduledFuture<?> flush;
+
+    /**
+     * @param maxSize  the most keys sent in one bulk call
+     * @param window   how long in milliseconds a batch waits for more keys
+     * @param bulkCall makes the bulk call for the given keys
+     */
+    public BatchLoader(int maxSize, long window, Function<List<K>, CompletionStage<Map<String, V>>> bulkCall) {
+        this(maxSize, window, (keys, deadline) -> bulkCall.apply(keys));
+    }
+
+    /**
+     * @param maxSize  the most keys sent in one bulk call
+     * @param window   how long in milliseconds a batch waits for more keys
+     * @param bulkCall makes the bulk call for the given keys within the given deadline,
+     *                 which is null if no caller in the batch has one
+     */
+    public BatchLoader(int maxSize, long window,
+                       BiFunction<List<K>, Deadline, CompletionStage<Map<String, V>>> bulkCall) {
+        this(maxSize, window, bulkCall, DISPATCHER);
+    }
+
+    /**
+     * @param maxSize    the most keys sent in one bulk call
+     * @param window     how long in milliseconds a batch waits for more keys
+     * @param bulkCall   makes the bulk call for the given keys within the given deadline
+     * @param dispatcher sends the batches flushed by their window
+     */
+    public BatchLoader(int maxSize, long window,
+                       BiFunction<List<K>, Deadline, CompletionStage<Map<String, V>>> bulkCall, Executor dispatcher) {
+        this.maxSize = Math.max(1, maxSize);
+        this.window = window;
+        this.bulkCall = bulkCall;
+        this.dispatcher = dispatcher;
+    }
+
+    /**
+     * Adds the key to the current batch, along with the deadline attached to the
+     * current thread.
+     *
+     * @param key the key
+     * @return CompletableFuture of the value of the key
+     */
+    public CompletableFuture<V> load(K key) {
+        return load(key, Deadline.current());
+    }
+
+    private CompletableFuture<V> load(K key, Deadline deadline) {
+        Batch<K, V> full = null;
+        CompletableFuture<V> shared;
+        synchronized (this) {
+            if (Objects.isNull(pending)) {
+                Batch<K, V> batch = new Batch<>();
+                pending = batch;
+                flush = TIMER.schedule(() -> dispatcher.execute(() -> flush(batch)), window, TimeUnit.MILLISECONDS);
+            }
+            pending.deadline = Deadline.earliest(pending.deadline, deadline);
+            shared = pending.futures.computeIfAbsent(key, k -> new CompletableFuture<>());
+            if (pending.futures.size() >= maxSize) {
+                full = pending;
+                pending = null;
+                flush.cancel(false);
+            }
+        }
+        if (Objects.nonNull(full)) {
+            dispatch(full);
+        }
+        // Each caller gets its own future, so one cancelling does not fail the others.
+        return shared.thenApply(Function.identity());
+    }
+
+    /**
+     * Adds the key to the current batch once subscribed, along with the deadline in
+     * the subscriber's context.
+     *
+     * @param key the key
+     * @return Mono of the value of the key, empty if the bulk call did not return it
+     */
+    public Mono<V> loadMono(K key) {
+        return Mono.deferContextual(ctx -> Mono.fromFuture(load(key, ctx.getOrDefault(Deadline.CONTEXT_KEY, null))));
+    }
+
+    /**
+     * Joins the keys into a comma-separated string, to be sent as a single query
+     * param.
+     */
+    public static String join(List<?> keys) {
+        return keys.stream().map(String::valueOf).collect(Collectors.joining(","));
+    }
+
+    private void flush(Batch<K, V> batch) {
+        synchronized (this) {
+            if (pending != batch) {
+                return;
+            }
+            pending = null;
+        }
+        dispatch(batch);
+    }
+
+    private void dispatch(Batch<K, V> batch) {
+        CompletionStage<Map<String, V>> response;
+        try {
+            response = bulkCall.apply(new ArrayList<>(batch.futures.keySet()), batch.deadline);
+        } catch (RuntimeException e) {
+            batch.futures.values().forEach(f -> f.completeExceptionally(e));
+            return;
+        }
+        response.whenComplete((values, th) -> batch.futures.forEach((key, f) -> {
+            if (Objects.nonNull(th)) {
+                f.completeExceptionally(th instanceof CompletionException && Objects.nonNull(th.getCause())
+                        ? th.getCause() : th);
+            } else {
+                f.complete(Objects.isNull(values) ? null : values.get(String.valueOf(key)));
+            }
+        }));
+    }
+
+    /**
+     * The keys of a batch and the earliest deadline of their callers, guarded by the
+     * loader until the batch is dispatched.
+     */
+    private static final class Batch<K, V> {
+        private final Map<K, CompletableFuture<V>> futures = new LinkedHashMap<>();
+        private Deadline deadline;
+    }
+}
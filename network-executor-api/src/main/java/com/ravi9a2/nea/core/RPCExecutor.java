@@ -4,6 +4,8 @@ import com.google.common.util.concurrent.ListenableFuture;
 import com.ravi9a2.nea.core.data.CallDefinition;
 import com.ravi9a2.nca.RPCClient;
 import com.ravi9a2.nca.ReactiveClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 
 public interface RPCExecutor<C> extends Executor<ReactiveClient<C>> {
 
@@ -11,4 +13,10 @@ public interface RPCExecutor<C> extends Executor<ReactiveClient<C>> {
 
     <D extends CallDefinition, R> ListenableFuture<R> executeAsync(RPCClient<C> client, D callDef);
 
+    <D extends CallDefinition, R> Flux<R> executeServerStreaming(RPCClient<C> client, D callDef);
+
+    <D extends CallDefinition, R> Mono<R> executeClientStreaming(RPCClient<C> client, D callDef);
+
+    <D extends CallDefinition, R> Flux<R> executeBiDi(RPCClient<C> client, D callDef);
+
 }
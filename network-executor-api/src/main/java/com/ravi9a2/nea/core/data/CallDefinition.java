@@ -1,5 +1,7 @@
 package com.ravi9a2.nea.core.data;
 
+import com.ravi9a2.nca.data.Deadline;
+
 /**
  * A generic pojo to hold a call's definition.
  *
@@ -17,8 +19,11 @@ public class CallDefinition {
     private final String bhTag;
     private final String retryTag;
     private final String cbTag;
+    private final String hedgeTag;
     private final java.lang.reflect.Type responseType;
     private final Object payload;
+    private final CallSite callSite;
+    private final Deadline deadline;
 
     protected CallDefinition(Builder builder) {
         this.id = builder.id;
@@ -31,8 +36,11 @@ public class CallDefinition {
         this.bhTag = builder.bhTag;
         this.retryTag = builder.retryTag;
         this.cbTag = builder.cbTag;
+        this.hedgeTag = builder.hedgeTag;
         this.responseType = builder.responseType;
         this.payload = builder.payload;
+        this.callSite = builder.callSite;
+        this.deadline = builder.deadline;
     }
 
     public abstract static class Builder<T> {
@@ -46,8 +54,11 @@ public class CallDefinition {
         private String bhTag;
         private String retryTag;
         private String cbTag;
+        private String hedgeTag;
         private java.lang.reflect.Type responseType;
         private Object payload;
+        private CallSite callSite;
+        private Deadline deadline;
 
         public T id(String id) {
             this.id = id;
@@ -99,6 +110,11 @@ public class CallDefinition {
             return this.getThis();
         }
 
+        public T hedgeTag(String hedgeTag) {
+            this.hedgeTag = hedgeTag;
+            return this.getThis();
+        }
+
         public T responseType(java.lang.reflect.Type responseType) {
             this.responseType = responseType;
             return this.getThis();
@@ -109,6 +125,16 @@ public class CallDefinition {
             return this.getThis();
         }
 
+        public T callSite(CallSite callSite) {
+            this.callSite = callSite;
+            return this.getThis();
+        }
+
+        public T deadline(Deadline deadline) {
+            this.deadline = deadline;
+            return this.getThis();
+        }
+
         public abstract CallDefinition build();
 
         protected abstract T getThis();
@@ -154,6 +180,15 @@ public class CallDefinition {
         return cbTag;
     }
 
+    /**
+     * Returns the hedge configuration of the call, or null if the call is not hedged.
+     *
+     * @return the hedge tag
+     */
+    public String getHedgeTag() {
+        return hedgeTag;
+    }
+
     public java.lang.reflect.Type getResponseType() {
         return responseType;
     }
@@ -161,4 +196,23 @@ public class CallDefinition {
     public Object getPayload() {
         return payload;
     }
+
+    /**
+     * Returns the CallSite this call was made from, or null if the call
+     * definition was built without one.
+     *
+     * @return the CallSite
+     */
+    public CallSite getCallSite() {
+        return callSite;
+    }
+
+    /**
+     * Returns the deadline of the call, or null if the call has none of its own.
+     *
+     * @return the Deadline
+     */
+    public Deadline getDeadline() {
+        return deadline;
+    }
 }
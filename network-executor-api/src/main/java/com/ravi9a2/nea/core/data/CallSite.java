@@ -0,0 +1,240 @@
+package com.ravi9a2.nea.core.data;
+
+import java.util.Objects;
+import java.util.function.Function;
+
+/**
+ * An immutable key identifying a call site by its resilience configuration, i.e.
+ * the service, circuit-breaker, bulkhead and retry tags along with the flags that
+ * enable them.
+ * <p>
+ * Generated implementations hold one CallSite per method and pass it along with
+ * each CallDefinition. Executors compile whatever they need for the call site once
+ * and attach it to the CallSite, so that subsequent calls skip the lookup entirely.
+ *
+ * @author raviprakash
+ */
+public final class CallSite {
+
+    private final String serviceTag;
+    private final String cbTag;
+    private final String bhTag;
+    private final String retryTag;
+    private final String hedgeTag;
+    private final HTTPMethod httpMethod;
+    private final boolean isCircuitBreakerEnabled;
+    private final boolean isBulkheadEnabled;
+    private final boolean isRetryable;
+    private final int hash;
+    private volatile Object compiled;
+
+    private CallSite(Builder builder) {
+        this.serviceTag = builder.serviceTag;
+        this.cbTag = builder.cbTag;
+        this.bhTag = builder.bhTag;
+        this.retryTag = builder.retryTag;
+        this.hedgeTag = builder.hedgeTag;
+        this.httpMethod = builder.httpMethod;
+        this.isCircuitBreakerEnabled = builder.isCircuitBreakerEnabled;
+        this.isBulkheadEnabled = builder.isBulkheadEnabled;
+        this.isRetryable = builder.isRetryable;
+        this.hash = Objects.hash(serviceTag, cbTag, bhTag, retryTag, hedgeTag, httpMethod,
+                isCircuitBreakerEnabled, isBulkheadEnabled, isRetryable);
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Derives the CallSite of a CallDefinition that was built without one.
+     *
+     * @param cd the call definition
+     * @return CallSite holding the resilience configuration of the call definition
+     */
+    public static CallSite of(CallDefinition cd) {
+        return builder()
+                .serviceTag(cd.getServiceTag())
+                .cbTag(cd.getCbTag())
+                .bhTag(cd.getBhTag())
+                .retryTag(cd.getRetryTag())
+                .hedgeTag(cd.getHedgeTag())
+                .httpMethod(cd instanceof RestCallDefinition ? ((RestCallDefinition) cd).getHttpMethod() : null)
+                .isCircuitBreakerEnabled(cd.isCircuitBreakerEnabled())
+                .isBulkheadEnabled(cd.isBulkheadEnabled())
+                .isRetryable(cd.isRetryable())
+                .build();
+    }
+
+    /**
+     * Returns the object compiled for this call site, compiling and attaching it
+     * on first use. If an object of another type is attached, it is replaced.
+     *
+     * @param type     type of the compiled object
+     * @param compiler compiles the object for this call site
+     * @param <P>      type of the compiled object
+     * @return the compiled object
+     */
+    public <P> P compiled(Class<P> type, Function<CallSite, P> compiler) {
+        Object current = compiled;
+        if (type.isInstance(current)) {
+            return type.cast(current);
+        }
+        P p = compiler.apply(this);
+        compiled = p;
+        return p;
+    }
+
+    public String getServiceTag() {
+        return serviceTag;
+    }
+
+    public String getCbTag() {
+        return cbTag;
+    }
+
+    public String getBhTag() {
+        return bhTag;
+    }
+
+    public String getRetryTag() {
+        return retryTag;
+    }
+
+    public String getHedgeTag() {
+        return hedgeTag;
+    }
+
+    /**
+     * Whether calls through this call site are hedged.
+     *
+     * @return true if a hedge tag is set
+     */
+    public boolean isHedged() {
+        return Objects.nonNull(hedgeTag) && !hedgeTag.isEmpty();
+    }
+
+    /**
+     * Returns the HTTP method of the call site, or null for RPC call sites.
+     *
+     * @return HTTPMethod of the call site
+     */
+    public HTTPMethod getHttpMethod() {
+        return httpMethod;
+    }
+
+    /**
+     * Whether a call through this call site may safely be repeated. RPC call sites
+     * carry no method semantics and are treated as idempotent once marked retryable.
+     *
+     * @return true if the call is idempotent
+     */
+    public boolean isIdempotent() {
+        return Objects.isNull(httpMethod) || httpMethod.isIdempotent();
+    }
+
+    public boolean isCircuitBreakerEnabled() {
+        return isCircuitBreakerEnabled;
+    }
+
+    public boolean isBulkheadEnabled() {
+        return isBulkheadEnabled;
+    }
+
+    public boolean isRetryable() {
+        return isRetryable;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof CallSite)) {
+            return false;
+        }
+        CallSite that = (CallSite) o;
+        return hash == that.hash
+                && isCircuitBreakerEnabled == that.isCircuitBreakerEnabled
+                && isBulkheadEnabled == that.isBulkheadEnabled
+                && isRetryable == that.isRetryable
+                && Objects.equals(serviceTag, that.serviceTag)
+                && Objects.equals(cbTag, that.cbTag)
+                && Objects.equals(bhTag, that.bhTag)
+                && Objects.equals(retryTag, that.retryTag)
+                && Objects.equals(hedgeTag, that.hedgeTag)
+                && httpMethod == that.httpMethod;
+    }
+
+    @Override
+    public int hashCode() {
+        return hash;
+    }
+
+    @Override
+    public String toString() {
+        return "CallSite{serviceTag=" + serviceTag + ", cbTag=" + cbTag + ", bhTag=" + bhTag
+                + ", retryTag=" + retryTag + ", hedgeTag=" + hedgeTag + "}";
+    }
+
+    public static class Builder {
+        private String serviceTag;
+        private String cbTag;
+        private String bhTag;
+        private String retryTag;
+        private String hedgeTag;
+        private HTTPMethod httpMethod;
+        private boolean isCircuitBreakerEnabled;
+        private boolean isBulkheadEnabled;
+        private boolean isRetryable;
+
+        public Builder serviceTag(String serviceTag) {
+            this.serviceTag = serviceTag;
+            return this;
+        }
+
+        public Builder cbTag(String cbTag) {
+            this.cbTag = cbTag;
+            return this;
+        }
+
+        public Builder bhTag(String bhTag) {
+            this.bhTag = bhTag;
+            return this;
+        }
+
+        public Builder retryTag(String retryTag) {
+            this.retryTag = retryTag;
+            return this;
+        }
+
+        public Builder hedgeTag(String hedgeTag) {
+            this.hedgeTag = hedgeTag;
+            return this;
+        }
+
+        public Builder httpMethod(HTTPMethod httpMethod) {
+            this.httpMethod = httpMethod;
+            return this;
+        }
+
+        public Builder isCircuitBreakerEnabled(boolean isCircuitBreakerEnabled) {
+            this.isCircuitBreakerEnabled = isCircuitBreakerEnabled;
+            return this;
+        }
+
+        public Builder isBulkheadEnabled(boolean isBulkheadEnabled) {
+            this.isBulkheadEnabled = isBulkheadEnabled;
+            return this;
+        }
+
+        public Builder isRetryable(boolean isRetryable) {
+            this.isRetryable = isRetryable;
+            return this;
+        }
+
+        public CallSite build() {
+            return new CallSite(this);
+        }
+    }
+}
@@ -8,18 +8,31 @@ import java.util.Arrays;
  * @author raviprakash
  */
 public enum HTTPMethod {
-    GET("GET"), POST("POST"), PUT("PUT"), DELETE("DELETE"), PATCH("PATCH");
+    GET("GET", true), POST("POST", false), PUT("PUT", true), DELETE("DELETE", true), PATCH("PATCH", false);
 
     String value;
+    boolean idempotent;
 
-    HTTPMethod(String name) {
+    HTTPMethod(String name, boolean idempotent) {
         this.value = name;
+        this.idempotent = idempotent;
     }
 
     public String value() {
         return value;
     }
 
+    /**
+     * Whether repeating a request with this method leaves the server in the same
+     * state as sending it once, as defined by RFC 7231. Only idempotent requests
+     * are retried by default.
+     *
+     * @return true if the method is idempotent
+     */
+    public boolean isIdempotent() {
+        return idempotent;
+    }
+
     /**
      * Returns the HTTPMethod for an equivalent string.
      *
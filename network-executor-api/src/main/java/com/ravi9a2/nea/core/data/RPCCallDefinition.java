@@ -16,6 +16,7 @@ public class RPCCallDefinition extends CallDefinition {
     private String methodName;
     private RPCMethod rpcMethod;
     private Map<String, String> grpcHeaders;
+    private Object methodDescriptor;
 
     public static Builder builder() {
         return new Builder();
@@ -28,6 +29,7 @@ public class RPCCallDefinition extends CallDefinition {
         this.grpcHeaders = builder.grpcHeaders;
         this.methodName = builder.methodName;
         this.rpcMethod = builder.rpcMethod;
+        this.methodDescriptor = builder.methodDescriptor;
     }
 
     public String getFqPackageName() {
@@ -50,6 +52,14 @@ public class RPCCallDefinition extends CallDefinition {
         return grpcHeaders;
     }
 
+    /**
+     * Returns the method descriptor the call site resolved at compile time, null
+     * if the client resolves it from the names of the call.
+     */
+    public Object getMethodDescriptor() {
+        return methodDescriptor;
+    }
+
     public static class Builder extends CallDefinition.Builder<Builder> {
         
         private String fqPackageName;
@@ -57,6 +67,7 @@ public class RPCCallDefinition extends CallDefinition {
         private String methodName;
         private RPCMethod rpcMethod;
         private Map<String, String> grpcHeaders;
+        private Object methodDescriptor;
 
         public RPCCallDefinition.Builder fqPackageName(String fqPackageName) {
             this.fqPackageName = fqPackageName;
@@ -83,6 +94,10 @@ public class RPCCallDefinition extends CallDefinition {
             return this;
         }
 
+        public RPCCallDefinition.Builder methodDescriptor(Object methodDescriptor) {
+            this.methodDescriptor = methodDescriptor;
+            return this;
+        }
 
         @Override
         public RPCCallDefinition build() {
@@ -1,5 +1,8 @@
 package com.ravi9a2.nea.core.data;
 
+import com.ravi9a2.nca.codec.Codec;
+import com.ravi9a2.nca.data.RequestTemplate;
+
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Objects;
@@ -16,6 +19,10 @@ public class RestCallDefinition extends CallDefinition {
     private Map<String, String> httpHeaders;
     private Map<String, String> pathParams;
     private Map<String, String> queryParams;
+    private boolean coalesce;
+    private long staleIfError;
+    private Codec codec;
+    private RequestTemplate template;
 
     public static Builder builder() {
         return new Builder();
@@ -28,6 +35,10 @@ public class RestCallDefinition extends CallDefinition {
         this.httpHeaders = builder.httpHeaders;
         this.pathParams = builder.pathParams;
         this.queryParams = builder.queryParams;
+        this.coalesce = builder.coalesce;
+        this.staleIfError = builder.staleIfError;
+        this.codec = builder.codec;
+        this.template = builder.template;
     }
 
     public String getPath() {
@@ -50,12 +61,52 @@ public class RestCallDefinition extends CallDefinition {
         return queryParams;
     }
 
+    /**
+     * Whether this call may share the response of an identical call that is
+     * already in flight instead of being sent on its own.
+     */
+    public boolean isCoalesce() {
+        return coalesce;
+    }
+
+    /**
+     * How old, in milliseconds, the last successful response of this call may be
+     * to be served in place of a failure. Off when 0.
+     */
+    public long getStaleIfError() {
+        return staleIfError;
+    }
+
+    /**
+     * The codec of this call, generated for its payload and response types, or
+     * null to use the codec of the client.
+     */
+    public Codec getCodec() {
+        return codec;
+    }
+
+    /**
+     * The compiled template of the http method and path of this call. Generated
+     * implementations compile it once per method and pass it along; otherwise it
+     * is looked up from the shared template cache on first use.
+     */
+    public RequestTemplate getTemplate() {
+        if (Objects.isNull(template)) {
+            template = RequestTemplate.of(String.valueOf(httpMethod), path);
+        }
+        return template;
+    }
+
     public static class Builder extends CallDefinition.Builder<Builder> {
         private String path;
         private HTTPMethod httpMethod;
         private Map<String, String> httpHeaders;
         private Map<String, String> pathParams;
         private Map<String, String> queryParams;
+        private boolean coalesce;
+        private long staleIfError;
+        private Codec codec;
+        private RequestTemplate template;
 
         public Builder path(String path) {
             this.path = path;
@@ -82,6 +133,26 @@ public class RestCallDefinition extends CallDefinition {
             return this;
         }
 
+        public Builder coalesce(boolean coalesce) {
+            this.coalesce = coalesce;
+            return this;
+        }
+
+        public Builder staleIfError(long staleIfError) {
+            this.staleIfError = staleIfError;
+            return this;
+        }
+
+        public Builder codec(Codec codec) {
+            this.codec = codec;
+            return this;
+        }
+
+        public Builder template(RequestTemplate template) {
+            this.template = template;
+            return this;
+        }
+
         @Override
         public RestCallDefinition build() {
             return new RestCallDefinition(this);
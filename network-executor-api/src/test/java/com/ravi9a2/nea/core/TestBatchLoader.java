@@ -0,0 +1,194 @@
+package com.ravi9a2.nea.core;
+
+import com.ravi9a2.nca.data.Deadline;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.util.context.Context;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+public class TestBatchLoader {
+
+    private final List<List<Long>> batches = new CopyOnWriteArrayList<>();
+
+    @Test
+    public void testLoad_FlushedBySize() throws Exception {
+        BatchLoader<Long, String> loader = new BatchLoader<>(2, TimeUnit.MINUTES.toMillis(1), echo());
+
+        CompletableFuture<String> first = loader.load(1L);
+        Assertions.assertFalse(first.isDone());
+        CompletableFuture<String> second = loader.load(2L);
+
+        Assertions.assertEquals("1", first.get(1, TimeUnit.SECONDS));
+        Assertions.assertEquals("2", second.get(1, TimeUnit.SECONDS));
+        Assertions.assertEquals(Arrays.asList(Arrays.asList(1L, 2L)), batches);
+    }
+
+    @Test
+    public void testLoad_FlushedByWindow() throws Exception {
+        BatchLoader<Long, String> loader = new BatchLoader<>(100, 20, echo());
+
+        CompletableFuture<String> first = loader.load(1L);
+        CompletableFuture<String> second = loader.load(2L);
+
+        Assertions.assertEquals("1", first.get(5, TimeUnit.SECONDS));
+        Assertions.assertEquals("2", second.get(5, TimeUnit.SECONDS));
+        Assertions.assertEquals(Arrays.asList(Arrays.asList(1L, 2L)), batches);
+    }
+
+    @Test
+    public void testLoad_DuplicateKeysSentOnce() throws Exception {
+        BatchLoader<Long, String> loader = new BatchLoader<>(2, TimeUnit.MINUTES.toMillis(1), echo());
+
+        CompletableFuture<String> first = loader.load(1L);
+        CompletableFuture<String> again = loader.load(1L);
+        CompletableFuture<String> second = loader.load(2L);
+
+        Assertions.assertEquals("1", first.get(1, TimeUnit.SECONDS));
+        Assertions.assertEquals("1", again.get(1, TimeUnit.SECONDS));
+        Assertions.assertEquals("2", second.get(1, TimeUnit.SECONDS));
+        Assertions.assertEquals(Arrays.asList(Arrays.asList(1L, 2L)), batches);
+    }
+
+    @Test
+    public void testLoad_MissingKeyCompletesWithNull() throws Exception {
+        BatchLoader<Long, String> loader = new BatchLoader<>(2, TimeUnit.MINUTES.toMillis(1), keys -> {
+            Map<String, String> values = new HashMap<>();
+            values.put("1", "one");
+            return CompletableFuture.completedFuture(values);
+        });
+
+        CompletableFuture<String> first = loader.load(1L);
+        CompletableFuture<String> second = loader.load(2L);
+
+        Assertions.assertEquals("one", first.get(1, TimeUnit.SECONDS));
+        Assertions.assertNull(second.get(1, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void testLoad_FailedBulkCallFailsEveryKey() {
+        IllegalStateException failure = new IllegalStateException("bulk call failed");
+        CompletableFuture<Map<String, String>> response = new CompletableFuture<>();
+        BatchLoader<Long, String> loader = new BatchLoader<>(2, TimeUnit.MINUTES.toMillis(1), keys -> response);
+
+        CompletableFuture<String> first = loader.load(1L);
+        CompletableFuture<String> second = loader.load(2L);
+        response.completeExceptionally(failure);
+
+        ExecutionException e = Assertions.assertThrows(ExecutionException.class,
+                () -> first.get(1, TimeUnit.SECONDS));
+        Assertions.assertSame(failure, e.getCause());
+        e = Assertions.assertThrows(ExecutionException.class, () -> second.get(1, TimeUnit.SECONDS));
+        Assertions.assertSame(failure, e.getCause());
+    }
+
+    @Test
+    public void testLoad_WindowFlushSentFromDispatcher() throws Exception {
+        List<String> threads = new CopyOnWriteArrayList<>();
+        ExecutorService dispatcher = Executors.newSingleThreadExecutor(r -> new Thread(r, "dispatcher"));
+        try {
+            BatchLoader<Long, String> loader = new BatchLoader<>(100, 20, (keys, deadline) -> {
+                threads.add(Thread.currentThread().getName());
+                return echo().apply(keys);
+            }, dispatcher);
+
+            Assertions.assertEquals("1", loader.load(1L).get(5, TimeUnit.SECONDS));
+        } finally {
+            dispatcher.shutdownNow();
+        }
+
+        Assertions.assertEquals(Arrays.asList("dispatcher"), threads);
+    }
+
+    @Test
+    public void testLoad_SlowBulkCallDoesNotDelayOtherBatches() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        BatchLoader<Long, String> slow = new BatchLoader<>(100, 5, keys -> {
+            await(release);
+            return echo().apply(keys);
+        });
+        BatchLoader<Long, String> fast = new BatchLoader<>(100, 5, echo());
+
+        CompletableFuture<String> blocked = slow.load(1L);
+        Thread.sleep(50);
+
+        Assertions.assertEquals("2", fast.load(2L).get(5, TimeUnit.SECONDS));
+        Assertions.assertFalse(blocked.isDone());
+        release.countDown();
+        Assertions.assertEquals("1", blocked.get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void testLoadMono_EarliestDeadlineOfBatchSent() {
+        List<Deadline> deadlines = new CopyOnWriteArrayList<>();
+        BatchLoader<Long, String> loader = new BatchLoader<>(3, TimeUnit.MINUTES.toMillis(1), (keys, deadline) -> {
+            deadlines.add(deadline);
+            return echo().apply(keys);
+        });
+        Deadline early = Deadline.after(1000);
+        Deadline late = Deadline.after(60000);
+
+        Mono<String> first = loader.loadMono(1L).contextWrite(Context.of(Deadline.CONTEXT_KEY, late));
+        Mono<String> second = loader.loadMono(2L).contextWrite(Context.of(Deadline.CONTEXT_KEY, early));
+        Mono<String> third = loader.loadMono(3L);
+
+        Assertions.assertEquals(Arrays.asList("1", "2", "3"),
+                Flux.merge(first, second, third).collectList().block(Duration.ofSeconds(5)));
+        Assertions.assertEquals(1, deadlines.size());
+        Assertions.assertSame(early, deadlines.get(0));
+    }
+
+    @Test
+    public void testLoad_AttachedDeadlineSent() throws Exception {
+        List<Deadline> deadlines = new CopyOnWriteArrayList<>();
+        BatchLoader<Long, String> loader = new BatchLoader<>(1, TimeUnit.MINUTES.toMillis(1), (keys, deadline) -> {
+            deadlines.add(deadline);
+            return echo().apply(keys);
+        });
+        Deadline deadline = Deadline.after(1000);
+
+        try (Deadline.Scope scope = deadline.attach()) {
+            Assertions.assertEquals("1", loader.load(1L).get(1, TimeUnit.SECONDS));
+        }
+        Assertions.assertEquals("2", loader.load(2L).get(1, TimeUnit.SECONDS));
+
+        Assertions.assertEquals(Arrays.asList(deadline, null), deadlines);
+    }
+
+    @Test
+    public void testJoin() {
+        Assertions.assertEquals("1,2,3", BatchLoader.join(Arrays.asList(1L, 2L, 3L)));
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private Function<List<Long>, CompletionStage<Map<String, String>>> echo() {
+        return keys -> {
+            batches.add(keys);
+            Map<String, String> values = new HashMap<>();
+            keys.forEach(key -> values.put(String.valueOf(key), String.valueOf(key)));
+            return CompletableFuture.completedFuture(values);
+        };
+    }
+}
@@ -0,0 +1,151 @@
+package com.ravi9a2.r4j;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A concurrency limit that adapts to the latency of the downstream, used in place
+ * of a semaphore bulkhead for bulkhead tags of type {@code adaptive}.
+ * <p>
+ * Every successful call compares its round trip time with the minimum round trip
+ * time seen. While the call was no slower than {@code rttTolerance} times the
+ * minimum, the limit grows by about the square root of the limit; as the latency
+ * inflates, the limit shrinks proportionally, down to half per call. The change is
+ * smoothed by {@code smoothing}. The limit only grows while at least half of it is
+ * in use. A call that failed with a transient failure, e.g. a timeout, cuts the
+ * limit by {@code backoffRatio}.
+ * <p>
+ * The minimum round trip time is forgotten every {@code probeInterval} calls, so
+ * the limit follows a downstream whose baseline latency has changed.
+ * <p>
+ * The limit is kept as the bits of a double and updated by compare-and-set, so
+ * completing calls never block each other.
+ *
+ * @author raviprakash
+ */
+public final class AdaptiveLimiter {
+
+    private final String name;
+    private final int minLimit;
+    private final int maxLimit;
+    private final double smoothing;
+    private final double rttTolerance;
+    private final double backoffRatio;
+    private final int probeInterval;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicLong rejected = new AtomicLong();
+    private final AtomicLong limitBits;
+    private final AtomicLong minRttNanos = new AtomicLong(Long.MAX_VALUE);
+    private final AtomicInteger samples = new AtomicInteger();
+
+    public AdaptiveLimiter(String name, int initialLimit, int minLimit, int maxLimit, double smoothing,
+                           double rttTolerance, double backoffRatio, int probeInterval) {
+        if (minLimit < 1 || maxLimit < minLimit || smoothing <= 0 || smoothing > 1 || rttTolerance < 1
+                || backoffRatio <= 0 || backoffRatio >= 1 || probeInterval < 1) {
+            throw new IllegalArgumentException("Invalid adaptive bulkhead configuration: " + name);
+        }
+        this.name = name;
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.smoothing = smoothing;
+        this.rttTolerance = rttTolerance;
+        this.backoffRatio = backoffRatio;
+        this.probeInterval = probeInterval;
+        this.limitBits = new AtomicLong(Double.doubleToLongBits(Math.max(minLimit, Math.min(maxLimit, initialLimit))));
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getLimit() {
+        return (int) limit();
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    /**
+     * Returns the number of calls rejected since the limiter was created.
+     */
+    public long getRejected() {
+        return rejected.get();
+    }
+
+    /**
+     * Takes a slot for a call if the limit allows it. Every acquired slot must be
+     * released with exactly one of {@link #onSuccess}, {@link #onDropped} or {@link #onIgnore}.
+     *
+     * @return true if the call may proceed
+     */
+    public boolean tryAcquire() {
+        int current;
+        do {
+            current = inFlight.get();
+            if (current >= getLimit()) {
+                rejected.incrementAndGet();
+                return false;
+            }
+        } while (!inFlight.compareAndSet(current, current + 1));
+        return true;
+    }
+
+    /**
+     * Releases the slot of a successful call and adapts the limit to its round trip time.
+     *
+     * @param rttNanos round trip time of the call in nanoseconds
+     */
+    public void onSuccess(long rttNanos) {
+        int current = inFlight.getAndDecrement();
+        update(Math.max(1, rttNanos), current);
+    }
+
+    /**
+     * Releases the slot of a call that failed in a way that signals overload and
+     * backs the limit off.
+     */
+    public void onDropped() {
+        inFlight.decrementAndGet();
+        long current;
+        long next;
+        do {
+            current = limitBits.get();
+            next = Double.doubleToLongBits(Math.max(minLimit, Double.longBitsToDouble(current) * backoffRatio));
+        } while (!limitBits.compareAndSet(current, next));
+    }
+
+    /**
+     * Releases the slot of a call whose outcome says nothing about the downstream's load.
+     */
+    public void onIgnore() {
+        inFlight.decrementAndGet();
+    }
+
+    private double limit() {
+        return Double.longBitsToDouble(limitBits.get());
+    }
+
+    private void update(long rttNanos, int inFlightAtCompletion) {
+        long minRtt;
+        if (samples.incrementAndGet() % probeInterval == 0) {
+            minRttNanos.set(rttNanos);
+            minRtt = rttNanos;
+        } else {
+            minRtt = minRttNanos.accumulateAndGet(rttNanos, Math::min);
+        }
+        double gradient = Math.max(0.5, Math.min(1.0, rttTolerance * minRtt / rttNanos));
+        long current;
+        long next;
+        do {
+            current = limitBits.get();
+            double limit = Double.longBitsToDouble(current);
+            if (gradient == 1.0 && inFlightAtCompletion < limit / 2) {
+                return;
+            }
+            double target = limit * gradient + Math.sqrt(limit);
+            double smoothed = limit * (1 - smoothing) + target * smoothing;
+            next = Double.doubleToLongBits(Math.max(minLimit, Math.min(maxLimit, smoothed)));
+        } while (!limitBits.compareAndSet(current, next));
+    }
+}
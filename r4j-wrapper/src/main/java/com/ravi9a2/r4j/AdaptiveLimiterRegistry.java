@@ -0,0 +1,44 @@
+package com.ravi9a2.r4j;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * Holds one AdaptiveLimiter per bulkhead tag of type {@code adaptive}. All the
+ * call sites of a bulkhead tag share its limit.
+ *
+ * @author raviprakash
+ */
+public class AdaptiveLimiterRegistry {
+
+    private final ConcurrentMap<String, AdaptiveLimiter> limiters = new ConcurrentHashMap<>();
+    private final Predicate<String> adaptive;
+    private final Function<String, AdaptiveLimiter> factory;
+
+    public AdaptiveLimiterRegistry(Predicate<String> adaptive, Function<String, AdaptiveLimiter> factory) {
+        this.adaptive = adaptive;
+        this.factory = factory;
+    }
+
+    /**
+     * Whether the bulkhead tag is configured as an adaptive limit rather than a semaphore.
+     *
+     * @param bhTag the bulkhead tag
+     * @return true if calls of the tag go through an AdaptiveLimiter
+     */
+    public boolean isAdaptive(String bhTag) {
+        return adaptive.test(bhTag);
+    }
+
+    /**
+     * Returns the limiter of a bulkhead tag, creating it on first use.
+     *
+     * @param bhTag the bulkhead tag
+     * @return AdaptiveLimiter of the tag
+     */
+    public AdaptiveLimiter limiter(String bhTag) {
+        return limiters.computeIfAbsent(bhTag, factory);
+    }
+}
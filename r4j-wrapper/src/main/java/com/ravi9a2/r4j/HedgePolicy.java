@@ -0,0 +1,113 @@
+package com.ravi9a2.r4j;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Hedging configuration and state of a hedge tag. It decides how long to wait
+ * before a call is hedged and whether the hedge budget allows another hedge.
+ * <p>
+ * The hedge delay is either fixed or, when a percentile is configured, the
+ * observed latency at that percentile over the last {@code WINDOW_SIZE} calls.
+ * The fixed delay is used until the window has filled up.
+ * <p>
+ * The budget is a token bucket. Every call puts {@code budgetPercent / 100}
+ * tokens into the bucket and every hedge takes one out, so hedges can add at
+ * most {@code budgetPercent} percent of extra load on the downstream.
+ *
+ * @author raviprakash
+ */
+public final class HedgePolicy {
+
+    private static final int WINDOW_SIZE = 128;
+    private static final int RECOMPUTE_INTERVAL = 32;
+    private static final int SCALE = 1000;
+
+    private final String name;
+    private final long delayMillis;
+    private final double percentile;
+    private final int maxTokens;
+    private final int tokenRatio;
+    private final AtomicInteger tokens;
+    private final AtomicLongArray latencies = new AtomicLongArray(WINDOW_SIZE);
+    private final AtomicLong recorded = new AtomicLong();
+    private volatile long observedDelayMillis = -1;
+
+    public HedgePolicy(String name, long delayMillis, double percentile, double budgetPercent, double maxTokens) {
+        if (delayMillis < 0 || percentile < 0 || percentile >= 100 || budgetPercent <= 0 || maxTokens <= 0) {
+            throw new IllegalArgumentException("Invalid hedge configuration: " + name);
+        }
+        this.name = name;
+        this.delayMillis = delayMillis;
+        this.percentile = percentile;
+        this.maxTokens = (int) (maxTokens * SCALE);
+        this.tokenRatio = (int) (budgetPercent * SCALE / 100);
+        this.tokens = new AtomicInteger(this.maxTokens);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Returns how long to wait for a response before sending the hedge.
+     *
+     * @return the hedge delay in milliseconds
+     */
+    public long delayMillis() {
+        long observed = observedDelayMillis;
+        return observed < 0 ? delayMillis : observed;
+    }
+
+    /**
+     * Records the latency of a completed call. Only used when hedging at a percentile.
+     *
+     * @param latencyMillis latency of the call in milliseconds
+     */
+    public void recordLatency(long latencyMillis) {
+        if (percentile == 0) {
+            return;
+        }
+        long n = recorded.getAndIncrement();
+        latencies.set((int) (n % WINDOW_SIZE), latencyMillis);
+        if (n + 1 >= WINDOW_SIZE && (n + 1) % RECOMPUTE_INTERVAL == 0) {
+            long[] window = new long[WINDOW_SIZE];
+            for (int i = 0; i < WINDOW_SIZE; i++) {
+                window[i] = latencies.get(i);
+            }
+            Arrays.sort(window);
+            observedDelayMillis = window[(int) Math.ceil(percentile / 100 * WINDOW_SIZE) - 1];
+        }
+    }
+
+    /**
+     * Records a call, adding its share of tokens to the budget.
+     */
+    public void onCall() {
+        int current;
+        do {
+            current = tokens.get();
+            if (current == maxTokens) {
+                return;
+            }
+        } while (!tokens.compareAndSet(current, Math.min(maxTokens, current + tokenRatio)));
+    }
+
+    /**
+     * Takes a token out of the budget for a hedge.
+     *
+     * @return true if the hedge may be sent
+     */
+    public boolean tryAcquireHedge() {
+        int current;
+        do {
+            current = tokens.get();
+            if (current < SCALE) {
+                return false;
+            }
+        } while (!tokens.compareAndSet(current, current - SCALE));
+        return true;
+    }
+}
@@ -0,0 +1,31 @@
+package com.ravi9a2.r4j;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Function;
+
+/**
+ * Holds one HedgePolicy per hedge tag. All the call sites of a hedge tag share
+ * its latency window and budget.
+ *
+ * @author raviprakash
+ */
+public class HedgePolicyRegistry {
+
+    private final ConcurrentMap<String, HedgePolicy> policies = new ConcurrentHashMap<>();
+    private final Function<String, HedgePolicy> factory;
+
+    public HedgePolicyRegistry(Function<String, HedgePolicy> factory) {
+        this.factory = factory;
+    }
+
+    /**
+     * Returns the policy of a hedge tag, creating it on first use.
+     *
+     * @param hedgeTag the hedge tag
+     * @return HedgePolicy of the tag
+     */
+    public HedgePolicy policy(String hedgeTag) {
+        return policies.computeIfAbsent(hedgeTag, factory);
+    }
+}
@@ -0,0 +1,14 @@
+package com.ravi9a2.r4j;
+
+/**
+ * Thrown when a call is rejected because its adaptive concurrency limit is reached.
+ *
+ * @author raviprakash
+ */
+public class LimitExceededException extends RuntimeException {
+
+    public LimitExceededException(AdaptiveLimiter limiter) {
+        super("Adaptive bulkhead '" + limiter.getName() + "' is full and does not permit further calls, limit: "
+                + limiter.getLimit(), null, false, false);
+    }
+}
@@ -18,6 +18,23 @@ public class Metrics {
     public static String TPBH_QUEUE_DEPTH_METRIC_NAME = "TPBH_QUEUE_DEPTH";
     public static String TPBH_REMAINING_QUEUE_CAPACITY_METRIC_NAME = "TPBH_REMAINING_QUEUE_CAPACITY";
     public static String TPBH_QUEUE_CAPACITY_METRIC_NAME = "TPBH_QUEUE_CAPACITY";
+    public static String RETRY_ATTEMPT_METRIC_NAME = "RETRY_ATTEMPT";
+    public static String RETRY_EXHAUSTED_METRIC_NAME = "RETRY_EXHAUSTED";
+    public static String RETRY_BUDGET_EXHAUSTED_METRIC_NAME = "RETRY_BUDGET_EXHAUSTED";
+    public static String RETRY_BUDGET_TOKENS_METRIC_NAME = "RETRY_BUDGET_TOKENS";
+    public static String HEDGE_SENT_METRIC_NAME = "HEDGE_SENT";
+    public static String HEDGE_WON_METRIC_NAME = "HEDGE_WON";
+    public static String HEDGE_BUDGET_EXHAUSTED_METRIC_NAME = "HEDGE_BUDGET_EXHAUSTED";
+    public static String ABH_LIMIT_METRIC_NAME = "ABH_LIMIT";
+    public static String ABH_IN_FLIGHT_METRIC_NAME = "ABH_IN_FLIGHT";
+    public static String ABH_REJECTED_METRIC_NAME = "ABH_REJECTED";
+    public static String SINGLE_FLIGHT_LEADER_METRIC_NAME = "SINGLE_FLIGHT_LEADER";
+    public static String SINGLE_FLIGHT_COALESCED_METRIC_NAME = "SINGLE_FLIGHT_COALESCED";
+    public static String SINGLE_FLIGHT_COALESCED_RATIO_METRIC_NAME = "SINGLE_FLIGHT_COALESCED_RATIO";
+    public static String SINGLE_FLIGHT_BYPASSED_METRIC_NAME = "SINGLE_FLIGHT_BYPASSED";
+    public static String STALE_IF_ERROR_SERVED_METRIC_NAME = "STALE_IF_ERROR_SERVED";
+    public static String STALE_IF_ERROR_MISSED_METRIC_NAME = "STALE_IF_ERROR_MISSED";
+    public static String STALE_IF_ERROR_EVICTED_METRIC_NAME = "STALE_IF_ERROR_EVICTED";
 
     public static void increment(String key, String tags) {
     }
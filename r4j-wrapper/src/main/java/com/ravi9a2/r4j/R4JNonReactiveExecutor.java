@@ -4,17 +4,14 @@ import com.ravi9a2.nea.core.NonReactiveExecutor;
 import com.ravi9a2.nea.core.data.CallDefinition;
 import com.ravi9a2.nea.core.data.RestCallDefinition;
 import com.ravi9a2.nca.NonReactiveClient;
+import com.ravi9a2.nca.data.Deadline;
 import com.ravi9a2.nca.data.RestRequestSpec;
-import io.github.resilience4j.bulkhead.Bulkhead;
-import io.github.resilience4j.bulkhead.BulkheadRegistry;
-import io.github.resilience4j.bulkhead.ThreadPoolBulkhead;
-import io.github.resilience4j.bulkhead.ThreadPoolBulkheadRegistry;
-import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
+import java.util.Objects;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionStage;
 import java.util.function.Supplier;
@@ -31,56 +28,85 @@ public class R4JNonReactiveExecutor<C> implements NonReactiveExecutor<C> {
 
     private static final Logger logger = LoggerFactory.getLogger(R4JNonReactiveExecutor.class);
 
-    CircuitBreakerRegistry circuitBreakerRegistry;
-    ThreadPoolBulkheadRegistry tpBulkheadRegistry;
-    BulkheadRegistry semaphoreBulkheadRegistry;
+    ResiliencePipelineRegistry pipelineRegistry;
+    SingleFlight singleFlight;
+    StaleIfErrorCache staleIfErrorCache;
 
     @Autowired
-    public R4JNonReactiveExecutor(CircuitBreakerRegistry circuitBreakerRegistry,
-                                  ThreadPoolBulkheadRegistry tpBulkHeadRegistry,
-                                  BulkheadRegistry semaphoreBulkheadRegistry) {
-        this.circuitBreakerRegistry = circuitBreakerRegistry;
-        this.tpBulkheadRegistry = tpBulkHeadRegistry;
-        this.semaphoreBulkheadRegistry = semaphoreBulkheadRegistry;
+    public R4JNonReactiveExecutor(ResiliencePipelineRegistry pipelineRegistry, SingleFlight singleFlight,
+                                  StaleIfErrorCache staleIfErrorCache) {
+        this.pipelineRegistry = pipelineRegistry;
+        this.singleFlight = singleFlight;
+        this.staleIfErrorCache = staleIfErrorCache;
     }
 
     public <D extends CallDefinition, R> R execute(NonReactiveClient<C> client, D callDef) {
         RestCallDefinition cd = (RestCallDefinition) callDef;
-        Supplier<R> supp = () -> client.call(getRequestSpec(cd));
-        if (cd.isCircuitBreakerEnabled()) {
-            supp = circuitBreakerRegistry
-                    .circuitBreaker(cd.getCbTag())
-                    .decorateSupplier(supp);
-        }
-        if (cd.isBulkheadEnabled()) {
-            supp = Bulkhead.decorateSupplier(semaphoreBulkheadRegistry.bulkhead(cd.getBhTag()), supp);
-        }
-        return supp.get();
+        Deadline deadline = Deadline.earliest(cd.getDeadline(), Deadline.current());
+        checkDeadline(deadline);
+        return singleFlight.coalesceSupplier(cd, deadline, d -> {
+            RestRequestSpec spec = getRequestSpec(cd, d);
+            Supplier<R> supp = () -> {
+                checkDeadline(d);
+                return client.call(spec);
+            };
+            return staleIfErrorCache.decorateSupplier(cd, pipelineRegistry.pipeline(cd).decorateSupplier(supp)).get();
+        });
     }
 
     public <D extends CallDefinition, R> CompletableFuture<R> executeWithCompletionStage(NonReactiveClient<C> client, D callDef) {
         RestCallDefinition cd = (RestCallDefinition) callDef;
-        Supplier<CompletionStage<R>> supp = ThreadPoolBulkhead.decorateSupplier(
-                tpBulkheadRegistry.bulkhead(cd.getBhTag()),
-                () -> client.call(getRequestSpec(cd))
-        );
-        if (cd.isCircuitBreakerEnabled()) {
-            supp = circuitBreakerRegistry
-                    .circuitBreaker(cd.getCbTag())
-                    .decorateCompletionStage(supp);
+        Deadline deadline = Deadline.earliest(cd.getDeadline(), Deadline.current());
+        if (Objects.nonNull(deadline) && deadline.isExpired()) {
+            CompletableFuture<R> failed = new CompletableFuture<>();
+            failed.completeExceptionally(deadline.exceeded());
+            return failed;
+        }
+        if (client.isAsync()) {
+            // the client completes the call on its own I/O threads, no bulkhead thread waits on it
+            return singleFlight.coalesceFuture(cd, deadline, d -> {
+                RestRequestSpec spec = getRequestSpec(cd, d);
+                Supplier<CompletableFuture<R>> async = pipelineRegistry.pipeline(cd)
+                        .decorateCompletableFuture(() -> {
+                            checkDeadline(d);
+                            return client.callAsync(spec);
+                        });
+                return staleIfErrorCache.decorateFuture(cd, async.get());
+            });
+        }
+        return singleFlight.coalesceFuture(cd, deadline, d -> {
+            RestRequestSpec spec = getRequestSpec(cd, d);
+            Supplier<CompletionStage<R>> supp = pipelineRegistry.pipeline(cd)
+                    .decorateCompletionStage(() -> {
+                        checkDeadline(d);
+                        return client.call(spec);
+                    });
+            return staleIfErrorCache.decorateFuture(cd, supp.get().toCompletableFuture());
+        });
+    }
+
+    /**
+     * Fails the call if its deadline has passed, before it enters the pipeline
+     * and again before every attempt, so time spent waiting on the bulkhead or
+     * between retries counts against it. A coalesced call waits on the shared
+     * call until this deadline instead.
+     */
+    private static void checkDeadline(Deadline deadline) {
+        if (Objects.nonNull(deadline)) {
+            deadline.check();
         }
-        return supp.get().toCompletableFuture();
     }
 
-    private RestRequestSpec getRequestSpec(RestCallDefinition cd) {
+    private RestRequestSpec getRequestSpec(RestCallDefinition cd, Deadline deadline) {
         return RestRequestSpec.builder()
-                .httpMethod(String.valueOf(cd.getHttpMethod()))
-                .url(cd.getPath())
+                .template(cd.getTemplate())
                 .body(cd.getPayload())
                 .pathParams(cd.getPathParams())
                 .requestParams(cd.getQueryParams())
                 .headers(cd.getHttpHeaders())
                 .type(cd.getResponseType())
+                .codec(cd.getCodec())
+                .deadline(deadline)
                 .build();
     }
 }
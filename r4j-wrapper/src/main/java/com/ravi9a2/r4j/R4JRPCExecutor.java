@@ -1,63 +1,114 @@
 package com.ravi9a2.r4j;
 
+import com.google.common.util.concurrent.Futures;
 import com.google.common.util.concurrent.ListenableFuture;
 import com.ravi9a2.nea.core.RPCExecutor;
 import com.ravi9a2.nea.core.data.CallDefinition;
 import com.ravi9a2.nea.core.data.RPCCallDefinition;
 import com.ravi9a2.nca.RPCClient;
+import com.ravi9a2.nca.data.Deadline;
 import com.ravi9a2.nca.data.RpcRequestSpec;
-import io.github.resilience4j.bulkhead.Bulkhead;
-import io.github.resilience4j.bulkhead.BulkheadRegistry;
-import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 
-import java.util.concurrent.Future;
+import java.util.Objects;
+import java.util.function.Function;
 import java.util.function.Supplier;
 
 @Service
 public class R4JRPCExecutor<C> implements RPCExecutor<C> {
 
-    CircuitBreakerRegistry circuitBreakerRegistry;
-    BulkheadRegistry semaphoreBulkheadRegistry;
+    ResiliencePipelineRegistry pipelineRegistry;
 
     @Autowired
-    public R4JRPCExecutor(CircuitBreakerRegistry circuitBreakerRegistry, BulkheadRegistry semaphoreBulkheadRegistry) {
-        this.circuitBreakerRegistry = circuitBreakerRegistry;
-        this.semaphoreBulkheadRegistry = semaphoreBulkheadRegistry;
+    public R4JRPCExecutor(ResiliencePipelineRegistry pipelineRegistry) {
+        this.pipelineRegistry = pipelineRegistry;
     }
 
     @Override
     public <D extends CallDefinition, R> R execute(RPCClient<C> client, D callDef) {
         RPCCallDefinition cd = (RPCCallDefinition) callDef;
-        Supplier<R> supp = () -> client.blocking(getRequestSpec(cd));
-        if (cd.isCircuitBreakerEnabled()) {
-            supp = circuitBreakerRegistry
-                    .circuitBreaker(cd.getCbTag())
-                    .decorateSupplier(supp);
-        }
-        if (cd.isBulkheadEnabled()) {
-            supp = Bulkhead.decorateSupplier(semaphoreBulkheadRegistry.bulkhead(cd.getBhTag()), supp);
-        }
-        return supp.get();
+        RpcRequestSpec spec = getRequestSpec(cd, Deadline.earliest(cd.getDeadline(), Deadline.current()));
+        checkDeadline(spec);
+        Supplier<R> supp = () -> {
+            checkDeadline(spec);
+            return client.blocking(spec);
+        };
+        return pipelineRegistry.pipeline(cd).decorateSupplier(supp).get();
     }
 
     @Override
     public <D extends CallDefinition, R> ListenableFuture<R> executeAsync(RPCClient<C> client, D callDef) {
         RPCCallDefinition cd = (RPCCallDefinition) callDef;
-        Supplier<Future<R>> supp = Bulkhead.decorateFuture(
-                semaphoreBulkheadRegistry.bulkhead(cd.getBhTag()),
-                () -> client.futureUnary(getRequestSpec(cd))
-        );
-        if (cd.isCircuitBreakerEnabled()) {
-            supp = circuitBreakerRegistry
-                    .circuitBreaker(cd.getCbTag())
-                    .decorateFuture(supp);
+        RpcRequestSpec spec = getRequestSpec(cd, Deadline.earliest(cd.getDeadline(), Deadline.current()));
+        if (isExpired(spec)) {
+            return Futures.immediateFailedFuture(spec.getDeadline().exceeded());
+        }
+        Supplier<ListenableFuture<R>> supp = pipelineRegistry.pipeline(cd)
+                .decorateFuture(() -> {
+                    checkDeadline(spec);
+                    return client.futureUnary(spec);
+                });
+        return supp.get();
+    }
+
+    @Override
+    public <D extends CallDefinition, R> Flux<R> executeServerStreaming(RPCClient<C> client, D callDef) {
+        return streamingCall((RPCCallDefinition) callDef, client::fluxServerStreaming);
+    }
+
+    /**
+     * Calls a client-streaming method through the pipeline as a stream, so the
+     * request Publisher is not subscribed to twice by a hedge. A retry subscribes
+     * to it again, so retryable calls need a Publisher that can be replayed.
+     */
+    @Override
+    public <D extends CallDefinition, R> Mono<R> executeClientStreaming(RPCClient<C> client, D callDef) {
+        return Mono.from(this.<R>streamingCall((RPCCallDefinition) callDef,
+                spec -> client.<R>monoClientStreaming(spec).flux()));
+    }
+
+    @Override
+    public <D extends CallDefinition, R> Flux<R> executeBiDi(RPCClient<C> client, D callDef) {
+        return streamingCall((RPCCallDefinition) callDef, client::fluxBiDi);
+    }
+
+    /**
+     * Runs a streaming call through the pipeline. The deadline is the earlier of
+     * the call's and the one in the subscriber's context, and is checked before the
+     * call enters the pipeline and again before every attempt.
+     */
+    private <R> Flux<R> streamingCall(RPCCallDefinition cd, Function<RpcRequestSpec, Flux<R>> call) {
+        return Flux.deferContextual(ctx -> {
+            RpcRequestSpec spec = getRequestSpec(cd,
+                    Deadline.earliest(cd.getDeadline(), ctx.getOrDefault(Deadline.CONTEXT_KEY, null)));
+            if (isExpired(spec)) {
+                return Flux.error(spec.getDeadline().exceeded());
+            }
+            Flux<R> res = Flux.defer(() -> isExpired(spec)
+                    ? Flux.error(spec.getDeadline().exceeded())
+                    : call.apply(spec));
+            return pipelineRegistry.pipeline(cd).decorate(res);
+        });
+    }
+
+    private static boolean isExpired(RpcRequestSpec spec) {
+        return Objects.nonNull(spec.getDeadline()) && spec.getDeadline().isExpired();
+    }
+
+    /**
+     * Fails the call if its deadline has passed, before it enters the pipeline
+     * and again before every attempt.
+     */
+    private static void checkDeadline(RpcRequestSpec spec) {
+        if (Objects.nonNull(spec.getDeadline())) {
+            spec.getDeadline().check();
         }
-        return (ListenableFuture<R>) supp.get();
     }
 
-    private RpcRequestSpec getRequestSpec(RPCCallDefinition cd) {
+    private RpcRequestSpec getRequestSpec(RPCCallDefinition cd, Deadline deadline) {
         return RpcRequestSpec.builder()
                 .rpcMethod(cd.getRpcMethod().toString())
                 .fqPackageName(cd.getFqPackageName())
@@ -66,6 +117,8 @@ public class R4JRPCExecutor<C> implements RPCExecutor<C> {
                 .body(cd.getPayload())
                 .type(cd.getResponseType())
                 .headers(cd.getGrpcHeaders())
+                .methodDescriptor(cd.getMethodDescriptor())
+                .deadline(deadline)
                 .build();
     }
 }
@@ -4,17 +4,17 @@ import com.ravi9a2.nea.core.ReactiveExecutor;
 import com.ravi9a2.nea.core.data.CallDefinition;
 import com.ravi9a2.nea.core.data.RestCallDefinition;
 import com.ravi9a2.nca.ReactiveClient;
+import com.ravi9a2.nca.data.Deadline;
 import com.ravi9a2.nca.data.RestRequestSpec;
-import io.github.resilience4j.bulkhead.BulkheadRegistry;
-import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
-import io.github.resilience4j.reactor.bulkhead.operator.BulkheadOperator;
-import io.github.resilience4j.reactor.circuitbreaker.operator.CircuitBreakerOperator;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import reactor.util.context.ContextView;
+
+import java.util.Objects;
 
 /**
  * Implements the `Executor<ReactiveClient<C>>` interface with resilience
@@ -28,13 +28,16 @@ public class R4JReactiveExecutor<C> implements ReactiveExecutor<C> {
 
     private static final Logger logger = LoggerFactory.getLogger(R4JReactiveExecutor.class);
 
-    CircuitBreakerRegistry circuitBreakerRegistry;
-    BulkheadRegistry semaphoreBulkheadRegistry;
+    ResiliencePipelineRegistry pipelineRegistry;
+    SingleFlight singleFlight;
+    StaleIfErrorCache staleIfErrorCache;
 
     @Autowired
-    public R4JReactiveExecutor(CircuitBreakerRegistry circuitBreakerRegistry, BulkheadRegistry semaphoreBulkheadRegistry) {
-        this.circuitBreakerRegistry = circuitBreakerRegistry;
-        this.semaphoreBulkheadRegistry = semaphoreBulkheadRegistry;
+    public R4JReactiveExecutor(ResiliencePipelineRegistry pipelineRegistry, SingleFlight singleFlight,
+                               StaleIfErrorCache staleIfErrorCache) {
+        this.pipelineRegistry = pipelineRegistry;
+        this.singleFlight = singleFlight;
+        this.staleIfErrorCache = staleIfErrorCache;
     }
 
     @Override
@@ -50,36 +53,59 @@ public class R4JReactiveExecutor<C> implements ReactiveExecutor<C> {
     }
 
     private <R> Mono<R> makeCallToMono(ReactiveClient<C> client, RestCallDefinition cd) {
-        Mono<R> res = client.callToMono(getRequestSpec(cd));
-        if (cd.isBulkheadEnabled()) {
-            res = res.transformDeferred(BulkheadOperator.of(semaphoreBulkheadRegistry.bulkhead(cd.getBhTag())));
-        }
-        if (cd.isCircuitBreakerEnabled()) {
-            res = res.transformDeferred(CircuitBreakerOperator.of(circuitBreakerRegistry.circuitBreaker(cd.getCbTag())));
-        }
-        return res;
+        return Mono.deferContextual(ctx -> {
+            Deadline deadline = deadline(cd, ctx);
+            if (Objects.nonNull(deadline) && deadline.isExpired()) {
+                return Mono.error(deadline.exceeded());
+            }
+            return singleFlight.coalesce(cd, deadline, d -> {
+                RestRequestSpec spec = getRequestSpec(cd, d);
+                Mono<R> res = Mono.defer(() -> isExpired(spec)
+                        ? Mono.error(spec.getDeadline().exceeded())
+                        : client.callToMono(spec));
+                return staleIfErrorCache.decorate(cd, pipelineRegistry.pipeline(cd).decorate(res));
+            });
+        });
     }
 
     private <R> Flux<R> makeCallToFlux(ReactiveClient<C> client, RestCallDefinition cd) {
-        Flux<R> res = client.callToFlux(getRequestSpec(cd));
-        if (cd.isBulkheadEnabled()) {
-            res = res.transformDeferred(BulkheadOperator.of(semaphoreBulkheadRegistry.bulkhead(cd.getBhTag())));
-        }
-        if (cd.isCircuitBreakerEnabled()) {
-            res = res.transformDeferred(CircuitBreakerOperator.of(circuitBreakerRegistry.circuitBreaker(cd.getCbTag())));
-        }
-        return res;
+        return Flux.deferContextual(ctx -> {
+            RestRequestSpec spec = getRequestSpec(cd, deadline(cd, ctx));
+            if (isExpired(spec)) {
+                return Flux.error(spec.getDeadline().exceeded());
+            }
+            Flux<R> res = Flux.defer(() -> isExpired(spec)
+                    ? Flux.error(spec.getDeadline().exceeded())
+                    : client.callToFlux(spec));
+            return pipelineRegistry.pipeline(cd).decorate(res);
+        });
+    }
+
+    /**
+     * Returns the earlier of the deadline of the call and the one in the subscriber's
+     * context. It is checked before the call enters the pipeline and again before
+     * every attempt, so time spent waiting on the bulkhead or between retries
+     * counts against it. A coalesced call waits on the shared call until this
+     * deadline instead.
+     */
+    private static Deadline deadline(RestCallDefinition cd, ContextView ctx) {
+        return Deadline.earliest(cd.getDeadline(), ctx.getOrDefault(Deadline.CONTEXT_KEY, null));
+    }
+
+    private static boolean isExpired(RestRequestSpec spec) {
+        return Objects.nonNull(spec.getDeadline()) && spec.getDeadline().isExpired();
     }
 
-    private RestRequestSpec getRequestSpec(RestCallDefinition cd) {
+    private RestRequestSpec getRequestSpec(RestCallDefinition cd, Deadline deadline) {
         return RestRequestSpec.builder()
-                .httpMethod(String.valueOf(cd.getHttpMethod()))
-                .url(cd.getPath())
+                .template(cd.getTemplate())
                 .body(cd.getPayload())
                 .pathParams(cd.getPathParams())
                 .requestParams(cd.getQueryParams())
                 .headers(cd.getHttpHeaders())
                 .type(cd.getResponseType())
+                .codec(cd.getCodec())
+                .deadline(deadline)
                 .build();
     }
 }
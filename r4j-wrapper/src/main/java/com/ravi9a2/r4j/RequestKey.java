@@ -0,0 +1,82 @@
+package com.ravi9a2.r4j;
+
+import com.ravi9a2.nea.core.data.RestCallDefinition;
+
+import java.lang.reflect.GenericArrayType;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.util.Map;
+import java.util.Objects;
+import java.util.StringJoiner;
+
+/**
+ * Identifies a request by everything that goes into it and the type it is
+ * decoded to.
+ *
+ * @author raviprakash
+ */
+final class RequestKey {
+    private final String serviceTag;
+    private final String path;
+    private final Map<String, String> pathParams;
+    private final Map<String, String> queryParams;
+    private final Map<String, String> headers;
+    private final String responseType;
+    private final int hash;
+
+    private RequestKey(RestCallDefinition cd) {
+        this.serviceTag = cd.getServiceTag();
+        this.path = cd.getPath();
+        this.pathParams = cd.getPathParams();
+        this.queryParams = cd.getQueryParams();
+        this.headers = cd.getHttpHeaders();
+        this.responseType = Objects.isNull(cd.getResponseType()) ? null : typeName(cd.getResponseType());
+        this.hash = Objects.hash(serviceTag, path, pathParams, queryParams, headers, responseType);
+    }
+
+    static RequestKey of(RestCallDefinition cd) {
+        return new RequestKey(cd);
+    }
+
+    /**
+     * Renders a type from its structure, as the parameterized types of the generated
+     * call sites implement neither toString nor equals, and a new one is built per call.
+     */
+    static String typeName(Type type) {
+        if (type instanceof ParameterizedType) {
+            ParameterizedType parameterized = (ParameterizedType) type;
+            StringJoiner args = new StringJoiner(",", "<", ">");
+            for (Type arg : parameterized.getActualTypeArguments()) {
+                args.add(typeName(arg));
+            }
+            return typeName(parameterized.getRawType()) + args;
+        }
+        if (type instanceof GenericArrayType) {
+            return typeName(((GenericArrayType) type).getGenericComponentType()) + "[]";
+        }
+        return type.getTypeName();
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof RequestKey)) {
+            return false;
+        }
+        RequestKey key = (RequestKey) o;
+        return hash == key.hash
+                && Objects.equals(serviceTag, key.serviceTag)
+                && Objects.equals(path, key.path)
+                && Objects.equals(pathParams, key.pathParams)
+                && Objects.equals(queryParams, key.queryParams)
+                && Objects.equals(headers, key.headers)
+                && Objects.equals(responseType, key.responseType);
+    }
+
+    @Override
+    public int hashCode() {
+        return hash;
+    }
+}
@@ -0,0 +1,791 @@
+package com.ravi9a2.r4j;
+
+import com.google.common.util.concurrent.FutureCallback;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.MoreExecutors;
+import com.google.common.util.concurrent.SettableFuture;
+import com.ravi9a2.instrumentation.processor.MetricEmitter;
+import com.ravi9a2.nea.core.data.CallSite;
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.bulkhead.ThreadPoolBulkhead;
+import io.github.resilience4j.bulkhead.ThreadPoolBulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.reactor.bulkhead.operator.BulkheadOperator;
+import io.github.resilience4j.reactor.circuitbreaker.operator.CircuitBreakerOperator;
+import io.github.resilience4j.retry.Retry;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+
+import static com.ravi9a2.r4j.Metrics.ABH_IN_FLIGHT_METRIC_NAME;
+import static com.ravi9a2.r4j.Metrics.ABH_LIMIT_METRIC_NAME;
+import static com.ravi9a2.r4j.Metrics.ABH_REJECTED_METRIC_NAME;
+import static com.ravi9a2.r4j.Metrics.HEDGE_BUDGET_EXHAUSTED_METRIC_NAME;
+import static com.ravi9a2.r4j.Metrics.HEDGE_SENT_METRIC_NAME;
+import static com.ravi9a2.r4j.Metrics.HEDGE_WON_METRIC_NAME;
+import static com.ravi9a2.r4j.Metrics.RETRY_BUDGET_TOKENS_METRIC_NAME;
+
+/**
+ * An immutable chain of R4J decorators compiled once for a CallSite. Layers that
+ * are disabled for the call site are not part of the chain at all, so a call
+ * without circuit-breaker, bulkhead and retry goes straight to the client.
+ * <p>
+ * The reactive operators are built once and shared by all calls of the call site,
+ * which keeps registry lookups and operator assembly off the hot path.
+ * <p>
+ * Retry is the outermost layer, so every attempt goes through the circuit-breaker
+ * and the bulkhead. The outcome of every attempt is recorded in the retry budget
+ * of the downstream.
+ * <p>
+ * A bulkhead tag of type adaptive puts an AdaptiveLimiter where the semaphore
+ * bulkhead would be. Calls it rejects fail with a LimitExceededException.
+ * <p>
+ * Hedging sits between the retry and the circuit-breaker, so the hedge of an attempt
+ * goes through the circuit-breaker and the bulkhead like the attempt itself. A hedge
+ * can only make a call faster: its failures are ignored, the first success wins and
+ * a failure of the primary call ends the race. Hedges are timed on the retry scheduler.
+ *
+ * @author raviprakash
+ */
+public final class ResiliencePipeline {
+
+    private final CallSite callSite;
+    private final CircuitBreaker circuitBreaker;
+    private final Bulkhead bulkhead;
+    private final AdaptiveLimiter limiter;
+    private final Retry retry;
+    private final RetryBudget retryBudget;
+    private final HedgePolicy hedgePolicy;
+    private final CircuitBreakerOperator<Object> circuitBreakerOperator;
+    private final BulkheadOperator<Object> bulkheadOperator;
+    private final ThreadPoolBulkheadRegistry tpBulkheadRegistry;
+    private final ScheduledExecutorService retryScheduler;
+    private final MetricEmitter metricEmitter;
+    private final Map<String, String> metricTags;
+    private volatile ThreadPoolBulkhead threadPoolBulkhead;
+
+    private ResiliencePipeline(Builder builder) {
+        this.callSite = builder.callSite;
+        this.circuitBreaker = builder.circuitBreaker;
+        this.bulkhead = builder.bulkhead;
+        this.limiter = builder.limiter;
+        this.retry = builder.retry;
+        this.retryBudget = builder.retryBudget;
+        this.hedgePolicy = builder.hedgePolicy;
+        this.circuitBreakerOperator = Objects.isNull(circuitBreaker) ? null : CircuitBreakerOperator.of(circuitBreaker);
+        this.bulkheadOperator = Objects.isNull(bulkhead) ? null : BulkheadOperator.of(bulkhead);
+        this.tpBulkheadRegistry = builder.tpBulkheadRegistry;
+        this.retryScheduler = builder.retryScheduler;
+        this.metricEmitter = builder.metricEmitter;
+        this.metricTags = builder.metricTags;
+    }
+
+    static Builder builder() {
+        return new Builder();
+    }
+
+    public CallSite getCallSite() {
+        return callSite;
+    }
+
+    /**
+     * Decorates a Mono with the bulkhead, the circuit-breaker, the hedge and then the retry of this pipeline.
+     */
+    @SuppressWarnings("unchecked")
+    public <R> Mono<R> decorate(Mono<R> mono) {
+        if (Objects.nonNull(bulkheadOperator)) {
+            mono = mono.transformDeferred((BulkheadOperator<R>) (BulkheadOperator<?>) bulkheadOperator);
+        }
+        if (Objects.nonNull(limiter)) {
+            mono = limit(mono);
+        }
+        if (Objects.nonNull(circuitBreakerOperator)) {
+            mono = mono.transformDeferred((CircuitBreakerOperator<R>) (CircuitBreakerOperator<?>) circuitBreakerOperator);
+        }
+        if (Objects.nonNull(hedgePolicy)) {
+            mono = hedge(mono);
+        }
+        if (Objects.nonNull(retry)) {
+            mono = retry(mono.doOnSuccess(r -> onAttemptSuccess()).doOnError(this::onAttemptFailure));
+        }
+        return mono;
+    }
+
+    /**
+     * Decorates a Flux with the bulkhead, the circuit-breaker and then the retry of this pipeline.
+     * Streams are not hedged.
+     */
+    @SuppressWarnings("unchecked")
+    public <R> Flux<R> decorate(Flux<R> flux) {
+        if (Objects.nonNull(bulkheadOperator)) {
+            flux = flux.transformDeferred((BulkheadOperator<R>) (BulkheadOperator<?>) bulkheadOperator);
+        }
+        if (Objects.nonNull(limiter)) {
+            flux = limit(flux);
+        }
+        if (Objects.nonNull(circuitBreakerOperator)) {
+            flux = flux.transformDeferred((CircuitBreakerOperator<R>) (CircuitBreakerOperator<?>) circuitBreakerOperator);
+        }
+        if (Objects.nonNull(retry)) {
+            flux = retry(flux.doOnComplete(this::onAttemptSuccess).doOnError(this::onAttemptFailure));
+        }
+        return flux;
+    }
+
+    /**
+     * Decorates a blocking call with the circuit-breaker, the semaphore bulkhead and
+     * then the retry. The wait between attempts blocks the calling thread.
+     */
+    public <R> Supplier<R> decorateSupplier(Supplier<R> supplier) {
+        if (Objects.nonNull(retry)) {
+            Supplier<R> call = supplier;
+            supplier = () -> {
+                try {
+                    R result = call.get();
+                    onAttemptSuccess();
+                    return result;
+                } catch (RuntimeException e) {
+                    onAttemptFailure(e);
+                    throw e;
+                }
+            };
+        }
+        if (Objects.nonNull(circuitBreaker)) {
+            supplier = circuitBreaker.decorateSupplier(supplier);
+        }
+        if (Objects.nonNull(bulkhead)) {
+            supplier = Bulkhead.decorateSupplier(bulkhead, supplier);
+        }
+        if (Objects.nonNull(limiter)) {
+            supplier = limitSupplier(supplier);
+        }
+        if (Objects.nonNull(retry)) {
+            supplier = Retry.decorateSupplier(retry, supplier);
+        }
+        return supplier;
+    }
+
+    /**
+     * Runs a blocking call on the thread-pool bulkhead of the call site and decorates
+     * the resulting stage with the circuit-breaker, the hedge and then the retry. The thread-pool
+     * bulkhead is always applied, as it is what moves the blocking call off the
+     * caller's thread. Attempts are rescheduled on the retry scheduler.
+     */
+    public <R> Supplier<CompletionStage<R>> decorateCompletionStage(Supplier<R> supplier) {
+        Supplier<CompletionStage<R>> stage = ThreadPoolBulkhead.decorateSupplier(threadPoolBulkhead(), supplier);
+        if (Objects.nonNull(limiter)) {
+            stage = limitStage(stage);
+        }
+        if (Objects.nonNull(retry)) {
+            Supplier<CompletionStage<R>> call = stage;
+            stage = () -> {
+                CompletionStage<R> attempt = call.get();
+                attempt.whenComplete((r, th) -> {
+                    if (Objects.isNull(th)) {
+                        onAttemptSuccess();
+                    } else {
+                        onAttemptFailure(th);
+                    }
+                });
+                return attempt;
+            };
+        }
+        if (Objects.nonNull(circuitBreaker)) {
+            stage = circuitBreaker.decorateCompletionStage(stage);
+        }
+        if (Objects.nonNull(hedgePolicy)) {
+            stage = hedgeStage(stage);
+        }
+        if (Objects.nonNull(retry)) {
+            stage = Retry.decorateCompletionStage(retry, retryScheduler, stage);
+        }
+        return stage;
+    }
+
+    /**
+     * Decorates a ListenableFuture-returning call with the semaphore bulkhead, the
+     * circuit-breaker, the hedge and then the retry. Permits are released and outcomes recorded
+     * when the future completes, not when it is read, and attempts are rescheduled on
+     * the retry scheduler. Calls rejected by the circuit-breaker or the bulkhead
+     * return a failed future.
+     */
+    public <R> Supplier<ListenableFuture<R>> decorateFuture(Supplier<ListenableFuture<R>> supplier) {
+        if (Objects.nonNull(bulkhead)) {
+            supplier = bulkheadFuture(supplier);
+        }
+        if (Objects.nonNull(limiter)) {
+            supplier = limitFuture(supplier);
+        }
+        if (Objects.nonNull(circuitBreaker)) {
+            supplier = circuitBreakerFuture(supplier);
+        }
+        if (Objects.nonNull(hedgePolicy)) {
+            supplier = hedgeFuture(supplier);
+        }
+        if (Objects.nonNull(retry)) {
+            supplier = retryFuture(supplier);
+        }
+        return supplier;
+    }
+
+    /**
+     * Decorates a call of a non-blocking client like decorateFuture, so the call
+     * holds no thread of the thread-pool bulkhead while it is in flight.
+     * Cancelling the returned future cancels the call.
+     */
+    public <R> Supplier<CompletableFuture<R>> decorateCompletableFuture(Supplier<CompletableFuture<R>> supplier) {
+        Supplier<ListenableFuture<R>> decorated = decorateFuture(() -> toListenableFuture(supplier.get()));
+        return () -> toCompletableFuture(invokeFuture(decorated));
+    }
+
+    private static <R> ListenableFuture<R> toListenableFuture(CompletableFuture<R> future) {
+        SettableFuture<R> listenable = SettableFuture.create();
+        future.whenComplete((r, th) -> {
+            if (Objects.isNull(th)) {
+                listenable.set(r);
+            } else {
+                listenable.setException(th instanceof CompletionException && Objects.nonNull(th.getCause())
+                        ? th.getCause() : th);
+            }
+        });
+        listenable.addListener(() -> {
+            if (listenable.isCancelled()) {
+                future.cancel(true);
+            }
+        }, MoreExecutors.directExecutor());
+        return listenable;
+    }
+
+    private static <R> CompletableFuture<R> toCompletableFuture(ListenableFuture<R> listenable) {
+        CompletableFuture<R> future = new CompletableFuture<>();
+        Futures.addCallback(listenable, new FutureCallback<R>() {
+            @Override
+            public void onSuccess(R result) {
+                future.complete(result);
+            }
+
+            @Override
+            public void onFailure(Throwable th) {
+                future.completeExceptionally(th);
+            }
+        }, MoreExecutors.directExecutor());
+        future.whenComplete((r, th) -> {
+            if (future.isCancelled()) {
+                listenable.cancel(true);
+            }
+        });
+        return future;
+    }
+
+    private <R> Supplier<ListenableFuture<R>> bulkheadFuture(Supplier<ListenableFuture<R>> supplier) {
+        return () -> {
+            if (!bulkhead.tryAcquirePermission()) {
+                return Futures.immediateFailedFuture(BulkheadFullException.createBulkheadFullException(bulkhead));
+            }
+            ListenableFuture<R> future;
+            try {
+                future = supplier.get();
+            } catch (RuntimeException e) {
+                bulkhead.onComplete();
+                return Futures.immediateFailedFuture(e);
+            }
+            future.addListener(bulkhead::onComplete, MoreExecutors.directExecutor());
+            return future;
+        };
+    }
+
+    private <R> Mono<R> limit(Mono<R> mono) {
+        return Mono.defer(() -> {
+            if (!acquireLimit()) {
+                return Mono.error(new LimitExceededException(limiter));
+            }
+            LimitPermit permit = new LimitPermit();
+            return mono.doOnSuccess(r -> permit.release(null))
+                    .doOnError(permit::release)
+                    .doOnCancel(permit::cancel);
+        });
+    }
+
+    private <R> Flux<R> limit(Flux<R> flux) {
+        return Flux.defer(() -> {
+            if (!acquireLimit()) {
+                return Flux.error(new LimitExceededException(limiter));
+            }
+            LimitPermit permit = new LimitPermit();
+            return flux.doOnComplete(() -> permit.release(null))
+                    .doOnError(permit::release)
+                    .doOnCancel(permit::cancel);
+        });
+    }
+
+    private <R> Supplier<R> limitSupplier(Supplier<R> supplier) {
+        return () -> {
+            if (!acquireLimit()) {
+                throw new LimitExceededException(limiter);
+            }
+            long start = System.nanoTime();
+            try {
+                R result = supplier.get();
+                releaseLimit(start, null);
+                return result;
+            } catch (RuntimeException e) {
+                releaseLimit(start, e);
+                throw e;
+            }
+        };
+    }
+
+    private <R> Supplier<CompletionStage<R>> limitStage(Supplier<CompletionStage<R>> supplier) {
+        return () -> {
+            if (!acquireLimit()) {
+                return invokeStage(() -> {
+                    throw new LimitExceededException(limiter);
+                });
+            }
+            long start = System.nanoTime();
+            CompletionStage<R> stage = invokeStage(supplier);
+            stage.whenComplete((r, th) -> releaseLimit(start, th));
+            return stage;
+        };
+    }
+
+    private <R> Supplier<ListenableFuture<R>> limitFuture(Supplier<ListenableFuture<R>> supplier) {
+        return () -> {
+            if (!acquireLimit()) {
+                return Futures.immediateFailedFuture(new LimitExceededException(limiter));
+            }
+            long start = System.nanoTime();
+            ListenableFuture<R> future = invokeFuture(supplier);
+            Futures.addCallback(future, new FutureCallback<R>() {
+                @Override
+                public void onSuccess(R result) {
+                    releaseLimit(start, null);
+                }
+
+                @Override
+                public void onFailure(Throwable th) {
+                    releaseLimit(start, th);
+                }
+            }, MoreExecutors.directExecutor());
+            return future;
+        };
+    }
+
+    private boolean acquireLimit() {
+        if (limiter.tryAcquire()) {
+            return true;
+        }
+        metricEmitter.setGauge(ABH_REJECTED_METRIC_NAME, limiter.getRejected(), metricTags);
+        return false;
+    }
+
+    /**
+     * Adapts the limit to the outcome of a call: successes feed their latency, transient
+     * failures back the limit off and other failures leave it as it is.
+     */
+    private void releaseLimit(long start, Throwable th) {
+        if (Objects.isNull(th)) {
+            limiter.onSuccess(System.nanoTime() - start);
+        } else if (RetryPolicy.isTransient(th)) {
+            limiter.onDropped();
+        } else {
+            limiter.onIgnore();
+        }
+        publishLimit();
+    }
+
+    private void cancelLimit() {
+        limiter.onIgnore();
+        publishLimit();
+    }
+
+    private void publishLimit() {
+        metricEmitter.setGauge(ABH_LIMIT_METRIC_NAME, limiter.getLimit(), metricTags);
+        metricEmitter.setGauge(ABH_IN_FLIGHT_METRIC_NAME, limiter.getInFlight(), metricTags);
+    }
+
+    /**
+     * The permit a subscription holds on the limiter. A Mono signals success before
+     * its subscriber can cancel, so the permit is given back on the first signal only.
+     */
+    private final class LimitPermit {
+        private final long start = System.nanoTime();
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        void release(Throwable th) {
+            if (released.compareAndSet(false, true)) {
+                releaseLimit(start, th);
+            }
+        }
+
+        void cancel() {
+            if (released.compareAndSet(false, true)) {
+                cancelLimit();
+            }
+        }
+    }
+
+    private <R> Supplier<ListenableFuture<R>> circuitBreakerFuture(Supplier<ListenableFuture<R>> supplier) {
+        return () -> {
+            if (!circuitBreaker.tryAcquirePermission()) {
+                return Futures.immediateFailedFuture(CallNotPermittedException.createCallNotPermittedException(circuitBreaker));
+            }
+            long start = System.nanoTime();
+            ListenableFuture<R> future;
+            try {
+                future = supplier.get();
+            } catch (RuntimeException e) {
+                circuitBreaker.onError(System.nanoTime() - start, TimeUnit.NANOSECONDS, e);
+                return Futures.immediateFailedFuture(e);
+            }
+            Futures.addCallback(future, new FutureCallback<R>() {
+                @Override
+                public void onSuccess(R result) {
+                    circuitBreaker.onSuccess(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                }
+
+                @Override
+                public void onFailure(Throwable th) {
+                    if (th instanceof CancellationException) {
+                        circuitBreaker.releasePermission();
+                    } else {
+                        circuitBreaker.onError(System.nanoTime() - start, TimeUnit.NANOSECONDS, th);
+                    }
+                }
+            }, MoreExecutors.directExecutor());
+            return future;
+        };
+    }
+
+    /**
+     * Subscribes to the mono again after every failure the retry allows, once its
+     * backoff has passed. The R4J retry context is driven directly, as the
+     * RetryOperator of resilience4j-reactor 1.6 calls a retryWhen that Reactor 3.5
+     * no longer has.
+     */
+    private <R> Mono<R> retry(Mono<R> mono) {
+        return Mono.defer(() -> {
+            Retry.AsyncContext<R> context = retry.asyncContext();
+            return mono.doOnSuccess(r -> context.onComplete())
+                    .retryWhen(reactor.util.retry.Retry.from(signals -> signals
+                            .concatMap(signal -> backoff(context, signal.failure()))));
+        });
+    }
+
+    private <R> Flux<R> retry(Flux<R> flux) {
+        return Flux.defer(() -> {
+            Retry.AsyncContext<R> context = retry.asyncContext();
+            return flux.doOnComplete(context::onComplete)
+                    .retryWhen(reactor.util.retry.Retry.from(signals -> signals
+                            .concatMap(signal -> backoff(context, signal.failure()))));
+        });
+    }
+
+    /**
+     * Waits out the backoff of a failed attempt, or fails with it if the retry gives up.
+     */
+    private static Mono<Long> backoff(Retry.AsyncContext<?> context, Throwable th) {
+        long delay = context.onError(th);
+        return delay < 1 ? Mono.error(th) : Mono.delay(Duration.ofMillis(delay));
+    }
+
+    private <R> Supplier<ListenableFuture<R>> retryFuture(Supplier<ListenableFuture<R>> supplier) {
+        return () -> {
+            SettableFuture<R> promise = SettableFuture.create();
+            attempt(supplier, retry.asyncContext(), promise);
+            return promise;
+        };
+    }
+
+    /**
+     * Makes one attempt of a retried future call. Cancelling the promise cancels the
+     * attempt in flight, and an attempt due after the promise is done is not made.
+     */
+    private <R> void attempt(Supplier<ListenableFuture<R>> supplier, Retry.AsyncContext<R> context,
+                             SettableFuture<R> promise) {
+        if (promise.isDone()) {
+            return;
+        }
+        ListenableFuture<R> future = invokeFuture(supplier);
+        promise.addListener(() -> {
+            if (promise.isCancelled()) {
+                future.cancel(true);
+            }
+        }, MoreExecutors.directExecutor());
+        Futures.addCallback(future, new FutureCallback<R>() {
+            @Override
+            public void onSuccess(R result) {
+                onAttemptSuccess();
+                context.onComplete();
+                promise.set(result);
+            }
+
+            @Override
+            public void onFailure(Throwable th) {
+                if (promise.isDone()) {
+                    return;
+                }
+                onAttemptFailure(th);
+                long delay = context.onError(th);
+                if (delay < 1) {
+                    promise.setException(th);
+                } else if (!promise.isDone()) {
+                    ScheduledFuture<?> next = retryScheduler.schedule(() -> attempt(supplier, context, promise),
+                            delay, TimeUnit.MILLISECONDS);
+                    promise.addListener(() -> next.cancel(false), MoreExecutors.directExecutor());
+                }
+            }
+        }, MoreExecutors.directExecutor());
+    }
+
+    /**
+     * Subscribes to the mono again if it hasn't signalled within the hedge delay and
+     * the hedge budget allows it. The loser is cancelled.
+     * <p>
+     * Only the latency of the primary call is recorded. A primary call cancelled for
+     * losing to the hedge took at least as long as it had run, which is recorded.
+     */
+    private <R> Mono<R> hedge(Mono<R> mono) {
+        return Mono.defer(() -> {
+            hedgePolicy.onCall();
+            long start = System.nanoTime();
+            AtomicBoolean hedgeWon = new AtomicBoolean();
+            Mono<R> primary = mono.doOnSuccess(r -> recordLatency(start))
+                    .doOnCancel(() -> {
+                        if (hedgeWon.get()) {
+                            recordLatency(start);
+                        }
+                    });
+            Mono<R> hedged = Mono.delay(Duration.ofMillis(hedgePolicy.delayMillis()))
+                    .flatMap(t -> acquireHedge()
+                            ? mono.onErrorResume(th -> Mono.never()).doOnSuccess(r -> {
+                                hedgeWon.set(true);
+                                onHedgeWon();
+                            })
+                            : Mono.<R>never());
+            return Mono.firstWithSignal(primary, hedged);
+        });
+    }
+
+    /**
+     * Races the stage against a hedge sent after the hedge delay. A CompletableFuture
+     * can't interrupt the bulkhead thread running the loser, so the loser is left to
+     * finish and its result is dropped. The primary call always runs to completion,
+     * so its own latency is recorded whether or not it won.
+     */
+    private <R> Supplier<CompletionStage<R>> hedgeStage(Supplier<CompletionStage<R>> supplier) {
+        return () -> {
+            hedgePolicy.onCall();
+            long start = System.nanoTime();
+            CompletableFuture<R> result = new CompletableFuture<>();
+            ScheduledFuture<?> timer = retryScheduler.schedule(() -> {
+                if (result.isDone() || !acquireHedge()) {
+                    return;
+                }
+                invokeStage(supplier).thenAccept(r -> {
+                    if (result.complete(r)) {
+                        onHedgeWon();
+                    }
+                });
+            }, hedgePolicy.delayMillis(), TimeUnit.MILLISECONDS);
+            invokeStage(supplier).whenComplete((r, th) -> {
+                if (Objects.nonNull(th)) {
+                    result.completeExceptionally(th);
+                } else {
+                    recordLatency(start);
+                    result.complete(r);
+                }
+            });
+            result.whenComplete((r, th) -> timer.cancel(false));
+            return result;
+        };
+    }
+
+    /**
+     * Races the future against a hedge sent after the hedge delay and cancels the loser.
+     * Cancelling the returned future cancels both calls. Latency is recorded like for a Mono.
+     */
+    private <R> Supplier<ListenableFuture<R>> hedgeFuture(Supplier<ListenableFuture<R>> supplier) {
+        return () -> {
+            hedgePolicy.onCall();
+            long start = System.nanoTime();
+            SettableFuture<R> promise = SettableFuture.create();
+            ListenableFuture<R> primary = invokeFuture(supplier);
+            ScheduledFuture<?> timer = retryScheduler.schedule(() -> {
+                if (promise.isDone() || !acquireHedge()) {
+                    return;
+                }
+                ListenableFuture<R> hedge = invokeFuture(supplier);
+                promise.addListener(() -> hedge.cancel(true), MoreExecutors.directExecutor());
+                Futures.addCallback(hedge, new FutureCallback<R>() {
+                    @Override
+                    public void onSuccess(R result) {
+                        if (promise.set(result)) {
+                            onHedgeWon();
+                        }
+                    }
+
+                    @Override
+                    public void onFailure(Throwable th) {
+                        // a failed hedge leaves the primary call to decide the outcome
+                    }
+                }, MoreExecutors.directExecutor());
+            }, hedgePolicy.delayMillis(), TimeUnit.MILLISECONDS);
+            promise.addListener(() -> {
+                timer.cancel(false);
+                primary.cancel(true);
+            }, MoreExecutors.directExecutor());
+            Futures.addCallback(primary, new FutureCallback<R>() {
+                @Override
+                public void onSuccess(R result) {
+                    recordLatency(start);
+                    promise.set(result);
+                }
+
+                @Override
+                public void onFailure(Throwable th) {
+                    if (!promise.setException(th) && !promise.isCancelled()) {
+                        // the primary call lost to the hedge and was cancelled
+                        recordLatency(start);
+                    }
+                }
+            }, MoreExecutors.directExecutor());
+            return promise;
+        };
+    }
+
+    private static <R> CompletionStage<R> invokeStage(Supplier<CompletionStage<R>> supplier) {
+        try {
+            return supplier.get();
+        } catch (RuntimeException e) {
+            CompletableFuture<R> failed = new CompletableFuture<>();
+            failed.completeExceptionally(e);
+            return failed;
+        }
+    }
+
+    private static <R> ListenableFuture<R> invokeFuture(Supplier<ListenableFuture<R>> supplier) {
+        try {
+            return supplier.get();
+        } catch (RuntimeException e) {
+            return Futures.immediateFailedFuture(e);
+        }
+    }
+
+    private boolean acquireHedge() {
+        if (hedgePolicy.tryAcquireHedge()) {
+            metricEmitter.incrementCounter(HEDGE_SENT_METRIC_NAME, metricTags);
+            return true;
+        }
+        metricEmitter.incrementCounter(HEDGE_BUDGET_EXHAUSTED_METRIC_NAME, metricTags);
+        return false;
+    }
+
+    private void onHedgeWon() {
+        metricEmitter.incrementCounter(HEDGE_WON_METRIC_NAME, metricTags);
+    }
+
+    private void recordLatency(long start) {
+        hedgePolicy.recordLatency(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+    }
+
+    private void onAttemptSuccess() {
+        retryBudget.onSuccess();
+    }
+
+    private void onAttemptFailure(Throwable th) {
+        if (RetryPolicy.isTransient(th)) {
+            retryBudget.onFailure();
+            metricEmitter.setGauge(RETRY_BUDGET_TOKENS_METRIC_NAME, retryBudget.getTokens(), metricTags);
+        }
+    }
+
+    private ThreadPoolBulkhead threadPoolBulkhead() {
+        ThreadPoolBulkhead tpb = threadPoolBulkhead;
+        if (Objects.isNull(tpb)) {
+            tpb = tpBulkheadRegistry.bulkhead(callSite.getBhTag());
+            threadPoolBulkhead = tpb;
+        }
+        return tpb;
+    }
+
+    static class Builder {
+        private CallSite callSite;
+        private CircuitBreaker circuitBreaker;
+        private Bulkhead bulkhead;
+        private AdaptiveLimiter limiter;
+        private Retry retry;
+        private RetryBudget retryBudget;
+        private HedgePolicy hedgePolicy;
+        private ThreadPoolBulkheadRegistry tpBulkheadRegistry;
+        private ScheduledExecutorService retryScheduler;
+        private MetricEmitter metricEmitter;
+        private Map<String, String> metricTags;
+
+        Builder callSite(CallSite callSite) {
+            this.callSite = callSite;
+            return this;
+        }
+
+        Builder circuitBreaker(CircuitBreaker circuitBreaker) {
+            this.circuitBreaker = circuitBreaker;
+            return this;
+        }
+
+        Builder bulkhead(Bulkhead bulkhead) {
+            this.bulkhead = bulkhead;
+            return this;
+        }
+
+        Builder limiter(AdaptiveLimiter limiter) {
+            this.limiter = limiter;
+            return this;
+        }
+
+        Builder retry(Retry retry, RetryBudget retryBudget) {
+            this.retry = retry;
+            this.retryBudget = retryBudget;
+            return this;
+        }
+
+        Builder hedge(HedgePolicy hedgePolicy) {
+            this.hedgePolicy = hedgePolicy;
+            return this;
+        }
+
+        Builder tpBulkheadRegistry(ThreadPoolBulkheadRegistry tpBulkheadRegistry) {
+            this.tpBulkheadRegistry = tpBulkheadRegistry;
+            return this;
+        }
+
+        Builder retryScheduler(ScheduledExecutorService retryScheduler) {
+            this.retryScheduler = retryScheduler;
+            return this;
+        }
+
+        Builder metrics(MetricEmitter metricEmitter, Map<String, String> metricTags) {
+            this.metricEmitter = metricEmitter;
+            this.metricTags = metricTags;
+            return this;
+        }
+
+        ResiliencePipeline build() {
+            return new ResiliencePipeline(this);
+        }
+    }
+}
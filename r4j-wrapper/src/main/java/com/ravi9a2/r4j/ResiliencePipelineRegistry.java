@@ -0,0 +1,141 @@
+package com.ravi9a2.r4j;
+
+import com.ravi9a2.instrumentation.processor.MetricEmitter;
+import com.ravi9a2.nea.core.data.CallDefinition;
+import com.ravi9a2.nea.core.data.CallSite;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.bulkhead.ThreadPoolBulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.retry.Retry;
+import io.github.resilience4j.retry.RetryConfig;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Component;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ScheduledExecutorService;
+
+import static com.ravi9a2.r4j.Metrics.RETRY_ATTEMPT_METRIC_NAME;
+import static com.ravi9a2.r4j.Metrics.RETRY_BUDGET_EXHAUSTED_METRIC_NAME;
+import static com.ravi9a2.r4j.Metrics.RETRY_EXHAUSTED_METRIC_NAME;
+import static com.ravi9a2.r4j.config.RetryBeanLoader.RETRY_SCHEDULER;
+
+/**
+ * Compiles and caches one ResiliencePipeline per CallSite. Call sites that are equal
+ * share the same pipeline. The compiled pipeline is attached to the CallSite held by
+ * the generated implementation, so the cache is only consulted on the first call.
+ *
+ * @author raviprakash
+ */
+@Component
+public class ResiliencePipelineRegistry {
+
+    private final ConcurrentMap<CallSite, ResiliencePipeline> pipelines = new ConcurrentHashMap<>();
+
+    private final CircuitBreakerRegistry circuitBreakerRegistry;
+    private final BulkheadRegistry semaphoreBulkheadRegistry;
+    private final ThreadPoolBulkheadRegistry tpBulkheadRegistry;
+    private final AdaptiveLimiterRegistry adaptiveLimiterRegistry;
+    private final RetryPolicyRegistry retryPolicyRegistry;
+    private final RetryBudgetRegistry retryBudgetRegistry;
+    private final HedgePolicyRegistry hedgePolicyRegistry;
+    private final ScheduledExecutorService retryScheduler;
+    private final MetricEmitter metricEmitter;
+
+    @Autowired
+    public ResiliencePipelineRegistry(CircuitBreakerRegistry circuitBreakerRegistry,
+                                      BulkheadRegistry semaphoreBulkheadRegistry,
+                                      ThreadPoolBulkheadRegistry tpBulkheadRegistry,
+                                      AdaptiveLimiterRegistry adaptiveLimiterRegistry,
+                                      RetryPolicyRegistry retryPolicyRegistry,
+                                      RetryBudgetRegistry retryBudgetRegistry,
+                                      HedgePolicyRegistry hedgePolicyRegistry,
+                                      @Qualifier(RETRY_SCHEDULER) ScheduledExecutorService retryScheduler,
+                                      MetricEmitter metricEmitter) {
+        this.circuitBreakerRegistry = circuitBreakerRegistry;
+        this.semaphoreBulkheadRegistry = semaphoreBulkheadRegistry;
+        this.tpBulkheadRegistry = tpBulkheadRegistry;
+        this.adaptiveLimiterRegistry = adaptiveLimiterRegistry;
+        this.retryPolicyRegistry = retryPolicyRegistry;
+        this.retryBudgetRegistry = retryBudgetRegistry;
+        this.hedgePolicyRegistry = hedgePolicyRegistry;
+        this.retryScheduler = retryScheduler;
+        this.metricEmitter = metricEmitter;
+    }
+
+    /**
+     * Returns the pipeline of the call definition's CallSite, deriving the
+     * CallSite from the call definition if it was built without one.
+     *
+     * @param cd the call definition
+     * @return ResiliencePipeline for the call site
+     */
+    public ResiliencePipeline pipeline(CallDefinition cd) {
+        CallSite callSite = cd.getCallSite();
+        if (Objects.isNull(callSite)) {
+            return pipelines.computeIfAbsent(CallSite.of(cd), this::compile);
+        }
+        return callSite.compiled(ResiliencePipeline.class, cs -> pipelines.computeIfAbsent(cs, this::compile));
+    }
+
+    private ResiliencePipeline compile(CallSite callSite) {
+        Map<String, String> metricTags = metricTags(callSite);
+        boolean adaptive = callSite.isBulkheadEnabled() && adaptiveLimiterRegistry.isAdaptive(callSite.getBhTag());
+        ResiliencePipeline.Builder builder = ResiliencePipeline.builder()
+                .callSite(callSite)
+                .circuitBreaker(callSite.isCircuitBreakerEnabled() ? circuitBreakerRegistry.circuitBreaker(callSite.getCbTag()) : null)
+                .bulkhead(callSite.isBulkheadEnabled() && !adaptive ? semaphoreBulkheadRegistry.bulkhead(callSite.getBhTag()) : null)
+                .limiter(adaptive ? adaptiveLimiterRegistry.limiter(callSite.getBhTag()) : null)
+                .tpBulkheadRegistry(tpBulkheadRegistry)
+                .retryScheduler(retryScheduler)
+                .metrics(metricEmitter, metricTags);
+        if (callSite.isRetryable()) {
+            RetryBudget retryBudget = retryBudgetRegistry.budget(callSite.getServiceTag());
+            builder.retry(compileRetry(callSite, retryBudget, metricTags), retryBudget);
+        }
+        if (callSite.isHedged()) {
+            builder.hedge(hedgePolicyRegistry.policy(callSite.getHedgeTag()));
+        }
+        return builder.build();
+    }
+
+    /**
+     * Builds the Retry of a call site on top of the policy of its retry tag. A failed
+     * attempt is retried only if the policy allows it for the call site's idempotency
+     * and the retry budget of the downstream has tokens to spare.
+     */
+    private Retry compileRetry(CallSite callSite, RetryBudget retryBudget, Map<String, String> metricTags) {
+        RetryPolicy policy = retryPolicyRegistry.policy(callSite.getRetryTag());
+        boolean idempotent = callSite.isIdempotent();
+        RetryConfig retryConfig = RetryConfig.from(policy.getRetryConfig())
+                .retryOnException(th -> {
+                    if (!policy.isRetryable(th, idempotent)) {
+                        return false;
+                    }
+                    if (retryBudget.canRetry()) {
+                        return true;
+                    }
+                    metricEmitter.incrementCounter(RETRY_BUDGET_EXHAUSTED_METRIC_NAME, metricTags);
+                    return false;
+                })
+                .build();
+        Retry retry = Retry.of(callSite.getRetryTag(), retryConfig);
+        retry.getEventPublisher()
+                .onRetry(e -> metricEmitter.incrementCounter(RETRY_ATTEMPT_METRIC_NAME, metricTags))
+                .onError(e -> metricEmitter.incrementCounter(RETRY_EXHAUSTED_METRIC_NAME, metricTags));
+        return retry;
+    }
+
+    private static Map<String, String> metricTags(CallSite callSite) {
+        Map<String, String> tags = new HashMap<>();
+        tags.put("service", callSite.getServiceTag());
+        tags.put("retryName", callSite.getRetryTag());
+        tags.put("bulkheadName", callSite.getBhTag());
+        return Collections.unmodifiableMap(tags);
+    }
+}
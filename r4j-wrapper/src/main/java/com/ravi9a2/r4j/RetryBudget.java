@@ -0,0 +1,82 @@
+package com.ravi9a2.r4j;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A token bucket that caps retries towards a single downstream. Every failed
+ * attempt takes one token out of the bucket and every successful attempt puts
+ * back {@code tokenRatio} tokens. Retries are only permitted while the bucket
+ * is more than half full, so once a downstream starts failing consistently the
+ * retries stop instead of multiplying the load on it.
+ *
+ * @author raviprakash
+ */
+public final class RetryBudget {
+
+    private static final int SCALE = 1000;
+
+    private final String name;
+    private final int maxTokens;
+    private final int threshold;
+    private final int tokenRatio;
+    private final AtomicInteger tokens;
+
+    public RetryBudget(String name, double maxTokens, double tokenRatio) {
+        if (maxTokens <= 0 || tokenRatio <= 0) {
+            throw new IllegalArgumentException("maxTokens and tokenRatio must be positive for budget: " + name);
+        }
+        this.name = name;
+        this.maxTokens = (int) (maxTokens * SCALE);
+        this.threshold = this.maxTokens / 2;
+        this.tokenRatio = (int) (tokenRatio * SCALE);
+        this.tokens = new AtomicInteger(this.maxTokens);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Records a successful attempt.
+     */
+    public void onSuccess() {
+        int current;
+        do {
+            current = tokens.get();
+            if (current == maxTokens) {
+                return;
+            }
+        } while (!tokens.compareAndSet(current, Math.min(maxTokens, current + tokenRatio)));
+    }
+
+    /**
+     * Records a failed attempt.
+     */
+    public void onFailure() {
+        int current;
+        do {
+            current = tokens.get();
+            if (current == 0) {
+                return;
+            }
+        } while (!tokens.compareAndSet(current, Math.max(0, current - SCALE)));
+    }
+
+    /**
+     * Whether a failed attempt may be retried.
+     *
+     * @return true if the budget has tokens to spare
+     */
+    public boolean canRetry() {
+        return tokens.get() > threshold;
+    }
+
+    /**
+     * Returns the tokens left in the bucket.
+     *
+     * @return tokens left
+     */
+    public double getTokens() {
+        return (double) tokens.get() / SCALE;
+    }
+}
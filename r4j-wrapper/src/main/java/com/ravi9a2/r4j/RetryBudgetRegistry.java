@@ -0,0 +1,31 @@
+package com.ravi9a2.r4j;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Function;
+
+/**
+ * Holds one RetryBudget per downstream, keyed by the service tag. All the call
+ * sites of a downstream share its budget.
+ *
+ * @author raviprakash
+ */
+public class RetryBudgetRegistry {
+
+    private final ConcurrentMap<String, RetryBudget> budgets = new ConcurrentHashMap<>();
+    private final Function<String, RetryBudget> factory;
+
+    public RetryBudgetRegistry(Function<String, RetryBudget> factory) {
+        this.factory = factory;
+    }
+
+    /**
+     * Returns the budget of a downstream, creating it on first use.
+     *
+     * @param serviceTag the service tag of the downstream
+     * @return RetryBudget of the downstream
+     */
+    public RetryBudget budget(String serviceTag) {
+        return budgets.computeIfAbsent(serviceTag, factory);
+    }
+}
@@ -0,0 +1,113 @@
+package com.ravi9a2.r4j;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.ravi9a2.nca.exceptions.DeadlineExceededException;
+import com.ravi9a2.nca.exceptions.NetworkClientException;
+import com.ravi9a2.nca.exceptions.Status4XXException;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.retry.RetryConfig;
+import org.springframework.core.codec.DecodingException;
+
+import java.io.IOException;
+import java.net.ConnectException;
+import java.util.Objects;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * Retry configuration of a retry tag. It holds the R4J RetryConfig, which decides
+ * the number of attempts and the backoff between them, and decides which failures
+ * are worth another attempt.
+ * <p>
+ * Only transient failures are retried, i.e. timeouts, IO failures, 5XX responses
+ * and 408/429 responses. Failures raised by an open circuit-breaker, a full
+ * bulkhead or an expired deadline, and response bodies that fail to decode, are
+ * never retried. Non-idempotent calls are
+ * only retried when the request never reached the downstream, unless
+ * {@code retryNonIdempotent} is set.
+ *
+ * @author raviprakash
+ */
+public final class RetryPolicy {
+
+    private static final int REQUEST_TIMEOUT = 408;
+    private static final int TOO_MANY_REQUESTS = 429;
+
+    private final RetryConfig retryConfig;
+    private final boolean retryNonIdempotent;
+
+    public RetryPolicy(RetryConfig retryConfig, boolean retryNonIdempotent) {
+        this.retryConfig = retryConfig;
+        this.retryNonIdempotent = retryNonIdempotent;
+    }
+
+    public RetryConfig getRetryConfig() {
+        return retryConfig;
+    }
+
+    public boolean isRetryNonIdempotent() {
+        return retryNonIdempotent;
+    }
+
+    /**
+     * Whether a failed attempt should be retried.
+     *
+     * @param th         failure of the attempt
+     * @param idempotent whether the call is idempotent
+     * @return true if the failure is worth another attempt
+     */
+    public boolean isRetryable(Throwable th, boolean idempotent) {
+        Throwable cause = unwrap(th);
+        return isTransient(cause) && (idempotent || retryNonIdempotent || isUnsent(cause));
+    }
+
+    /**
+     * Whether a failure is expected to go away on its own, i.e. it says something
+     * about the health of the downstream rather than about the request. The whole
+     * cause chain is looked at, so a response body that failed to decode is not
+     * transient even when it is wrapped in a NetworkClientException or an IOException.
+     *
+     * @param th the failure
+     * @return true if the failure is transient
+     */
+    public static boolean isTransient(Throwable th) {
+        boolean isTransient = false;
+        for (Throwable cause = th; Objects.nonNull(cause); cause = cause.getCause()) {
+            if (cause instanceof CallNotPermittedException || cause instanceof BulkheadFullException
+                    || cause instanceof LimitExceededException || cause instanceof DeadlineExceededException
+                    || cause instanceof JsonProcessingException || cause instanceof DecodingException) {
+                return false;
+            }
+            if (cause instanceof Status4XXException) {
+                int statusCode = ((Status4XXException) cause).getStatusCode();
+                return statusCode == REQUEST_TIMEOUT || statusCode == TOO_MANY_REQUESTS;
+            }
+            isTransient |= cause instanceof NetworkClientException
+                    || cause instanceof IOException
+                    || cause instanceof java.util.concurrent.TimeoutException;
+        }
+        return isTransient;
+    }
+
+    private static boolean isUnsent(Throwable th) {
+        if (th instanceof Status4XXException) {
+            return ((Status4XXException) th).getStatusCode() == TOO_MANY_REQUESTS;
+        }
+        for (Throwable t = th; Objects.nonNull(t); t = t.getCause()) {
+            if (t instanceof ConnectException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static Throwable unwrap(Throwable th) {
+        Throwable cause = th;
+        while ((cause instanceof CompletionException || cause instanceof ExecutionException)
+                && Objects.nonNull(cause.getCause())) {
+            cause = cause.getCause();
+        }
+        return cause;
+    }
+}
@@ -0,0 +1,32 @@
+package com.ravi9a2.r4j;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Holds the RetryPolicy of every configured retry tag. Retry tags without a
+ * configuration of their own use the default policy.
+ *
+ * @author raviprakash
+ */
+public class RetryPolicyRegistry {
+
+    private final Map<String, RetryPolicy> policies;
+    private final RetryPolicy defaultPolicy;
+
+    public RetryPolicyRegistry(Map<String, RetryPolicy> policies, RetryPolicy defaultPolicy) {
+        this.policies = Collections.unmodifiableMap(new HashMap<>(policies));
+        this.defaultPolicy = defaultPolicy;
+    }
+
+    /**
+     * Returns the policy of a retry tag.
+     *
+     * @param retryTag the retry tag
+     * @return RetryPolicy of the tag, or the default policy
+     */
+    public RetryPolicy policy(String retryTag) {
+        return policies.getOrDefault(retryTag, defaultPolicy);
+    }
+}
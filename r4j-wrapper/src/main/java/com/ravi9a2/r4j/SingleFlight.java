@@ -0,0 +1,381 @@
+package com.ravi9a2.r4j;
+
+import com.ravi9a2.instrumentation.processor.MetricEmitter;
+import com.ravi9a2.nca.data.Deadline;
+import com.ravi9a2.nca.data.RawResponse;
+import com.ravi9a2.nea.core.data.HTTPMethod;
+import com.ravi9a2.nea.core.data.RestCallDefinition;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import static com.ravi9a2.r4j.Metrics.SINGLE_FLIGHT_BYPASSED_METRIC_NAME;
+import static com.ravi9a2.r4j.Metrics.SINGLE_FLIGHT_COALESCED_METRIC_NAME;
+import static com.ravi9a2.r4j.Metrics.SINGLE_FLIGHT_COALESCED_RATIO_METRIC_NAME;
+import static com.ravi9a2.r4j.Metrics.SINGLE_FLIGHT_LEADER_METRIC_NAME;
+
+/**
+ * Coalesces concurrent identical GET calls into a single in-flight request.
+ * <p>
+ * The first caller of a request key is the leader and sends the call through
+ * its resilience pipeline. Callers with the same key that arrive while it is in
+ * flight get the leader's response or failure instead of sending their own. The
+ * key is removed once the call completes, so nothing is cached beyond that.
+ * <p>
+ * At most {@code maxKeys} requests are coalesced at a time. Calls beyond that are
+ * sent on their own. A call opts out with a {@code Cache-Control: no-cache} or
+ * {@code no-store} header. Calls returning a RawResponse are never coalesced, as
+ * its body can only be read once.
+ * <p>
+ * A deadline belongs to its caller, not to the shared call. The shared call of a
+ * Mono or a future is made without one and every caller waits on it for no longer
+ * than its own deadline. A blocking call with a deadline waits on an identical call
+ * in flight the same way, but is made on its own thread if there is none, so it
+ * never leads.
+ *
+ * @author raviprakash
+ */
+@Component
+public class SingleFlight {
+
+    private static final String CACHE_CONTROL = "Cache-Control";
+    private static final String NO_CACHE = "no-cache";
+    private static final String NO_STORE = "no-store";
+
+    private final ConcurrentMap<RequestKey, Mono<?>> monos = new ConcurrentHashMap<>();
+    private final ConcurrentMap<RequestKey, CompletableFuture<Object>> futures = new ConcurrentHashMap<>();
+    private final AtomicLong leaders = new AtomicLong();
+    private final AtomicLong coalesced = new AtomicLong();
+    private final int maxKeys;
+    private final MetricEmitter metricEmitter;
+
+    @Autowired
+    public SingleFlight(@Value("${r4j.single-flight.max-keys:10000}") int maxKeys, MetricEmitter metricEmitter) {
+        this.maxKeys = maxKeys;
+        this.metricEmitter = metricEmitter;
+    }
+
+    /**
+     * Shares the Mono of an identical call in flight, or subscribes to the given one
+     * and shares it with the identical calls that follow. The shared call is not
+     * cancelled when one of its subscribers cancels.
+     *
+     * @param cd   the call definition
+     * @param call supplies the decorated call
+     * @param <R>  response type
+     * @return Mono of the response
+     */
+    public <R> Mono<R> coalesce(RestCallDefinition cd, Supplier<Mono<R>> call) {
+        return coalesce(cd, null, deadline -> call.get());
+    }
+
+    /**
+     * Shares the Mono of an identical call in flight, or subscribes to the one made
+     * without a deadline and shares it with the identical calls that follow. The
+     * caller waits on the shared call until its own deadline.
+     *
+     * @param cd       the call definition
+     * @param deadline the deadline of the caller, or null
+     * @param call     supplies the decorated call for the given deadline
+     * @param <R>      response type
+     * @return Mono of the response
+     */
+    @SuppressWarnings("unchecked")
+    public <R> Mono<R> coalesce(RestCallDefinition cd, Deadline deadline, Function<Deadline, Mono<R>> call) {
+        if (!isCoalesced(cd)) {
+            return call.apply(deadline);
+        }
+        return Mono.defer(() -> {
+            RequestKey key = RequestKey.of(cd);
+            Mono<?> inFlight = monos.get(key);
+            if (Objects.nonNull(inFlight)) {
+                onCoalesced(cd);
+                return withDeadline((Mono<R>) inFlight, deadline);
+            }
+            if (isFull(cd)) {
+                return call.apply(deadline);
+            }
+            AtomicReference<Mono<R>> self = new AtomicReference<>();
+            Mono<R> shared = call.apply(null)
+                    .doFinally(s -> monos.remove(key, self.get()))
+                    .share();
+            self.set(shared);
+            inFlight = monos.putIfAbsent(key, shared);
+            if (Objects.nonNull(inFlight)) {
+                onCoalesced(cd);
+                return withDeadline((Mono<R>) inFlight, deadline);
+            }
+            onLeader(cd);
+            return withDeadline(shared, deadline);
+        });
+    }
+
+    /**
+     * Shares the future of an identical call in flight, or starts the given one and
+     * shares it with the identical calls that follow.
+     *
+     * @param cd   the call definition
+     * @param call starts the decorated call
+     * @param <R>  response type
+     * @return CompletableFuture of the response
+     */
+    public <R> CompletableFuture<R> coalesceFuture(RestCallDefinition cd, Supplier<CompletableFuture<R>> call) {
+        return coalesceFuture(cd, null, deadline -> call.get());
+    }
+
+    /**
+     * Shares the future of an identical call in flight, or starts the one made
+     * without a deadline and shares it with the identical calls that follow. The
+     * returned future fails once the caller's own deadline has passed.
+     *
+     * @param cd       the call definition
+     * @param deadline the deadline of the caller, or null
+     * @param call     starts the decorated call for the given deadline
+     * @param <R>      response type
+     * @return CompletableFuture of the response
+     */
+    @SuppressWarnings("unchecked")
+    public <R> CompletableFuture<R> coalesceFuture(RestCallDefinition cd, Deadline deadline,
+                                                   Function<Deadline, CompletableFuture<R>> call) {
+        if (!isCoalesced(cd)) {
+            return call.apply(deadline);
+        }
+        RequestKey key = RequestKey.of(cd);
+        CompletableFuture<Object> shared = new CompletableFuture<>();
+        CompletableFuture<Object> inFlight = join(cd, key, shared);
+        if (Objects.isNull(inFlight)) {
+            return call.apply(deadline);
+        }
+        if (inFlight != shared) {
+            CompletableFuture<R> res = new CompletableFuture<>();
+            inFlight.whenComplete((r, th) -> {
+                if (Objects.nonNull(th)) {
+                    res.completeExceptionally(unwrap(th));
+                } else {
+                    res.complete((R) r);
+                }
+            });
+            return withDeadline(res, deadline);
+        }
+        CompletableFuture<R> res;
+        try {
+            res = call.apply(null);
+        } catch (RuntimeException e) {
+            futures.remove(key, shared);
+            shared.completeExceptionally(e);
+            throw e;
+        }
+        res.whenComplete((r, th) -> {
+            futures.remove(key, shared);
+            if (Objects.nonNull(th)) {
+                shared.completeExceptionally(unwrap(th));
+            } else {
+                shared.complete(r);
+            }
+        });
+        return withDeadline(res, deadline);
+    }
+
+    /**
+     * Waits for the response of an identical call in flight, or makes the given
+     * call on the current thread and hands its response to the identical calls
+     * waiting on it.
+     *
+     * @param cd   the call definition
+     * @param call makes the decorated call
+     * @param <R>  response type
+     * @return the response
+     */
+    public <R> R coalesceSupplier(RestCallDefinition cd, Supplier<R> call) {
+        return coalesceSupplier(cd, null, deadline -> call.get());
+    }
+
+    /**
+     * Waits for the response of an identical call in flight until the caller's
+     * deadline, or makes the given call on the current thread. Only a call without
+     * a deadline hands its response to the identical calls waiting on it.
+     *
+     * @param cd       the call definition
+     * @param deadline the deadline of the caller, or null
+     * @param call     makes the decorated call for the given deadline
+     * @param <R>      response type
+     * @return the response
+     */
+    @SuppressWarnings("unchecked")
+    public <R> R coalesceSupplier(RestCallDefinition cd, Deadline deadline, Function<Deadline, R> call) {
+        if (!isCoalesced(cd)) {
+            return call.apply(deadline);
+        }
+        RequestKey key = RequestKey.of(cd);
+        if (Objects.nonNull(deadline)) {
+            CompletableFuture<Object> inFlight = futures.get(key);
+            if (Objects.isNull(inFlight)) {
+                return call.apply(deadline);
+            }
+            onCoalesced(cd);
+            return (R) await(inFlight, deadline);
+        }
+        CompletableFuture<Object> shared = new CompletableFuture<>();
+        CompletableFuture<Object> inFlight = join(cd, key, shared);
+        if (Objects.isNull(inFlight)) {
+            return call.apply(null);
+        }
+        if (inFlight != shared) {
+            return (R) await(inFlight, null);
+        }
+        try {
+            R res = call.apply(null);
+            shared.complete(res);
+            return res;
+        } catch (RuntimeException | Error e) {
+            shared.completeExceptionally(e);
+            throw e;
+        } finally {
+            futures.remove(key, shared);
+        }
+    }
+
+    /**
+     * Waits for the in-flight call until the deadline, if any, and rethrows its failure.
+     */
+    private static Object await(CompletableFuture<Object> inFlight, Deadline deadline) {
+        try {
+            return Objects.isNull(deadline) ? inFlight.join()
+                    : inFlight.get(Math.max(1, deadline.remainingMillis()), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            throw deadline.exceeded();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CompletionException(e);
+        } catch (CompletionException | ExecutionException e) {
+            Throwable cause = Objects.isNull(e.getCause()) ? e : e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new CompletionException(cause);
+        }
+    }
+
+    private static <R> Mono<R> withDeadline(Mono<R> mono, Deadline deadline) {
+        if (Objects.isNull(deadline)) {
+            return mono;
+        }
+        return mono.timeout(Duration.ofMillis(Math.max(1, deadline.remainingMillis())),
+                Mono.defer(() -> Mono.error(deadline.exceeded())));
+    }
+
+    private static <R> CompletableFuture<R> withDeadline(CompletableFuture<R> future, Deadline deadline) {
+        if (Objects.isNull(deadline)) {
+            return future;
+        }
+        CompletableFuture<R> res = new CompletableFuture<>();
+        Disposable timer = Schedulers.parallel().schedule(() -> res.completeExceptionally(deadline.exceeded()),
+                Math.max(1, deadline.remainingMillis()), TimeUnit.MILLISECONDS);
+        future.whenComplete((r, th) -> {
+            timer.dispose();
+            if (Objects.nonNull(th)) {
+                res.completeExceptionally(unwrap(th));
+            } else {
+                res.complete(r);
+            }
+        });
+        return res;
+    }
+
+    /**
+     * Registers the given future as the in-flight call of the key unless one is
+     * already registered.
+     *
+     * @return the in-flight future of the key, or null if the call is not coalesced
+     */
+    private CompletableFuture<Object> join(RestCallDefinition cd, RequestKey key, CompletableFuture<Object> shared) {
+        CompletableFuture<Object> inFlight = futures.get(key);
+        if (Objects.isNull(inFlight)) {
+            if (isFull(cd)) {
+                return null;
+            }
+            inFlight = futures.putIfAbsent(key, shared);
+        }
+        if (Objects.nonNull(inFlight)) {
+            onCoalesced(cd);
+            return inFlight;
+        }
+        onLeader(cd);
+        return shared;
+    }
+
+    private boolean isCoalesced(RestCallDefinition cd) {
+        if (!cd.isCoalesce() || cd.getHttpMethod() != HTTPMethod.GET || RawResponse.isRawType(cd.getResponseType())) {
+            return false;
+        }
+        Map<String, String> headers = cd.getHttpHeaders();
+        if (Objects.isNull(headers)) {
+            return true;
+        }
+        for (Map.Entry<String, String> header : headers.entrySet()) {
+            if (CACHE_CONTROL.equalsIgnoreCase(header.getKey()) && Objects.nonNull(header.getValue())) {
+                String value = header.getValue().toLowerCase();
+                if (value.contains(NO_CACHE) || value.contains(NO_STORE)) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    private boolean isFull(RestCallDefinition cd) {
+        if (monos.size() + futures.size() < maxKeys) {
+            return false;
+        }
+        metricEmitter.incrementCounter(SINGLE_FLIGHT_BYPASSED_METRIC_NAME, tags(cd));
+        return true;
+    }
+
+    private void onLeader(RestCallDefinition cd) {
+        leaders.incrementAndGet();
+        metricEmitter.incrementCounter(SINGLE_FLIGHT_LEADER_METRIC_NAME, tags(cd));
+        publishRatio();
+    }
+
+    private void onCoalesced(RestCallDefinition cd) {
+        coalesced.incrementAndGet();
+        metricEmitter.incrementCounter(SINGLE_FLIGHT_COALESCED_METRIC_NAME, tags(cd));
+        publishRatio();
+    }
+
+    private void publishRatio() {
+        long c = coalesced.get();
+        long total = c + leaders.get();
+        metricEmitter.setGauge(SINGLE_FLIGHT_COALESCED_RATIO_METRIC_NAME, (double) c / total, Collections.emptyMap());
+    }
+
+    private static Map<String, String> tags(RestCallDefinition cd) {
+        return Collections.singletonMap("service", cd.getServiceTag());
+    }
+
+    private static Throwable unwrap(Throwable th) {
+        return th instanceof CompletionException && Objects.nonNull(th.getCause()) ? th.getCause() : th;
+    }
+}
@@ -0,0 +1,261 @@
+package com.ravi9a2.r4j;
+
+import com.ravi9a2.instrumentation.processor.MetricEmitter;
+import com.ravi9a2.nca.data.RawResponse;
+import com.ravi9a2.nca.exceptions.Status5XXException;
+import com.ravi9a2.nea.core.data.RestCallDefinition;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+
+import static com.ravi9a2.r4j.Metrics.STALE_IF_ERROR_EVICTED_METRIC_NAME;
+import static com.ravi9a2.r4j.Metrics.STALE_IF_ERROR_MISSED_METRIC_NAME;
+import static com.ravi9a2.r4j.Metrics.STALE_IF_ERROR_SERVED_METRIC_NAME;
+
+/**
+ * Keeps the last successful response of every call with stale-if-error enabled
+ * and serves it in place of a failure when the circuit is open, the bulkhead is
+ * full or the downstream answers with a 5XX, as long as it is no older than the
+ * call's max staleness. Other failures, and responses past that, are propagated
+ * as they are.
+ * <p>
+ * About {@code maxEntries} responses are kept. Storing and looking up take no
+ * lock; once the cache grows past its bound, one caller at a time sweeps a
+ * clock hand over the entries and evicts the least recently used of every
+ * {@value #EVICTION_SAMPLE} it passes, which approximates LRU. Responses are
+ * shared between callers, so they must not be mutated. RawResponses, whose
+ * bodies can only be read once, are not kept.
+ *
+ * @author raviprakash
+ */
+@Component
+public class StaleIfErrorCache {
+
+    static final int EVICTION_SAMPLE = 8;
+
+    private final ConcurrentHashMap<RequestKey, StaleEntry> entries = new ConcurrentHashMap<>();
+    private final AtomicBoolean evicting = new AtomicBoolean();
+    private final int maxEntries;
+    private final MetricEmitter metricEmitter;
+    private Iterator<Map.Entry<RequestKey, StaleEntry>> hand;
+
+    @Autowired
+    public StaleIfErrorCache(@Value("${r4j.stale-if-error.max-entries:10000}") int maxEntries,
+                             MetricEmitter metricEmitter) {
+        this.maxEntries = maxEntries;
+        this.metricEmitter = metricEmitter;
+    }
+
+    int size() {
+        return entries.size();
+    }
+
+    /**
+     * Stores the response of the given Mono, or replaces its failure with the last
+     * response stored for the call.
+     *
+     * @param cd   the call definition
+     * @param call the decorated call
+     * @param <R>  response type
+     * @return Mono of the response
+     */
+    public <R> Mono<R> decorate(RestCallDefinition cd, Mono<R> call) {
+        if (!isEnabled(cd)) {
+            return call;
+        }
+        RequestKey key = RequestKey.of(cd);
+        return call
+                .doOnNext(r -> store(cd, key, r))
+                .onErrorResume(th -> {
+                    R stale = lookup(cd, key, th);
+                    return Objects.isNull(stale) ? Mono.error(th) : Mono.just(stale);
+                });
+    }
+
+    /**
+     * Stores the response of the given future, or replaces its failure with the last
+     * response stored for the call.
+     *
+     * @param cd   the call definition
+     * @param call the decorated call
+     * @param <R>  response type
+     * @return CompletableFuture of the response
+     */
+    public <R> CompletableFuture<R> decorateFuture(RestCallDefinition cd, CompletableFuture<R> call) {
+        if (!isEnabled(cd)) {
+            return call;
+        }
+        RequestKey key = RequestKey.of(cd);
+        CompletableFuture<R> res = new CompletableFuture<>();
+        call.whenComplete((r, th) -> {
+            if (Objects.isNull(th)) {
+                store(cd, key, r);
+                res.complete(r);
+                return;
+            }
+            R stale = lookup(cd, key, th);
+            if (Objects.isNull(stale)) {
+                res.completeExceptionally(th);
+            } else {
+                res.complete(stale);
+            }
+        });
+        return res;
+    }
+
+    /**
+     * Stores the response of the given supplier, or replaces its failure with the
+     * last response stored for the call.
+     *
+     * @param cd   the call definition
+     * @param call the decorated call
+     * @param <R>  response type
+     * @return Supplier of the response
+     */
+    public <R> Supplier<R> decorateSupplier(RestCallDefinition cd, Supplier<R> call) {
+        if (!isEnabled(cd)) {
+            return call;
+        }
+        RequestKey key = RequestKey.of(cd);
+        return () -> {
+            R r;
+            try {
+                r = call.get();
+            } catch (RuntimeException e) {
+                R stale = lookup(cd, key, e);
+                if (Objects.isNull(stale)) {
+                    throw e;
+                }
+                return stale;
+            }
+            store(cd, key, r);
+            return r;
+        };
+    }
+
+    private void store(RestCallDefinition cd, RequestKey key, Object response) {
+        if (Objects.isNull(response)) {
+            return;
+        }
+        StaleEntry entry = new StaleEntry(cd.getServiceTag(), response, System.currentTimeMillis());
+        if (Objects.isNull(entries.put(key, entry)) && entries.size() > maxEntries) {
+            evict();
+        }
+    }
+
+    /**
+     * Evicts entries until the cache is back within its bound. Only one caller
+     * evicts at a time; the others go on without waiting, and the evicting one
+     * checks the bound again once done, so the bound is only overshot briefly.
+     */
+    private void evict() {
+        while (entries.size() > maxEntries && evicting.compareAndSet(false, true)) {
+            try {
+                while (entries.size() > maxEntries) {
+                    Map.Entry<RequestKey, StaleEntry> victim = sample();
+                    if (Objects.isNull(victim)) {
+                        return;
+                    }
+                    if (entries.remove(victim.getKey(), victim.getValue())) {
+                        metricEmitter.incrementCounter(STALE_IF_ERROR_EVICTED_METRIC_NAME,
+                                tags(victim.getValue().serviceTag));
+                    }
+                }
+            } finally {
+                evicting.set(false);
+            }
+        }
+    }
+
+    /**
+     * Advances the clock hand over the next {@value #EVICTION_SAMPLE} entries and
+     * returns the least recently used of them.
+     */
+    private Map.Entry<RequestKey, StaleEntry> sample() {
+        Map.Entry<RequestKey, StaleEntry> victim = null;
+        for (int i = 0; i < EVICTION_SAMPLE; i++) {
+            if (Objects.isNull(hand) || !hand.hasNext()) {
+                hand = entries.entrySet().iterator();
+                if (!hand.hasNext()) {
+                    break;
+                }
+            }
+            Map.Entry<RequestKey, StaleEntry> next = hand.next();
+            if (Objects.isNull(victim) || next.getValue().lastUsed < victim.getValue().lastUsed) {
+                victim = next;
+            }
+        }
+        return victim;
+    }
+
+    @SuppressWarnings("unchecked")
+    private <R> R lookup(RestCallDefinition cd, RequestKey key, Throwable th) {
+        if (!isServedStale(unwrap(th))) {
+            return null;
+        }
+        StaleEntry entry = entries.get(key);
+        long now = System.currentTimeMillis();
+        if (Objects.nonNull(entry) && now - entry.storedAt > cd.getStaleIfError()) {
+            entries.remove(key, entry);
+            entry = null;
+        }
+        if (Objects.isNull(entry)) {
+            metricEmitter.incrementCounter(STALE_IF_ERROR_MISSED_METRIC_NAME, tags(cd.getServiceTag()));
+            return null;
+        }
+        entry.lastUsed = now;
+        metricEmitter.incrementCounter(STALE_IF_ERROR_SERVED_METRIC_NAME, tags(cd.getServiceTag()));
+        return (R) entry.response;
+    }
+
+    private static boolean isEnabled(RestCallDefinition cd) {
+        return cd.getStaleIfError() > 0 && !RawResponse.isRawType(cd.getResponseType());
+    }
+
+    private static boolean isServedStale(Throwable th) {
+        return th instanceof CallNotPermittedException
+                || th instanceof BulkheadFullException
+                || th instanceof LimitExceededException
+                || th instanceof Status5XXException;
+    }
+
+    private static Throwable unwrap(Throwable th) {
+        while ((th instanceof CompletionException || th instanceof ExecutionException)
+                && Objects.nonNull(th.getCause())) {
+            th = th.getCause();
+        }
+        return th;
+    }
+
+    private static Map<String, String> tags(String serviceTag) {
+        return Collections.singletonMap("service", serviceTag);
+    }
+
+    private static final class StaleEntry {
+        private final String serviceTag;
+        private final Object response;
+        private final long storedAt;
+        private volatile long lastUsed;
+
+        private StaleEntry(String serviceTag, Object response, long storedAt) {
+            this.serviceTag = serviceTag;
+            this.response = response;
+            this.storedAt = storedAt;
+            this.lastUsed = storedAt;
+        }
+    }
+}
@@ -40,6 +40,8 @@ public class AnnotationWrapper {
 
     private UnaryRPCCall unaryRPCCall;
 
+    private String codec;
+
     private AnnotationWrapper(PostCall postCall) {
         this.postCall = postCall;
     }
@@ -475,6 +477,42 @@ public class AnnotationWrapper {
         return "";
     }
 
+    public String hedge() {
+        if (Objects.nonNull(getCall)) {
+            return getCall.hedge();
+        } else if (Objects.nonNull(unaryRPCCall)) {
+            return unaryRPCCall.hedge();
+        }
+        return "";
+    }
+
+    public boolean coalesce() {
+        if (Objects.nonNull(getCall)) {
+            return getCall.coalesce();
+        }
+        return false;
+    }
+
+    public long staleIfError() {
+        if (Objects.nonNull(getCall)) {
+            return getCall.staleIfError();
+        }
+        return 0;
+    }
+
+    /**
+     * Returns the name of the generated codec constant of the method, or null if
+     * it has none.
+     */
+    public String codec() {
+        return codec;
+    }
+
+    public AnnotationWrapper codec(String codec) {
+        this.codec = codec;
+        return this;
+    }
+
     private String getOrDefault(String name, String def) {
         return StringUtils.hasLength(name) ? name : def;
     }
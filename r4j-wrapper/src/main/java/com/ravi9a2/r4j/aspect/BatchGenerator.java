@@ -0,0 +1,86 @@
+package com.ravi9a2.r4j.aspect;
+
+import com.ravi9a2.nea.annotations.BatchCall;
+import org.springframework.util.StringUtils;
+
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.VariableElement;
+
+import static com.ravi9a2.r4j.aspect.ProcessorUtility.ExecutorType.NON_REACTIVE_ASYNC;
+import static com.ravi9a2.r4j.aspect.ProcessorUtility.ExecutorType.REACTIVE_MONO;
+
+/**
+ * Generates the methods annotated with `@BatchCall`. Each method gets a
+ * BatchLoader that sends the keys of concurrent calls to the bulk endpoint
+ * in one call.
+ *
+ * @author raviprakash
+ */
+public class BatchGenerator {
+
+    private BatchGenerator() {
+    }
+
+    public static StringBuilder generateMethod(ExecutableElement methodElement, AnnotationWrapper callAnnot,
+            BatchCall batchCall, ProcessorUtility.ExecutorType executorType, String callSiteName) {
+        if (!REACTIVE_MONO.equals(executorType) && !NON_REACTIVE_ASYNC.equals(executorType)) {
+            throw new IllegalStateException("@BatchCall method must return a Mono or a CompletableFuture: "
+                    + methodElement.getSimpleName());
+        }
+        if (methodElement.getParameters().size() != 1) {
+            throw new IllegalStateException("@BatchCall method must take the key as its only parameter: "
+                    + methodElement.getSimpleName());
+        }
+        VariableElement key = methodElement.getParameters().get(0);
+        String loaderName = methodElement.getSimpleName().toString() + "BatchLoader";
+        return new StringBuilder().append(ProcessorUtility.buildCallSite(callAnnot, callSiteName))
+                .append(buildBatchLoader(methodElement, callAnnot, batchCall, executorType, callSiteName, loaderName))
+                .append("\t@Override\n")
+                .append(ProcessorUtility.generateMethodSignature(methodElement))
+                .append("{\n")
+                .append("\t\treturn ").append(loaderName)
+                .append(REACTIVE_MONO.equals(executorType) ? ".loadMono(" : ".load(")
+                .append(key.getSimpleName().toString()).append(");\n")
+                .append("\t}\n\n");
+    }
+
+    public static String buildBatchLoader(ExecutableElement methodElement, AnnotationWrapper callAnnot,
+            BatchCall batchCall, ProcessorUtility.ExecutorType executorType, String callSiteName,
+            String loaderName) {
+        String keyType = methodElement.getParameters().get(0).asType().toString();
+        String rawReturnType = methodElement.getReturnType().toString();
+        String itemType = rawReturnType.substring(rawReturnType.indexOf('<') + 1, rawReturnType.lastIndexOf('>'));
+        String bulkType = "java.util.Map<java.lang.String, " + itemType + ">";
+        String param = batchCall.param();
+        String queryParams = StringUtils.hasLength(param)
+                ? "\t\tMap<String, String> genQueryParamMap = new HashMap<>();\n"
+                + "\t\tgenQueryParamMap.put(\"" + param + "\", BatchLoader.join(keys));\n"
+                : "";
+        String restCallDefinition = ProcessorUtility.buildRestCallDefinition(callAnnot, "", queryParams, "",
+                bulkType, StringUtils.hasLength(param) ? "null" : "keys", callSiteName, "deadline");
+        return new StringBuilder()
+                .append("\tprivate final BatchLoader<").append(keyType).append(", ").append(itemType)
+                .append("> ").append(loaderName).append(" = new BatchLoader<>(")
+                .append(batchCall.maxSize()).append(", ").append(batchCall.window()).append("L, (keys, deadline) -> {\n")
+                .append(queryParams)
+                .append(restCallDefinition)
+                .append(bulkCall(callAnnot, executorType, bulkType))
+                .append("\t});\n\n").toString();
+    }
+
+    private static String bulkCall(AnnotationWrapper callAnnot, ProcessorUtility.ExecutorType executorType,
+            String bulkType) {
+        if (REACTIVE_MONO.equals(executorType)) {
+            return "\t\treturn ((ReactiveExecutor<WebClient>)reactiveExecutor)\n"
+                    + "\t\t\t\t.<RestCallDefinition, " + bulkType + ">executeToMono("
+                    + "(ReactiveClient<WebClient>)reactiveClientRegistry.client(\"" + callAnnot.service()
+                    + "\"), cd)\n"
+                    + "\t\t\t\t.toFuture();\n";
+        }
+        return "\t\treturn ((NonReactiveExecutor<HttpClient>)nonReactiveExecutor)\n"
+                + "\t\t\t\t.<RestCallDefinition, " + bulkType + ">executeWithCompletionStage("
+                + "(NonReactiveClient<HttpClient>)nonReactiveClientRegistry.client(\"" + callAnnot.service()
+                + "\"), cd)"
+                + (callAnnot.isSilent() ? "\n\t\t\t\t.exceptionally(e -> null);\n" : ";\n");
+    }
+}
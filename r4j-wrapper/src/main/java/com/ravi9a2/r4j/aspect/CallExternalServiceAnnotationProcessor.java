@@ -24,7 +24,17 @@ import java.util.Set;
  * of the methods annotated with `@Call`, `@PostCall`, `@GetCall`,
  * `@DeleteCall`,
  * `@PatchCall`, and `@PutCall` inside the interface annotated with
- * `@ExternalService`.
+ * `@ExternalService`. Methods also annotated with `@BatchCall` are batched
+ * into calls to the bulk endpoint their call annotation describes.
+ * With `@ExternalService(generateCodecs = true)`, JSON codecs for the payload
+ * and response types of the methods are generated as well.
+ * A method returning {@code Mono<RawResponse<DataBuffer>>} gets the response
+ * passed through undecoded.
+ * A gRPC method annotated with `@ServiceStreamRPCCall` may return a
+ * {@code Flux} of the responses of the stream, read as they are requested.
+ * One annotated with `@ClientStreamRPCCall` returns a {@code Mono} of its
+ * response, and one annotated with `@BidiRPCCall` a {@code Flux} of its
+ * responses, both taking their request messages from a {@code Flux} payload.
  *
  * @author raviprakash
  */
@@ -46,7 +56,8 @@ public class CallExternalServiceAnnotationProcessor extends AbstractProcessor {
                     JavaFileObject file = processingEnv.getFiler()
                             .createSourceFile(classElement.getQualifiedName() + "Impl");
                     Writer writer = file.openWriter();
-                    StringBuilder generatedClass = ClassGenerator.generateClass(classElement);
+                    StringBuilder generatedClass = ClassGenerator.generateClass(classElement,
+                            processingEnv.getElementUtils());
                     writer.append(generatedClass);
                     writer.flush();
                     writer.close();
@@ -1,54 +1,103 @@
 package com.ravi9a2.r4j.aspect;
 
+import com.ravi9a2.nea.annotations.BatchCall;
+import com.ravi9a2.nea.annotations.ExternalService;
+
 import javax.lang.model.element.Element;
 import javax.lang.model.element.ElementKind;
 import javax.lang.model.element.ExecutableElement;
 import javax.lang.model.element.TypeElement;
+import javax.lang.model.util.Elements;
 import java.io.IOException;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Map;
+import java.util.Objects;
 
 public class ClassGenerator {
 
     private ClassGenerator() {
     }
 
-    public static StringBuilder generateClass(TypeElement classElement) throws IOException {
+    public static StringBuilder generateClass(TypeElement classElement, Elements elements) throws IOException {
         HashSet<ProcessorUtility.ExecutorType> executorTypes = new HashSet<>();
-        StringBuilder allMethod = generateAllAnnotatedMethods(classElement, executorTypes);
+        StringBuilder allMethod = generateAllAnnotatedMethods(classElement, executorTypes, elements);
         StringBuilder openClass = ProcessorUtility.openClass(classElement, executorTypes);
         StringBuilder dependencies = ProcessorUtility.injectDependencies(classElement, executorTypes);
         StringBuilder closeClass = ProcessorUtility.closeClass();
         return openClass.append(dependencies).append(allMethod).append(closeClass);
     }
 
-    private static StringBuilder generateAllAnnotatedMethods(TypeElement classElement, HashSet<ProcessorUtility.ExecutorType> executorTypes) {
+    private static StringBuilder generateAllAnnotatedMethods(TypeElement classElement,
+            HashSet<ProcessorUtility.ExecutorType> executorTypes, Elements elements) {
         StringBuilder allMethod = new StringBuilder();
+        Map<String, Integer> callSiteNames = new HashMap<>();
+        ExternalService service = classElement.getAnnotation(ExternalService.class);
+        JsonCodecGenerator codecGenerator = Objects.nonNull(service) && service.generateCodecs()
+                ? new JsonCodecGenerator() : null;
         for (Element element : classElement.getEnclosedElements()) {
             if (element.getKind() == ElementKind.METHOD) {
                 ExecutableElement method = (ExecutableElement) element;
                 AnnotationWrapper wrapper = ProcessorUtility.readAnnotation(method);
                 ProcessorUtility.ExecutorType executorType = ProcessorUtility.getExecutorType(method, wrapper.type());
                 executorTypes.add(executorType);
+                String callSiteName = callSiteName(method, callSiteNames);
+                BatchCall batchCall = method.getAnnotation(BatchCall.class);
+                if (Objects.nonNull(batchCall)) {
+                    allMethod.append(BatchGenerator.generateMethod(method, wrapper, batchCall, executorType, callSiteName));
+                    continue;
+                }
+                if (Objects.nonNull(codecGenerator)) {
+                    String codecName = codecName(callSiteName);
+                    String codec = codecGenerator.generateCodec(method, executorType, codecName);
+                    if (Objects.nonNull(codec)) {
+                        allMethod.append(codec);
+                        wrapper.codec(codecName);
+                    }
+                }
                 switch (executorType) {
                     case REACTIVE_MONO:
                     case REACTIVE_FLUX:
-                        allMethod.append(ReactiveGenerator.generateMethod(method, wrapper, executorType));
+                        allMethod.append(ReactiveGenerator.generateMethod(method, wrapper, executorType, callSiteName));
                         break;
                     case NON_REACTIVE:
-                        allMethod.append(NonReactiveGenerator.generateMethod(method, wrapper, executorType));
+                        allMethod.append(NonReactiveGenerator.generateMethod(method, wrapper, executorType, callSiteName));
                         break;
                     case NON_REACTIVE_ASYNC:
-                        allMethod.append(NonReactiveAsyncGenerator.generateMethod(method, wrapper, executorType));
+                        allMethod.append(NonReactiveAsyncGenerator.generateMethod(method, wrapper, executorType, callSiteName));
                         break;
                     case GRPC_BLOCKING:
                     case GRPC_FUTURE:
-                        allMethod.append(GRPCGenerator.generateMethod(method, wrapper, executorType));
+                    case GRPC_FLUX:
+                    case GRPC_MONO:
+                        allMethod.append(GRPCGenerator.generateMethod(method, wrapper, executorType, callSiteName,
+                                elements));
                         break;
                     default:
                         throw new IllegalStateException("Unexpected executor-type");
                 }
             }
         }
+        if (Objects.nonNull(codecGenerator)) {
+            allMethod.append(codecGenerator.generateBeanMethods());
+        }
         return allMethod;
     }
+
+    /**
+     * Names the CallSite constant of a method, suffixing an index for overloaded methods.
+     */
+    private static String callSiteName(ExecutableElement method, Map<String, Integer> callSiteNames) {
+        String methodName = method.getSimpleName().toString();
+        int index = callSiteNames.merge(methodName, 1, Integer::sum);
+        return index == 1 ? methodName + "CallSite" : methodName + "CallSite" + index;
+    }
+
+    /**
+     * Names the generated codec constant of a method after its CallSite constant.
+     */
+    private static String codecName(String callSiteName) {
+        int index = callSiteName.lastIndexOf("CallSite");
+        return callSiteName.substring(0, index) + "Codec" + callSiteName.substring(index + "CallSite".length());
+    }
 }
@@ -3,15 +3,19 @@ package com.ravi9a2.r4j.aspect;
 import com.ravi9a2.nea.annotations.PathParam;
 import com.ravi9a2.nea.annotations.Payload;
 import com.ravi9a2.nea.annotations.QueryParam;
+import com.ravi9a2.nea.core.data.RPCMethod;
 import org.springframework.util.StringUtils;
 
 import javax.lang.model.element.ExecutableElement;
 import javax.lang.model.element.VariableElement;
+import javax.lang.model.util.Elements;
 import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Objects;
 
+import static com.ravi9a2.r4j.aspect.ProcessorUtility.ExecutorType.GRPC_FLUX;
+import static com.ravi9a2.r4j.aspect.ProcessorUtility.ExecutorType.GRPC_MONO;
 import static com.ravi9a2.r4j.aspect.ProcessorUtility.ExecutorType.REACTIVE_FLUX;
 import static com.ravi9a2.r4j.aspect.ProcessorUtility.ExecutorType.REACTIVE_MONO;
 
@@ -51,12 +55,30 @@ public class GRPCGenerator {
                 .append("\t\tthis.rpcExecutor = rpcExecutor;\n");
     }
 
+    /**
+     * Generates a gRPC method. Its method descriptor is taken from the generated
+     * {@code <className>Grpc} class when the processor can see that class, and is
+     * otherwise resolved by reflection when the method is first called.
+     */
     public static StringBuilder generateMethod(ExecutableElement methodElement, AnnotationWrapper callAnnot,
-            ProcessorUtility.ExecutorType executorType) {
+            ProcessorUtility.ExecutorType executorType, String callSiteName, Elements elements) {
+        boolean withDescriptor = isGrpcClassAvailable(callAnnot, elements);
         StringBuilder methodAnnotations = generateMethodAnnotations();
         StringBuilder methodSignature = ProcessorUtility.generateMethodSignature(methodElement);
-        StringBuilder methodBody = generateMethodBody(methodElement, executorType, callAnnot);
-        return new StringBuilder().append(methodAnnotations).append(methodSignature).append(methodBody);
+        StringBuilder methodBody = generateMethodBody(methodElement, executorType, callAnnot, callSiteName,
+                withDescriptor);
+        return new StringBuilder().append(ProcessorUtility.buildCallSite(callAnnot, callSiteName))
+                .append(withDescriptor ? buildMethodDescriptor(callAnnot, callSiteName) : "")
+                .append(methodAnnotations).append(methodSignature).append(methodBody);
+    }
+
+    /**
+     * Returns whether the generated {@code <className>Grpc} class of the service is
+     * on the classpath of the processor, or cannot be looked up.
+     */
+    static boolean isGrpcClassAvailable(AnnotationWrapper callAnnot, Elements elements) {
+        return Objects.isNull(elements) || Objects.nonNull(elements.getTypeElement(
+                callAnnot.fqPackageName() + "." + callAnnot.className() + "Grpc"));
     }
 
     private static StringBuilder generateMethodAnnotations() {
@@ -64,7 +86,8 @@ public class GRPCGenerator {
     }
 
     private static StringBuilder generateMethodBody(ExecutableElement methodElement,
-            ProcessorUtility.ExecutorType executorType, AnnotationWrapper callAnnot) {
+            ProcessorUtility.ExecutorType executorType, AnnotationWrapper callAnnot,
+            String callSiteName, boolean withDescriptor) {
         List<? extends VariableElement> parameters = methodElement.getParameters();
         String requestObjectName = null;
         List<VariableElement> queryParamVar = new ArrayList<>();
@@ -79,19 +102,20 @@ public class GRPCGenerator {
             }
         }
         return generateMethodBodyString(executorType, parameters, queryParamVar, pathParamVar, callAnnot,
-                requestObjectName, methodElement);
+                requestObjectName, methodElement, callSiteName, withDescriptor);
     }
 
     private static StringBuilder generateMethodBodyString(ProcessorUtility.ExecutorType executorType,
             List<? extends VariableElement> parameters, List<VariableElement> queryParamVar,
             List<VariableElement> pathParamVar, AnnotationWrapper callAnnot, String requestObjectName,
-            ExecutableElement methodElement) {
+            ExecutableElement methodElement, String callSiteName, boolean withDescriptor) {
         String headers = ProcessorUtility.processHeader(parameters);
         String fallbackMethod = callAnnot.fallback();
         String returnType = getReturnType(methodElement, executorType);
         String rawReturnType = String.valueOf(methodElement.getReturnType());
         String callString = makeCall(callAnnot, executorType, rawReturnType);
-        String rpcCallDefinitionString = buildRPCCallDefinition(callAnnot, headers, returnType, requestObjectName);
+        String rpcCallDefinitionString = buildRPCCallDefinition(callAnnot, headers, returnType, requestObjectName,
+                callSiteName, withDescriptor);
         String logLines = addLogLines(headers, requestObjectName);
 
         return new StringBuilder().append("{\n")
@@ -105,8 +129,46 @@ public class GRPCGenerator {
                 .append("\t}\n\n");
     }
 
+    /**
+     * Builds the constant holding the method descriptor of a call, taken from the
+     * generated {@code <className>Grpc} class of the service, so the client does not
+     * resolve it by reflection. Empty when the call does not name its method.
+     */
+    public static String buildMethodDescriptor(AnnotationWrapper callAnnot, String callSiteName) {
+        if (!hasMethodDescriptor(callAnnot, callSiteName)) {
+            return "";
+        }
+        return new StringBuilder()
+                .append("\tprivate static final io.grpc.MethodDescriptor<?, ?> ").append(descriptorName(callSiteName))
+                .append(" = ").append(callAnnot.fqPackageName()).append('.').append(callAnnot.className())
+                .append("Grpc.get").append(callAnnot.methodName()).append("Method();\n\n").toString();
+    }
+
+    private static boolean hasMethodDescriptor(AnnotationWrapper callAnnot, String callSiteName) {
+        return Objects.nonNull(callSiteName) && StringUtils.hasLength(callAnnot.fqPackageName())
+                && StringUtils.hasLength(callAnnot.className()) && StringUtils.hasLength(callAnnot.methodName());
+    }
+
+    /**
+     * Names the method descriptor constant of a method after its CallSite constant.
+     */
+    static String descriptorName(String callSiteName) {
+        int index = callSiteName.lastIndexOf("CallSite");
+        return callSiteName.substring(0, index) + "Descriptor" + callSiteName.substring(index + "CallSite".length());
+    }
+
     public static String buildRPCCallDefinition(AnnotationWrapper callAnnot, String headers, String returnType,
             String requestObjectName) {
+        return buildRPCCallDefinition(callAnnot, headers, returnType, requestObjectName, null);
+    }
+
+    public static String buildRPCCallDefinition(AnnotationWrapper callAnnot, String headers, String returnType,
+            String requestObjectName, String callSiteName) {
+        return buildRPCCallDefinition(callAnnot, headers, returnType, requestObjectName, callSiteName, true);
+    }
+
+    public static String buildRPCCallDefinition(AnnotationWrapper callAnnot, String headers, String returnType,
+            String requestObjectName, String callSiteName, boolean withDescriptor) {
         StringBuilder sb = new StringBuilder();
         return sb.append("\t\tRPCCallDefinition cd = RPCCallDefinition.builder()\n")
                 .append("\t\t\t.isCircuitBreakerEnabled(").append(callAnnot.cbEnabled()).append(")\n")
@@ -119,12 +181,17 @@ public class GRPCGenerator {
                 .append("\t\t\t.cbTag(\"").append(callAnnot.circuitBreaker()).append("\")\n")
                 .append("\t\t\t.bhTag(\"").append(callAnnot.bulkhead()).append("\")\n")
                 .append("\t\t\t.retryTag(\"").append(callAnnot.retry()).append("\")\n")
+                .append(ProcessorUtility.hedgeTag(callAnnot))
                 .append(!headers.isEmpty() ? "\t\t\t.grpcHeaders(genHeadersMap)\n" : "")
                 .append("\t\t\t.type(Type.").append(callAnnot.type().toString()).append(")\n")
                 .append("\t\t\t.rpcMethod(RPCMethod.").append(callAnnot.rpcMethod().toString()).append(")\n")
                 .append("\t\t\t.fqPackageName(\"").append(callAnnot.fqPackageName()).append("\")\n")
                 .append("\t\t\t.className(\"").append(callAnnot.className()).append("\")\n")
                 .append("\t\t\t.methodName(\"").append(callAnnot.methodName()).append("\")\n")
+                .append(withDescriptor && hasMethodDescriptor(callAnnot, callSiteName)
+                        ? "\t\t\t.methodDescriptor(" + descriptorName(callSiteName) + ")\n"
+                        : "")
+                .append(Objects.nonNull(callSiteName) ? "\t\t\t.callSite(" + callSiteName + ")\n" : "")
                 .append("\t\t\t.build();\n").toString();
     }
 
@@ -139,7 +206,8 @@ public class GRPCGenerator {
     private static String getReturnType(ExecutableElement methodElement, ProcessorUtility.ExecutorType executorType) {
         String rawReturnType = String.valueOf(methodElement.getReturnType());
         String returnType;
-        if (REACTIVE_MONO.equals(executorType) || REACTIVE_FLUX.equals(executorType)) {
+        if (REACTIVE_MONO.equals(executorType) || REACTIVE_FLUX.equals(executorType)
+                || GRPC_FLUX.equals(executorType) || GRPC_MONO.equals(executorType)) {
             returnType = rawReturnType.substring(rawReturnType.indexOf('<') + 1, rawReturnType.lastIndexOf('>'));
         } else {
             returnType = rawReturnType;
@@ -149,8 +217,7 @@ public class GRPCGenerator {
 
     private static String makeCall(AnnotationWrapper callAnnot, ProcessorUtility.ExecutorType executorType,
             String rawReturnType) {
-        String executorMethodName = ProcessorUtility.ExecutorType.GRPC_BLOCKING.equals(executorType) ? "execute"
-                : "executeAsync";
+        String executorMethodName = executorMethodName(callAnnot, executorType);
         return new StringBuilder()
                 .append("\t\treturn ((RPCExecutor<io.grpc.ManagedChannel>)rpcExecutor).").append(executorMethodName)
                 .append("((GrpcClientWrapper)grpcClientRegistry.client(\"")
@@ -158,4 +225,30 @@ public class GRPCGenerator {
                 .toString();
 
     }
+
+    /**
+     * Names the executor method a call goes through. A method returning a Flux
+     * must be a server-streaming or bidirectional call, and one returning a Mono
+     * a client-streaming call.
+     */
+    static String executorMethodName(AnnotationWrapper callAnnot, ProcessorUtility.ExecutorType executorType) {
+        if (GRPC_FLUX.equals(executorType)) {
+            if (RPCMethod.SERVER_STREAMING.equals(callAnnot.rpcMethod())) {
+                return "executeServerStreaming";
+            }
+            if (RPCMethod.BIDIRECTIONAL.equals(callAnnot.rpcMethod())) {
+                return "executeBiDi";
+            }
+            throw new IllegalStateException("Only @ServiceStreamRPCCall and @BidiRPCCall methods can return a "
+                    + "Flux, not " + callAnnot.rpcMethod() + " calls");
+        }
+        if (GRPC_MONO.equals(executorType)) {
+            if (RPCMethod.CLIENT_STREAMING.equals(callAnnot.rpcMethod())) {
+                return "executeClientStreaming";
+            }
+            throw new IllegalStateException("Only @ClientStreamRPCCall methods can return a Mono, not "
+                    + callAnnot.rpcMethod() + " calls");
+        }
+        return ProcessorUtility.ExecutorType.GRPC_BLOCKING.equals(executorType) ? "execute" : "executeAsync";
+    }
 }
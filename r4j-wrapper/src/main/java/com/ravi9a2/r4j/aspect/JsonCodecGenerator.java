@@ -0,0 +1,518 @@
+package com.ravi9a2.r4j.aspect;
+
+import com.ravi9a2.nea.annotations.Payload;
+
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+import static com.ravi9a2.r4j.aspect.ProcessorUtility.ExecutorType.NON_REACTIVE;
+import static com.ravi9a2.r4j.aspect.ProcessorUtility.ExecutorType.NON_REACTIVE_ASYNC;
+import static com.ravi9a2.r4j.aspect.ProcessorUtility.ExecutorType.REACTIVE_MONO;
+
+/**
+ * Generates reflection-free JSON codecs for the methods of an interface annotated
+ * with `@ExternalService(generateCodecs = true)`. Each codec reads the response
+ * type and writes the payload type of its method with Jackson's streaming API,
+ * through read and write methods generated for the beans they use.
+ * <p>
+ * Supported are primitives and their wrappers, String, BigDecimal, BigInteger,
+ * enums, List, Collection and Set, Map with String keys, and public beans with a
+ * public no-arg constructor and public getters, setters or fields. A bean carrying
+ * Jackson or Lombok annotations is not supported, as it may not bind the way its
+ * accessors suggest. A type that is not supported is bound by Jackson at runtime.
+ *
+ * @author raviprakash
+ */
+public class JsonCodecGenerator {
+
+    static final String CODEC = "com.ravi9a2.nca.codec.GeneratedJsonCodec";
+    private static final String PARSER = "com.fasterxml.jackson.core.JsonParser";
+    private static final String GENERATOR = "com.fasterxml.jackson.core.JsonGenerator";
+    private static final String TOKEN = "com.fasterxml.jackson.core.JsonToken";
+
+    private final Map<String, String> beanMethods = new LinkedHashMap<>();
+    private final Set<String> unsupported = new HashSet<>();
+
+    /**
+     * Generates the codec constant of the method.
+     *
+     * @return the code of the constant, or null if neither the payload nor the
+     * response type of the method is supported
+     */
+    public String generateCodec(ExecutableElement method, ProcessorUtility.ExecutorType executorType,
+            String codecName) {
+        if (!REACTIVE_MONO.equals(executorType) && !NON_REACTIVE.equals(executorType)
+                && !NON_REACTIVE_ASYNC.equals(executorType)) {
+            return null;
+        }
+        String responseType = "java.lang.Object";
+        String reader = "null, null";
+        TypeMirror response = responseType(method, executorType);
+        if (Objects.nonNull(response)) {
+            String readExpression = attempt(() -> readExpression(response, "p", 0));
+            if (Objects.nonNull(readExpression)) {
+                responseType = boxed(response);
+                reader = ProcessorUtility.getResponseTypeCode(response.toString()) + ",\n\t\t\tp -> "
+                        + readExpression;
+            }
+        }
+        String payloadType = "java.lang.Object";
+        String writer = "null, null";
+        TypeMirror payload = payloadType(method);
+        if (Objects.nonNull(payload)) {
+            String writeStatement = attempt(() -> writeStatement(payload, "g", "v", 0));
+            if (Objects.nonNull(writeStatement)) {
+                payloadType = payload.toString();
+                writer = payloadType + ".class,\n\t\t\t(g, v) -> { " + writeStatement + " }";
+            }
+        }
+        if (reader.startsWith("null") && writer.startsWith("null")) {
+            return null;
+        }
+        return new StringBuilder()
+                .append("\tprivate static final com.ravi9a2.nca.codec.Codec ").append(codecName)
+                .append(" = new ").append(CODEC).append("<").append(responseType).append(", ")
+                .append(payloadType).append(">(\n")
+                .append("\t\t\t").append(reader).append(",\n")
+                .append("\t\t\t").append(writer).append(");\n\n").toString();
+    }
+
+    /**
+     * Returns the read and write methods of the beans of all generated codecs.
+     */
+    public String generateBeanMethods() {
+        StringBuilder sb = new StringBuilder();
+        beanMethods.values().forEach(sb::append);
+        return sb.toString();
+    }
+
+    /**
+     * Derives the property name of an accessor the way Jackson does by default,
+     * lower-casing its leading upper-case characters: getURLValue is urlvalue.
+     */
+    static String propertyName(String accessor, int prefixLength) {
+        String name = accessor.substring(prefixLength);
+        StringBuilder sb = new StringBuilder(name.length());
+        int i = 0;
+        while (i < name.length() && Character.isUpperCase(name.charAt(i))) {
+            sb.append(Character.toLowerCase(name.charAt(i)));
+            i++;
+        }
+        return sb.append(name.substring(i)).toString();
+    }
+
+    private TypeMirror responseType(ExecutableElement method, ProcessorUtility.ExecutorType executorType) {
+        TypeMirror returnType = method.getReturnType();
+        if (NON_REACTIVE.equals(executorType)) {
+            return returnType.getKind() == TypeKind.VOID ? null : returnType;
+        }
+        List<? extends TypeMirror> typeArguments = ((DeclaredType) returnType).getTypeArguments();
+        if (typeArguments.size() != 1 || "java.lang.Void".equals(typeArguments.get(0).toString())) {
+            return null;
+        }
+        return typeArguments.get(0);
+    }
+
+    private TypeMirror payloadType(ExecutableElement method) {
+        for (VariableElement parameter : method.getParameters()) {
+            if (Objects.nonNull(parameter.getAnnotation(Payload.class))) {
+                TypeMirror type = parameter.asType();
+                // the codec matches the payload by its class, which a parameterized type has not
+                boolean plain = type.getKind() == TypeKind.DECLARED
+                        && ((DeclaredType) type).getTypeArguments().isEmpty();
+                return plain ? type : null;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Runs the generation of a codec, discarding the bean methods it added if it
+     * hits a type that is not supported.
+     */
+    private String attempt(Generation generation) {
+        Set<String> before = new HashSet<>(beanMethods.keySet());
+        try {
+            return generation.generate();
+        } catch (UnsupportedTypeException e) {
+            beanMethods.keySet().retainAll(before);
+            unsupported.add(e.type);
+            return null;
+        }
+    }
+
+    private String readExpression(TypeMirror type, String p, int depth) {
+        String scalar = scalar(type);
+        if (Objects.nonNull(scalar)) {
+            return CODEC + ".read" + scalar + "(" + p + ")";
+        }
+        TypeElement element = declaredElement(type);
+        String name = element.getQualifiedName().toString();
+        if (element.getKind() == ElementKind.ENUM) {
+            return CODEC + ".readEnum(" + p + ", " + name + "::valueOf)";
+        }
+        String nested = "p" + (depth + 1);
+        switch (name) {
+            case "java.util.List":
+            case "java.util.Collection":
+                return CODEC + ".readList(" + p + ", " + nested + " -> "
+                        + readExpression(typeArgument(type, 0), nested, depth + 1) + ")";
+            case "java.util.Set":
+                return CODEC + ".readSet(" + p + ", " + nested + " -> "
+                        + readExpression(typeArgument(type, 0), nested, depth + 1) + ")";
+            case "java.util.Map":
+                requireStringKey(type);
+                return CODEC + ".readMap(" + p + ", " + nested + " -> "
+                        + readExpression(typeArgument(type, 1), nested, depth + 1) + ")";
+            default:
+                return "read_" + bean(type, element) + "(" + p + ")";
+        }
+    }
+
+    private String writeStatement(TypeMirror type, String g, String v, int depth) {
+        String scalar = scalar(type);
+        if (Objects.nonNull(scalar)) {
+            String writer = "String".equals(scalar) || "Boolean".equals(scalar) ? scalar : "Number";
+            return CODEC + ".write" + writer + "(" + g + ", " + v + ");";
+        }
+        TypeElement element = declaredElement(type);
+        String name = element.getQualifiedName().toString();
+        if (element.getKind() == ElementKind.ENUM) {
+            return CODEC + ".writeEnum(" + g + ", " + v + ");";
+        }
+        String nestedG = "g" + (depth + 1);
+        String nestedV = "v" + (depth + 1);
+        switch (name) {
+            case "java.util.List":
+            case "java.util.Collection":
+            case "java.util.Set":
+                return CODEC + ".writeCollection(" + g + ", " + v + ", (" + nestedG + ", " + nestedV + ") -> { "
+                        + writeStatement(typeArgument(type, 0), nestedG, nestedV, depth + 1) + " });";
+            case "java.util.Map":
+                requireStringKey(type);
+                return CODEC + ".writeMap(" + g + ", " + v + ", (" + nestedG + ", " + nestedV + ") -> { "
+                        + writeStatement(typeArgument(type, 1), nestedG, nestedV, depth + 1) + " });";
+            default:
+                return "write_" + bean(type, element) + "(" + g + ", " + v + ");";
+        }
+    }
+
+    /**
+     * Returns the suffix of the codec's read method of a scalar type, or null if
+     * the type is not a scalar.
+     */
+    private static String scalar(TypeMirror type) {
+        switch (type.getKind()) {
+            case BOOLEAN:
+                return "Boolean";
+            case INT:
+                return "Integer";
+            case LONG:
+                return "Long";
+            case SHORT:
+                return "Short";
+            case BYTE:
+                return "Byte";
+            case DOUBLE:
+                return "Double";
+            case FLOAT:
+                return "Float";
+            case DECLARED:
+                break;
+            default:
+                throw new UnsupportedTypeException(type.toString());
+        }
+        String name = declaredElement(type).getQualifiedName().toString();
+        switch (name) {
+            case "java.lang.String":
+            case "java.lang.Boolean":
+            case "java.lang.Integer":
+            case "java.lang.Long":
+            case "java.lang.Short":
+            case "java.lang.Byte":
+            case "java.lang.Double":
+            case "java.lang.Float":
+            case "java.math.BigDecimal":
+            case "java.math.BigInteger":
+                return name.substring(name.lastIndexOf('.') + 1);
+            default:
+                return null;
+        }
+    }
+
+    /**
+     * Makes sure the read and write methods of the bean are generated, and
+     * returns the suffix of their names.
+     */
+    private String bean(TypeMirror type, TypeElement element) {
+        String name = element.getQualifiedName().toString();
+        String id = name.replace('.', '_');
+        if (beanMethods.containsKey(name)) {
+            return id;
+        }
+        if (unsupported.contains(name) || !isBean(type, element)) {
+            throw new UnsupportedTypeException(name);
+        }
+        // registered before its properties are generated, so cyclic references resolve
+        beanMethods.put(name, "");
+        Map<String, Property> properties = properties(element);
+        if (properties.isEmpty()) {
+            throw new UnsupportedTypeException(name);
+        }
+        beanMethods.put(name, readMethod(name, id, properties) + writeMethod(name, id, properties));
+        return id;
+    }
+
+    private static boolean isBean(TypeMirror type, TypeElement element) {
+        if (element.getKind() != ElementKind.CLASS || !element.getModifiers().contains(Modifier.PUBLIC)
+                || element.getModifiers().contains(Modifier.ABSTRACT)
+                || !((DeclaredType) type).getTypeArguments().isEmpty()
+                || !element.getTypeParameters().isEmpty()) {
+            return false;
+        }
+        if (element.getEnclosingElement().getKind() != ElementKind.PACKAGE
+                && !element.getModifiers().contains(Modifier.STATIC)) {
+            return false;
+        }
+        List<ExecutableElement> constructors = ElementFilter.constructorsIn(element.getEnclosedElements());
+        return constructors.stream().anyMatch(c -> c.getParameters().isEmpty()
+                && c.getModifiers().contains(Modifier.PUBLIC));
+    }
+
+    /**
+     * Collects the properties of the bean and its superclasses, failing on
+     * anything that would make Jackson bind it differently.
+     */
+    private static Map<String, Property> properties(TypeElement bean) {
+        Map<String, Property> properties = new LinkedHashMap<>();
+        List<TypeElement> hierarchy = new ArrayList<>();
+        TypeElement current = bean;
+        while (Objects.nonNull(current) && !"java.lang.Object".equals(current.getQualifiedName().toString())) {
+            hierarchy.add(0, current);
+            TypeMirror superclass = current.getSuperclass();
+            if (superclass.getKind() != TypeKind.DECLARED) {
+                break;
+            }
+            if (!((DeclaredType) superclass).getTypeArguments().isEmpty()) {
+                throw new UnsupportedTypeException(bean.getQualifiedName().toString());
+            }
+            current = (TypeElement) ((DeclaredType) superclass).asElement();
+        }
+        for (TypeElement type : hierarchy) {
+            requireNoBindingAnnotations(bean, type);
+            for (Element member : type.getEnclosedElements()) {
+                requireNoBindingAnnotations(bean, member);
+                if (member.getModifiers().contains(Modifier.STATIC)
+                        || !member.getModifiers().contains(Modifier.PUBLIC)) {
+                    continue;
+                }
+                if (member.getKind() == ElementKind.FIELD) {
+                    addField(properties, (VariableElement) member);
+                } else if (member.getKind() == ElementKind.METHOD) {
+                    addAccessor(properties, (ExecutableElement) member);
+                }
+            }
+        }
+        for (Property property : properties.values()) {
+            if (Objects.isNull(property.setter) && !property.fieldWritable && isContainer(property.type)) {
+                // Jackson adds to a collection returned by a getter without a setter
+                throw new UnsupportedTypeException(bean.getQualifiedName().toString());
+            }
+        }
+        properties.values().removeIf(p -> Objects.isNull(p.getter) && !p.fieldWritable && Objects.isNull(p.setter));
+        return properties;
+    }
+
+    private static void addField(Map<String, Property> properties, VariableElement field) {
+        if (field.getModifiers().contains(Modifier.TRANSIENT)) {
+            return;
+        }
+        String name = field.getSimpleName().toString();
+        Property property = properties.computeIfAbsent(name, k -> new Property(field.asType()));
+        property.field = name;
+        property.fieldWritable = !field.getModifiers().contains(Modifier.FINAL);
+    }
+
+    private static void addAccessor(Map<String, Property> properties, ExecutableElement method) {
+        String name = method.getSimpleName().toString();
+        int params = method.getParameters().size();
+        TypeMirror returnType = method.getReturnType();
+        if (params == 0 && returnType.getKind() != TypeKind.VOID && isAccessor(name, "get")
+                && !"getClass".equals(name)) {
+            properties.computeIfAbsent(propertyName(name, 3), k -> new Property(returnType)).getter = name;
+        } else if (params == 0 && returnType.getKind() == TypeKind.BOOLEAN && isAccessor(name, "is")) {
+            properties.computeIfAbsent(propertyName(name, 2), k -> new Property(returnType)).getter = name;
+        } else if (params == 1 && isAccessor(name, "set")) {
+            TypeMirror type = method.getParameters().get(0).asType();
+            Property property = properties.computeIfAbsent(propertyName(name, 3), k -> new Property(type));
+            if (Objects.nonNull(property.setter) && !property.type.toString().equals(type.toString())) {
+                // overloaded setters are resolved by Jackson in ways not worth mirroring here
+                throw new UnsupportedTypeException(name);
+            }
+            property.setter = name;
+            property.type = type;
+        }
+    }
+
+    private static boolean isAccessor(String name, String prefix) {
+        return name.length() > prefix.length() && name.startsWith(prefix)
+                && Character.isUpperCase(name.charAt(prefix.length()));
+    }
+
+    private static boolean isContainer(TypeMirror type) {
+        if (type.getKind() != TypeKind.DECLARED) {
+            return false;
+        }
+        String name = declaredElement(type).getQualifiedName().toString();
+        return name.startsWith("java.util.") && (name.endsWith("List") || name.endsWith("Set")
+                || name.endsWith("Collection") || name.endsWith("Map"));
+    }
+
+    private static void requireNoBindingAnnotations(TypeElement bean, Element element) {
+        for (AnnotationMirror annotation : element.getAnnotationMirrors()) {
+            String annotationType = annotation.getAnnotationType().toString();
+            if (annotationType.startsWith("com.fasterxml.jackson.") || annotationType.startsWith("lombok.")) {
+                throw new UnsupportedTypeException(bean.getQualifiedName().toString());
+            }
+        }
+    }
+
+    private String readMethod(String name, String id, Map<String, Property> properties) {
+        StringBuilder sb = new StringBuilder()
+                .append("\tprivate static ").append(name).append(" read_").append(id).append("(")
+                .append(PARSER).append(" p) throws java.io.IOException {\n")
+                .append("\t\tif (p.currentToken() == ").append(TOKEN).append(".VALUE_NULL) {\n")
+                .append("\t\t\treturn null;\n")
+                .append("\t\t}\n")
+                .append("\t\t").append(CODEC).append(".expect(p, ").append(TOKEN).append(".START_OBJECT);\n")
+                .append("\t\t").append(name).append(" v = new ").append(name).append("();\n")
+                .append("\t\twhile (p.nextToken() == ").append(TOKEN).append(".FIELD_NAME) {\n")
+                .append("\t\t\tString field = p.getCurrentName();\n")
+                .append("\t\t\tp.nextToken();\n")
+                .append("\t\t\tswitch (field) {\n");
+        for (Map.Entry<String, Property> entry : properties.entrySet()) {
+            Property property = entry.getValue();
+            if (Objects.isNull(property.setter) && !property.fieldWritable) {
+                continue;
+            }
+            String value = readExpression(property.type, "p", 0);
+            sb.append("\t\t\t\tcase \"").append(entry.getKey()).append("\": {\n");
+            if (property.type.getKind().isPrimitive()) {
+                // a null leaves the primitive at its default, as Jackson does
+                sb.append("\t\t\t\t\t").append(boxed(property.type)).append(" x = ").append(value).append(";\n")
+                        .append("\t\t\t\t\tif (x != null) {\n")
+                        .append("\t\t\t\t\t\t").append(assign(property, "x")).append("\n")
+                        .append("\t\t\t\t\t}\n");
+            } else {
+                sb.append("\t\t\t\t\t").append(assign(property, value)).append("\n");
+            }
+            sb.append("\t\t\t\t\tbreak;\n")
+                    .append("\t\t\t\t}\n");
+        }
+        return sb.append("\t\t\t\tdefault:\n")
+                .append("\t\t\t\t\tp.skipChildren();\n")
+                .append("\t\t\t}\n")
+                .append("\t\t}\n")
+                .append("\t\treturn v;\n")
+                .append("\t}\n\n").toString();
+    }
+
+    private String writeMethod(String name, String id, Map<String, Property> properties) {
+        StringBuilder sb = new StringBuilder()
+                .append("\tprivate static void write_").append(id).append("(").append(GENERATOR).append(" g, ")
+                .append(name).append(" v) throws java.io.IOException {\n")
+                .append("\t\tif (v == null) {\n")
+                .append("\t\t\tg.writeNull();\n")
+                .append("\t\t\treturn;\n")
+                .append("\t\t}\n")
+                .append("\t\tg.writeStartObject();\n");
+        for (Map.Entry<String, Property> entry : properties.entrySet()) {
+            Property property = entry.getValue();
+            String value = Objects.nonNull(property.getter) ? "v." + property.getter + "()"
+                    : Objects.nonNull(property.field) ? "v." + property.field : null;
+            if (Objects.isNull(value)) {
+                continue;
+            }
+            sb.append("\t\tg.writeFieldName(\"").append(entry.getKey()).append("\");\n")
+                    .append("\t\t").append(writeStatement(property.type, "g", value, 0)).append("\n");
+        }
+        return sb.append("\t\tg.writeEndObject();\n")
+                .append("\t}\n\n").toString();
+    }
+
+    private static String assign(Property property, String value) {
+        return Objects.nonNull(property.setter) ? "v." + property.setter + "(" + value + ");"
+                : "v." + property.field + " = " + value + ";";
+    }
+
+    private static TypeElement declaredElement(TypeMirror type) {
+        if (type.getKind() != TypeKind.DECLARED) {
+            throw new UnsupportedTypeException(type.toString());
+        }
+        return (TypeElement) ((DeclaredType) type).asElement();
+    }
+
+    private static TypeMirror typeArgument(TypeMirror type, int index) {
+        List<? extends TypeMirror> typeArguments = ((DeclaredType) type).getTypeArguments();
+        if (typeArguments.size() <= index) {
+            throw new UnsupportedTypeException(type.toString());
+        }
+        return typeArguments.get(index);
+    }
+
+    private static void requireStringKey(TypeMirror type) {
+        if (!"java.lang.String".equals(typeArgument(type, 0).toString())) {
+            throw new UnsupportedTypeException(type.toString());
+        }
+    }
+
+    private static String boxed(TypeMirror type) {
+        if (!type.getKind().isPrimitive()) {
+            return type.toString();
+        }
+        String scalar = scalar(type);
+        return "java.lang." + scalar;
+    }
+
+    @FunctionalInterface
+    private interface Generation {
+        String generate();
+    }
+
+    private static final class Property {
+        private TypeMirror type;
+        private String getter;
+        private String setter;
+        private String field;
+        private boolean fieldWritable;
+
+        private Property(TypeMirror type) {
+            this.type = type;
+        }
+    }
+
+    private static final class UnsupportedTypeException extends RuntimeException {
+        private final String type;
+
+        private UnsupportedTypeException(String type) {
+            super(type, null, false, false);
+            this.type = type;
+        }
+    }
+}
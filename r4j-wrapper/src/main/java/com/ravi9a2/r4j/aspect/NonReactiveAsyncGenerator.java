@@ -52,11 +52,12 @@ public class NonReactiveAsyncGenerator {
     }
 
     public static StringBuilder generateMethod(ExecutableElement methodElement, AnnotationWrapper callAnnot,
-            ProcessorUtility.ExecutorType executorType) {
+            ProcessorUtility.ExecutorType executorType, String callSiteName) {
         StringBuilder methodAnnotations = generateMethodAnnotations();
         StringBuilder methodSignature = ProcessorUtility.generateMethodSignature(methodElement);
-        StringBuilder methodBody = generateMethodBody(methodElement, executorType, callAnnot);
-        return new StringBuilder().append(methodAnnotations).append(methodSignature).append(methodBody);
+        StringBuilder methodBody = generateMethodBody(methodElement, executorType, callAnnot, callSiteName);
+        return new StringBuilder().append(ProcessorUtility.buildCallSite(callAnnot, callSiteName))
+                .append(methodAnnotations).append(methodSignature).append(methodBody);
     }
 
     private static StringBuilder generateMethodAnnotations() {
@@ -64,7 +65,8 @@ public class NonReactiveAsyncGenerator {
     }
 
     private static StringBuilder generateMethodBody(ExecutableElement methodElement,
-            ProcessorUtility.ExecutorType executorType, AnnotationWrapper callAnnot) {
+            ProcessorUtility.ExecutorType executorType, AnnotationWrapper callAnnot,
+            String callSiteName) {
         List<? extends VariableElement> parameters = methodElement.getParameters();
         String requestObjectName = null;
         List<VariableElement> queryParamVar = new ArrayList<>();
@@ -79,12 +81,12 @@ public class NonReactiveAsyncGenerator {
             }
         }
         return generateMethodBodyString(parameters, queryParamVar, pathParamVar, callAnnot, requestObjectName,
-                methodElement);
+                methodElement, callSiteName);
     }
 
     private static StringBuilder generateMethodBodyString(List<? extends VariableElement> parameters,
             List<VariableElement> queryParamVar, List<VariableElement> pathParamVar, AnnotationWrapper callAnnot,
-            String requestObjectName, ExecutableElement methodElement) {
+            String requestObjectName, ExecutableElement methodElement, String callSiteName) {
         String headers = ProcessorUtility.processHeader(parameters);
         String queryParams = ProcessorUtility.processQueryParam(queryParamVar);
         String pathParams = ProcessorUtility.processPathParam(pathParamVar);
@@ -93,7 +95,7 @@ public class NonReactiveAsyncGenerator {
         String nonReactiveCallString = makeCall(callAnnot, fallbackMethod, requestObjectName, returnType,
                 methodElement.getSimpleName().toString());
         String restCallDefinitionString = ProcessorUtility.buildRestCallDefinition(callAnnot, headers, queryParams,
-                pathParams, returnType, requestObjectName);
+                pathParams, returnType, requestObjectName, callSiteName);
         String logLines = ProcessorUtility.addLogLines(headers, queryParams, pathParams, requestObjectName);
 
         return new StringBuilder().append("{\n")
@@ -48,11 +48,12 @@ public class NonReactiveGenerator {
 
     }
 
-    public static StringBuilder generateMethod(ExecutableElement methodElement, AnnotationWrapper callAnnot, ProcessorUtility.ExecutorType executorType) {
+    public static StringBuilder generateMethod(ExecutableElement methodElement, AnnotationWrapper callAnnot, ProcessorUtility.ExecutorType executorType, String callSiteName) {
         StringBuilder methodAnnotations = generateMethodAnnotations(methodElement, callAnnot);
         StringBuilder methodSignature = ProcessorUtility.generateMethodSignature(methodElement);
-        StringBuilder methodBody = generateMethodBody(methodElement, callAnnot);
-        return new StringBuilder().append(methodAnnotations).append(methodSignature).append(methodBody);
+        StringBuilder methodBody = generateMethodBody(methodElement, callAnnot, callSiteName);
+        return new StringBuilder().append(ProcessorUtility.buildCallSite(callAnnot, callSiteName))
+                .append(methodAnnotations).append(methodSignature).append(methodBody);
     }
 
     private static StringBuilder generateMethodAnnotations(ExecutableElement methodElement, AnnotationWrapper callAnnot) {
@@ -62,7 +63,7 @@ public class NonReactiveGenerator {
         return methodAnnotations;
     }
 
-    private static StringBuilder generateMethodBody(ExecutableElement methodElement, AnnotationWrapper callAnnot) {
+    private static StringBuilder generateMethodBody(ExecutableElement methodElement, AnnotationWrapper callAnnot, String callSiteName) {
         List<? extends VariableElement> parameters = methodElement.getParameters();
         String requestObjectName = null;
         List<VariableElement> queryParamVar = new ArrayList<>();
@@ -76,17 +77,17 @@ public class NonReactiveGenerator {
                 pathParamVar.add(parameter);
             }
         }
-        return generateMethodBodyString(parameters, queryParamVar, pathParamVar, callAnnot, requestObjectName, methodElement);
+        return generateMethodBodyString(parameters, queryParamVar, pathParamVar, callAnnot, requestObjectName, methodElement, callSiteName);
     }
 
-    private static StringBuilder generateMethodBodyString(List<? extends VariableElement> parameters, List<VariableElement> queryParamVar, List<VariableElement> pathParamVar, AnnotationWrapper callAnnot, String requestObjectName, ExecutableElement methodElement) {
+    private static StringBuilder generateMethodBodyString(List<? extends VariableElement> parameters, List<VariableElement> queryParamVar, List<VariableElement> pathParamVar, AnnotationWrapper callAnnot, String requestObjectName, ExecutableElement methodElement, String callSiteName) {
         String headers = ProcessorUtility.processHeader(parameters);
         String queryParams = ProcessorUtility.processQueryParam(queryParamVar);
         String pathParams = ProcessorUtility.processPathParam(pathParamVar);
         String fallbackMethod = callAnnot.fallback();
         String returnType = getReturnType(methodElement);
         String nonReactiveCallString = makeCall(callAnnot);
-        String restCallDefinitionString = ProcessorUtility.buildRestCallDefinition(callAnnot, headers, queryParams, pathParams, returnType, requestObjectName);
+        String restCallDefinitionString = ProcessorUtility.buildRestCallDefinition(callAnnot, headers, queryParams, pathParams, returnType, requestObjectName, callSiteName);
         String logLines = ProcessorUtility.addLogLines(headers, queryParams, pathParams, requestObjectName);
 
         return new StringBuilder().append("{\n")
@@ -15,10 +15,12 @@ import com.ravi9a2.nea.annotations.QueryParam;
 import com.ravi9a2.nea.annotations.ServiceStreamRPCCall;
 import com.ravi9a2.nea.annotations.UnaryRPCCall;
 import com.ravi9a2.nea.core.data.Type;
+import org.springframework.util.StringUtils;
 
 import javax.lang.model.element.ExecutableElement;
 import javax.lang.model.element.TypeElement;
 import javax.lang.model.element.VariableElement;
+import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Objects;
@@ -153,6 +155,7 @@ public class ProcessorUtility {
                 .append("import org.springframework.stereotype.Service;\n\n")
                 .append("import java.util.*;\n\n")
                 .append("import java.util.concurrent.ExecutionException;\n")
+                .append("import com.ravi9a2.nca.data.RequestTemplate;\n")
                 .append(ReactiveGenerator.imports(executorTypes))
                 .append(NonReactiveGenerator.imports(executorTypes))
                 .append(NonReactiveAsyncGenerator.imports(executorTypes))
@@ -264,8 +267,50 @@ public class ProcessorUtility {
         return stringBuilder;
     }
 
+    public static String buildCallSite(AnnotationWrapper callAnnot, String callSiteName) {
+        return new StringBuilder()
+                .append("\tprivate static final CallSite ").append(callSiteName).append(" = CallSite.builder()\n")
+                .append("\t\t\t.serviceTag(\"").append(callAnnot.service()).append("\")\n")
+                .append("\t\t\t.cbTag(\"").append(callAnnot.circuitBreaker()).append("\")\n")
+                .append("\t\t\t.bhTag(\"").append(callAnnot.bulkhead()).append("\")\n")
+                .append("\t\t\t.retryTag(\"").append(callAnnot.retry()).append("\")\n")
+                .append(hedgeTag(callAnnot))
+                .append(Type.HTTP.equals(callAnnot.type())
+                        ? "\t\t\t.httpMethod(HTTPMethod." + callAnnot.method().toString() + ")\n"
+                        : "")
+                .append("\t\t\t.isCircuitBreakerEnabled(").append(callAnnot.cbEnabled()).append(")\n")
+                .append("\t\t\t.isBulkheadEnabled(").append(callAnnot.bhEnabled()).append(")\n")
+                .append("\t\t\t.isRetryable(").append(callAnnot.isRetryable()).append(")\n")
+                .append("\t\t\t.build();\n\n")
+                .append(Type.HTTP.equals(callAnnot.type())
+                        ? "\tprivate static final RequestTemplate " + templateName(callSiteName)
+                        + " = RequestTemplate.of(\"" + callAnnot.method().toString() + "\", \"" + callAnnot.path()
+                        + "\");\n\n"
+                        : "").toString();
+    }
+
+    /**
+     * Names the RequestTemplate constant of a method after its CallSite constant.
+     */
+    public static String templateName(String callSiteName) {
+        int index = callSiteName.lastIndexOf("CallSite");
+        return callSiteName.substring(0, index) + "Template" + callSiteName.substring(index + "CallSite".length());
+    }
+
     public static String buildRestCallDefinition(AnnotationWrapper callAnnot, String headers, String queryParams,
             String pathParams, String returnType, String requestObjectName) {
+        return buildRestCallDefinition(callAnnot, headers, queryParams, pathParams, returnType, requestObjectName,
+                null);
+    }
+
+    public static String buildRestCallDefinition(AnnotationWrapper callAnnot, String headers, String queryParams,
+            String pathParams, String returnType, String requestObjectName, String callSiteName) {
+        return buildRestCallDefinition(callAnnot, headers, queryParams, pathParams, returnType, requestObjectName,
+                callSiteName, null);
+    }
+
+    public static String buildRestCallDefinition(AnnotationWrapper callAnnot, String headers, String queryParams,
+            String pathParams, String returnType, String requestObjectName, String callSiteName, String deadlineName) {
         String responseTypeCode = getResponseTypeCode(returnType);
         return new StringBuilder()
                 .append("\t\tRestCallDefinition cd = RestCallDefinition.builder()\n")
@@ -280,42 +325,90 @@ public class ProcessorUtility {
                 .append("\t\t\t.cbTag(\"").append(callAnnot.circuitBreaker()).append("\")\n")
                 .append("\t\t\t.bhTag(\"").append(callAnnot.bulkhead()).append("\")\n")
                 .append("\t\t\t.retryTag(\"").append(callAnnot.retry()).append("\")\n")
+                .append(hedgeTag(callAnnot))
+                .append(callAnnot.coalesce() ? "\t\t\t.coalesce(true)\n" : "")
+                .append(callAnnot.staleIfError() > 0 ? "\t\t\t.staleIfError(" + callAnnot.staleIfError() + "L)\n" : "")
+                .append(Objects.nonNull(callAnnot.codec()) ? "\t\t\t.codec(" + callAnnot.codec() + ")\n" : "")
                 .append(!headers.isEmpty() ? "\t\t\t.httpHeaders(genHeadersMap)\n" : "")
                 .append(!pathParams.isEmpty() ? "\t\t\t.pathParams(genPathParamMap)\n" : "")
                 .append(!queryParams.isEmpty() ? "\t\t\t.queryParams(genQueryParamMap)\n" : "")
                 .append("\t\t\t.type(Type.").append(callAnnot.type().toString()).append(")\n")
                 .append("\t\t\t.httpMethod(HTTPMethod.").append(callAnnot.method().toString()).append(")\n")
+                .append(Objects.nonNull(callSiteName) ? "\t\t\t.callSite(" + callSiteName + ")\n" : "")
+                .append(Objects.nonNull(callSiteName) ? "\t\t\t.template(" + templateName(callSiteName) + ")\n" : "")
+                .append(Objects.nonNull(deadlineName) ? "\t\t\t.deadline(" + deadlineName + ")\n" : "")
                 .append("\t\t\t.build();\n").toString();
     }
 
-    private static String getResponseTypeCode(String returnType) {
-        // Handle parameterized types like List<User>
-        if (returnType.contains("<") && returnType.contains(">")) {
-            // Extract the raw type and type arguments
-            int openBracket = returnType.indexOf('<');
-            int closeBracket = returnType.lastIndexOf('>');
-            String rawType = returnType.substring(0, openBracket).trim();
-            String typeArg = returnType.substring(openBracket + 1, closeBracket).trim();
-
-            // Create a ParameterizedType using TypeReference pattern
-            return "new java.lang.reflect.ParameterizedType() {\n" +
-                    "\t\t\t\t@Override\n" +
-                    "\t\t\t\tpublic java.lang.reflect.Type[] getActualTypeArguments() {\n" +
-                    "\t\t\t\t\treturn new java.lang.reflect.Type[]{" + typeArg + ".class};\n" +
-                    "\t\t\t\t}\n" +
-                    "\t\t\t\t@Override\n" +
-                    "\t\t\t\tpublic java.lang.reflect.Type getRawType() {\n" +
-                    "\t\t\t\t\treturn " + rawType + ".class;\n" +
-                    "\t\t\t\t}\n" +
-                    "\t\t\t\t@Override\n" +
-                    "\t\t\t\tpublic java.lang.reflect.Type getOwnerType() {\n" +
-                    "\t\t\t\t\treturn null;\n" +
-                    "\t\t\t\t}\n" +
-                    "\t\t\t}";
-        } else {
+    public static String hedgeTag(AnnotationWrapper callAnnot) {
+        String hedge = callAnnot.hedge();
+        return StringUtils.hasLength(hedge) ? "\t\t\t.hedgeTag(\"" + hedge + "\")\n" : "";
+    }
+
+    /**
+     * Generates the code of the java.lang.reflect.Type of the given type, recursing
+     * into its type arguments, so that nested parameterized types like
+     * {@code Map<String, List<User>>} are rendered as nested ParameterizedTypes.
+     */
+    static String getResponseTypeCode(String returnType) {
+        String type = returnType.trim();
+        int openBracket = type.indexOf('<');
+        if (openBracket < 0) {
+            if (type.startsWith("?")) {
+                throw new IllegalStateException("Wildcard type arguments are not supported in response types: "
+                        + returnType);
+            }
             // Simple type, use .class
-            return returnType + ".class";
+            return type + ".class";
+        }
+        if (!type.endsWith(">")) {
+            throw new IllegalStateException("Generic array types are not supported as response types: "
+                    + returnType);
+        }
+        String rawType = type.substring(0, openBracket).trim();
+        StringBuilder typeArgClasses = new StringBuilder();
+        for (String typeArg : typeArguments(type.substring(openBracket + 1, type.length() - 1))) {
+            typeArgClasses.append(typeArgClasses.length() > 0 ? ", " : "").append(getResponseTypeCode(typeArg));
+        }
+
+        // Create a ParameterizedType using TypeReference pattern
+        return "new java.lang.reflect.ParameterizedType() {\n" +
+                "\t\t\t\t@Override\n" +
+                "\t\t\t\tpublic java.lang.reflect.Type[] getActualTypeArguments() {\n" +
+                "\t\t\t\t\treturn new java.lang.reflect.Type[]{" + typeArgClasses + "};\n" +
+                "\t\t\t\t}\n" +
+                "\t\t\t\t@Override\n" +
+                "\t\t\t\tpublic java.lang.reflect.Type getRawType() {\n" +
+                "\t\t\t\t\treturn " + rawType + ".class;\n" +
+                "\t\t\t\t}\n" +
+                "\t\t\t\t@Override\n" +
+                "\t\t\t\tpublic java.lang.reflect.Type getOwnerType() {\n" +
+                "\t\t\t\t\treturn null;\n" +
+                "\t\t\t\t}\n" +
+                "\t\t\t}";
+    }
+
+    /**
+     * Splits the type arguments of a parameterized type at its top-level commas,
+     * leaving the arguments of nested parameterized types whole.
+     */
+    static List<String> typeArguments(String typeArgs) {
+        List<String> args = new ArrayList<>();
+        int depth = 0;
+        int start = 0;
+        for (int i = 0; i < typeArgs.length(); i++) {
+            char c = typeArgs.charAt(i);
+            if (c == '<') {
+                depth++;
+            } else if (c == '>') {
+                depth--;
+            } else if (c == ',' && depth == 0) {
+                args.add(typeArgs.substring(start, i).trim());
+                start = i + 1;
+            }
         }
+        args.add(typeArgs.substring(start).trim());
+        return args;
     }
 
     public static String addLogLines(String headers, String queryParams, String pathParams, String requestObjectName) {
@@ -346,6 +439,10 @@ public class ProcessorUtility {
             executorMethodName = ExecutorType.NON_REACTIVE;
         } else if (Type.RPC.equals(type) && wrapperReturn.equals(LISTENABLE_FUTURE)) {
             executorMethodName = ExecutorType.GRPC_FUTURE;
+        } else if (Type.RPC.equals(type) && wrapperReturn.equals(FLUX)) {
+            executorMethodName = ExecutorType.GRPC_FLUX;
+        } else if (Type.RPC.equals(type) && wrapperReturn.equals(MONO)) {
+            executorMethodName = ExecutorType.GRPC_MONO;
         } else if (Type.RPC.equals(type)) {
             executorMethodName = ExecutorType.GRPC_BLOCKING;
         } else {
@@ -389,7 +486,8 @@ public class ProcessorUtility {
     }
 
     public static boolean isRPC(HashSet<ExecutorType> executorTypes) {
-        return executorTypes.contains(ExecutorType.GRPC_FUTURE) || executorTypes.contains(ExecutorType.GRPC_BLOCKING);
+        return executorTypes.contains(ExecutorType.GRPC_FUTURE) || executorTypes.contains(ExecutorType.GRPC_BLOCKING)
+                || executorTypes.contains(ExecutorType.GRPC_FLUX) || executorTypes.contains(ExecutorType.GRPC_MONO);
     }
 
     public enum ExecutorType {
@@ -398,7 +496,9 @@ public class ProcessorUtility {
         NON_REACTIVE,
         NON_REACTIVE_ASYNC,
         GRPC_BLOCKING,
-        GRPC_FUTURE;
+        GRPC_FUTURE,
+        GRPC_FLUX,
+        GRPC_MONO;
     }
 
 }
@@ -46,18 +46,19 @@ public class ReactiveGenerator {
                 .append("\t\tthis.reactiveExecutor = reactiveExecutor;\n");
     }
 
-    public static StringBuilder generateMethod(ExecutableElement methodElement, AnnotationWrapper callAnnot, ProcessorUtility.ExecutorType executorType) {
+    public static StringBuilder generateMethod(ExecutableElement methodElement, AnnotationWrapper callAnnot, ProcessorUtility.ExecutorType executorType, String callSiteName) {
         StringBuilder methodAnnotations = generateMethodAnnotations();
         StringBuilder methodSignature = ProcessorUtility.generateMethodSignature(methodElement);
-        StringBuilder methodBody = generateMethodBody(methodElement, executorType, callAnnot);
-        return new StringBuilder().append(methodAnnotations).append(methodSignature).append(methodBody);
+        StringBuilder methodBody = generateMethodBody(methodElement, executorType, callAnnot, callSiteName);
+        return new StringBuilder().append(ProcessorUtility.buildCallSite(callAnnot, callSiteName))
+                .append(methodAnnotations).append(methodSignature).append(methodBody);
     }
 
     private static StringBuilder generateMethodAnnotations() {
         return new StringBuilder().append("\t@Override\n");
     }
 
-    private static StringBuilder generateMethodBody(ExecutableElement methodElement, ProcessorUtility.ExecutorType executorType, AnnotationWrapper callAnnot) {
+    private static StringBuilder generateMethodBody(ExecutableElement methodElement, ProcessorUtility.ExecutorType executorType, AnnotationWrapper callAnnot, String callSiteName) {
         List<? extends VariableElement> parameters = methodElement.getParameters();
         String requestObjectName = null;
         List<VariableElement> queryParamVar = new ArrayList<>();
@@ -71,10 +72,10 @@ public class ReactiveGenerator {
                 pathParamVar.add(parameter);
             }
         }
-        return generateMethodBodyString(executorType, parameters, queryParamVar, pathParamVar, callAnnot, requestObjectName, methodElement);
+        return generateMethodBodyString(executorType, parameters, queryParamVar, pathParamVar, callAnnot, requestObjectName, methodElement, callSiteName);
     }
 
-    private static StringBuilder generateMethodBodyString(ProcessorUtility.ExecutorType executorType, List<? extends VariableElement> parameters, List<VariableElement> queryParamVar, List<VariableElement> pathParamVar, AnnotationWrapper callAnnot, String requestObjectName, ExecutableElement methodElement) {
+    private static StringBuilder generateMethodBodyString(ProcessorUtility.ExecutorType executorType, List<? extends VariableElement> parameters, List<VariableElement> queryParamVar, List<VariableElement> pathParamVar, AnnotationWrapper callAnnot, String requestObjectName, ExecutableElement methodElement, String callSiteName) {
         String headers = ProcessorUtility.processHeader(parameters);
         String queryParams = ProcessorUtility.processQueryParam(queryParamVar);
         String pathParams = ProcessorUtility.processPathParam(pathParamVar);
@@ -82,7 +83,7 @@ public class ReactiveGenerator {
         String returnType = getReturnType(methodElement, executorType);
         String rawReturnType = String.valueOf(methodElement.getReturnType());
         String reactiveCallString = makeCall(callAnnot, executorType, rawReturnType);
-        String restCallDefinitionString = ProcessorUtility.buildRestCallDefinition(callAnnot, headers, queryParams, pathParams, returnType, requestObjectName);
+        String restCallDefinitionString = ProcessorUtility.buildRestCallDefinition(callAnnot, headers, queryParams, pathParams, returnType, requestObjectName, callSiteName);
         String logLines = ProcessorUtility.addLogLines(headers, queryParams, pathParams, requestObjectName);
 
         return new StringBuilder().append("{\n")
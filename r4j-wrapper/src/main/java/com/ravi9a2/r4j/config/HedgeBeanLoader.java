@@ -0,0 +1,66 @@
+package com.ravi9a2.r4j.config;
+
+import com.ravi9a2.r4j.HedgePolicy;
+import com.ravi9a2.r4j.HedgePolicyRegistry;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Hedge bean loader configuration class that exposes the hedge policies via
+ * HedgePolicyRegistry, keyed by hedge tag.
+ *
+ * @author raviprakash
+ */
+@Configuration
+public class HedgeBeanLoader {
+
+    public static final String DEFAULT = "default";
+    public static final String DELAY = "delay";
+    public static final String DELAY_DEFAULT = "100";
+    public static final String PERCENTILE = "percentile";
+    public static final String PERCENTILE_DEFAULT = "0";
+    public static final String BUDGET_PERCENT = "budgetPercent";
+    public static final String BUDGET_PERCENT_DEFAULT = "10";
+    public static final String MAX_TOKENS = "maxTokens";
+    public static final String MAX_TOKENS_DEFAULT = "10";
+    private static final Logger LOGGER = LogManager.getLogger(HedgeBeanLoader.class);
+    private static final String HEDGE_SETUP_COMPLETE_MSG = "[Hedge Event] HedgePolicyRegistry setup complete.";
+
+    @Bean("allRawHedgeConfigs")
+    @ConfigurationProperties(prefix = "r4j.hedge")
+    public Map<String, Map<String, String>> allRawHedgeConfigs() {
+        return new HashMap<>();
+    }
+
+    @Bean
+    public HedgePolicyRegistry hedgePolicyRegistry(@Qualifier("allRawHedgeConfigs") Map<String, Map<String, String>> allRawHedgeConfigs) {
+        Map<String, String> d = allRawHedgeConfigs.get(DEFAULT);
+        HedgePolicyRegistry registry = new HedgePolicyRegistry(hedgeTag -> {
+            Map<String, String> c = allRawHedgeConfigs.get(hedgeTag);
+            return new HedgePolicy(hedgeTag,
+                    Long.parseLong(getValue(c, d, DELAY, DELAY_DEFAULT)),
+                    Double.parseDouble(getValue(c, d, PERCENTILE, PERCENTILE_DEFAULT)),
+                    Double.parseDouble(getValue(c, d, BUDGET_PERCENT, BUDGET_PERCENT_DEFAULT)),
+                    Double.parseDouble(getValue(c, d, MAX_TOKENS, MAX_TOKENS_DEFAULT)));
+        });
+        LOGGER.info(HEDGE_SETUP_COMPLETE_MSG);
+        return registry;
+    }
+
+    private String getValue(Map<String, String> c, Map<String, String> d, String k, String v) {
+        if (Objects.isNull(d))
+            d = Collections.emptyMap();
+        if (Objects.isNull(c))
+            c = Collections.emptyMap();
+        return c.getOrDefault(k, d.getOrDefault(k, v));
+    }
+}
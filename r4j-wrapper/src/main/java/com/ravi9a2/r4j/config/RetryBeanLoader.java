@@ -0,0 +1,139 @@
+package com.ravi9a2.r4j.config;
+
+import com.ravi9a2.r4j.RetryBudget;
+import com.ravi9a2.r4j.RetryBudgetRegistry;
+import com.ravi9a2.r4j.RetryPolicy;
+import com.ravi9a2.r4j.RetryPolicyRegistry;
+import io.github.resilience4j.core.IntervalFunction;
+import io.github.resilience4j.retry.RetryConfig;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.stream.Collectors;
+
+/**
+ * Retry bean loader configuration class that exposes the retry policies via
+ * RetryPolicyRegistry, keyed by retry tag, and the retry budgets via
+ * RetryBudgetRegistry, keyed by service tag.
+ *
+ * @author raviprakash
+ */
+@Configuration
+public class RetryBeanLoader {
+
+    public static final String DEFAULT = "default";
+    public static final String RETRY_SCHEDULER = "RETRY_SCHEDULER";
+    public static final String MAX_ATTEMPTS = "maxAttempts";
+    public static final String MAX_ATTEMPTS_DEFAULT = "3";
+    public static final String WAIT_DURATION = "waitDuration";
+    public static final String WAIT_DURATION_DEFAULT = "100";
+    public static final String MAX_WAIT_DURATION = "maxWaitDuration";
+    public static final String MAX_WAIT_DURATION_DEFAULT = "2000";
+    public static final String BACKOFF_MULTIPLIER = "backoffMultiplier";
+    public static final String BACKOFF_MULTIPLIER_DEFAULT = "2";
+    public static final String RANDOMIZATION_FACTOR = "randomizationFactor";
+    public static final String RANDOMIZATION_FACTOR_DEFAULT = "0.5";
+    public static final String RETRY_NON_IDEMPOTENT = "retryNonIdempotent";
+    public static final String RETRY_NON_IDEMPOTENT_DEFAULT = "false";
+    public static final String MAX_TOKENS = "maxTokens";
+    public static final String MAX_TOKENS_DEFAULT = "10";
+    public static final String TOKEN_RATIO = "tokenRatio";
+    public static final String TOKEN_RATIO_DEFAULT = "0.1";
+    private static final Logger LOGGER = LogManager.getLogger(RetryBeanLoader.class);
+    private static final String RETRY_SETUP_COMPLETE_MSG = "[Retry Event] RetryPolicyRegistry setup complete.";
+    private static final String RETRY_BUDGET_SETUP_COMPLETE_MSG = "[Retry Event] RetryBudgetRegistry setup complete.";
+
+    @Value("${r4j.retryscheduler.pool-size:1}")
+    private Integer schedulerPoolSize;
+
+    @Bean("allRawRetryConfigs")
+    @ConfigurationProperties(prefix = "r4j.retry")
+    public Map<String, Map<String, String>> allRawRetryConfigs() {
+        return new HashMap<>();
+    }
+
+    @Bean("allRawRetryBudgetConfigs")
+    @ConfigurationProperties(prefix = "r4j.retrybudget")
+    public Map<String, Map<String, String>> allRawRetryBudgetConfigs() {
+        return new HashMap<>();
+    }
+
+    @Bean
+    public RetryPolicyRegistry retryPolicyRegistry(@Qualifier("allRawRetryConfigs") Map<String, Map<String, String>> allRawRetryConfigs) {
+        Map<String, String> d = allRawRetryConfigs.get(DEFAULT);
+        Map<String, RetryPolicy> allRetryPolicies = allRawRetryConfigs.entrySet().stream()
+                .filter(e -> Objects.nonNull(e.getValue()))
+                .collect(Collectors.toMap(Map.Entry::getKey, e -> constructRetryPolicy(e.getValue(), d)));
+        RetryPolicyRegistry registry = new RetryPolicyRegistry(allRetryPolicies, constructRetryPolicy(d, d));
+        LOGGER.info(RETRY_SETUP_COMPLETE_MSG);
+        return registry;
+    }
+
+    @Bean
+    public RetryBudgetRegistry retryBudgetRegistry(@Qualifier("allRawRetryBudgetConfigs") Map<String, Map<String, String>> allRawRetryBudgetConfigs) {
+        Map<String, String> d = allRawRetryBudgetConfigs.get(DEFAULT);
+        RetryBudgetRegistry registry = new RetryBudgetRegistry(serviceTag -> {
+            Map<String, String> c = allRawRetryBudgetConfigs.get(serviceTag);
+            return new RetryBudget(serviceTag,
+                    Double.parseDouble(getValue(c, d, MAX_TOKENS, MAX_TOKENS_DEFAULT)),
+                    Double.parseDouble(getValue(c, d, TOKEN_RATIO, TOKEN_RATIO_DEFAULT)));
+        });
+        LOGGER.info(RETRY_BUDGET_SETUP_COMPLETE_MSG);
+        return registry;
+    }
+
+    @Bean(name = RETRY_SCHEDULER, destroyMethod = "shutdown")
+    public ScheduledExecutorService retryScheduler() {
+        return Executors.newScheduledThreadPool(schedulerPoolSize, r -> {
+            Thread thread = new Thread(r, "r4j-retry-scheduler");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    private RetryPolicy constructRetryPolicy(Map<String, String> c, Map<String, String> d) {
+        RetryConfig retryConfig = RetryConfig.custom()
+                .maxAttempts(Integer.parseInt(getValue(c, d, MAX_ATTEMPTS, MAX_ATTEMPTS_DEFAULT)))
+                .intervalFunction(jitteredBackoff(
+                        Long.parseLong(getValue(c, d, WAIT_DURATION, WAIT_DURATION_DEFAULT)),
+                        Double.parseDouble(getValue(c, d, BACKOFF_MULTIPLIER, BACKOFF_MULTIPLIER_DEFAULT)),
+                        Double.parseDouble(getValue(c, d, RANDOMIZATION_FACTOR, RANDOMIZATION_FACTOR_DEFAULT)),
+                        Long.parseLong(getValue(c, d, MAX_WAIT_DURATION, MAX_WAIT_DURATION_DEFAULT))))
+                .build();
+        return new RetryPolicy(retryConfig,
+                Boolean.parseBoolean(getValue(c, d, RETRY_NON_IDEMPOTENT, RETRY_NON_IDEMPOTENT_DEFAULT)));
+    }
+
+    /**
+     * Exponential backoff capped at maxWaitDuration, with every wait randomized by
+     * +/- randomizationFactor so that callers failing together don't retry together.
+     */
+    private static IntervalFunction jitteredBackoff(long waitDuration, double multiplier,
+                                                    double randomizationFactor, long maxWaitDuration) {
+        return attempt -> {
+            double backoff = Math.min(maxWaitDuration, waitDuration * Math.pow(multiplier, attempt - 1.0));
+            double delta = randomizationFactor * backoff;
+            return (long) ThreadLocalRandom.current().nextDouble(Math.max(0, backoff - delta), backoff + delta + 1);
+        };
+    }
+
+    private String getValue(Map<String, String> c, Map<String, String> d, String k, String v) {
+        if (Objects.isNull(d))
+            d = Collections.emptyMap();
+        if (Objects.isNull(c))
+            c = Collections.emptyMap();
+        return c.getOrDefault(k, d.getOrDefault(k, v));
+    }
+}
@@ -1,5 +1,7 @@
 package com.ravi9a2.r4j.config;
 
+import com.ravi9a2.r4j.AdaptiveLimiter;
+import com.ravi9a2.r4j.AdaptiveLimiterRegistry;
 import com.ravi9a2.r4j.Metrics;
 import io.github.resilience4j.bulkhead.Bulkhead;
 import io.github.resilience4j.bulkhead.BulkheadConfig;
@@ -23,7 +25,8 @@ import static com.ravi9a2.r4j.Metrics.BH_CALL_REJECTED_METRIC_NAME;
 
 /**
  * SemaphoreBulkhead bean loader configuration class that
- * exposes the beans via BulkheadRegistry.
+ * exposes the beans via BulkheadRegistry. Bulkhead tags of
+ * type adaptive are exposed via AdaptiveLimiterRegistry instead.
  *
  * @author raviprakash
  */
@@ -39,11 +42,28 @@ public class SemaphoreBulkheadBeanLoader {
     public static final String FAIR_CALL_HANDLING_ENABLED_DEFAULT = "false";
     public static final String WRITABLE_STACK_TRACE_ENABLED_DEFAULT = "false";
     public static final String FAIR_CALL_HANDLING_ENABLED = "fairCallHandlingEnabled";
+    public static final String TYPE = "type";
+    public static final String TYPE_SEMAPHORE = "semaphore";
+    public static final String TYPE_ADAPTIVE = "adaptive";
+    public static final String INITIAL_LIMIT = "initialLimit";
+    public static final String INITIAL_LIMIT_DEFAULT = "20";
+    public static final String MIN_LIMIT = "minLimit";
+    public static final String MIN_LIMIT_DEFAULT = "1";
+    public static final String MAX_LIMIT = "maxLimit";
+    public static final String SMOOTHING = "smoothing";
+    public static final String SMOOTHING_DEFAULT = "0.2";
+    public static final String RTT_TOLERANCE = "rttTolerance";
+    public static final String RTT_TOLERANCE_DEFAULT = "1.5";
+    public static final String BACKOFF_RATIO = "backoffRatio";
+    public static final String BACKOFF_RATIO_DEFAULT = "0.9";
+    public static final String PROBE_INTERVAL = "probeInterval";
+    public static final String PROBE_INTERVAL_DEFAULT = "1000";
     private static final Logger LOGGER = LogManager.getLogger(SemaphoreBulkheadBeanLoader.class);
     private static final String BH_CALL_REJECTED_MSG = "[BH Event] Call rejected by bulkhead name: {}";
     private static final String BH_CALL_FINISHED_MSG = "[BH Event] Call finished, Bulkhead name: {}";
     private static final String BH_SETUP_COMPLETE_MSG = "[BH Event] BulkHeadRegistry setup complete.";
     private static final String BH_REGISTER_MSG = "[BH Event] BulkHeadRegistry register event encountered: {}";
+    private static final String ABH_SETUP_COMPLETE_MSG = "[BH Event] AdaptiveLimiterRegistry setup complete.";
 
     @Bean("allRawSBHConfigs")
     @ConfigurationProperties(prefix = "r4j.bulkhead")
@@ -63,6 +83,30 @@ public class SemaphoreBulkheadBeanLoader {
         return registry;
     }
 
+    @Bean
+    public AdaptiveLimiterRegistry adaptiveLimiterRegistry(@Qualifier("allRawSBHConfigs") Map<String, Map<String, String>> allRawSBHConfigs) {
+        Map<String, String> d = allRawSBHConfigs.get(DEFAULT);
+        AdaptiveLimiterRegistry registry = new AdaptiveLimiterRegistry(
+                bhTag -> TYPE_ADAPTIVE.equalsIgnoreCase(getValue(allRawSBHConfigs.get(bhTag), d, TYPE, TYPE_SEMAPHORE)),
+                bhTag -> constructAdaptiveLimiter(bhTag, allRawSBHConfigs.get(bhTag), d));
+        LOGGER.info(ABH_SETUP_COMPLETE_MSG);
+        return registry;
+    }
+
+    /**
+     * The max concurrent calls of a semaphore bulkhead is the default upper bound of an adaptive one.
+     */
+    private AdaptiveLimiter constructAdaptiveLimiter(String bhTag, Map<String, String> c, Map<String, String> d) {
+        return new AdaptiveLimiter(bhTag,
+                Integer.parseInt(getValue(c, d, INITIAL_LIMIT, INITIAL_LIMIT_DEFAULT)),
+                Integer.parseInt(getValue(c, d, MIN_LIMIT, MIN_LIMIT_DEFAULT)),
+                Integer.parseInt(getValue(c, d, MAX_LIMIT, getValue(c, d, MAX_CONCURRENT_CALLS, MAX_CONCURRENT_CALLS_DEFAULT))),
+                Double.parseDouble(getValue(c, d, SMOOTHING, SMOOTHING_DEFAULT)),
+                Double.parseDouble(getValue(c, d, RTT_TOLERANCE, RTT_TOLERANCE_DEFAULT)),
+                Double.parseDouble(getValue(c, d, BACKOFF_RATIO, BACKOFF_RATIO_DEFAULT)),
+                Integer.parseInt(getValue(c, d, PROBE_INTERVAL, PROBE_INTERVAL_DEFAULT)));
+    }
+
     private BulkheadConfig constructSemaphoreBulkheadConfig(Map<String, String> c, Map<String, String> d) {
         return BulkheadConfig.custom()
                 .maxConcurrentCalls(Integer.parseInt((getValue(c, d, MAX_CONCURRENT_CALLS, MAX_CONCURRENT_CALLS_DEFAULT))))
@@ -0,0 +1,101 @@
+package com.ravi9a2.r4j;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+public class TestAdaptiveLimiter {
+
+    @Test
+    public void testTryAcquire_RejectsAboveLimit() {
+        AdaptiveLimiter limiter = new AdaptiveLimiter("test", 2, 1, 10, 1.0, 2.0, 0.5, 100);
+
+        Assertions.assertTrue(limiter.tryAcquire());
+        Assertions.assertTrue(limiter.tryAcquire());
+        Assertions.assertFalse(limiter.tryAcquire());
+        Assertions.assertEquals(2, limiter.getInFlight());
+        Assertions.assertEquals(1, limiter.getRejected());
+    }
+
+    @Test
+    public void testOnSuccess_GrowsWhileBusy() {
+        AdaptiveLimiter limiter = new AdaptiveLimiter("test", 4, 1, 100, 1.0, 2.0, 0.5, 100);
+
+        for (int i = 0; i < 4; i++) {
+            Assertions.assertTrue(limiter.tryAcquire());
+        }
+        limiter.onSuccess(1_000_000);
+
+        Assertions.assertEquals(6, limiter.getLimit());
+        Assertions.assertEquals(3, limiter.getInFlight());
+    }
+
+    @Test
+    public void testOnSuccess_DoesNotGrowWhileIdle() {
+        AdaptiveLimiter limiter = new AdaptiveLimiter("test", 10, 1, 100, 1.0, 2.0, 0.5, 100);
+
+        Assertions.assertTrue(limiter.tryAcquire());
+        limiter.onSuccess(1_000_000);
+
+        Assertions.assertEquals(10, limiter.getLimit());
+    }
+
+    @Test
+    public void testOnSuccess_ShrinksOnLatencyInflation() {
+        AdaptiveLimiter limiter = new AdaptiveLimiter("test", 20, 1, 100, 1.0, 1.0, 0.5, 100);
+
+        Assertions.assertTrue(limiter.tryAcquire());
+        limiter.onSuccess(1_000_000);
+        Assertions.assertTrue(limiter.tryAcquire());
+        limiter.onSuccess(100_000_000);
+
+        Assertions.assertTrue(limiter.getLimit() < 20);
+    }
+
+    @Test
+    public void testOnDropped_BacksOffToMinLimit() {
+        AdaptiveLimiter limiter = new AdaptiveLimiter("test", 8, 3, 10, 1.0, 2.0, 0.5, 100);
+
+        Assertions.assertTrue(limiter.tryAcquire());
+        limiter.onDropped();
+        Assertions.assertEquals(4, limiter.getLimit());
+        Assertions.assertTrue(limiter.tryAcquire());
+        limiter.onDropped();
+        Assertions.assertEquals(3, limiter.getLimit());
+        Assertions.assertEquals(0, limiter.getInFlight());
+    }
+
+    @Test
+    public void testConcurrentUpdates_StayWithinBounds() throws InterruptedException {
+        AdaptiveLimiter limiter = new AdaptiveLimiter("test", 50, 5, 200, 0.5, 2.0, 0.9, 10);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        CountDownLatch done = new CountDownLatch(8);
+        for (int t = 0; t < 8; t++) {
+            int thread = t;
+            executor.execute(() -> {
+                for (int i = 0; i < 10_000; i++) {
+                    if (!limiter.tryAcquire()) {
+                        continue;
+                    }
+                    if ((i + thread) % 7 == 0) {
+                        limiter.onDropped();
+                    } else if ((i + thread) % 11 == 0) {
+                        limiter.onIgnore();
+                    } else {
+                        limiter.onSuccess(1_000_000L + (i % 5) * 1_000_000L);
+                    }
+                }
+                done.countDown();
+            });
+        }
+
+        Assertions.assertTrue(done.await(30, TimeUnit.SECONDS));
+        executor.shutdown();
+        Assertions.assertEquals(0, limiter.getInFlight());
+        Assertions.assertTrue(limiter.getLimit() >= 5 && limiter.getLimit() <= 200);
+    }
+}
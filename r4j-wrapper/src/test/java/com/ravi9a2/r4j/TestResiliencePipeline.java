@@ -0,0 +1,625 @@
+package com.ravi9a2.r4j;
+
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.SettableFuture;
+import com.ravi9a2.instrumentation.processor.MetricEmitter;
+import com.ravi9a2.nca.exceptions.Status5XXException;
+import com.ravi9a2.nea.core.data.CallSite;
+import com.ravi9a2.nea.core.data.HTTPMethod;
+import com.ravi9a2.nea.core.data.RestCallDefinition;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.bulkhead.ThreadPoolBulkheadConfig;
+import io.github.resilience4j.bulkhead.ThreadPoolBulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.retry.Retry;
+import io.github.resilience4j.retry.RetryConfig;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import reactor.core.Disposable;
+import reactor.core.publisher.BaseSubscriber;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.io.IOException;
+import java.net.ConnectException;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import static com.ravi9a2.r4j.Metrics.HEDGE_BUDGET_EXHAUSTED_METRIC_NAME;
+import static com.ravi9a2.r4j.Metrics.HEDGE_SENT_METRIC_NAME;
+import static com.ravi9a2.r4j.Metrics.HEDGE_WON_METRIC_NAME;
+import static com.ravi9a2.r4j.Metrics.RETRY_ATTEMPT_METRIC_NAME;
+import static com.ravi9a2.r4j.Metrics.RETRY_BUDGET_EXHAUSTED_METRIC_NAME;
+import static com.ravi9a2.r4j.Metrics.RETRY_EXHAUSTED_METRIC_NAME;
+
+public class TestResiliencePipeline {
+
+    MetricEmitter metricEmitter;
+    ScheduledExecutorService scheduler;
+    RetryBudget retryBudget;
+    ThreadPoolBulkheadRegistry tpBulkheadRegistry;
+
+    @BeforeEach
+    public void init() {
+        metricEmitter = Mockito.mock(MetricEmitter.class);
+        scheduler = Executors.newSingleThreadScheduledExecutor();
+        retryBudget = new RetryBudget("users", 10, 0.1);
+        tpBulkheadRegistry = ThreadPoolBulkheadRegistry.of(ThreadPoolBulkheadConfig.custom()
+                .coreThreadPoolSize(2)
+                .maxThreadPoolSize(4)
+                .build());
+    }
+
+    @AfterEach
+    public void destroy() {
+        scheduler.shutdownNow();
+    }
+
+    @Test
+    public void testDecorateFuture_CancelDuringBackoffStopsRetries() throws InterruptedException {
+        AtomicInteger calls = new AtomicInteger();
+        ResiliencePipeline pipeline = retrying(3, Duration.ofMillis(200));
+
+        ListenableFuture<String> result = pipeline.<String>decorateFuture(() -> {
+            calls.incrementAndGet();
+            return Futures.immediateFailedFuture(new IOException("reset"));
+        }).get();
+        Assertions.assertEquals(1, calls.get());
+        Assertions.assertTrue(result.cancel(true));
+        Thread.sleep(400);
+
+        Assertions.assertEquals(1, calls.get());
+    }
+
+    @Test
+    public void testDecorateFuture_CancelCancelsAttemptInFlight() {
+        SettableFuture<String> attempt = SettableFuture.create();
+        ResiliencePipeline pipeline = retrying(3, Duration.ofMillis(10));
+
+        ListenableFuture<String> result = pipeline.decorateFuture(() -> attempt).get();
+        result.cancel(true);
+
+        Assertions.assertTrue(attempt.isCancelled());
+    }
+
+    @Test
+    public void testDecorateMono_CancelAfterValueReleasesLimitOnce() {
+        AdaptiveLimiter limiter = new AdaptiveLimiter("users", 10, 1, 100, 1.0, 2.0, 0.5, 100);
+        ResiliencePipeline pipeline = limited(limiter);
+
+        pipeline.decorate(Mono.just("a")).subscribe(new BaseSubscriber<String>() {
+            @Override
+            protected void hookOnNext(String value) {
+                cancel();
+            }
+        });
+
+        Assertions.assertEquals(0, limiter.getInFlight());
+        Assertions.assertTrue(limiter.tryAcquire());
+        Assertions.assertEquals(1, limiter.getInFlight());
+    }
+
+    @Test
+    public void testDecorateFlux_CancelReleasesLimitOnce() {
+        AdaptiveLimiter limiter = new AdaptiveLimiter("users", 10, 1, 100, 1.0, 2.0, 0.5, 100);
+        ResiliencePipeline pipeline = limited(limiter);
+
+        Assertions.assertEquals("a", pipeline.decorate(Flux.just("a", "b")).blockFirst());
+        Assertions.assertEquals(Arrays.asList("a", "b"), pipeline.decorate(Flux.just("a", "b")).collectList().block());
+
+        Assertions.assertEquals(0, limiter.getInFlight());
+    }
+
+    @Test
+    public void testDecorateCompletionStage_HedgeRecordsPrimaryLatency() throws InterruptedException {
+        HedgePolicy hedgePolicy = new HedgePolicy("users", 1, 50, 100, 1000);
+        ResiliencePipeline pipeline = hedged(hedgePolicy);
+
+        for (int i = 0; i < 128; i++) {
+            AtomicInteger calls = new AtomicInteger();
+            CountDownLatch primaryDone = new CountDownLatch(1);
+            pipeline.decorateCompletionStage(() -> {
+                if (calls.getAndIncrement() == 0) {
+                    sleep(20);
+                    primaryDone.countDown();
+                }
+                return "a";
+            }).get().toCompletableFuture().join();
+            Assertions.assertTrue(primaryDone.await(5, TimeUnit.SECONDS));
+        }
+
+        Thread.sleep(50);
+        Assertions.assertTrue(hedgePolicy.delayMillis() >= 20, "delay " + hedgePolicy.delayMillis());
+    }
+
+    @Test
+    public void testDecorateFuture_CallerCancelNotRecorded() {
+        HedgePolicy hedgePolicy = new HedgePolicy("users", 1000, 50, 100, 1000);
+        ResiliencePipeline pipeline = hedged(hedgePolicy);
+
+        for (int i = 0; i < 128; i++) {
+            SettableFuture<String> primary = SettableFuture.create();
+            pipeline.decorateFuture(() -> primary).get().cancel(true);
+            Assertions.assertTrue(primary.isCancelled());
+        }
+
+        Assertions.assertEquals(1000, hedgePolicy.delayMillis());
+    }
+
+    @Test
+    public void testDecorateMono_RetriesTransientFailureWithBackoff() {
+        AtomicInteger calls = new AtomicInteger();
+        ResiliencePipeline pipeline = compiled(HTTPMethod.GET, null);
+        long start = System.nanoTime();
+
+        String result = pipeline.decorate(Mono.defer(() -> calls.incrementAndGet() < 3
+                ? Mono.<String>error(new Status5XXException("unavailable", 503))
+                : Mono.just("a"))).block(Duration.ofSeconds(5));
+
+        Assertions.assertEquals("a", result);
+        Assertions.assertEquals(3, calls.get());
+        Assertions.assertTrue(elapsedMillis(start) >= 100, "elapsed " + elapsedMillis(start));
+        Mockito.verify(metricEmitter, Mockito.times(2)).incrementCounter(Mockito.eq(RETRY_ATTEMPT_METRIC_NAME),
+                Mockito.anyMap());
+    }
+
+    @Test
+    public void testDecorateFlux_RetriesTransientFailure() {
+        AtomicInteger calls = new AtomicInteger();
+        ResiliencePipeline pipeline = compiled(HTTPMethod.GET, null);
+
+        List<String> result = pipeline.decorate(Flux.defer(() -> calls.incrementAndGet() < 2
+                ? Flux.<String>error(new Status5XXException("unavailable", 503))
+                : Flux.just("a", "b"))).collectList().block(Duration.ofSeconds(5));
+
+        Assertions.assertEquals(Arrays.asList("a", "b"), result);
+        Assertions.assertEquals(2, calls.get());
+    }
+
+    @Test
+    public void testDecorateSupplier_StopsAfterMaxAttempts() {
+        AtomicInteger calls = new AtomicInteger();
+        ResiliencePipeline pipeline = compiled(HTTPMethod.GET, null);
+        long start = System.nanoTime();
+
+        Supplier<String> call = pipeline.decorateSupplier(() -> {
+            calls.incrementAndGet();
+            throw new Status5XXException("unavailable", 503);
+        });
+
+        Assertions.assertThrows(Status5XXException.class, call::get);
+        Assertions.assertEquals(3, calls.get());
+        Assertions.assertTrue(elapsedMillis(start) >= 100, "elapsed " + elapsedMillis(start));
+        Mockito.verify(metricEmitter).incrementCounter(Mockito.eq(RETRY_EXHAUSTED_METRIC_NAME), Mockito.anyMap());
+    }
+
+    @Test
+    public void testDecorateCompletionStage_RetriesTransientFailure() throws Exception {
+        AtomicInteger calls = new AtomicInteger();
+        ResiliencePipeline pipeline = compiled(HTTPMethod.GET, null);
+
+        CompletionStage<String> result = pipeline.decorateCompletionStage(() -> {
+            if (calls.incrementAndGet() < 3) {
+                throw new Status5XXException("unavailable", 503);
+            }
+            return "a";
+        }).get();
+
+        Assertions.assertEquals("a", result.toCompletableFuture().get(5, TimeUnit.SECONDS));
+        Assertions.assertEquals(3, calls.get());
+    }
+
+    @Test
+    public void testDecorateFuture_RetriesTransientFailureWithBackoff() throws Exception {
+        AtomicInteger calls = new AtomicInteger();
+        ResiliencePipeline pipeline = compiled(HTTPMethod.GET, null);
+        long start = System.nanoTime();
+
+        ListenableFuture<String> result = pipeline.<String>decorateFuture(() -> calls.incrementAndGet() < 3
+                ? Futures.immediateFailedFuture(new IOException("reset"))
+                : Futures.immediateFuture("a")).get();
+
+        Assertions.assertEquals("a", result.get(5, TimeUnit.SECONDS));
+        Assertions.assertEquals(3, calls.get());
+        Assertions.assertTrue(elapsedMillis(start) >= 100, "elapsed " + elapsedMillis(start));
+    }
+
+    @Test
+    public void testDecorateCompletableFuture_RetriesTransientFailureWithBackoff() throws Exception {
+        AtomicInteger calls = new AtomicInteger();
+        ResiliencePipeline pipeline = compiled(HTTPMethod.GET, null);
+        long start = System.nanoTime();
+
+        CompletableFuture<String> result = pipeline.<String>decorateCompletableFuture(() -> {
+            CompletableFuture<String> attempt = new CompletableFuture<>();
+            if (calls.incrementAndGet() < 3) {
+                attempt.completeExceptionally(new IOException("reset"));
+            } else {
+                attempt.complete("a");
+            }
+            return attempt;
+        }).get();
+
+        Assertions.assertEquals("a", result.get(5, TimeUnit.SECONDS));
+        Assertions.assertEquals(3, calls.get());
+        Assertions.assertTrue(elapsedMillis(start) >= 100, "elapsed " + elapsedMillis(start));
+    }
+
+    @Test
+    public void testDecorateMono_NonIdempotentNotRetried() {
+        AtomicInteger calls = new AtomicInteger();
+        ResiliencePipeline pipeline = compiled(HTTPMethod.POST, null);
+
+        Mono<String> call = pipeline.decorate(Mono.defer(() -> {
+            calls.incrementAndGet();
+            return Mono.error(new Status5XXException("unavailable", 503));
+        }));
+
+        Assertions.assertThrows(Status5XXException.class, () -> call.block(Duration.ofSeconds(5)));
+        Assertions.assertEquals(1, calls.get());
+    }
+
+    @Test
+    public void testDecorateSupplier_NonIdempotentNotRetried() {
+        AtomicInteger calls = new AtomicInteger();
+        ResiliencePipeline pipeline = compiled(HTTPMethod.POST, null);
+
+        Supplier<String> call = pipeline.decorateSupplier(() -> {
+            calls.incrementAndGet();
+            throw new Status5XXException("unavailable", 503);
+        });
+
+        Assertions.assertThrows(Status5XXException.class, call::get);
+        Assertions.assertEquals(1, calls.get());
+    }
+
+    @Test
+    public void testDecorateFuture_NonIdempotentRetriedWhenUnsent() throws Exception {
+        AtomicInteger calls = new AtomicInteger();
+        ResiliencePipeline pipeline = compiled(HTTPMethod.POST, null);
+
+        ListenableFuture<String> result = pipeline.<String>decorateFuture(() -> calls.incrementAndGet() < 2
+                ? Futures.immediateFailedFuture(new ConnectException("refused"))
+                : Futures.immediateFuture("a")).get();
+
+        Assertions.assertEquals("a", result.get(5, TimeUnit.SECONDS));
+        Assertions.assertEquals(2, calls.get());
+    }
+
+    @Test
+    public void testDecorateCompletableFuture_NonIdempotentNotRetried() {
+        AtomicInteger calls = new AtomicInteger();
+        ResiliencePipeline pipeline = compiled(HTTPMethod.POST, null);
+
+        CompletableFuture<String> result = pipeline.<String>decorateCompletableFuture(() -> {
+            calls.incrementAndGet();
+            CompletableFuture<String> attempt = new CompletableFuture<>();
+            attempt.completeExceptionally(new IOException("reset"));
+            return attempt;
+        }).get();
+
+        ExecutionException e = Assertions.assertThrows(ExecutionException.class,
+                () -> result.get(5, TimeUnit.SECONDS));
+        Assertions.assertTrue(e.getCause() instanceof IOException);
+        Assertions.assertEquals(1, calls.get());
+    }
+
+    @Test
+    public void testDecorateMono_RetryBudgetExhaustedStopsRetries() {
+        retryBudget = new RetryBudget("users", 4, 0.1);
+        AtomicInteger calls = new AtomicInteger();
+        ResiliencePipeline pipeline = compiled(HTTPMethod.GET, null);
+        Mono<String> call = pipeline.decorate(Mono.defer(() -> {
+            calls.incrementAndGet();
+            return Mono.error(new Status5XXException("unavailable", 503));
+        }));
+
+        Assertions.assertThrows(Status5XXException.class, () -> call.block(Duration.ofSeconds(5)));
+        Assertions.assertEquals(2, calls.get());
+        Assertions.assertThrows(Status5XXException.class, () -> call.block(Duration.ofSeconds(5)));
+        Assertions.assertEquals(3, calls.get());
+
+        Assertions.assertFalse(retryBudget.canRetry());
+        Mockito.verify(metricEmitter, Mockito.times(2)).incrementCounter(
+                Mockito.eq(RETRY_BUDGET_EXHAUSTED_METRIC_NAME), Mockito.anyMap());
+    }
+
+    @Test
+    public void testDecorateCompletableFuture_RetryBudgetExhaustedStopsRetries() {
+        retryBudget = new RetryBudget("users", 4, 0.1);
+        AtomicInteger calls = new AtomicInteger();
+        ResiliencePipeline pipeline = compiled(HTTPMethod.GET, null);
+        Supplier<CompletableFuture<String>> call = pipeline.decorateCompletableFuture(() -> {
+            calls.incrementAndGet();
+            CompletableFuture<String> attempt = new CompletableFuture<>();
+            attempt.completeExceptionally(new IOException("reset"));
+            return attempt;
+        });
+
+        Assertions.assertThrows(ExecutionException.class, () -> call.get().get(5, TimeUnit.SECONDS));
+        Assertions.assertEquals(2, calls.get());
+        Assertions.assertThrows(ExecutionException.class, () -> call.get().get(5, TimeUnit.SECONDS));
+        Assertions.assertEquals(3, calls.get());
+    }
+
+    @Test
+    public void testDecorateMono_HedgeSentAfterDelayAndLoserCancelled() {
+        AtomicInteger calls = new AtomicInteger();
+        AtomicBoolean primaryCancelled = new AtomicBoolean();
+        AtomicLong hedgeSentAfter = new AtomicLong();
+        ResiliencePipeline pipeline = compiled(HTTPMethod.GET, new HedgePolicy("users", 50, 0, 100, 10));
+        long start = System.nanoTime();
+
+        String result = pipeline.decorate(Mono.defer(() -> {
+            if (calls.incrementAndGet() == 1) {
+                return Mono.<String>never().doOnCancel(() -> primaryCancelled.set(true));
+            }
+            hedgeSentAfter.set(elapsedMillis(start));
+            return Mono.just("hedge");
+        })).block(Duration.ofSeconds(5));
+
+        Assertions.assertEquals("hedge", result);
+        Assertions.assertEquals(2, calls.get());
+        Assertions.assertTrue(hedgeSentAfter.get() >= 50, "hedge sent after " + hedgeSentAfter.get());
+        Assertions.assertTrue(primaryCancelled.get());
+        Mockito.verify(metricEmitter).incrementCounter(Mockito.eq(HEDGE_SENT_METRIC_NAME), Mockito.anyMap());
+        Mockito.verify(metricEmitter).incrementCounter(Mockito.eq(HEDGE_WON_METRIC_NAME), Mockito.anyMap());
+    }
+
+    @Test
+    public void testDecorateMono_HedgeBudgetCapsHedges() {
+        AtomicInteger calls = new AtomicInteger();
+        ResiliencePipeline pipeline = compiled(HTTPMethod.GET, new HedgePolicy("users", 10, 0, 10, 1));
+        Mono<String> call = pipeline.decorate(Mono.defer(() -> {
+            calls.incrementAndGet();
+            return Mono.delay(Duration.ofMillis(100)).map(t -> "a");
+        }));
+
+        for (int i = 0; i < 5; i++) {
+            Assertions.assertEquals("a", call.block(Duration.ofSeconds(5)));
+        }
+
+        Assertions.assertEquals(6, calls.get());
+        Mockito.verify(metricEmitter).incrementCounter(Mockito.eq(HEDGE_SENT_METRIC_NAME), Mockito.anyMap());
+        Mockito.verify(metricEmitter, Mockito.times(4)).incrementCounter(
+                Mockito.eq(HEDGE_BUDGET_EXHAUSTED_METRIC_NAME), Mockito.anyMap());
+    }
+
+    @Test
+    public void testDecorateCompletionStage_HedgeSentAfterDelay() throws Exception {
+        AtomicInteger calls = new AtomicInteger();
+        ResiliencePipeline pipeline = compiled(HTTPMethod.GET, new HedgePolicy("users", 50, 0, 100, 10));
+        long start = System.nanoTime();
+
+        CompletionStage<String> result = pipeline.decorateCompletionStage(() -> {
+            if (calls.incrementAndGet() == 1) {
+                sleep(500);
+                return "primary";
+            }
+            return "hedge";
+        }).get();
+
+        Assertions.assertEquals("hedge", result.toCompletableFuture().get(5, TimeUnit.SECONDS));
+        long elapsed = elapsedMillis(start);
+        Assertions.assertTrue(elapsed >= 50 && elapsed < 500, "elapsed " + elapsed);
+        Assertions.assertEquals(2, calls.get());
+    }
+
+    @Test
+    public void testDecorateFuture_HedgeSentAfterDelayAndLoserCancelled() throws Exception {
+        AtomicInteger calls = new AtomicInteger();
+        SettableFuture<String> primary = SettableFuture.create();
+        ResiliencePipeline pipeline = compiled(HTTPMethod.GET, new HedgePolicy("users", 50, 0, 100, 10));
+        long start = System.nanoTime();
+
+        ListenableFuture<String> result = pipeline.<String>decorateFuture(() -> calls.incrementAndGet() == 1
+                ? primary
+                : Futures.immediateFuture("hedge")).get();
+
+        Assertions.assertEquals("hedge", result.get(5, TimeUnit.SECONDS));
+        Assertions.assertTrue(elapsedMillis(start) >= 50, "elapsed " + elapsedMillis(start));
+        Assertions.assertTrue(primary.isCancelled());
+    }
+
+    @Test
+    public void testDecorateCompletableFuture_HedgeSentAfterDelayAndLoserCancelled() throws Exception {
+        AtomicInteger calls = new AtomicInteger();
+        CompletableFuture<String> primary = new CompletableFuture<>();
+        ResiliencePipeline pipeline = compiled(HTTPMethod.GET, new HedgePolicy("users", 50, 0, 100, 10));
+
+        CompletableFuture<String> result = pipeline.<String>decorateCompletableFuture(
+                () -> calls.incrementAndGet() == 1 ? primary : CompletableFuture.completedFuture("hedge")).get();
+
+        Assertions.assertEquals("hedge", result.get(5, TimeUnit.SECONDS));
+        Assertions.assertTrue(primary.isCancelled());
+    }
+
+    @Test
+    public void testDecorateFuture_NoHedgeWithinDelay() throws Exception {
+        AtomicInteger calls = new AtomicInteger();
+        ResiliencePipeline pipeline = compiled(HTTPMethod.GET, new HedgePolicy("users", 50, 0, 100, 10));
+
+        ListenableFuture<String> result = pipeline.<String>decorateFuture(() -> {
+            calls.incrementAndGet();
+            return Futures.immediateFuture("a");
+        }).get();
+        Assertions.assertEquals("a", result.get(5, TimeUnit.SECONDS));
+        Thread.sleep(150);
+
+        Assertions.assertEquals(1, calls.get());
+        Mockito.verify(metricEmitter, Mockito.never()).incrementCounter(Mockito.eq(HEDGE_SENT_METRIC_NAME),
+                Mockito.anyMap());
+    }
+
+    @Test
+    public void testDecorateMono_CancelDuringBackoffStopsRetries() throws InterruptedException {
+        AtomicInteger calls = new AtomicInteger();
+        ResiliencePipeline pipeline = compiled(HTTPMethod.GET, null);
+
+        Disposable subscription = pipeline.decorate(Mono.defer(() -> {
+            calls.incrementAndGet();
+            return Mono.<String>error(new Status5XXException("unavailable", 503));
+        })).subscribe(r -> { }, th -> { });
+        Assertions.assertEquals(1, calls.get());
+        subscription.dispose();
+        Thread.sleep(200);
+
+        Assertions.assertEquals(1, calls.get());
+    }
+
+    @Test
+    public void testDecorateFlux_CancelDuringBackoffStopsRetries() throws InterruptedException {
+        AtomicInteger calls = new AtomicInteger();
+        ResiliencePipeline pipeline = compiled(HTTPMethod.GET, null);
+
+        Disposable subscription = pipeline.decorate(Flux.defer(() -> {
+            calls.incrementAndGet();
+            return Flux.<String>error(new Status5XXException("unavailable", 503));
+        })).subscribe(r -> { }, th -> { });
+        Assertions.assertEquals(1, calls.get());
+        subscription.dispose();
+        Thread.sleep(200);
+
+        Assertions.assertEquals(1, calls.get());
+    }
+
+    @Test
+    public void testDecorateMono_CancelCancelsPrimaryAndHedge() throws InterruptedException {
+        AtomicInteger calls = new AtomicInteger();
+        AtomicInteger cancelled = new AtomicInteger();
+        ResiliencePipeline pipeline = compiled(HTTPMethod.GET, new HedgePolicy("users", 20, 0, 100, 10));
+
+        Disposable subscription = pipeline.decorate(Mono.defer(() -> {
+            calls.incrementAndGet();
+            return Mono.<String>never().doOnCancel(cancelled::incrementAndGet);
+        })).subscribe();
+        for (int i = 0; i < 100 && calls.get() < 2; i++) {
+            Thread.sleep(10);
+        }
+        subscription.dispose();
+
+        Assertions.assertEquals(2, calls.get());
+        Assertions.assertEquals(2, cancelled.get());
+    }
+
+    @Test
+    public void testDecorateFuture_CancelCancelsPrimaryAndHedge() throws InterruptedException {
+        List<SettableFuture<String>> attempts = new CopyOnWriteArrayList<>();
+        ResiliencePipeline pipeline = compiled(HTTPMethod.GET, new HedgePolicy("users", 20, 0, 100, 10));
+
+        ListenableFuture<String> result = pipeline.<String>decorateFuture(() -> {
+            SettableFuture<String> attempt = SettableFuture.create();
+            attempts.add(attempt);
+            return attempt;
+        }).get();
+        for (int i = 0; i < 100 && attempts.size() < 2; i++) {
+            Thread.sleep(10);
+        }
+        result.cancel(true);
+
+        Assertions.assertEquals(2, attempts.size());
+        Assertions.assertTrue(attempts.get(0).isCancelled());
+        Assertions.assertTrue(attempts.get(1).isCancelled());
+    }
+
+    @Test
+    public void testDecorateCompletableFuture_CancelCancelsAttemptInFlight() {
+        CompletableFuture<String> attempt = new CompletableFuture<>();
+        ResiliencePipeline pipeline = compiled(HTTPMethod.GET, null);
+
+        CompletableFuture<String> result = pipeline.decorateCompletableFuture(() -> attempt).get();
+        result.cancel(true);
+
+        Assertions.assertTrue(attempt.isCancelled());
+    }
+
+    /**
+     * Compiles the pipeline of a retryable call site the way the registry does, with
+     * the circuit-breaker and the bulkhead on, 3 attempts 50ms apart, the retry budget
+     * of the test and the given hedge policy.
+     */
+    private ResiliencePipeline compiled(HTTPMethod httpMethod, HedgePolicy hedgePolicy) {
+        RetryPolicy retryPolicy = new RetryPolicy(RetryConfig.custom()
+                .maxAttempts(3)
+                .waitDuration(Duration.ofMillis(50))
+                .build(), false);
+        ResiliencePipelineRegistry registry = new ResiliencePipelineRegistry(CircuitBreakerRegistry.ofDefaults(),
+                BulkheadRegistry.ofDefaults(), tpBulkheadRegistry, new AdaptiveLimiterRegistry(tag -> false, null),
+                new RetryPolicyRegistry(Collections.emptyMap(), retryPolicy),
+                new RetryBudgetRegistry(tag -> retryBudget), new HedgePolicyRegistry(tag -> hedgePolicy),
+                scheduler, metricEmitter);
+        CallSite callSite = CallSite.builder()
+                .serviceTag("users")
+                .cbTag("users")
+                .bhTag("users")
+                .retryTag("users")
+                .hedgeTag(Objects.isNull(hedgePolicy) ? null : "users")
+                .httpMethod(httpMethod)
+                .isCircuitBreakerEnabled(true)
+                .isBulkheadEnabled(true)
+                .isRetryable(true)
+                .build();
+        return registry.pipeline(RestCallDefinition.builder().callSite(callSite).build());
+    }
+
+    private static long elapsedMillis(long start) {
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+    }
+
+    private ResiliencePipeline hedged(HedgePolicy hedgePolicy) {
+        return ResiliencePipeline.builder()
+                .callSite(CallSite.builder().serviceTag("users").bhTag("users").build())
+                .hedge(hedgePolicy)
+                .tpBulkheadRegistry(ThreadPoolBulkheadRegistry.ofDefaults())
+                .retryScheduler(scheduler)
+                .metrics(metricEmitter, Collections.emptyMap())
+                .build();
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private ResiliencePipeline limited(AdaptiveLimiter limiter) {
+        return ResiliencePipeline.builder()
+                .limiter(limiter)
+                .metrics(metricEmitter, Collections.emptyMap())
+                .build();
+    }
+
+    private ResiliencePipeline retrying(int maxAttempts, Duration wait) {
+        Retry retry = Retry.of("users", RetryConfig.custom()
+                .maxAttempts(maxAttempts)
+                .waitDuration(wait)
+                .retryOnException(RetryPolicy::isTransient)
+                .build());
+        return ResiliencePipeline.builder()
+                .retry(retry, retryBudget)
+                .retryScheduler(scheduler)
+                .metrics(metricEmitter, Collections.emptyMap())
+                .build();
+    }
+}
@@ -0,0 +1,225 @@
+package com.ravi9a2.r4j;
+
+import com.ravi9a2.instrumentation.processor.MetricEmitter;
+import com.ravi9a2.nca.data.Deadline;
+import com.ravi9a2.nca.exceptions.DeadlineExceededException;
+import com.ravi9a2.nea.core.data.HTTPMethod;
+import com.ravi9a2.nea.core.data.RestCallDefinition;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.ravi9a2.r4j.Metrics.SINGLE_FLIGHT_COALESCED_METRIC_NAME;
+import static com.ravi9a2.r4j.TestStaleIfErrorCache.listOf;
+
+public class TestSingleFlight {
+
+    MetricEmitter metricEmitter;
+    SingleFlight singleFlight;
+
+    @BeforeEach
+    public void init() {
+        metricEmitter = Mockito.mock(MetricEmitter.class);
+        singleFlight = new SingleFlight(100, metricEmitter);
+    }
+
+    @Test
+    public void testCoalesce_GenericResponseTypeShared() {
+        AtomicInteger calls = new AtomicInteger();
+        Sinks.One<List<String>> response = Sinks.one();
+        List<String> users = Collections.singletonList("user");
+
+        Mono<List<String>> leader = singleFlight.coalesce(call(), () -> {
+            calls.incrementAndGet();
+            return response.asMono();
+        });
+        Mono<List<String>> follower = singleFlight.coalesce(call(), () -> {
+            calls.incrementAndGet();
+            return Mono.just(Collections.emptyList());
+        });
+        CompletableFuture<List<String>> first = leader.toFuture();
+        CompletableFuture<List<String>> second = follower.toFuture();
+        response.tryEmitValue(users);
+
+        Assertions.assertEquals(1, calls.get());
+        Assertions.assertSame(users, first.join());
+        Assertions.assertSame(users, second.join());
+    }
+
+    @Test
+    public void testCoalesce_KeyRemovedOnError() {
+        AtomicInteger calls = new AtomicInteger();
+        Mono<Object> failed = singleFlight.coalesce(call(), () -> {
+            calls.incrementAndGet();
+            return Mono.error(new IllegalStateException("failed"));
+        });
+        Assertions.assertThrows(IllegalStateException.class, failed::block);
+
+        Object next = singleFlight.coalesce(call(), () -> {
+            calls.incrementAndGet();
+            return Mono.just((Object) "next");
+        }).block();
+
+        Assertions.assertEquals("next", next);
+        Assertions.assertEquals(2, calls.get());
+    }
+
+    @Test
+    public void testCoalesceFuture_FollowersShareLeaderFailure() {
+        AtomicInteger calls = new AtomicInteger();
+        CompletableFuture<Object> response = new CompletableFuture<>();
+
+        CompletableFuture<Object> leader = singleFlight.coalesceFuture(call(), () -> {
+            calls.incrementAndGet();
+            return response;
+        });
+        CompletableFuture<Object> follower = singleFlight.coalesceFuture(call(), () -> {
+            calls.incrementAndGet();
+            return CompletableFuture.completedFuture("own");
+        });
+        response.completeExceptionally(new IllegalStateException("failed"));
+
+        Assertions.assertEquals(1, calls.get());
+        Assertions.assertTrue(leader.isCompletedExceptionally());
+        CompletionException e = Assertions.assertThrows(CompletionException.class, follower::join);
+        Assertions.assertTrue(e.getCause() instanceof IllegalStateException);
+
+        Object next = singleFlight.coalesceFuture(call(), () -> {
+            calls.incrementAndGet();
+            return CompletableFuture.completedFuture((Object) "next");
+        }).join();
+        Assertions.assertEquals("next", next);
+        Assertions.assertEquals(2, calls.get());
+    }
+
+    @Test
+    public void testCoalesceSupplier_ConcurrentCallersShareOneCall() throws Exception {
+        int callers = 8;
+        AtomicInteger calls = new AtomicInteger();
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(callers);
+        try {
+            Future<?> leader = pool.submit(() -> singleFlight.coalesceSupplier(call(), () -> {
+                calls.incrementAndGet();
+                started.countDown();
+                await(release);
+                return "shared";
+            }));
+            Assertions.assertTrue(started.await(5, TimeUnit.SECONDS));
+            Future<?>[] followers = new Future<?>[callers - 1];
+            for (int i = 0; i < followers.length; i++) {
+                followers[i] = pool.submit(() -> singleFlight.coalesceSupplier(call(), () -> {
+                    calls.incrementAndGet();
+                    return "own";
+                }));
+            }
+            Mockito.verify(metricEmitter, Mockito.timeout(5000).times(callers - 1))
+                    .incrementCounter(Mockito.eq(SINGLE_FLIGHT_COALESCED_METRIC_NAME), Mockito.anyMap());
+            release.countDown();
+
+            Assertions.assertEquals("shared", leader.get(5, TimeUnit.SECONDS));
+            for (Future<?> follower : followers) {
+                Assertions.assertEquals("shared", follower.get(5, TimeUnit.SECONDS));
+            }
+            Assertions.assertEquals(1, calls.get());
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testCoalesce_LeaderDeadlineNotShared() {
+        List<Deadline> deadlines = new CopyOnWriteArrayList<>();
+        Sinks.One<List<String>> response = Sinks.one();
+        List<String> users = Collections.singletonList("user");
+
+        CompletableFuture<List<String>> leader = singleFlight.<List<String>>coalesce(call(), Deadline.after(50),
+                d -> {
+                    deadlines.add(d);
+                    return response.asMono();
+                }).toFuture();
+        CompletableFuture<List<String>> follower = singleFlight.<List<String>>coalesce(call(), null,
+                d -> Mono.just(Collections.emptyList())).toFuture();
+
+        CompletionException e = Assertions.assertThrows(CompletionException.class, leader::join);
+        Assertions.assertTrue(e.getCause() instanceof DeadlineExceededException);
+        Assertions.assertFalse(follower.isDone());
+        response.tryEmitValue(users);
+        Assertions.assertSame(users, follower.join());
+        Assertions.assertEquals(Collections.singletonList(null), deadlines);
+    }
+
+    @Test
+    public void testCoalesceFuture_FollowerWaitsUntilOwnDeadline() {
+        CompletableFuture<List<String>> response = new CompletableFuture<>();
+        List<String> users = Collections.singletonList("user");
+
+        CompletableFuture<List<String>> leader = singleFlight.coalesceFuture(call(), null, d -> response);
+        CompletableFuture<List<String>> follower = singleFlight.coalesceFuture(call(), Deadline.after(50),
+                d -> CompletableFuture.completedFuture(Collections.emptyList()));
+
+        CompletionException e = Assertions.assertThrows(CompletionException.class, follower::join);
+        Assertions.assertTrue(e.getCause() instanceof DeadlineExceededException);
+        response.complete(users);
+        Assertions.assertSame(users, leader.join());
+    }
+
+    @Test
+    public void testCoalesceSupplier_CallWithDeadlineDoesNotLead() {
+        AtomicInteger calls = new AtomicInteger();
+        Deadline deadline = Deadline.after(TimeUnit.MINUTES.toMillis(1));
+
+        Object first = singleFlight.coalesceSupplier(call(), deadline, d -> {
+            calls.incrementAndGet();
+            Assertions.assertSame(deadline, d);
+            return "first";
+        });
+        Object second = singleFlight.coalesceSupplier(call(), null, d -> {
+            calls.incrementAndGet();
+            Assertions.assertNull(d);
+            return "second";
+        });
+
+        Assertions.assertEquals("first", first);
+        Assertions.assertEquals("second", second);
+        Assertions.assertEquals(2, calls.get());
+    }
+
+    /**
+     * Builds the call definition the way the generated call sites do, with a new
+     * parameterized type per call.
+     */
+    private static RestCallDefinition call() {
+        return RestCallDefinition.builder()
+                .serviceTag("users")
+                .path("/users")
+                .httpMethod(HTTPMethod.GET)
+                .coalesce(true)
+                .responseType(listOf(String.class))
+                .build();
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
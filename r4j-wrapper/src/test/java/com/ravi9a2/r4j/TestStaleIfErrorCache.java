@@ -0,0 +1,162 @@
+package com.ravi9a2.r4j;
+
+import com.ravi9a2.instrumentation.processor.MetricEmitter;
+import com.ravi9a2.nca.exceptions.Status5XXException;
+import com.ravi9a2.nea.core.data.HTTPMethod;
+import com.ravi9a2.nea.core.data.RestCallDefinition;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static com.ravi9a2.r4j.Metrics.STALE_IF_ERROR_EVICTED_METRIC_NAME;
+import static com.ravi9a2.r4j.Metrics.STALE_IF_ERROR_SERVED_METRIC_NAME;
+
+public class TestStaleIfErrorCache {
+
+    MetricEmitter metricEmitter;
+    StaleIfErrorCache cache;
+
+    @BeforeEach
+    public void init() {
+        metricEmitter = Mockito.mock(MetricEmitter.class);
+        cache = new StaleIfErrorCache(10, metricEmitter);
+    }
+
+    @Test
+    public void testTypeName_ParameterizedTypeIsStructural() {
+        Assertions.assertEquals("java.util.List<java.lang.String>", RequestKey.typeName(listOf(String.class)));
+        Assertions.assertEquals(RequestKey.typeName(listOf(listOf(String.class))),
+                RequestKey.typeName(listOf(listOf(String.class))));
+    }
+
+    @Test
+    public void testDecorateSupplier_GenericResponseServedStale() {
+        List<String> users = Collections.singletonList("user");
+
+        Object first = cache.decorateSupplier(call(), () -> users).get();
+        Object second = cache.decorateSupplier(call(), () -> {
+            throw new Status5XXException("unavailable", 503);
+        }).get();
+
+        Assertions.assertSame(users, first);
+        Assertions.assertSame(users, second);
+        Mockito.verify(metricEmitter).incrementCounter(Mockito.eq(STALE_IF_ERROR_SERVED_METRIC_NAME),
+                Mockito.anyMap());
+    }
+
+    @Test
+    public void testDecorateSupplier_EvictsPastMaxEntries() {
+        for (int i = 0; i < 100; i++) {
+            String user = "user" + i;
+            cache.decorateSupplier(call(user), () -> user).get();
+            Assertions.assertTrue(cache.size() <= 10);
+        }
+
+        Assertions.assertEquals(10, cache.size());
+        Mockito.verify(metricEmitter, Mockito.times(90)).incrementCounter(
+                Mockito.eq(STALE_IF_ERROR_EVICTED_METRIC_NAME), Mockito.anyMap());
+    }
+
+    @Test
+    public void testDecorateSupplier_ConcurrentStoresStayBounded() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < 4; t++) {
+                int thread = t;
+                futures.add(executor.submit(() -> {
+                    for (int i = 0; i < 1000; i++) {
+                        String user = thread + "-" + i;
+                        cache.decorateSupplier(call(user), () -> user).get();
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get(10, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        Assertions.assertTrue(cache.size() <= 10, "size " + cache.size());
+    }
+
+    @Test
+    public void testDecorateSupplier_ExpiredEntryNotServed() {
+        RestCallDefinition cd = RestCallDefinition.builder()
+                .serviceTag("users")
+                .path("/users")
+                .httpMethod(HTTPMethod.GET)
+                .staleIfError(1)
+                .build();
+        cache.decorateSupplier(cd, () -> "user").get();
+        sleep(10);
+
+        Assertions.assertThrows(Status5XXException.class, () -> cache.decorateSupplier(cd, () -> {
+            throw new Status5XXException("unavailable", 503);
+        }).get());
+        Assertions.assertEquals(0, cache.size());
+    }
+
+    private static RestCallDefinition call(String user) {
+        return RestCallDefinition.builder()
+                .serviceTag("users")
+                .path("/users")
+                .httpMethod(HTTPMethod.GET)
+                .staleIfError(60000)
+                .queryParams(Collections.singletonMap("name", user))
+                .build();
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Builds the call definition the way the generated call sites do, with a new
+     * parameterized type per call.
+     */
+    private static RestCallDefinition call() {
+        return RestCallDefinition.builder()
+                .serviceTag("users")
+                .path("/users")
+                .httpMethod(HTTPMethod.GET)
+                .staleIfError(60000)
+                .responseType(listOf(String.class))
+                .build();
+    }
+
+    static ParameterizedType listOf(Type arg) {
+        return new ParameterizedType() {
+            @Override
+            public Type[] getActualTypeArguments() {
+                return new Type[]{arg};
+            }
+
+            @Override
+            public Type getRawType() {
+                return List.class;
+            }
+
+            @Override
+            public Type getOwnerType() {
+                return null;
+            }
+        };
+    }
+}
@@ -0,0 +1,88 @@
+package com.ravi9a2.r4j.aspect;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import javax.tools.Diagnostic;
+import javax.tools.DiagnosticCollector;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.ToolProvider;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Runs the annotation processor over sample services and compiles the Impl
+ * classes it generates.
+ */
+public class TestGeneratedImplCompiles {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    public void testBatchCall_GenericItemType() throws IOException {
+        source("demo/Item.java", "package demo;\n"
+                + "public class Item {\n"
+                + "}\n");
+        source("demo/ItemService.java", "package demo;\n"
+                + "import com.ravi9a2.nea.annotations.BatchCall;\n"
+                + "import com.ravi9a2.nea.annotations.ExternalService;\n"
+                + "import com.ravi9a2.nea.annotations.PostCall;\n"
+                + "import reactor.core.publisher.Mono;\n"
+                + "import java.util.List;\n"
+                + "import java.util.Map;\n"
+                + "import java.util.concurrent.CompletableFuture;\n"
+                + "@ExternalService\n"
+                + "public interface ItemService {\n"
+                + "    @BatchCall\n"
+                + "    @PostCall(service = \"items\", path = \"/items/bulk\")\n"
+                + "    CompletableFuture<List<Item>> batchedList(Long id);\n"
+                + "    @BatchCall(param = \"ids\")\n"
+                + "    @PostCall(service = \"items\", path = \"/items/bulk\")\n"
+                + "    Mono<Map<String, List<Item>>> batchedMap(Long id);\n"
+                + "}\n");
+
+        assertCompiles();
+        Assertions.assertTrue(Files.exists(dir.resolve("out/demo/ItemServiceImpl.class")));
+    }
+
+    private void source(String name, String content) throws IOException {
+        Path file = dir.resolve("src").resolve(name);
+        Files.createDirectories(file.getParent());
+        Files.write(file, content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private void assertCompiles() throws IOException {
+        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<>();
+        Path out = Files.createDirectories(dir.resolve("out"));
+        try (StandardJavaFileManager files = compiler.getStandardFileManager(diagnostics, null,
+                StandardCharsets.UTF_8)) {
+            Iterable<? extends JavaFileObject> units = files.getJavaFileObjects(
+                    dir.resolve("src/demo/Item.java").toFile(), dir.resolve("src/demo/ItemService.java").toFile());
+            List<String> options = Arrays.asList("-classpath", classpath(), "-d", out.toString(),
+                    "-s", out.toString());
+            boolean compiled = compiler.getTask(null, files, diagnostics, options, null, units).call();
+            StringBuilder errors = new StringBuilder();
+            for (Diagnostic<? extends JavaFileObject> diagnostic : diagnostics.getDiagnostics()) {
+                if (diagnostic.getKind() == Diagnostic.Kind.ERROR) {
+                    errors.append(diagnostic).append('\n');
+                }
+            }
+            Assertions.assertTrue(compiled, errors.toString());
+        }
+    }
+
+    private static String classpath() {
+        String classpath = System.getProperty("surefire.test.class.path");
+        return Objects.isNull(classpath) ? System.getProperty("java.class.path") : classpath;
+    }
+}
@@ -0,0 +1,288 @@
+package com.ravi9a2.r4j.aspect;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ravi9a2.nca.codec.Codec;
+import com.ravi9a2.nca.codec.Codecs;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import javax.tools.Diagnostic;
+import javax.tools.DiagnosticCollector;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.ToolProvider;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Generates the JSON codecs of a sample service, compiles them and checks that
+ * they read and write like the Jackson backed JSON codec.
+ */
+public class TestJsonCodecGenerator {
+
+    private static final String USER = "{\"name\":\"ravi\",\"age\":31,\"id\":9007199254740993,\"active\":true,"
+            + "\"score\":4.5,\"balance\":12.75,\"status\":\"BLOCKED\",\"address\":{\"city\":\"Pune\",\"zip\":411001},"
+            + "\"history\":[{\"city\":\"Delhi\",\"zip\":null},null],\"tags\":{\"a\":[1,2],\"b\":[]},"
+            + "\"roles\":[\"admin\"]}";
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    @TempDir
+    static Path dir;
+
+    static URLClassLoader loader;
+    static Class<?> user;
+
+    @BeforeAll
+    public static void init() throws Exception {
+        source("demo/Status.java", "package demo;\n"
+                + "public enum Status { ACTIVE, BLOCKED }\n");
+        source("demo/Address.java", "package demo;\n"
+                + "public class Address {\n"
+                + "    public String city;\n"
+                + "    public Integer zip;\n"
+                + "}\n");
+        source("demo/User.java", "package demo;\n"
+                + "import java.math.BigDecimal;\n"
+                + "import java.util.List;\n"
+                + "import java.util.Map;\n"
+                + "import java.util.Set;\n"
+                + "public class User {\n"
+                + "    private String name;\n"
+                + "    private int age;\n"
+                + "    private long id;\n"
+                + "    private boolean active;\n"
+                + "    private Double score;\n"
+                + "    private BigDecimal balance;\n"
+                + "    private Status status;\n"
+                + "    private Address address;\n"
+                + "    private List<Address> history;\n"
+                + "    private Map<String, List<Integer>> tags;\n"
+                + "    public Set<String> roles;\n"
+                + accessors("String", "Name") + accessors("int", "Age") + accessors("long", "Id")
+                + "    public boolean isActive() { return active; }\n"
+                + "    public void setActive(boolean active) { this.active = active; }\n"
+                + accessors("Double", "Score") + accessors("BigDecimal", "Balance")
+                + accessors("Status", "Status") + accessors("Address", "Address")
+                + accessors("List<Address>", "History") + accessors("Map<String, List<Integer>>", "Tags")
+                + "}\n");
+        source("demo/UserService.java", "package demo;\n"
+                + "import com.ravi9a2.nea.annotations.ExternalService;\n"
+                + "import com.ravi9a2.nea.annotations.GetCall;\n"
+                + "import com.ravi9a2.nea.annotations.Payload;\n"
+                + "import com.ravi9a2.nea.annotations.PostCall;\n"
+                + "import reactor.core.publisher.Mono;\n"
+                + "import java.util.List;\n"
+                + "import java.util.Map;\n"
+                + "@ExternalService(generateCodecs = true)\n"
+                + "public interface UserService {\n"
+                + "    @PostCall(service = \"users\", path = \"/users\")\n"
+                + "    User create(@Payload User user);\n"
+                + "    @GetCall(service = \"users\", path = \"/users\")\n"
+                + "    Mono<List<User>> list();\n"
+                + "    @GetCall(service = \"users\", path = \"/users/by-name\")\n"
+                + "    Mono<Map<String, Status>> statuses();\n"
+                + "}\n");
+        compile();
+        loader = new URLClassLoader(new URL[]{dir.resolve("out").toUri().toURL()},
+                TestJsonCodecGenerator.class.getClassLoader());
+        user = loader.loadClass("demo.User");
+    }
+
+    @Test
+    public void testBean_ReadsLikeJackson() throws Exception {
+        Codec codec = codec("createCodec");
+
+        Object generated = codec.decode(bytes(USER), user);
+        Object jackson = Codecs.json().decode(bytes(USER), user);
+
+        Assertions.assertSame(user, generated.getClass());
+        Assertions.assertEquals(tree(jackson), tree(generated));
+        Assertions.assertEquals(MAPPER.readTree(USER), tree(generated));
+    }
+
+    @Test
+    public void testBean_WritesLikeJackson() throws Exception {
+        Codec codec = codec("createCodec");
+        Object value = Codecs.json().decode(bytes(USER), user);
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        codec.encode(value, out);
+
+        Assertions.assertEquals(MAPPER.readTree(Codecs.json().encode(value)), MAPPER.readTree(out.toByteArray()));
+        Assertions.assertEquals(tree(value), tree(codec.decode(out.toByteArray(), user)));
+    }
+
+    @Test
+    public void testBean_Nulls() throws Exception {
+        Codec codec = codec("createCodec");
+        String json = "{\"name\":null,\"age\":null,\"address\":null,\"history\":null,\"status\":null,"
+                + "\"score\":null,\"tags\":{\"a\":null,\"b\":[null]}}";
+
+        Object generated = codec.decode(bytes(json), user);
+
+        Assertions.assertEquals(tree(Codecs.json().decode(bytes(json), user)), tree(generated));
+        Assertions.assertNull(codec.decode(bytes("null"), user));
+        Assertions.assertNull(codec.decode(bytes(""), user));
+    }
+
+    @Test
+    public void testBean_UnknownPropertiesSkipped() throws Exception {
+        Codec codec = codec("createCodec");
+        String json = "{\"unknown\":{\"x\":[1,{\"y\":null}]},\"name\":\"ravi\",\"other\":[[]],\"age\":3}";
+
+        Object generated = codec.decode(bytes(json), user);
+
+        Assertions.assertEquals(tree(Codecs.json().decode(bytes("{\"name\":\"ravi\",\"age\":3}"), user)),
+                tree(generated));
+    }
+
+    @Test
+    public void testList_ReadsLikeJackson() throws Exception {
+        Codec codec = codec("listCodec");
+        Type type = parameterized(List.class, user);
+        String json = "[" + USER + ",null,{}]";
+
+        List<?> generated = codec.decode(new ByteArrayInputStream(bytes(json)), type);
+        List<?> jackson = Codecs.json().decode(bytes(json), type);
+
+        Assertions.assertEquals(3, generated.size());
+        Assertions.assertNull(generated.get(1));
+        Assertions.assertEquals(trees(jackson), trees(generated));
+    }
+
+    @Test
+    public void testMapOfEnums_ReadsLikeJackson() throws Exception {
+        Codec codec = codec("statusesCodec");
+        Type type = parameterized(Map.class, String.class, loader.loadClass("demo.Status"));
+        String json = "{\"a\":\"ACTIVE\",\"b\":null,\"c\":\"BLOCKED\"}";
+
+        Map<?, ?> generated = codec.decode(bytes(json), type);
+
+        Assertions.assertEquals(Codecs.json().<Map<?, ?>>decode(bytes(json), type), generated);
+        Assertions.assertEquals(Arrays.asList("a", "b", "c"), new ArrayList<>(generated.keySet()));
+    }
+
+    @Test
+    public void testMismatchedTokensFailLikeJackson() throws Exception {
+        Codec codec = codec("createCodec");
+        Codec statuses = codec("statusesCodec");
+        Type statusMap = parameterized(Map.class, String.class, loader.loadClass("demo.Status"));
+
+        for (String json : Arrays.asList("{\"age\":[1]}", "{\"age\":\"old\"}", "{\"name\":{}}",
+                "{\"address\":\"Pune\"}", "{\"history\":{}}", "{\"active\":\"maybe\"}", "[]")) {
+            Assertions.assertThrows(IOException.class, () -> Codecs.json().decode(bytes(json), user), json);
+            Assertions.assertThrows(IOException.class, () -> codec.decode(bytes(json), user), json);
+        }
+        Assertions.assertThrows(IOException.class, () -> statuses.decode(bytes("{\"a\":\"GONE\"}"), statusMap));
+    }
+
+    @Test
+    public void testOtherTypesHandedToJackson() throws Exception {
+        Codec codec = codec("createCodec");
+
+        Assertions.assertEquals(Arrays.asList(1, 2), codec.decode(bytes("[1,2]"),
+                parameterized(List.class, Integer.class)));
+        Assertions.assertEquals("[\"a\"]", new String(codec.encode(Arrays.asList("a")), StandardCharsets.UTF_8));
+    }
+
+    private static Codec codec(String name) throws Exception {
+        Field field = loader.loadClass("demo.UserServiceImpl").getDeclaredField(name);
+        field.setAccessible(true);
+        return (Codec) field.get(null);
+    }
+
+    private static String accessors(String type, String property) {
+        String field = Character.toLowerCase(property.charAt(0)) + property.substring(1);
+        return "    public " + type + " get" + property + "() { return " + field + "; }\n"
+                + "    public void set" + property + "(" + type + " " + field + ") { this." + field + " = "
+                + field + "; }\n";
+    }
+
+    private static JsonNode tree(Object value) throws IOException {
+        return MAPPER.readTree(Codecs.json().encode(value));
+    }
+
+    private static List<JsonNode> trees(List<?> values) throws IOException {
+        List<JsonNode> trees = new ArrayList<>();
+        for (Object value : values) {
+            trees.add(MAPPER.readTree(Codecs.json().encode(value)));
+        }
+        return trees;
+    }
+
+    private static byte[] bytes(String json) {
+        return json.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static ParameterizedType parameterized(Type raw, Type... args) {
+        return new ParameterizedType() {
+            @Override
+            public Type[] getActualTypeArguments() {
+                return args;
+            }
+
+            @Override
+            public Type getRawType() {
+                return raw;
+            }
+
+            @Override
+            public Type getOwnerType() {
+                return null;
+            }
+        };
+    }
+
+    private static void source(String name, String content) throws IOException {
+        Path file = dir.resolve("src").resolve(name);
+        Files.createDirectories(file.getParent());
+        Files.write(file, content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static void compile() throws IOException {
+        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<>();
+        Path out = Files.createDirectories(dir.resolve("out"));
+        try (StandardJavaFileManager files = compiler.getStandardFileManager(diagnostics, null,
+                StandardCharsets.UTF_8)) {
+            List<java.io.File> sources = new ArrayList<>();
+            for (String name : Arrays.asList("Status", "Address", "User", "UserService")) {
+                sources.add(dir.resolve("src/demo/" + name + ".java").toFile());
+            }
+            List<String> options = Arrays.asList("-classpath", classpath(), "-d", out.toString(),
+                    "-s", out.toString());
+            boolean compiled = compiler.getTask(null, files, diagnostics, options, null,
+                    files.getJavaFileObjectsFromFiles(sources)).call();
+            StringBuilder errors = new StringBuilder();
+            for (Diagnostic<? extends JavaFileObject> diagnostic : diagnostics.getDiagnostics()) {
+                if (diagnostic.getKind() == Diagnostic.Kind.ERROR) {
+                    errors.append(diagnostic).append('\n');
+                }
+            }
+            Assertions.assertTrue(compiled, errors.toString());
+        }
+    }
+
+    private static String classpath() {
+        String classpath = System.getProperty("surefire.test.class.path");
+        return Objects.isNull(classpath) ? System.getProperty("java.class.path") : classpath;
+    }
+}
@@ -6,6 +6,7 @@ import com.ravi9a2.nea.annotations.Headers;
 import com.ravi9a2.nea.annotations.PathParam;
 import com.ravi9a2.nea.annotations.PostCall;
 import com.ravi9a2.nea.annotations.QueryParam;
+import com.ravi9a2.nea.core.data.RPCMethod;
 import com.ravi9a2.nea.core.data.Type;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
@@ -19,6 +20,7 @@ import javax.lang.model.element.VariableElement;
 import javax.lang.model.type.TypeMirror;
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashSet;
 import java.util.List;
 
@@ -204,6 +206,7 @@ public class TestProcessorUtility {
                 "import java.util.*;\n" +
                 "\n" +
                 "import java.util.concurrent.ExecutionException;\n" +
+                "import com.ravi9a2.nca.data.RequestTemplate;\n" +
                 "import org.apache.http.client.HttpClient;\n" +
                 "import org.springframework.beans.factory.annotation.Qualifier;\n" +
                 "import java.util.concurrent.CompletableFuture;\n" +
@@ -248,6 +251,7 @@ public class TestProcessorUtility {
                 "import java.util.*;\n" +
                 "\n" +
                 "import java.util.concurrent.ExecutionException;\n" +
+                "import com.ravi9a2.nca.data.RequestTemplate;\n" +
                 "import org.springframework.web.reactive.function.client.WebClient;\n" +
                 "\n" +
                 "@Service\n" +
@@ -288,6 +292,7 @@ public class TestProcessorUtility {
                 "import java.util.*;\n" +
                 "\n" +
                 "import java.util.concurrent.ExecutionException;\n" +
+                "import com.ravi9a2.nca.data.RequestTemplate;\n" +
                 "import org.springframework.web.reactive.function.client.WebClient;\n" +
                 "import org.apache.http.client.HttpClient;\n" +
                 "import org.springframework.beans.factory.annotation.Qualifier;\n" +
@@ -716,6 +721,45 @@ public class TestProcessorUtility {
         Assertions.assertEquals(ProcessorUtility.ExecutorType.REACTIVE_FLUX, executeMethodNameActual);
     }
 
+    @Test
+    public void testGetExecuteMethodName_GrpcFlux() {
+        ExecutableElement element = Mockito.mock(ExecutableElement.class);
+        TypeMirror returnType = Mockito.mock(TypeMirror.class);
+        Mockito.when(element.getReturnType()).thenReturn(returnType);
+        Mockito.when(returnType.toString()).thenReturn("reactor.core.publisher.Flux<OrderEvent>");
+        ProcessorUtility.ExecutorType executeMethodNameActual = ProcessorUtility.getExecutorType(element, Type.RPC);
+        Assertions.assertEquals(ProcessorUtility.ExecutorType.GRPC_FLUX, executeMethodNameActual);
+
+        AnnotationWrapper annotationWrapper = Mockito.mock(AnnotationWrapper.class);
+        Mockito.when(annotationWrapper.rpcMethod()).thenReturn(RPCMethod.SERVER_STREAMING);
+        Assertions.assertEquals("executeServerStreaming",
+                GRPCGenerator.executorMethodName(annotationWrapper, executeMethodNameActual));
+        Mockito.when(annotationWrapper.rpcMethod()).thenReturn(RPCMethod.BIDIRECTIONAL);
+        Assertions.assertEquals("executeBiDi",
+                GRPCGenerator.executorMethodName(annotationWrapper, executeMethodNameActual));
+        Mockito.when(annotationWrapper.rpcMethod()).thenReturn(RPCMethod.UNARY);
+        Assertions.assertThrows(IllegalStateException.class,
+                () -> GRPCGenerator.executorMethodName(annotationWrapper, executeMethodNameActual));
+    }
+
+    @Test
+    public void testGetExecuteMethodName_GrpcMono() {
+        ExecutableElement element = Mockito.mock(ExecutableElement.class);
+        TypeMirror returnType = Mockito.mock(TypeMirror.class);
+        Mockito.when(element.getReturnType()).thenReturn(returnType);
+        Mockito.when(returnType.toString()).thenReturn("reactor.core.publisher.Mono<UploadSummary>");
+        ProcessorUtility.ExecutorType executeMethodNameActual = ProcessorUtility.getExecutorType(element, Type.RPC);
+        Assertions.assertEquals(ProcessorUtility.ExecutorType.GRPC_MONO, executeMethodNameActual);
+
+        AnnotationWrapper annotationWrapper = Mockito.mock(AnnotationWrapper.class);
+        Mockito.when(annotationWrapper.rpcMethod()).thenReturn(RPCMethod.CLIENT_STREAMING);
+        Assertions.assertEquals("executeClientStreaming",
+                GRPCGenerator.executorMethodName(annotationWrapper, executeMethodNameActual));
+        Mockito.when(annotationWrapper.rpcMethod()).thenReturn(RPCMethod.SERVER_STREAMING);
+        Assertions.assertThrows(IllegalStateException.class,
+                () -> GRPCGenerator.executorMethodName(annotationWrapper, executeMethodNameActual));
+    }
+
     @Test
     public void testGetReturnType() {
         ExecutableElement element = Mockito.mock(ExecutableElement.class);
@@ -791,6 +835,245 @@ public class TestProcessorUtility {
                 "\t\t\t.build();\n", actual);
     }
 
+    @Test
+    public void testBuildRestCallDefinition_WithCallSite() {
+        GetCall getCall = Mockito.mock(GetCall.class);
+        AnnotationWrapper annotationWrapper = AnnotationWrapper.wrap(getCall);
+        Mockito.when(getCall.path()).thenReturn("/api/v1/product");
+        Mockito.when(getCall.service()).thenReturn("serviceName");
+        Mockito.when(getCall.circuitBreaker()).thenReturn("cbName");
+        Mockito.when(getCall.bulkhead()).thenReturn("bkName");
+
+        String actual = ProcessorUtility.buildRestCallDefinition(annotationWrapper, "", "", "",
+                "returnTypeString", "reqObjNameString", "getProductCallSite");
+        Assertions.assertEquals("\t\tRestCallDefinition cd = RestCallDefinition.builder()\n" +
+                "\t\t\t.isCircuitBreakerEnabled(false)\n" +
+                "\t\t\t.isBulkheadEnabled(false)\n" +
+                "\t\t\t.serviceTag(\"serviceName\")\n" +
+                "\t\t\t.isSilentFailure(false)\n" +
+                "\t\t\t.isRetryable(false)\n" +
+                "\t\t\t.path(\"/api/v1/product\")\n" +
+                "\t\t\t.responseType(returnTypeString.class)\n" +
+                "\t\t\t.payload(reqObjNameString)\n" +
+                "\t\t\t.cbTag(\"cbName\")\n" +
+                "\t\t\t.bhTag(\"bkName\")\n" +
+                "\t\t\t.retryTag(\"serviceName\")\n" +
+                "\t\t\t.type(Type.HTTP)\n" +
+                "\t\t\t.httpMethod(HTTPMethod.GET)\n" +
+                "\t\t\t.callSite(getProductCallSite)\n" +
+                "\t\t\t.template(getProductTemplate)\n" +
+                "\t\t\t.build();\n", actual);
+    }
+
+    @Test
+    public void testBuildRestCallDefinition_Coalesced() {
+        GetCall getCall = Mockito.mock(GetCall.class);
+        AnnotationWrapper annotationWrapper = AnnotationWrapper.wrap(getCall);
+        Mockito.when(getCall.path()).thenReturn("/api/v1/product");
+        Mockito.when(getCall.service()).thenReturn("serviceName");
+        Mockito.when(getCall.circuitBreaker()).thenReturn("cbName");
+        Mockito.when(getCall.bulkhead()).thenReturn("bkName");
+        Mockito.when(getCall.coalesce()).thenReturn(true);
+
+        String actual = ProcessorUtility.buildRestCallDefinition(annotationWrapper, "", "", "",
+                "returnTypeString", "reqObjNameString", "getProductCallSite");
+        Assertions.assertEquals("\t\tRestCallDefinition cd = RestCallDefinition.builder()\n" +
+                "\t\t\t.isCircuitBreakerEnabled(false)\n" +
+                "\t\t\t.isBulkheadEnabled(false)\n" +
+                "\t\t\t.serviceTag(\"serviceName\")\n" +
+                "\t\t\t.isSilentFailure(false)\n" +
+                "\t\t\t.isRetryable(false)\n" +
+                "\t\t\t.path(\"/api/v1/product\")\n" +
+                "\t\t\t.responseType(returnTypeString.class)\n" +
+                "\t\t\t.payload(reqObjNameString)\n" +
+                "\t\t\t.cbTag(\"cbName\")\n" +
+                "\t\t\t.bhTag(\"bkName\")\n" +
+                "\t\t\t.retryTag(\"serviceName\")\n" +
+                "\t\t\t.coalesce(true)\n" +
+                "\t\t\t.type(Type.HTTP)\n" +
+                "\t\t\t.httpMethod(HTTPMethod.GET)\n" +
+                "\t\t\t.callSite(getProductCallSite)\n" +
+                "\t\t\t.template(getProductTemplate)\n" +
+                "\t\t\t.build();\n", actual);
+    }
+
+    @Test
+    public void testBuildRestCallDefinition_StaleIfError() {
+        GetCall getCall = Mockito.mock(GetCall.class);
+        AnnotationWrapper annotationWrapper = AnnotationWrapper.wrap(getCall);
+        Mockito.when(getCall.path()).thenReturn("/api/v1/product");
+        Mockito.when(getCall.service()).thenReturn("serviceName");
+        Mockito.when(getCall.circuitBreaker()).thenReturn("cbName");
+        Mockito.when(getCall.bulkhead()).thenReturn("bkName");
+        Mockito.when(getCall.staleIfError()).thenReturn(60000L);
+
+        String actual = ProcessorUtility.buildRestCallDefinition(annotationWrapper, "", "", "",
+                "returnTypeString", "reqObjNameString", "getProductCallSite");
+        Assertions.assertEquals("\t\tRestCallDefinition cd = RestCallDefinition.builder()\n" +
+                "\t\t\t.isCircuitBreakerEnabled(false)\n" +
+                "\t\t\t.isBulkheadEnabled(false)\n" +
+                "\t\t\t.serviceTag(\"serviceName\")\n" +
+                "\t\t\t.isSilentFailure(false)\n" +
+                "\t\t\t.isRetryable(false)\n" +
+                "\t\t\t.path(\"/api/v1/product\")\n" +
+                "\t\t\t.responseType(returnTypeString.class)\n" +
+                "\t\t\t.payload(reqObjNameString)\n" +
+                "\t\t\t.cbTag(\"cbName\")\n" +
+                "\t\t\t.bhTag(\"bkName\")\n" +
+                "\t\t\t.retryTag(\"serviceName\")\n" +
+                "\t\t\t.staleIfError(60000L)\n" +
+                "\t\t\t.type(Type.HTTP)\n" +
+                "\t\t\t.httpMethod(HTTPMethod.GET)\n" +
+                "\t\t\t.callSite(getProductCallSite)\n" +
+                "\t\t\t.template(getProductTemplate)\n" +
+                "\t\t\t.build();\n", actual);
+    }
+
+    @Test
+    public void testBuildRestCallDefinition_GeneratedCodec() {
+        GetCall getCall = Mockito.mock(GetCall.class);
+        AnnotationWrapper annotationWrapper = AnnotationWrapper.wrap(getCall).codec("getProductCodec");
+        Mockito.when(getCall.path()).thenReturn("/api/v1/product");
+        Mockito.when(getCall.service()).thenReturn("serviceName");
+        Mockito.when(getCall.circuitBreaker()).thenReturn("cbName");
+        Mockito.when(getCall.bulkhead()).thenReturn("bkName");
+
+        String actual = ProcessorUtility.buildRestCallDefinition(annotationWrapper, "", "", "",
+                "returnTypeString", "reqObjNameString", "getProductCallSite");
+        Assertions.assertEquals("\t\tRestCallDefinition cd = RestCallDefinition.builder()\n" +
+                "\t\t\t.isCircuitBreakerEnabled(false)\n" +
+                "\t\t\t.isBulkheadEnabled(false)\n" +
+                "\t\t\t.serviceTag(\"serviceName\")\n" +
+                "\t\t\t.isSilentFailure(false)\n" +
+                "\t\t\t.isRetryable(false)\n" +
+                "\t\t\t.path(\"/api/v1/product\")\n" +
+                "\t\t\t.responseType(returnTypeString.class)\n" +
+                "\t\t\t.payload(reqObjNameString)\n" +
+                "\t\t\t.cbTag(\"cbName\")\n" +
+                "\t\t\t.bhTag(\"bkName\")\n" +
+                "\t\t\t.retryTag(\"serviceName\")\n" +
+                "\t\t\t.codec(getProductCodec)\n" +
+                "\t\t\t.type(Type.HTTP)\n" +
+                "\t\t\t.httpMethod(HTTPMethod.GET)\n" +
+                "\t\t\t.callSite(getProductCallSite)\n" +
+                "\t\t\t.template(getProductTemplate)\n" +
+                "\t\t\t.build();\n", actual);
+    }
+
+    @Test
+    public void testCodecPropertyName() {
+        Assertions.assertEquals("name", JsonCodecGenerator.propertyName("getName", 3));
+        Assertions.assertEquals("active", JsonCodecGenerator.propertyName("isActive", 2));
+        Assertions.assertEquals("urlvalue", JsonCodecGenerator.propertyName("setURLValue", 3));
+    }
+
+    @Test
+    public void testBuildRestCallDefinition_MapResponseType() {
+        GetCall getCall = Mockito.mock(GetCall.class);
+        AnnotationWrapper annotationWrapper = AnnotationWrapper.wrap(getCall);
+        Mockito.when(getCall.path()).thenReturn("/api/v1/products");
+        Mockito.when(getCall.service()).thenReturn("serviceName");
+        Mockito.when(getCall.circuitBreaker()).thenReturn("cbName");
+        Mockito.when(getCall.bulkhead()).thenReturn("bkName");
+
+        String actual = ProcessorUtility.buildRestCallDefinition(annotationWrapper, "", "", "",
+                "java.util.Map<java.lang.String, com.example.Product>", "keys", "getProductCallSite");
+        Assertions.assertEquals("\t\tRestCallDefinition cd = RestCallDefinition.builder()\n" +
+                "\t\t\t.isCircuitBreakerEnabled(false)\n" +
+                "\t\t\t.isBulkheadEnabled(false)\n" +
+                "\t\t\t.serviceTag(\"serviceName\")\n" +
+                "\t\t\t.isSilentFailure(false)\n" +
+                "\t\t\t.isRetryable(false)\n" +
+                "\t\t\t.path(\"/api/v1/products\")\n" +
+                "\t\t\t.responseType(new java.lang.reflect.ParameterizedType() {\n" +
+                "\t\t\t\t@Override\n" +
+                "\t\t\t\tpublic java.lang.reflect.Type[] getActualTypeArguments() {\n" +
+                "\t\t\t\t\treturn new java.lang.reflect.Type[]{java.lang.String.class, com.example.Product.class};\n" +
+                "\t\t\t\t}\n" +
+                "\t\t\t\t@Override\n" +
+                "\t\t\t\tpublic java.lang.reflect.Type getRawType() {\n" +
+                "\t\t\t\t\treturn java.util.Map.class;\n" +
+                "\t\t\t\t}\n" +
+                "\t\t\t\t@Override\n" +
+                "\t\t\t\tpublic java.lang.reflect.Type getOwnerType() {\n" +
+                "\t\t\t\t\treturn null;\n" +
+                "\t\t\t\t}\n" +
+                "\t\t\t})\n" +
+                "\t\t\t.payload(keys)\n" +
+                "\t\t\t.cbTag(\"cbName\")\n" +
+                "\t\t\t.bhTag(\"bkName\")\n" +
+                "\t\t\t.retryTag(\"serviceName\")\n" +
+                "\t\t\t.type(Type.HTTP)\n" +
+                "\t\t\t.httpMethod(HTTPMethod.GET)\n" +
+                "\t\t\t.callSite(getProductCallSite)\n" +
+                "\t\t\t.template(getProductTemplate)\n" +
+                "\t\t\t.build();\n", actual);
+    }
+
+    @Test
+    public void testTypeArguments_Nested() {
+        Assertions.assertEquals(Arrays.asList("java.lang.String", "java.util.Map<java.lang.String, demo.Item>"),
+                ProcessorUtility.typeArguments("java.lang.String, java.util.Map<java.lang.String, demo.Item>"));
+    }
+
+    @Test
+    public void testGetResponseTypeCode_Wildcard() {
+        Assertions.assertThrows(IllegalStateException.class,
+                () -> ProcessorUtility.getResponseTypeCode("java.util.List<? extends demo.Item>"));
+    }
+
+    @Test
+    public void testBuildCallSite() {
+        PostCall postCall = Mockito.mock(PostCall.class);
+        AnnotationWrapper annotationWrapper = AnnotationWrapper.wrap(postCall);
+        Mockito.when(postCall.service()).thenReturn("serviceName");
+        Mockito.when(postCall.circuitBreaker()).thenReturn("cbName");
+        Mockito.when(postCall.bulkhead()).thenReturn("bkName");
+        Mockito.when(postCall.bhEnabled()).thenReturn(true);
+        Mockito.when(postCall.cbEnabled()).thenReturn(true);
+        Mockito.when(postCall.path()).thenReturn("/products");
+
+        String actual = ProcessorUtility.buildCallSite(annotationWrapper, "createProductCallSite");
+        Assertions.assertEquals("\tprivate static final CallSite createProductCallSite = CallSite.builder()\n" +
+                "\t\t\t.serviceTag(\"serviceName\")\n" +
+                "\t\t\t.cbTag(\"cbName\")\n" +
+                "\t\t\t.bhTag(\"bkName\")\n" +
+                "\t\t\t.retryTag(\"serviceName\")\n" +
+                "\t\t\t.httpMethod(HTTPMethod.POST)\n" +
+                "\t\t\t.isCircuitBreakerEnabled(true)\n" +
+                "\t\t\t.isBulkheadEnabled(true)\n" +
+                "\t\t\t.isRetryable(false)\n" +
+                "\t\t\t.build();\n\n" +
+                "\tprivate static final RequestTemplate createProductTemplate = RequestTemplate.of(\"POST\", " +
+                "\"/products\");\n\n", actual);
+    }
+
+    @Test
+    public void testBuildCallSite_Hedged() {
+        GetCall getCall = Mockito.mock(GetCall.class);
+        AnnotationWrapper annotationWrapper = AnnotationWrapper.wrap(getCall);
+        Mockito.when(getCall.service()).thenReturn("serviceName");
+        Mockito.when(getCall.circuitBreaker()).thenReturn("cbName");
+        Mockito.when(getCall.bulkhead()).thenReturn("bkName");
+        Mockito.when(getCall.hedge()).thenReturn("hedgeName");
+        Mockito.when(getCall.path()).thenReturn("/products/{id}");
+
+        String actual = ProcessorUtility.buildCallSite(annotationWrapper, "getProductCallSite");
+        Assertions.assertEquals("\tprivate static final CallSite getProductCallSite = CallSite.builder()\n" +
+                "\t\t\t.serviceTag(\"serviceName\")\n" +
+                "\t\t\t.cbTag(\"cbName\")\n" +
+                "\t\t\t.bhTag(\"bkName\")\n" +
+                "\t\t\t.retryTag(\"serviceName\")\n" +
+                "\t\t\t.hedgeTag(\"hedgeName\")\n" +
+                "\t\t\t.httpMethod(HTTPMethod.GET)\n" +
+                "\t\t\t.isCircuitBreakerEnabled(false)\n" +
+                "\t\t\t.isBulkheadEnabled(false)\n" +
+                "\t\t\t.isRetryable(false)\n" +
+                "\t\t\t.build();\n\n" +
+                "\tprivate static final RequestTemplate getProductTemplate = RequestTemplate.of(\"GET\", " +
+                "\"/products/{id}\");\n\n", actual);
+    }
+
     @Test
     public void testAddLogLines() {
 
@@ -805,4 +1088,19 @@ public class TestProcessorUtility {
                 "\t\tlog.debug(\"Payload: \" + reqObjNameString);\n", actual);
     }
 
+    @Test
+    public void testBuildMethodDescriptor() {
+
+        AnnotationWrapper annotationWrapper = Mockito.mock(AnnotationWrapper.class);
+        Mockito.when(annotationWrapper.fqPackageName()).thenReturn("com.ravi9a2.example.proto");
+        Mockito.when(annotationWrapper.className()).thenReturn("OrderService");
+        Mockito.when(annotationWrapper.methodName()).thenReturn("GetOrder");
+
+        Assertions.assertEquals("getOrderDescriptor1", GRPCGenerator.descriptorName("getOrderCallSite1"));
+        Assertions.assertEquals("\tprivate static final io.grpc.MethodDescriptor<?, ?> getOrderDescriptor = " +
+                "com.ravi9a2.example.proto.OrderServiceGrpc.getGetOrderMethod();\n\n",
+                GRPCGenerator.buildMethodDescriptor(annotationWrapper, "getOrderCallSite"));
+        Assertions.assertEquals("", GRPCGenerator.buildMethodDescriptor(annotationWrapper, null));
+    }
+
 }
@@ -0,0 +1,78 @@
+package com.ravi9a2.r4j.config;
+
+import com.ravi9a2.r4j.HedgePolicy;
+import com.ravi9a2.r4j.HedgePolicyRegistry;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.MockitoAnnotations;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static com.ravi9a2.r4j.config.HedgeBeanLoader.BUDGET_PERCENT;
+import static com.ravi9a2.r4j.config.HedgeBeanLoader.DEFAULT;
+import static com.ravi9a2.r4j.config.HedgeBeanLoader.DELAY;
+import static com.ravi9a2.r4j.config.HedgeBeanLoader.DELAY_DEFAULT;
+import static com.ravi9a2.r4j.config.HedgeBeanLoader.MAX_TOKENS;
+import static com.ravi9a2.r4j.config.HedgeBeanLoader.PERCENTILE;
+
+public class TestHedgeBeanLoader {
+
+    @InjectMocks
+    HedgeBeanLoader hedgeBeanLoader;
+
+    @BeforeEach
+    public void init() {
+        MockitoAnnotations.initMocks(this);
+    }
+
+    @Test
+    public void test_defaultConfigs() {
+        HedgePolicyRegistry registry = hedgeBeanLoader.hedgePolicyRegistry(new HashMap<>());
+        HedgePolicy hedgePolicy = registry.policy("hedgeConfig1");
+
+        Assertions.assertEquals(Long.parseLong(DELAY_DEFAULT), hedgePolicy.delayMillis());
+        Assertions.assertSame(hedgePolicy, registry.policy("hedgeConfig1"));
+    }
+
+    @Test
+    public void test_providedConfigs() {
+        HashMap<String, Map<String, String>> hedgeConfigs = new HashMap<>();
+        HashMap<String, String> defaultConfig = new HashMap<>();
+        defaultConfig.put(DELAY, "20");
+        hedgeConfigs.put(DEFAULT, defaultConfig);
+        HashMap<String, String> hedgeConfig1 = new HashMap<>();
+        hedgeConfig1.put(PERCENTILE, "90");
+        hedgeConfigs.put("hedgeConfig1", hedgeConfig1);
+
+        HedgePolicyRegistry registry = hedgeBeanLoader.hedgePolicyRegistry(hedgeConfigs);
+        HedgePolicy hedgePolicy = registry.policy("hedgeConfig1");
+
+        Assertions.assertEquals(20L, hedgePolicy.delayMillis());
+        for (int i = 1; i <= 128; i++) {
+            hedgePolicy.recordLatency(i);
+        }
+        Assertions.assertEquals(116L, hedgePolicy.delayMillis());
+        Assertions.assertEquals(20L, registry.policy("unknownHedgeConfig").delayMillis());
+    }
+
+    @Test
+    public void test_hedgeBudget() {
+        HashMap<String, Map<String, String>> hedgeConfigs = new HashMap<>();
+        HashMap<String, String> hedgeConfig1 = new HashMap<>();
+        hedgeConfig1.put(MAX_TOKENS, "2");
+        hedgeConfig1.put(BUDGET_PERCENT, "50");
+        hedgeConfigs.put("hedgeConfig1", hedgeConfig1);
+        HedgePolicy hedgePolicy = hedgeBeanLoader.hedgePolicyRegistry(hedgeConfigs).policy("hedgeConfig1");
+
+        Assertions.assertTrue(hedgePolicy.tryAcquireHedge());
+        Assertions.assertTrue(hedgePolicy.tryAcquireHedge());
+        Assertions.assertFalse(hedgePolicy.tryAcquireHedge());
+        hedgePolicy.onCall();
+        Assertions.assertFalse(hedgePolicy.tryAcquireHedge());
+        hedgePolicy.onCall();
+        Assertions.assertTrue(hedgePolicy.tryAcquireHedge());
+    }
+}
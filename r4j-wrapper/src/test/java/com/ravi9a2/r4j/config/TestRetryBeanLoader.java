@@ -0,0 +1,121 @@
+package com.ravi9a2.r4j.config;
+
+import com.fasterxml.jackson.core.JsonParseException;
+import com.ravi9a2.nca.exceptions.NetworkClientException;
+import com.ravi9a2.nca.exceptions.Status4XXException;
+import com.ravi9a2.nca.exceptions.Status5XXException;
+import com.ravi9a2.nca.exceptions.TimeoutException;
+import com.ravi9a2.r4j.RetryBudget;
+import com.ravi9a2.r4j.RetryPolicy;
+import com.ravi9a2.r4j.RetryPolicyRegistry;
+import io.github.resilience4j.retry.RetryConfig;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.MockitoAnnotations;
+import org.springframework.core.codec.DecodingException;
+
+import java.net.ConnectException;
+import java.net.SocketTimeoutException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletionException;
+
+import static com.ravi9a2.r4j.config.RetryBeanLoader.DEFAULT;
+import static com.ravi9a2.r4j.config.RetryBeanLoader.MAX_ATTEMPTS;
+import static com.ravi9a2.r4j.config.RetryBeanLoader.MAX_ATTEMPTS_DEFAULT;
+import static com.ravi9a2.r4j.config.RetryBeanLoader.MAX_WAIT_DURATION;
+import static com.ravi9a2.r4j.config.RetryBeanLoader.RANDOMIZATION_FACTOR;
+import static com.ravi9a2.r4j.config.RetryBeanLoader.RETRY_NON_IDEMPOTENT;
+import static com.ravi9a2.r4j.config.RetryBeanLoader.WAIT_DURATION;
+
+public class TestRetryBeanLoader {
+
+    @InjectMocks
+    RetryBeanLoader retryBeanLoader;
+
+    @BeforeEach
+    public void init() {
+        MockitoAnnotations.initMocks(this);
+    }
+
+    @Test
+    public void test_defaultConfigs() {
+        HashMap<String, Map<String, String>> retryConfigs = new HashMap<>();
+        retryConfigs.put("retryConfig1", new HashMap<>());
+
+        RetryPolicyRegistry registry = retryBeanLoader.retryPolicyRegistry(retryConfigs);
+        RetryPolicy retryPolicy = registry.policy("retryConfig1");
+        RetryConfig retryConfig = retryPolicy.getRetryConfig();
+
+        Assertions.assertEquals(Integer.parseInt(MAX_ATTEMPTS_DEFAULT), retryConfig.getMaxAttempts());
+        Assertions.assertFalse(retryPolicy.isRetryNonIdempotent());
+        long firstWait = retryConfig.getIntervalFunction().apply(1);
+        Assertions.assertTrue(firstWait >= 50 && firstWait <= 150, "first wait: " + firstWait);
+    }
+
+    @Test
+    public void test_providedConfigs() {
+        HashMap<String, Map<String, String>> retryConfigs = new HashMap<>();
+        HashMap<String, String> defaultConfig = new HashMap<>();
+        defaultConfig.put(MAX_ATTEMPTS, "5");
+        retryConfigs.put(DEFAULT, defaultConfig);
+        HashMap<String, String> retryConfig1 = new HashMap<>();
+        retryConfig1.put(WAIT_DURATION, "200");
+        retryConfig1.put(RANDOMIZATION_FACTOR, "0");
+        retryConfig1.put(MAX_WAIT_DURATION, "500");
+        retryConfig1.put(RETRY_NON_IDEMPOTENT, "true");
+        retryConfigs.put("retryConfig1", retryConfig1);
+
+        RetryPolicyRegistry registry = retryBeanLoader.retryPolicyRegistry(retryConfigs);
+        RetryPolicy retryPolicy = registry.policy("retryConfig1");
+        RetryConfig retryConfig = retryPolicy.getRetryConfig();
+
+        Assertions.assertEquals(5, retryConfig.getMaxAttempts());
+        Assertions.assertTrue(retryPolicy.isRetryNonIdempotent());
+        Assertions.assertEquals(200L, retryConfig.getIntervalFunction().apply(1));
+        Assertions.assertEquals(400L, retryConfig.getIntervalFunction().apply(2));
+        Assertions.assertEquals(500L, retryConfig.getIntervalFunction().apply(3));
+        Assertions.assertEquals(5, registry.policy("unknownRetryConfig").getRetryConfig().getMaxAttempts());
+    }
+
+    @Test
+    public void test_retryableFailures() {
+        RetryPolicy retryPolicy = retryBeanLoader.retryPolicyRegistry(new HashMap<>()).policy("retryConfig1");
+
+        Assertions.assertTrue(retryPolicy.isRetryable(new Status5XXException("failed", 503), true));
+        Assertions.assertTrue(retryPolicy.isRetryable(new TimeoutException(new RuntimeException()), true));
+        Assertions.assertTrue(retryPolicy.isRetryable(new Status4XXException("throttled", 429), true));
+        Assertions.assertFalse(retryPolicy.isRetryable(new Status4XXException("not found", 404), true));
+        Assertions.assertFalse(retryPolicy.isRetryable(new IllegalArgumentException(), true));
+
+        Assertions.assertFalse(retryPolicy.isRetryable(new Status5XXException("failed", 503), false));
+        Assertions.assertTrue(retryPolicy.isRetryable(new Status4XXException("throttled", 429), false));
+        Assertions.assertTrue(retryPolicy.isRetryable(new NetworkClientException(new ConnectException()), false));
+        Assertions.assertTrue(retryPolicy.isRetryable(new CompletionException(
+                new NetworkClientException(new SocketTimeoutException())), true));
+        Assertions.assertFalse(retryPolicy.isRetryable(new NetworkClientException(
+                new JsonParseException(null, "unexpected token")), true));
+        Assertions.assertFalse(retryPolicy.isRetryable(new DecodingException("JSON decoding error"), true));
+        Assertions.assertFalse(retryPolicy.isRetryable(new RuntimeException(
+                new Status4XXException("not found", 404)), true));
+    }
+
+    @Test
+    public void test_retryBudget() {
+        HashMap<String, Map<String, String>> budgetConfigs = new HashMap<>();
+        RetryBudget retryBudget = retryBeanLoader.retryBudgetRegistry(budgetConfigs).budget("service1");
+
+        Assertions.assertTrue(retryBudget.canRetry());
+        for (int i = 0; i < 5; i++) {
+            retryBudget.onFailure();
+        }
+        Assertions.assertFalse(retryBudget.canRetry());
+        for (int i = 0; i < 10; i++) {
+            retryBudget.onSuccess();
+        }
+        Assertions.assertTrue(retryBudget.canRetry());
+        Assertions.assertEquals(6.0, retryBudget.getTokens(), 0.001);
+    }
+}
@@ -1,5 +1,7 @@
 package com.ravi9a2.r4j.config;
 
+import com.ravi9a2.r4j.AdaptiveLimiter;
+import com.ravi9a2.r4j.AdaptiveLimiterRegistry;
 import io.github.resilience4j.bulkhead.BulkheadConfig;
 import io.github.resilience4j.bulkhead.BulkheadRegistry;
 import org.junit.jupiter.api.Assertions;
@@ -11,12 +13,16 @@ import org.mockito.MockitoAnnotations;
 import java.util.HashMap;
 import java.util.Map;
 
+import static com.ravi9a2.r4j.config.SemaphoreBulkheadBeanLoader.DEFAULT;
 import static com.ravi9a2.r4j.config.SemaphoreBulkheadBeanLoader.FAIR_CALL_HANDLING_ENABLED;
+import static com.ravi9a2.r4j.config.SemaphoreBulkheadBeanLoader.INITIAL_LIMIT;
 import static com.ravi9a2.r4j.config.SemaphoreBulkheadBeanLoader.FAIR_CALL_HANDLING_ENABLED_DEFAULT;
 import static com.ravi9a2.r4j.config.SemaphoreBulkheadBeanLoader.MAX_CONCURRENT_CALLS;
 import static com.ravi9a2.r4j.config.SemaphoreBulkheadBeanLoader.MAX_CONCURRENT_CALLS_DEFAULT;
 import static com.ravi9a2.r4j.config.SemaphoreBulkheadBeanLoader.MAX_WAIT_DURATION;
 import static com.ravi9a2.r4j.config.SemaphoreBulkheadBeanLoader.MAX_WAIT_DURATION_DEFAULT;
+import static com.ravi9a2.r4j.config.SemaphoreBulkheadBeanLoader.TYPE;
+import static com.ravi9a2.r4j.config.SemaphoreBulkheadBeanLoader.TYPE_ADAPTIVE;
 import static com.ravi9a2.r4j.config.SemaphoreBulkheadBeanLoader.WRITABLE_STACK_TRACE_ENABLED;
 import static com.ravi9a2.r4j.config.SemaphoreBulkheadBeanLoader.WRITABLE_STACK_TRACE_ENABLED_DEFAULT;
 
@@ -69,4 +75,52 @@ public class TestSemaphoreBulkheadBeanLoader {
 
     }
 
+    @Test
+    public void test_adaptiveConfigs() {
+        HashMap<String, Map<String, String>> smConfigs = new HashMap<>();
+        HashMap<String, String> defaultConfig = new HashMap<>();
+        defaultConfig.put(MAX_CONCURRENT_CALLS, "40");
+        smConfigs.put(DEFAULT, defaultConfig);
+        HashMap<String, String> adaptiveConfig1 = new HashMap<>();
+        adaptiveConfig1.put(TYPE, TYPE_ADAPTIVE);
+        adaptiveConfig1.put(INITIAL_LIMIT, "10");
+        smConfigs.put("adaptiveConfig1", adaptiveConfig1);
+        smConfigs.put("semaphoreConfig1", new HashMap<>());
+
+        AdaptiveLimiterRegistry registry = semaphoreBulkheadBeanLoader.adaptiveLimiterRegistry(smConfigs);
+
+        Assertions.assertTrue(registry.isAdaptive("adaptiveConfig1"));
+        Assertions.assertFalse(registry.isAdaptive("semaphoreConfig1"));
+        Assertions.assertFalse(registry.isAdaptive("unknownConfig"));
+        Assertions.assertEquals(10, registry.limiter("adaptiveConfig1").getLimit());
+    }
+
+    @Test
+    public void test_adaptiveLimit() {
+        AdaptiveLimiter limiter = new AdaptiveLimiter("adaptiveConfig1", 4, 1, 40, 0.5, 1.5, 0.5, 1000);
+
+        for (int i = 0; i < 4; i++) {
+            Assertions.assertTrue(limiter.tryAcquire());
+        }
+        Assertions.assertFalse(limiter.tryAcquire());
+        Assertions.assertEquals(1, limiter.getRejected());
+
+        for (int i = 0; i < 4; i++) {
+            limiter.onSuccess(10_000_000L);
+        }
+        int grown = limiter.getLimit();
+        Assertions.assertTrue(grown > 4, "limit: " + grown);
+
+        for (int i = 0; i < 20; i++) {
+            Assertions.assertTrue(limiter.tryAcquire());
+            limiter.onSuccess(100_000_000L);
+        }
+        Assertions.assertTrue(limiter.getLimit() < grown, "limit: " + limiter.getLimit());
+
+        int beforeDrop = limiter.getLimit();
+        Assertions.assertTrue(limiter.tryAcquire());
+        limiter.onDropped();
+        Assertions.assertTrue(limiter.getLimit() < beforeDrop);
+        Assertions.assertEquals(0, limiter.getInFlight());
+    }
 }
@@ -0,0 +1,58 @@
+package com.ravi9a2.webclient.wrapper;
+
+import com.ravi9a2.nca.codec.Codecs;
+import org.reactivestreams.Publisher;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.codec.AbstractDataBufferDecoder;
+import org.springframework.core.codec.DecodingException;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.util.MimeType;
+import reactor.core.publisher.Flux;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Decodes the responses of the binary codecs of the Codecs registry. JSON is
+ * left to the Jackson decoder of WebClient.
+ * <p>
+ * The body is joined before it is decoded. A Flux is decoded from a list of its
+ * elements, so it needs a codec with collection support.
+ */
+public class CodecDecoder extends AbstractDataBufferDecoder<Object> {
+
+    @Override
+    public boolean canDecode(ResolvableType elementType, MimeType mimeType) {
+        return isBinary(mimeType);
+    }
+
+    @Override
+    public Flux<Object> decode(Publisher<DataBuffer> input, ResolvableType elementType, MimeType mimeType,
+                               Map<String, Object> hints) {
+        ResolvableType listType = ResolvableType.forClassWithGenerics(List.class, elementType);
+        return DataBufferUtils.join(input, getMaxInMemorySize())
+                .flatMapIterable(buffer -> (List<?>) decode(buffer, listType, mimeType, hints));
+    }
+
+    @Override
+    public Object decode(DataBuffer buffer, ResolvableType targetType, MimeType mimeType,
+                         Map<String, Object> hints) {
+        try (InputStream in = buffer.asInputStream(true)) {
+            return Codecs.get(Codecs.nameOf(mimeType.toString())).decode(in, targetType.getType());
+        } catch (IOException e) {
+            throw new DecodingException("Could not decode the " + mimeType + " body", e);
+        }
+    }
+
+    static boolean isBinary(MimeType mimeType) {
+        if (Objects.isNull(mimeType)) {
+            return false;
+        }
+        String name = Codecs.nameOf(mimeType.toString());
+        return Objects.nonNull(name) && !Codecs.JSON.equals(name);
+    }
+}
@@ -0,0 +1,64 @@
+package com.ravi9a2.webclient.wrapper;
+
+import com.ravi9a2.nca.codec.Codecs;
+import org.reactivestreams.Publisher;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.codec.AbstractEncoder;
+import org.springframework.core.codec.EncodingException;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.util.MimeType;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Map;
+
+/**
+ * Encodes request bodies with the binary codecs of the Codecs registry, picked
+ * by the Content-Type of the request. JSON is left to the Jackson encoder of
+ * WebClient.
+ */
+public class CodecEncoder extends AbstractEncoder<Object> {
+
+    /**
+     * Bodies already encoded by the codec of a call are left to the byte array
+     * encoder.
+     */
+    @Override
+    public boolean canEncode(ResolvableType elementType, MimeType mimeType) {
+        return CodecDecoder.isBinary(mimeType) && !byte[].class.equals(elementType.resolve());
+    }
+
+    @Override
+    public Flux<DataBuffer> encode(Publisher<?> input, DataBufferFactory bufferFactory,
+                                   ResolvableType elementType, MimeType mimeType, Map<String, Object> hints) {
+        if (input instanceof Mono) {
+            return Mono.from(input).map(value -> encodeValue(value, bufferFactory, elementType, mimeType, hints))
+                    .flux();
+        }
+        return Flux.from(input).collectList()
+                .map(values -> encodeValue(values, bufferFactory, elementType, mimeType, hints))
+                .flux();
+    }
+
+    @Override
+    public DataBuffer encodeValue(Object value, DataBufferFactory bufferFactory, ResolvableType valueType,
+                                  MimeType mimeType, Map<String, Object> hints) {
+        DataBuffer buffer = bufferFactory.allocateBuffer();
+        boolean release = true;
+        try (OutputStream out = buffer.asOutputStream()) {
+            Codecs.get(Codecs.nameOf(mimeType.toString())).encode(value, out);
+            release = false;
+            return buffer;
+        } catch (IOException e) {
+            throw new EncodingException("Could not encode the " + mimeType + " body", e);
+        } finally {
+            if (release) {
+                DataBufferUtils.release(buffer);
+            }
+        }
+    }
+}
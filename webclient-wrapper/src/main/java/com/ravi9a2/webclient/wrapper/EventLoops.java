@@ -0,0 +1,57 @@
+package com.ravi9a2.webclient.wrapper;
+
+import reactor.netty.resources.LoopResources;
+
+import java.util.Objects;
+
+/**
+ * The event loops the WebClient clients run on. Clients share one set of loops,
+ * so the number of event-loop threads does not grow with the number of
+ * downstreams, and a latency-critical downstream can opt into loops of its own.
+ * <p>
+ * With native transport preferred, a client runs on io_uring when its transport
+ * is on the classpath and the kernel supports it, otherwise on epoll, and on
+ * NIO where neither is available.
+ */
+public final class EventLoops {
+
+    private static final String SHARED_PREFIX = "webclient";
+    private static volatile LoopResources shared;
+
+    private EventLoops() {
+    }
+
+    /**
+     * Returns the loops shared by all clients, with as many threads as reactor
+     * netty gives its own default loops.
+     */
+    public static LoopResources shared() {
+        LoopResources loops = shared;
+        if (Objects.isNull(loops)) {
+            synchronized (EventLoops.class) {
+                loops = shared;
+                if (Objects.isNull(loops)) {
+                    loops = LoopResources.create(SHARED_PREFIX, LoopResources.DEFAULT_IO_WORKER_COUNT, true);
+                    shared = loops;
+                }
+            }
+        }
+        return loops;
+    }
+
+    /**
+     * Creates loops for a single client, with the given number of threads, or
+     * with as many as the shared loops when not positive.
+     */
+    public static LoopResources dedicated(String clientName, int threads) {
+        return LoopResources.create(clientName + "-loop",
+                threads > 0 ? threads : LoopResources.DEFAULT_IO_WORKER_COUNT, true);
+    }
+
+    /**
+     * Returns whether a native transport can be loaded on this platform.
+     */
+    public static boolean isNativeAvailable() {
+        return LoopResources.hasNativeSupport();
+    }
+}
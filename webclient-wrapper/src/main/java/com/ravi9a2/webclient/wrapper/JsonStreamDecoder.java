@@ -0,0 +1,195 @@
+package com.ravi9a2.webclient.wrapper;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.async.ByteArrayFeeder;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.util.TokenBuffer;
+import org.reactivestreams.Publisher;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.codec.DecodingException;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferLimitException;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.json.Jackson2JsonDecoder;
+import org.springframework.util.MimeType;
+import reactor.core.Exceptions;
+import reactor.core.publisher.Flux;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A Jackson decoder that emits the elements of a Flux as soon as each of them
+ * is parsed. A JSON array at the top level is split into its elements, and
+ * NDJSON and other streaming bodies into their top-level values.
+ * <p>
+ * The body is read from the connection one buffer at a time, as elements are
+ * requested, and only the element being parsed is held in memory, up to
+ * maxInMemorySize bytes. Monos are decoded by the Jackson decoder as before,
+ * and so are the events of a server-sent event stream, one event at a time.
+ */
+public class JsonStreamDecoder extends Jackson2JsonDecoder {
+
+    private static final List<MediaType> STREAMING_MEDIA_TYPES = Collections.unmodifiableList(Arrays.asList(
+            MediaType.APPLICATION_NDJSON,
+            new MediaType("application", "stream+json"),
+            MediaType.TEXT_EVENT_STREAM));
+
+    private final Map<JavaType, ObjectReader> readers = new ConcurrentHashMap<>();
+
+    @Override
+    public Flux<Object> decode(Publisher<DataBuffer> input, ResolvableType elementType, MimeType mimeType,
+                               Map<String, Object> hints) {
+        ObjectMapper mapper = getObjectMapper();
+        ObjectReader reader = readers.computeIfAbsent(mapper.constructType(elementType.getType()), mapper::readerFor);
+        boolean splitArray = !isStreaming(mimeType);
+        boolean forceBigDecimal = BigDecimal.class.equals(elementType.toClass())
+                || mapper.isEnabled(DeserializationFeature.USE_BIG_DECIMAL_FOR_FLOATS);
+        return Flux.using(() -> new Tokenizer(mapper, splitArray, forceBigDecimal, getMaxInMemorySize()),
+                tokenizer -> Flux.from(input)
+                        .concatMapIterable(tokenizer::tokenize, 1)
+                        .concatWith(Flux.defer(() -> Flux.fromIterable(tokenizer.endOfInput())))
+                        .doOnDiscard(DataBuffer.class, DataBufferUtils::release),
+                Tokenizer::close)
+                .handle((tokens, sink) -> {
+                    try {
+                        Object value = reader.readValue(tokens.asParser(mapper));
+                        if (Objects.nonNull(value)) {
+                            sink.next(value);
+                        }
+                    } catch (IOException e) {
+                        sink.error(new DecodingException("JSON decoding error: " + e.getMessage(), e));
+                    }
+                });
+    }
+
+    /**
+     * Returns whether a body of the given type is a stream of top-level values
+     * rather than a single value.
+     */
+    private static boolean isStreaming(MimeType mimeType) {
+        if (Objects.isNull(mimeType)) {
+            return false;
+        }
+        for (MediaType streaming : STREAMING_MEDIA_TYPES) {
+            if (streaming.isCompatibleWith(mimeType)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Splits a body into the tokens of its elements, parsing each buffer as it
+     * arrives without blocking on the rest.
+     */
+    private static final class Tokenizer {
+        private final JsonParser parser;
+        private final ByteArrayFeeder feeder;
+        private final boolean forceBigDecimal;
+        private final int maxInMemorySize;
+        private boolean splitArray;
+        private boolean started;
+        private TokenBuffer tokens;
+        private long elementStart;
+        private int depth;
+
+        private Tokenizer(ObjectMapper mapper, boolean splitArray, boolean forceBigDecimal, int maxInMemorySize)
+                throws IOException {
+            this.parser = mapper.getFactory().createNonBlockingByteArrayParser();
+            this.feeder = (ByteArrayFeeder) parser.getNonBlockingInputFeeder();
+            this.splitArray = splitArray;
+            this.forceBigDecimal = forceBigDecimal;
+            this.maxInMemorySize = maxInMemorySize;
+        }
+
+        private List<TokenBuffer> tokenize(DataBuffer buffer) {
+            byte[] bytes = new byte[buffer.readableByteCount()];
+            buffer.read(bytes);
+            DataBufferUtils.release(buffer);
+            try {
+                feeder.feedInput(bytes, 0, bytes.length);
+                return parse();
+            } catch (JsonProcessingException e) {
+                throw new DecodingException("JSON decoding error: " + e.getOriginalMessage(), e);
+            } catch (IOException e) {
+                throw Exceptions.propagate(e);
+            }
+        }
+
+        private List<TokenBuffer> endOfInput() {
+            feeder.endOfInput();
+            try {
+                List<TokenBuffer> result = parse();
+                if (Objects.nonNull(tokens)) {
+                    throw new DecodingException("JSON decoding error: body ended inside an element");
+                }
+                return result;
+            } catch (JsonProcessingException e) {
+                throw new DecodingException("JSON decoding error: " + e.getOriginalMessage(), e);
+            } catch (IOException e) {
+                throw Exceptions.propagate(e);
+            }
+        }
+
+        private List<TokenBuffer> parse() throws IOException {
+            List<TokenBuffer> result = Collections.emptyList();
+            JsonToken token;
+            while ((token = parser.nextToken()) != JsonToken.NOT_AVAILABLE && Objects.nonNull(token)) {
+                if (!started) {
+                    started = true;
+                    if (splitArray && token == JsonToken.START_ARRAY) {
+                        continue;
+                    }
+                    splitArray = false;
+                }
+                if (splitArray && depth == 0 && token == JsonToken.END_ARRAY) {
+                    continue;
+                }
+                if (Objects.isNull(tokens)) {
+                    tokens = new TokenBuffer(parser).forceUseOfBigDecimal(forceBigDecimal);
+                    elementStart = parser.getTokenLocation().getByteOffset();
+                }
+                tokens.copyCurrentEvent(parser);
+                if (token.isStructStart()) {
+                    depth++;
+                } else if (token.isStructEnd()) {
+                    depth--;
+                }
+                if (depth == 0) {
+                    if (result.isEmpty()) {
+                        result = new ArrayList<>();
+                    }
+                    result.add(tokens);
+                    tokens = null;
+                } else if (maxInMemorySize >= 0
+                        && parser.getCurrentLocation().getByteOffset() - elementStart > maxInMemorySize) {
+                    throw new DataBufferLimitException(
+                            "Exceeded limit on max bytes per JSON element: " + maxInMemorySize);
+                }
+            }
+            return result;
+        }
+
+        private void close() {
+            try {
+                parser.close();
+            } catch (IOException e) {
+                // nothing is held open by a parser fed from memory
+            }
+        }
+    }
+}
@@ -0,0 +1,148 @@
+package com.ravi9a2.webclient.wrapper;
+
+import com.ravi9a2.nca.cache.CachedResponse;
+import com.ravi9a2.nca.cache.ResponseCache;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
+import org.springframework.web.reactive.function.client.ExchangeFunction;
+import org.springframework.web.reactive.function.client.ExchangeStrategies;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.net.URI;
+import java.util.Objects;
+import java.util.function.Function;
+
+/**
+ * Answers GET calls from the client's ResponseCache and stores their cacheable
+ * responses in it. Registered after the ResponseExceptionHandler, so a cached
+ * 404 is still turned into a Status4XXException.
+ * <p>
+ * A stale response within its stale-while-revalidate window is served at once
+ * and revalidated in the background. Past that, a response with an ETag or
+ * Last-Modified is revalidated with a conditional request before it is served.
+ */
+public class ResponseCacheFilter implements ExchangeFilterFunction {
+
+    /**
+     * The request attribute of calls that bypass the cache, like downloads,
+     * whose bodies must not be buffered.
+     */
+    public static final String BYPASS_ATTRIBUTE = ResponseCacheFilter.class.getName() + ".bypass";
+
+    private static final DefaultDataBufferFactory BUFFER_FACTORY = new DefaultDataBufferFactory();
+
+    private final ResponseCache cache;
+    private final ExchangeStrategies strategies;
+
+    public ResponseCacheFilter(ResponseCache cache, ExchangeStrategies strategies) {
+        this.cache = cache;
+        this.strategies = strategies;
+    }
+
+    @Override
+    public Mono<ClientResponse> filter(ClientRequest request, ExchangeFunction next) {
+        if (!HttpMethod.GET.equals(request.method()) || request.attribute(BYPASS_ATTRIBUTE).isPresent()) {
+            return next.exchange(request);
+        }
+        return Mono.defer(() -> {
+            String key = ResponseCache.key(request.method().name(), pathAndQuery(request.url()),
+                    request.headers().getFirst(HttpHeaders.AUTHORIZATION),
+                    request.headers().getFirst(HttpHeaders.COOKIE));
+            Function<String, String> requestHeader = request.headers()::getFirst;
+            if (!ResponseCache.isLookupAllowed(requestHeader)) {
+                return exchange(request, next, key, null);
+            }
+            long now = System.currentTimeMillis();
+            CachedResponse cached = cache.lookup(key, requestHeader, now);
+            if (Objects.isNull(cached)) {
+                return exchange(request, next, key, null);
+            }
+            switch (cached.freshness(now)) {
+                case FRESH:
+                    return Mono.just(toClientResponse(cached));
+                case STALE_WHILE_REVALIDATE:
+                    if (cache.startRevalidation(key)) {
+                        exchange(conditional(request, cached), next, key, cached)
+                                .flatMap(ClientResponse::releaseBody)
+                                .doFinally(s -> cache.endRevalidation(key))
+                                .subscribe(v -> {
+                                }, th -> {
+                                });
+                    }
+                    return Mono.just(toClientResponse(cached));
+                default:
+                    return exchange(conditional(request, cached), next, key, cached);
+            }
+        });
+    }
+
+    /**
+     * Sends the request and stores its response, or refreshes the cached response
+     * if the downstream answered a conditional request with a 304.
+     */
+    private Mono<ClientResponse> exchange(ClientRequest request, ExchangeFunction next, String key,
+                                          CachedResponse cached) {
+        Function<String, String> requestHeader = request.headers()::getFirst;
+        return next.exchange(request).flatMap(response -> {
+            if (Objects.nonNull(cached) && response.rawStatusCode() == HttpStatus.NOT_MODIFIED.value()) {
+                HttpHeaders headers = response.headers().asHttpHeaders();
+                return response.releaseBody().then(Mono.fromSupplier(() -> toClientResponse(
+                        cache.revalidated(key, cached, headers, requestHeader, System.currentTimeMillis()))));
+            }
+            HttpStatus status = HttpStatus.resolve(response.rawStatusCode());
+            HttpHeaders headers = response.headers().asHttpHeaders();
+            if (Objects.isNull(status) || !cache.isStorable(status.value(), headers, requestHeader)) {
+                return Mono.just(response);
+            }
+            return response.bodyToMono(byte[].class)
+                    .defaultIfEmpty(new byte[0])
+                    .map(body -> {
+                        cache.store(key, status.value(), headers, body, requestHeader, System.currentTimeMillis());
+                        return ClientResponse.create(status, strategies)
+                                .headers(h -> h.addAll(headers))
+                                .body(body(body))
+                                .build();
+                    });
+        });
+    }
+
+    private ClientResponse toClientResponse(CachedResponse cached) {
+        return ClientResponse.create(HttpStatus.valueOf(cached.getStatus()), strategies)
+                .headers(h -> h.putAll(cached.getHeaders()))
+                .body(body(cached.getBody()))
+                .build();
+    }
+
+    private static ClientRequest conditional(ClientRequest request, CachedResponse cached) {
+        if (!cached.hasValidators()) {
+            return request;
+        }
+        return ClientRequest.from(request)
+                .headers(h -> {
+                    if (Objects.nonNull(cached.getEtag())) {
+                        h.set(HttpHeaders.IF_NONE_MATCH, cached.getEtag());
+                    }
+                    if (Objects.nonNull(cached.getLastModified())) {
+                        h.set(HttpHeaders.IF_MODIFIED_SINCE, cached.getLastModified());
+                    }
+                })
+                .build();
+    }
+
+    private static Flux<DataBuffer> body(byte[] body) {
+        return Flux.defer(() -> Flux.just(BUFFER_FACTORY.wrap(body)));
+    }
+
+    private static String pathAndQuery(URI uri) {
+        String path = uri.getRawPath();
+        String query = uri.getRawQuery();
+        return Objects.isNull(query) ? path : path + '?' + query;
+    }
+}
@@ -1,29 +1,63 @@
 package com.ravi9a2.webclient.wrapper;
 
 import com.ravi9a2.nca.ReactiveClient;
+import com.ravi9a2.nca.codec.Codec;
+import com.ravi9a2.nca.codec.Codecs;
+import com.ravi9a2.nca.data.Deadline;
+import com.ravi9a2.nca.data.RawResponse;
+import com.ravi9a2.nca.data.RequestTemplate;
 import com.ravi9a2.nca.data.RestRequestSpec;
+import com.ravi9a2.nca.lb.Endpoint;
+import com.ravi9a2.nca.lb.EndpointBalancer;
+import com.ravi9a2.nca.transfer.Download;
+import com.ravi9a2.nca.transfer.DownloadSink;
+import com.ravi9a2.nca.transfer.FileBody;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
 import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.client.reactive.ClientHttpRequest;
 import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import org.springframework.util.Assert;
+import org.springframework.web.reactive.function.BodyInserter;
+import org.springframework.web.reactive.function.BodyInserters;
 import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.util.UriUtils;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 import reactor.core.scheduler.Schedulers;
+import reactor.util.concurrent.Queues;
+import reactor.netty.http.client.HttpClientRequest;
 
+import java.io.IOException;
 import java.lang.reflect.Type;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.Duration;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Objects;
 import java.util.function.Consumer;
-import java.util.function.Supplier;
+import java.util.function.Function;
+import java.util.function.UnaryOperator;
 
 public class WebClientWrapper implements ReactiveClient<WebClient> {
     private final Logger logger = LoggerFactory.getLogger(WebClientWrapper.class);
     protected WebClient webClient;
     private ThreadPoolTaskExecutor webClientTaskExecutor;
+    private String baseUrl;
+    private EndpointBalancer balancer;
+    private Codec codec = Codecs.json();
+
+    private static final String URI_TEMPLATE_ATTRIBUTE = WebClient.class.getName() + ".uriTemplate";
+    private static final UnaryOperator<String> URI_VARIABLE_ENCODER = v -> UriUtils.encode(v, StandardCharsets.UTF_8);
 
     protected WebClientWrapper(WebClient client) {
         webClient = client;
@@ -72,75 +106,100 @@ public class WebClientWrapper implements ReactiveClient<WebClient> {
         }
     }
 
+    /**
+     * Streams the response body to the target file, writing it off the event loop
+     * as buffers arrive. The call bypasses the response cache.
+     */
+    @Override
+    public Mono<Download> download(RestRequestSpec RestRequestSpec, Path target, int inMemoryThreshold) {
+        Assert.notNull(RestRequestSpec.getUrl(), "Request URL can not be null");
+        return exchangeToMono(base -> this.request(RestRequestSpec, base, MediaType.ALL_VALUE)
+                        .attribute(ResponseCacheFilter.BYPASS_ATTRIBUTE, true)
+                        .retrieve(), RestRequestSpec.getDeadline(),
+                response -> response.toEntityFlux(DataBuffer.class)
+                        .flatMap(entity -> writeTo(entity, target, inMemoryThreshold)));
+    }
+
+    /**
+     * Returns the response with its body as the DataBuffers read from the
+     * connection, which can be written to a server response without a copy.
+     */
+    @Override
+    public <B> Mono<RawResponse<B>> exchange(RestRequestSpec RestRequestSpec) {
+        Assert.notNull(RestRequestSpec.getUrl(), "Request URL can not be null");
+        return exchangeToMono(base -> this.request(RestRequestSpec, base, null).retrieve(),
+                RestRequestSpec.getDeadline(), WebClientWrapper::raw);
+    }
+
     @Override
     public <R> Mono<R> postToMono(RestRequestSpec RestRequestSpec) {
         Assert.notNull(RestRequestSpec, "Response Type can not be null");
-        return toMono(() -> this.post(RestRequestSpec), RestRequestSpec.getType());
+        return toMono(base -> this.post(RestRequestSpec, base), RestRequestSpec.getType(), RestRequestSpec.getDeadline(), RestRequestSpec.getCodec());
     }
 
     @Override
     public <R> Mono<R> putToMono(RestRequestSpec RestRequestSpec) {
         Assert.notNull(RestRequestSpec, "Response Type can not be null");
-        return toMono(() -> this.put(RestRequestSpec), RestRequestSpec.getType());
+        return toMono(base -> this.put(RestRequestSpec, base), RestRequestSpec.getType(), RestRequestSpec.getDeadline(), RestRequestSpec.getCodec());
     }
 
     @Override
     public <R> Mono<R> getToMono(RestRequestSpec RestRequestSpec) {
         Assert.notNull(RestRequestSpec, "Response Type can not be null");
-        return toMono(() -> this.get(RestRequestSpec), RestRequestSpec.getType());
+        return toMono(base -> this.get(RestRequestSpec, base), RestRequestSpec.getType(), RestRequestSpec.getDeadline(), RestRequestSpec.getCodec());
     }
 
     @Override
     public <R> Mono<R> deleteToMono(RestRequestSpec RestRequestSpec) {
         Assert.notNull(RestRequestSpec, "Response Type can not be null");
-        return toMono(() -> this.delete(RestRequestSpec), RestRequestSpec.getType());
+        return toMono(base -> this.delete(RestRequestSpec, base), RestRequestSpec.getType(), RestRequestSpec.getDeadline(), RestRequestSpec.getCodec());
     }
 
     @Override
     public <R> Mono<R> optionsToMono(RestRequestSpec RestRequestSpec) {
         Assert.notNull(RestRequestSpec, "Response Type can not be null");
-        return toMono(() -> this.options(RestRequestSpec), RestRequestSpec.getType());
+        return toMono(base -> this.options(RestRequestSpec, base), RestRequestSpec.getType(), RestRequestSpec.getDeadline(), RestRequestSpec.getCodec());
     }
 
     @Override
     public <R> Mono<R> patchToMono(RestRequestSpec RestRequestSpec) {
         Assert.notNull(RestRequestSpec, "Response Type can not be null");
-        return toMono(() -> this.patch(RestRequestSpec), RestRequestSpec.getType());
+        return toMono(base -> this.patch(RestRequestSpec, base), RestRequestSpec.getType(), RestRequestSpec.getDeadline(), RestRequestSpec.getCodec());
     }
 
     @Override
     public <R> Flux<R> postToFlux(RestRequestSpec RestRequestSpec) {
         Assert.notNull(RestRequestSpec, "Response Type can not be null");
-        return toFlux(() -> this.post(RestRequestSpec), RestRequestSpec.getType());
+        return toFlux(base -> this.post(RestRequestSpec, base), RestRequestSpec.getType(), RestRequestSpec.getDeadline());
     }
 
     @Override
     public <R> Flux<R> putToFlux(RestRequestSpec RestRequestSpec) {
         Assert.notNull(RestRequestSpec, "Response Type can not be null");
-        return toFlux(() -> this.put(RestRequestSpec), RestRequestSpec.getType());
+        return toFlux(base -> this.put(RestRequestSpec, base), RestRequestSpec.getType(), RestRequestSpec.getDeadline());
     }
 
     @Override
     public <R> Flux<R> getToFlux(RestRequestSpec RestRequestSpec) {
         Assert.notNull(RestRequestSpec, "Response Type can not be null");
-        return toFlux(() -> this.get(RestRequestSpec), RestRequestSpec.getType());
+        return toFlux(base -> this.get(RestRequestSpec, base), RestRequestSpec.getType(), RestRequestSpec.getDeadline());
     }
 
     @Override
     public <R> Flux<R> deleteToFlux(RestRequestSpec RestRequestSpec) {
-        return toFlux(() -> this.delete(RestRequestSpec), RestRequestSpec.getType());
+        return toFlux(base -> this.delete(RestRequestSpec, base), RestRequestSpec.getType(), RestRequestSpec.getDeadline());
     }
 
     @Override
     public <R> Flux<R> optionsToFlux(RestRequestSpec RestRequestSpec) {
         Assert.notNull(RestRequestSpec, "Response Type can not be null");
-        return toFlux(() -> this.options(RestRequestSpec), RestRequestSpec.getType());
+        return toFlux(base -> this.options(RestRequestSpec, base), RestRequestSpec.getType(), RestRequestSpec.getDeadline());
     }
 
     @Override
     public <R> Flux<R> patchToFlux(RestRequestSpec RestRequestSpec) {
         Assert.notNull(RestRequestSpec, "Response Type can not be null");
-        return toFlux(() -> this.patch(RestRequestSpec), RestRequestSpec.getType());
+        return toFlux(base -> this.patch(RestRequestSpec, base), RestRequestSpec.getType(), RestRequestSpec.getDeadline());
     }
 
     protected WebClientWrapper webClientTaskExecutor(ThreadPoolTaskExecutor e) {
@@ -148,74 +207,231 @@ public class WebClientWrapper implements ReactiveClient<WebClient> {
         return this;
     }
 
-    private WebClient.ResponseSpec get(RestRequestSpec RestRequestSpec) {
+    /**
+     * Sets the base url the underlying WebClient was built with. When present,
+     * request uris are expanded from the request's compiled template instead of
+     * having WebClient re-parse the url template on every call.
+     */
+    protected WebClientWrapper baseUrl(String baseUrl) {
+        if (Objects.nonNull(baseUrl) && baseUrl.endsWith("/")) {
+            baseUrl = baseUrl.substring(0, baseUrl.length() - 1);
+        }
+        this.baseUrl = baseUrl;
+        return this;
+    }
+
+    /**
+     * Sets the balancer picking the base url of every call when the client has
+     * more than one endpoint. Takes precedence over the base url.
+     */
+    protected WebClientWrapper balancer(EndpointBalancer balancer) {
+        this.balancer = balancer;
+        return this;
+    }
+
+    /**
+     * Sets the codec of the calls that do not select one. Its media type is sent
+     * as the Content-Type of the request bodies and preferred in the Accept
+     * header; responses are decoded by their own Content-Type.
+     */
+    protected WebClientWrapper codec(Codec codec) {
+        this.codec = codec;
+        return this;
+    }
+
+    private WebClient.ResponseSpec get(RestRequestSpec RestRequestSpec, String baseUrl) {
         Assert.notNull(RestRequestSpec.getUrl(), "Request URL can not be null");
-        return webClient
-                .get()
-                .uri(RestRequestSpec.getUrl(), getUriVariables(RestRequestSpec))
-                .headers(getHttpHeadersConsumer(RestRequestSpec))
+        return uri(baseUrl, webClient.get(), RestRequestSpec)
+                .headers(getHttpHeadersConsumer(RestRequestSpec, false))
+                .httpRequest(applyDeadline(RestRequestSpec.getDeadline()))
                 .retrieve();
     }
 
-    private WebClient.ResponseSpec post(RestRequestSpec RestRequestSpec) {
+    private WebClient.ResponseSpec post(RestRequestSpec RestRequestSpec, String baseUrl) {
         Assert.notNull(RestRequestSpec.getUrl(), "Request URL can not be null");
         Assert.notNull(RestRequestSpec.getBody(), "Request Body can not be null");
-        return webClient
-                .post()
-                .uri(RestRequestSpec.getUrl(), getUriVariables(RestRequestSpec))
-                .bodyValue(RestRequestSpec.getBody())
-                .headers(getHttpHeadersConsumer(RestRequestSpec))
+        return uri(baseUrl, webClient.post(), RestRequestSpec)
+                .body(body(RestRequestSpec))
+                .headers(getHttpHeadersConsumer(RestRequestSpec, true))
+                .httpRequest(applyDeadline(RestRequestSpec.getDeadline()))
                 .retrieve();
     }
 
-    private WebClient.ResponseSpec put(RestRequestSpec RestRequestSpec) {
+    private WebClient.ResponseSpec put(RestRequestSpec RestRequestSpec, String baseUrl) {
         Assert.notNull(RestRequestSpec.getUrl(), "Request URL can not be null");
         Assert.notNull(RestRequestSpec.getBody(), "Request Body can not be null");
-        return webClient
-                .put()
-                .uri(RestRequestSpec.getUrl(), getUriVariables(RestRequestSpec))
-                .bodyValue(RestRequestSpec.getBody())
-                .headers(getHttpHeadersConsumer(RestRequestSpec))
+        return uri(baseUrl, webClient.put(), RestRequestSpec)
+                .body(body(RestRequestSpec))
+                .headers(getHttpHeadersConsumer(RestRequestSpec, true))
+                .httpRequest(applyDeadline(RestRequestSpec.getDeadline()))
                 .retrieve();
     }
 
-    private WebClient.ResponseSpec delete(RestRequestSpec RestRequestSpec) {
+    private WebClient.ResponseSpec delete(RestRequestSpec RestRequestSpec, String baseUrl) {
         Assert.notNull(RestRequestSpec.getUrl(), "Request URL can not be null");
-        return webClient
-                .delete()
-                .uri(RestRequestSpec.getUrl(), getUriVariables(RestRequestSpec))
-                .headers(getHttpHeadersConsumer(RestRequestSpec))
+        return uri(baseUrl, webClient.delete(), RestRequestSpec)
+                .headers(getHttpHeadersConsumer(RestRequestSpec, false))
+                .httpRequest(applyDeadline(RestRequestSpec.getDeadline()))
                 .retrieve();
     }
 
-    private WebClient.ResponseSpec options(RestRequestSpec RestRequestSpec) {
+    private WebClient.ResponseSpec options(RestRequestSpec RestRequestSpec, String baseUrl) {
         Assert.notNull(RestRequestSpec.getUrl(), "Request URL can not be null");
-        return webClient
-                .options()
-                .uri(RestRequestSpec.getUrl(), getUriVariables(RestRequestSpec))
-                .headers(getHttpHeadersConsumer(RestRequestSpec))
+        return uri(baseUrl, webClient.options(), RestRequestSpec)
+                .headers(getHttpHeadersConsumer(RestRequestSpec, false))
+                .httpRequest(applyDeadline(RestRequestSpec.getDeadline()))
                 .retrieve();
     }
 
-    private WebClient.ResponseSpec patch(RestRequestSpec RestRequestSpec) {
+    private WebClient.ResponseSpec patch(RestRequestSpec RestRequestSpec, String baseUrl) {
         Assert.notNull(RestRequestSpec.getUrl(), "Request URL can not be null");
         Assert.notNull(RestRequestSpec.getBody(), "Request Body can not be null");
-        return webClient
-                .patch()
-                .uri(RestRequestSpec.getUrl(), getUriVariables(RestRequestSpec))
-                .bodyValue(RestRequestSpec.getBody())
-                .headers(getHttpHeadersConsumer(RestRequestSpec))
+        return uri(baseUrl, webClient.patch(), RestRequestSpec)
+                .body(body(RestRequestSpec))
+                .headers(getHttpHeadersConsumer(RestRequestSpec, true))
+                .httpRequest(applyDeadline(RestRequestSpec.getDeadline()))
                 .retrieve();
     }
 
-    private <R> Mono<R> toMono(Supplier<WebClient.ResponseSpec> supplier, Type toType) {
-        return attachWebClientTP(supplier.get()
-                .bodyToMono(ParameterizedTypeReference.forType(toType)));
+    /**
+     * Builds the request of any http method, with a body if the spec has one.
+     */
+    private WebClient.RequestBodySpec request(RestRequestSpec RestRequestSpec, String baseUrl, String accept) {
+        HttpMethod method = Objects.isNull(RestRequestSpec.getHttpMethod())
+                ? HttpMethod.GET : HttpMethod.valueOf(RestRequestSpec.getHttpMethod());
+        boolean hasBody = Objects.nonNull(RestRequestSpec.getBody());
+        WebClient.RequestBodySpec request = uri(baseUrl, webClient.method(method), RestRequestSpec);
+        if (hasBody) {
+            request.body(body(RestRequestSpec));
+        }
+        return request.headers(getHttpHeadersConsumer(RestRequestSpec, hasBody, accept))
+                .httpRequest(applyDeadline(RestRequestSpec.getDeadline()));
+    }
+
+    private <R> Mono<R> toMono(Function<String, WebClient.ResponseSpec> request, Type toType, Deadline deadline,
+                               Codec codec) {
+        return exchangeToMono(request, deadline, response -> bodyToMono(response, toType, codec));
     }
 
-    private <R> Flux<R> toFlux(Supplier<WebClient.ResponseSpec> supplier, Type toType) {
-        return attachWebClientTP(supplier.get()
-                .bodyToFlux(ParameterizedTypeReference.forType(toType)));
+    /**
+     * Makes the call against the endpoint the balancer picks, failing it without
+     * sending it past its deadline, and reads its response with the reader.
+     */
+    private <R> Mono<R> exchangeToMono(Function<String, WebClient.ResponseSpec> request, Deadline deadline,
+                                       Function<WebClient.ResponseSpec, Mono<R>> reader) {
+        if (Objects.isNull(balancer) && Objects.isNull(deadline)) {
+            return attachWebClientTP(reader.apply(request.apply(baseUrl)));
+        }
+        return attachWebClientTP(Mono.defer(() -> {
+            if (Objects.nonNull(deadline) && deadline.isExpired()) {
+                return Mono.error(deadline.exceeded());
+            }
+            if (Objects.isNull(balancer)) {
+                return reader.apply(request.apply(baseUrl));
+            }
+            Endpoint endpoint = balancer.pick();
+            long start = System.nanoTime();
+            return reader.apply(request.apply(endpoint.getUrl()))
+                    .doOnSuccess(r -> balancer.onSuccess(endpoint, System.nanoTime() - start))
+                    .doOnError(th -> balancer.onFailure(endpoint, System.nanoTime() - start,
+                            EndpointBalancer.isOutlierFailure(th)))
+                    .doOnCancel(() -> balancer.onCancel(endpoint));
+        }));
+    }
+
+    private <R> Flux<R> toFlux(Function<String, WebClient.ResponseSpec> request, Type toType, Deadline deadline) {
+        if (Objects.isNull(balancer) && Objects.isNull(deadline)) {
+            return attachWebClientTP(request.apply(baseUrl)
+                    .bodyToFlux(ParameterizedTypeReference.forType(toType)));
+        }
+        return attachWebClientTP(Flux.defer(() -> {
+            if (Objects.nonNull(deadline) && deadline.isExpired()) {
+                return Flux.error(deadline.exceeded());
+            }
+            if (Objects.isNull(balancer)) {
+                return request.apply(baseUrl).<R>bodyToFlux(ParameterizedTypeReference.forType(toType));
+            }
+            Endpoint endpoint = balancer.pick();
+            long start = System.nanoTime();
+            return request.apply(endpoint.getUrl())
+                    .<R>bodyToFlux(ParameterizedTypeReference.forType(toType))
+                    .doOnComplete(() -> balancer.onSuccess(endpoint, System.nanoTime() - start))
+                    .doOnError(th -> balancer.onFailure(endpoint, System.nanoTime() - start,
+                            EndpointBalancer.isOutlierFailure(th)))
+                    .doOnCancel(() -> balancer.onCancel(endpoint));
+        }));
+    }
+
+    /**
+     * Decodes the body with the codec of the call if it selects one, otherwise
+     * with the codecs of the WebClient. A RawResponse type passes the body
+     * through undecoded.
+     */
+    @SuppressWarnings("unchecked")
+    private static <R> Mono<R> bodyToMono(WebClient.ResponseSpec response, Type toType, Codec codec) {
+        if (RawResponse.isRawType(toType)) {
+            return (Mono<R>) raw(response);
+        }
+        if (Objects.isNull(codec)) {
+            return response.bodyToMono(ParameterizedTypeReference.forType(toType));
+        }
+        return response.toEntity(byte[].class).flatMap(entity -> {
+            if (Objects.isNull(entity.getBody())) {
+                return Mono.empty();
+            }
+            MediaType contentType = entity.getHeaders().getContentType();
+            return Mono.fromCallable(() -> Codecs.forContentType(
+                    Objects.isNull(contentType) ? null : contentType.toString(), codec)
+                    .<R>decode(entity.getBody(), toType));
+        });
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <B> Mono<RawResponse<B>> raw(WebClient.ResponseSpec response) {
+        return response.toEntityFlux(DataBuffer.class).map(entity -> new RawResponse<>(entity.getStatusCodeValue(),
+                entity.getHeaders(), Objects.isNull(entity.getBody()) ? Flux.empty() : (Flux<B>) entity.getBody()));
+    }
+
+    /**
+     * Writes the body to a DownloadSink on the bounded elastic scheduler, a
+     * limited number of buffers ahead of the disk.
+     */
+    private static Mono<Download> writeTo(ResponseEntity<Flux<DataBuffer>> entity, Path target,
+                                          int inMemoryThreshold) {
+        MediaType contentType = entity.getHeaders().getContentType();
+        Flux<DataBuffer> body = Objects.isNull(entity.getBody()) ? Flux.empty() : entity.getBody();
+        return Mono.using(() -> new DownloadSink(target, inMemoryThreshold),
+                sink -> body.publishOn(Schedulers.boundedElastic(), Queues.XS_BUFFER_SIZE)
+                        .handle((buffer, s) -> {
+                            try {
+                                sink.write(buffer.asByteBuffer());
+                            } catch (IOException e) {
+                                s.error(e);
+                            } finally {
+                                DataBufferUtils.release(buffer);
+                            }
+                        })
+                        .doOnDiscard(DataBuffer.class, DataBufferUtils::release)
+                        .then(Mono.fromCallable(() -> sink.finish(entity.getStatusCodeValue(),
+                                Objects.isNull(contentType) ? null : contentType.toString()))),
+                DownloadSink::close);
+    }
+
+    /**
+     * Encodes the body with the codec of the call if it selects one, otherwise
+     * leaves it to the codecs of the WebClient. A FileBody is sent from its file,
+     * zero-copy where the connector supports it.
+     */
+    private static BodyInserter<?, ? super ClientHttpRequest> body(RestRequestSpec RestRequestSpec) {
+        if (RestRequestSpec.getBody() instanceof FileBody) {
+            return BodyInserters.fromResource(new FileSystemResource(((FileBody) RestRequestSpec.getBody()).getPath()));
+        }
+        Codec codec = RestRequestSpec.getCodec();
+        if (Objects.isNull(codec)) {
+            return BodyInserters.fromValue(RestRequestSpec.getBody());
+        }
+        return BodyInserters.fromPublisher(Mono.fromCallable(() -> codec.encode(RestRequestSpec.getBody())),
+                byte[].class);
     }
 
     private <R> Mono<R> attachWebClientTP(Mono<R> mono) {
@@ -232,22 +448,71 @@ public class WebClientWrapper implements ReactiveClient<WebClient> {
         return flux;
     }
 
-    private Map<String, String> getUriVariables(RestRequestSpec RestRequestSpec) {
-        Map<String, String> uriVariables = new HashMap<>();
-        if (Objects.nonNull(RestRequestSpec.getPathParams())) {
-            uriVariables.putAll(RestRequestSpec.getPathParams());
+    private <S extends WebClient.RequestHeadersSpec<?>> S uri(String baseUrl, WebClient.UriSpec<S> uriSpec,
+                                                              RestRequestSpec RestRequestSpec) {
+        RequestTemplate template = RestRequestSpec.getTemplate();
+        String[] slots = template.bind(RestRequestSpec.getPathParams(), RestRequestSpec.getRequestParams());
+        if (Objects.isNull(baseUrl)) {
+            Map<String, String> uriVariables = new HashMap<>(Math.max(2, slots.length * 2));
+            for (int i = 0; i < slots.length; i++) {
+                if (Objects.nonNull(slots[i])) {
+                    uriVariables.put(template.getVariableName(i), slots[i]);
+                }
+            }
+            return uriSpec.uri(RestRequestSpec.getUrl(), uriVariables);
         }
-        if (Objects.nonNull(RestRequestSpec.getRequestParams())) {
-            uriVariables.putAll(RestRequestSpec.getRequestParams());
+        S spec = uriSpec.uri(expand(baseUrl, template, slots));
+        // Keeps the template for the uri tag of the HTTP_STATUS metric, as uri(String, Map) would.
+        spec.attribute(URI_TEMPLATE_ATTRIBUTE, template.getUrl());
+        return spec;
+    }
+
+    private static URI expand(String baseUrl, RequestTemplate template, String[] slots) {
+        String path = template.expand(slots, URI_VARIABLE_ENCODER);
+        if (path.contains("://")) {
+            return URI.create(path);
         }
-        return uriVariables;
+        if (path.isEmpty() || path.charAt(0) == '/' || path.charAt(0) == '?') {
+            return URI.create(baseUrl + path);
+        }
+        return URI.create(baseUrl + "/" + path);
     }
 
-    private Consumer<HttpHeaders> getHttpHeadersConsumer(RestRequestSpec RestRequestSpec) {
+    /**
+     * Caps the response timeout of the request with what is left of its deadline
+     * when it is sent. The read timeout of the client still applies on top.
+     */
+    private static Consumer<ClientHttpRequest> applyDeadline(Deadline deadline) {
+        return request -> {
+            if (Objects.nonNull(deadline)) {
+                HttpClientRequest nativeRequest = request.getNativeRequest();
+                nativeRequest.responseTimeout(Duration.ofMillis(deadline.cap(0)));
+            }
+        };
+    }
+
+    private Consumer<HttpHeaders> getHttpHeadersConsumer(RestRequestSpec RestRequestSpec, boolean hasBody) {
+        return getHttpHeadersConsumer(RestRequestSpec, hasBody, null);
+    }
+
+    /**
+     * @param accept the Accept header to send unless the call sets one, null for
+     *               the media types of the codec
+     */
+    private Consumer<HttpHeaders> getHttpHeadersConsumer(RestRequestSpec RestRequestSpec, boolean hasBody,
+                                                         String accept) {
         return (headers) -> {
             if (Objects.nonNull(RestRequestSpec.getHeaders())) {
                 RestRequestSpec.getHeaders().forEach(headers::add);
             }
+            Codec requestCodec = Objects.isNull(RestRequestSpec.getCodec()) ? codec : RestRequestSpec.getCodec();
+            if (hasBody && Objects.isNull(headers.getContentType())) {
+                headers.set(HttpHeaders.CONTENT_TYPE, RestRequestSpec.getBody() instanceof FileBody
+                        ? ((FileBody) RestRequestSpec.getBody()).getContentType() : requestCodec.mediaType());
+            }
+            if (!headers.containsKey(HttpHeaders.ACCEPT)) {
+                headers.set(HttpHeaders.ACCEPT, Objects.isNull(accept) ? Codecs.accept(requestCodec) : accept);
+            }
         };
     }
 }
@@ -1,7 +1,13 @@
 package com.ravi9a2.webclient.wrapper;
 
+import com.ravi9a2.instrumentation.processor.MetricEmitter;
 import com.ravi9a2.nca.ReactiveClient;
 import com.ravi9a2.nca.ReactiveClientRegistry;
+import com.ravi9a2.nca.codec.Codecs;
+import com.ravi9a2.nca.data.CacheConfig;
+import com.ravi9a2.nca.data.Http2Config;
+import com.ravi9a2.nca.data.OutlierDetection;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.context.properties.ConfigurationProperties;
@@ -11,9 +17,11 @@ import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import org.springframework.web.reactive.function.client.WebClient;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.stream.Collectors;
@@ -41,6 +49,9 @@ public class WebClientWrapperBeanLoader {
     @Value("${webClient.codec.inMemoryBufferSizeInKB:256}")
     int webClientCodecInMemoryBufferSizeInKB;
 
+    @Autowired(required = false)
+    MetricEmitter metricEmitter;
+
     @Bean
     public ThreadPoolTaskExecutor webClientTaskExecutor() {
         ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
@@ -72,6 +83,11 @@ public class WebClientWrapperBeanLoader {
         return new WebClientWrapperBuilder()
                 .clientName(name)
                 .baseUrl(c.get("baseUrl"))
+                .baseUrls(baseUrls(c.get("baseUrls")))
+                .outlierDetection(outlierDetection(c, d))
+                .cacheConfig(cacheConfig(c, d))
+                .http2Config(http2Config(c, d))
+                .metricEmitter(metricEmitter)
                 .connectTimeout(Integer.parseInt(getValue(c, d, "connectTimeout", "10000")))
                 .maxConnections(Integer.parseInt(getValue(c, d, "maxConnections", "100")))
                 .readTimeout(Integer.parseInt(getValue(c, d, "readTimeout", "10000")))
@@ -80,10 +96,47 @@ public class WebClientWrapperBeanLoader {
                 .header(c.get("authKey"), c.get("authSecret"))
                 .header(c.get("secondAuthKey"), c.get("secondAuthSecret"))
                 .inMemoryBufferSizeInKB(webClientCodecInMemoryBufferSizeInKB)
+                .codec(getValue(c, d, "codec", Codecs.JSON))
+                .nativeTransport(Boolean.parseBoolean(getValue(c, d, "nativeTransport", "false")))
+                .dedicatedEventLoop(Boolean.parseBoolean(getValue(c, d, "dedicatedEventLoop", "false")))
+                .eventLoopThreads(Integer.parseInt(getValue(c, d, "eventLoopThreads", "0")))
                 .webClientTaskExecutor(webClientEnableSeparateTP ? webClientTaskExecutor() : null)
                 .build();
     }
 
+    private List<String> baseUrls(String baseUrls) {
+        if (Objects.isNull(baseUrls) || baseUrls.trim().isEmpty()) {
+            return null;
+        }
+        return Arrays.stream(baseUrls.split(",")).map(String::trim).filter(u -> !u.isEmpty())
+                .collect(Collectors.toList());
+    }
+
+    private OutlierDetection outlierDetection(Map<String, String> c, Map<String, String> d) {
+        return OutlierDetection.builder()
+                .consecutiveFailures(Integer.parseInt(getValue(c, d, "outlierConsecutiveFailures", "5")))
+                .baseEjectionTime(Long.parseLong(getValue(c, d, "outlierBaseEjectionTime", "30000")))
+                .maxEjectionTime(Long.parseLong(getValue(c, d, "outlierMaxEjectionTime", "300000")))
+                .maxEjectionPercent(Integer.parseInt(getValue(c, d, "outlierMaxEjectionPercent", "50")))
+                .build();
+    }
+
+    private CacheConfig cacheConfig(Map<String, String> c, Map<String, String> d) {
+        return CacheConfig.builder()
+                .enabled(Boolean.parseBoolean(getValue(c, d, "cacheEnabled", "false")))
+                .maxBytes(Long.parseLong(getValue(c, d, "cacheMaxBytes", "16777216")))
+                .negativeTtl(Long.parseLong(getValue(c, d, "cacheNegativeTtl", "5000")))
+                .build();
+    }
+
+    private Http2Config http2Config(Map<String, String> c, Map<String, String> d) {
+        return Http2Config.builder()
+                .protocol(getValue(c, d, "protocol", "http1.1"))
+                .maxConcurrentStreams(Long.parseLong(getValue(c, d, "http2MaxConcurrentStreams", "100")))
+                .initialWindowSize(Integer.parseInt(getValue(c, d, "http2InitialWindowSize", "65535")))
+                .build();
+    }
+
     private String getValue(Map<String, String> c, Map<String, String> d, String k, String v) {
         if (Objects.isNull(d))
             d = Collections.emptyMap();
@@ -1,18 +1,34 @@
 package com.ravi9a2.webclient.wrapper;
 
+import com.ravi9a2.instrumentation.processor.MetricEmitter;
 import com.ravi9a2.nca.ClientBuilder;
+import com.ravi9a2.nca.cache.ResponseCache;
+import com.ravi9a2.nca.codec.Codec;
+import com.ravi9a2.nca.codec.Codecs;
+import com.ravi9a2.nca.data.CacheConfig;
 import com.ravi9a2.nca.data.ClientConfig;
+import com.ravi9a2.nca.data.Http2Config;
+import com.ravi9a2.nca.data.OutlierDetection;
+import com.ravi9a2.nca.lb.EndpointBalancer;
+import com.ravi9a2.webclient.Metrics;
 import io.netty.channel.ChannelOption;
 import io.netty.handler.timeout.ReadTimeoutHandler;
 import io.netty.handler.timeout.WriteTimeoutHandler;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.client.reactive.ReactorClientHttpConnector;
 import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.web.reactive.function.client.ExchangeStrategies;
 import org.springframework.web.reactive.function.client.WebClient;
+import reactor.netty.http.HttpProtocol;
+import reactor.netty.http.client.Http2AllocationStrategy;
 import reactor.netty.http.client.HttpClient;
 import reactor.netty.resources.ConnectionProvider;
+import reactor.netty.resources.LoopResources;
 
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.concurrent.TimeUnit;
@@ -20,8 +36,15 @@ import java.util.function.Consumer;
 
 public class WebClientWrapperBuilder implements ClientBuilder<WebClientWrapper> {
 
+    private static final Logger logger = LoggerFactory.getLogger(WebClientWrapperBuilder.class);
+
     protected String clientName;
     protected String baseUrl;
+    protected List<String> baseUrls;
+    protected OutlierDetection outlierDetection;
+    protected CacheConfig cacheConfig;
+    protected Http2Config http2Config;
+    protected MetricEmitter metricEmitter;
     protected int maxConnections;
     protected int connectTimeout;
     protected long readTimeout;
@@ -29,6 +52,10 @@ public class WebClientWrapperBuilder implements ClientBuilder<WebClientWrapper>
     protected Map<String, String> headers;
     protected ThreadPoolTaskExecutor webClientTaskExecutor;
     protected int inMemoryBufferSizeInKB;
+    protected String codec;
+    protected boolean nativeTransport;
+    protected boolean dedicatedEventLoop;
+    protected int eventLoopThreads;
 
     public WebClientWrapperBuilder clientName(String clientName) {
         this.clientName = clientName;
@@ -40,6 +67,44 @@ public class WebClientWrapperBuilder implements ClientBuilder<WebClientWrapper>
         return this;
     }
 
+    /**
+     * Sets the endpoints to balance calls across. With more than one endpoint,
+     * every call picks its base url with the power of two choices.
+     */
+    public WebClientWrapperBuilder baseUrls(List<String> baseUrls) {
+        this.baseUrls = baseUrls;
+        return this;
+    }
+
+    public WebClientWrapperBuilder outlierDetection(OutlierDetection outlierDetection) {
+        this.outlierDetection = outlierDetection;
+        return this;
+    }
+
+    /**
+     * Sets the response cache of the client's GET calls. Caching is off unless
+     * the config is enabled.
+     */
+    public WebClientWrapperBuilder cacheConfig(CacheConfig cacheConfig) {
+        this.cacheConfig = cacheConfig;
+        return this;
+    }
+
+    /**
+     * Sets the HTTP protocol of the client. With h2 or h2c, concurrent calls are
+     * multiplexed over a few connections, falling back to HTTP/1.1 when the
+     * downstream does not speak HTTP/2.
+     */
+    public WebClientWrapperBuilder http2Config(Http2Config http2Config) {
+        this.http2Config = http2Config;
+        return this;
+    }
+
+    public WebClientWrapperBuilder metricEmitter(MetricEmitter metricEmitter) {
+        this.metricEmitter = metricEmitter;
+        return this;
+    }
+
     public WebClientWrapperBuilder maxConnections(int maxConnections) {
         this.maxConnections = maxConnections;
         return this;
@@ -65,6 +130,39 @@ public class WebClientWrapperBuilder implements ClientBuilder<WebClientWrapper>
         return this;
     }
 
+    /**
+     * Sets the name of the codec of the client's bodies, JSON when not set.
+     */
+    public WebClientWrapperBuilder codec(String codec) {
+        this.codec = codec;
+        return this;
+    }
+
+    /**
+     * Prefers a Linux native transport, io_uring or epoll, over NIO.
+     */
+    public WebClientWrapperBuilder nativeTransport(boolean nativeTransport) {
+        this.nativeTransport = nativeTransport;
+        return this;
+    }
+
+    /**
+     * Runs the client on event loops of its own rather than on the loops shared
+     * by all clients, for latency-critical downstreams.
+     */
+    public WebClientWrapperBuilder dedicatedEventLoop(boolean dedicatedEventLoop) {
+        this.dedicatedEventLoop = dedicatedEventLoop;
+        return this;
+    }
+
+    /**
+     * Sets the number of threads of the dedicated event loops.
+     */
+    public WebClientWrapperBuilder eventLoopThreads(int eventLoopThreads) {
+        this.eventLoopThreads = eventLoopThreads;
+        return this;
+    }
+
     public WebClientWrapperBuilder headers(Map<String, String> map) {
         if (Objects.isNull(this.headers)) {
             this.headers = new HashMap<>();
@@ -99,40 +197,111 @@ public class WebClientWrapperBuilder implements ClientBuilder<WebClientWrapper>
     public WebClientWrapper build(ClientConfig cc) {
         this.clientName = cc.getClientName();
         this.baseUrl = cc.getBaseUrl();
+        this.baseUrls = cc.getBaseUrls();
+        this.outlierDetection = cc.getOutlierDetection();
+        this.cacheConfig = cc.getCacheConfig();
+        this.http2Config = cc.getHttp2Config();
         this.maxConnections = cc.getTimeouts().getMaxConnections();
         this.connectTimeout = (int) cc.getTimeouts().getConnectTimeout();
         this.readTimeout = cc.getTimeouts().getReadTimeout();
         this.writeTimeout = cc.getTimeouts().getWriteTimeout();
+        this.codec = cc.getCodec();
         setSpecialHeaders(cc.getAuthentication().getAuthKey(), cc.getAuthentication().getAuthSecret());
         setSpecialHeaders(cc.getAuthentication().getSecondAuthKey(), cc.getAuthentication().getSecondAuthSecret());
         return constructWebClientWrapper();
     }
 
     private WebClientWrapper constructWebClientWrapper() {
-        WebClient webClient = WebClient.builder()
-                .clientConnector(new ReactorClientHttpConnector(HttpClient
-                        .create(ConnectionProvider.builder(this.clientName + "-connection-provider")
-                                .maxConnections(this.maxConnections)
-                                .build())
-                        .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, this.connectTimeout)
-                        .doOnConnected(conn -> conn
-                                .addHandlerLast(new ReadTimeoutHandler(this.readTimeout, TimeUnit.MILLISECONDS))
-                                .addHandlerLast(new WriteTimeoutHandler(this.writeTimeout, TimeUnit.MILLISECONDS))
-                        )
-                ))
-                .baseUrl(this.baseUrl)
+        String singleBaseUrl = singleBaseUrl();
+        Codec clientCodec = Codecs.get(this.codec);
+        ExchangeStrategies strategies = ExchangeStrategies.builder()
+                .codecs(codecs -> {
+                    codecs.defaultCodecs().maxInMemorySize(this.inMemoryBufferSizeInKB * 1024);
+                    JsonStreamDecoder jsonDecoder = new JsonStreamDecoder();
+                    jsonDecoder.setMaxInMemorySize(this.inMemoryBufferSizeInKB * 1024);
+                    codecs.defaultCodecs().jackson2JsonDecoder(jsonDecoder);
+                    codecs.customCodecs().registerWithDefaultConfig(new CodecDecoder());
+                    codecs.customCodecs().registerWithDefaultConfig(new CodecEncoder());
+                })
+                .build();
+        WebClient.Builder webClientBuilder = WebClient.builder()
+                .clientConnector(new ReactorClientHttpConnector(httpClient()))
+                .baseUrl(singleBaseUrl)
                 .defaultHeaders(constructHttpHeaders)
                 .filter(new ResponseExceptionHandler())
-                .codecs(codecs -> codecs
-                        .defaultCodecs()
-                        .maxInMemorySize(this.inMemoryBufferSizeInKB * 1024))
-                .build();
+                .exchangeStrategies(strategies);
+        if (Objects.nonNull(this.cacheConfig) && this.cacheConfig.isEnabled()) {
+            webClientBuilder.filter(new ResponseCacheFilter(new ResponseCache(this.clientName, this.cacheConfig,
+                    Metrics.cacheListener(this.metricEmitter)), strategies));
+        }
+        WebClient webClient = webClientBuilder.build();
 
-        if (Objects.isNull(webClientTaskExecutor)) {
-            return new WebClientWrapper(webClient);
+        WebClientWrapper wrapper = (Objects.isNull(webClientTaskExecutor)
+                ? new WebClientWrapper(webClient)
+                : new WebClientWrapper(webClient, webClientTaskExecutor))
+                .codec(clientCodec);
+        if (Objects.nonNull(this.baseUrls) && this.baseUrls.size() > 1) {
+            return wrapper.balancer(new EndpointBalancer(this.clientName, this.baseUrls, this.outlierDetection,
+                    Metrics.endpointListener(this.metricEmitter)));
+        }
+        return wrapper.baseUrl(singleBaseUrl);
+    }
+
+    /**
+     * Builds the HttpClient of the client, on the shared or its dedicated event
+     * loops, pooling up to maxConnections HTTP/1.1 connections. Over HTTP/2 the
+     * pool holds up to maxConnections connections too, but opens another one only
+     * when every stream of the open ones is busy.
+     */
+    private HttpClient httpClient() {
+        Http2Config h2 = Objects.isNull(this.http2Config) ? Http2Config.builder().build() : this.http2Config;
+        ConnectionProvider.Builder provider = ConnectionProvider.builder(this.clientName + "-connection-provider");
+        if (h2.isEnabled()) {
+            provider.allocationStrategy(Http2AllocationStrategy.builder()
+                    .maxConnections(this.maxConnections)
+                    .maxConcurrentStreams(h2.getMaxConcurrentStreams())
+                    .minConnections(1)
+                    .build());
         } else {
-            return new WebClientWrapper(webClient, webClientTaskExecutor);
+            provider.maxConnections(this.maxConnections);
+        }
+        if (this.nativeTransport && !EventLoops.isNativeAvailable()) {
+            logger.warn("Client {} runs on NIO, as no native transport is available", this.clientName);
+        }
+        LoopResources loops = this.dedicatedEventLoop
+                ? EventLoops.dedicated(this.clientName, this.eventLoopThreads)
+                : EventLoops.shared();
+        HttpClient httpClient = HttpClient.create(provider.build())
+                .runOn(loops, this.nativeTransport)
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, this.connectTimeout)
+                .doOnConnected(conn -> conn
+                        .addHandlerLast(new ReadTimeoutHandler(this.readTimeout, TimeUnit.MILLISECONDS))
+                        .addHandlerLast(new WriteTimeoutHandler(this.writeTimeout, TimeUnit.MILLISECONDS))
+                );
+        switch (h2.getProtocol()) {
+            case H2:
+                httpClient = httpClient.protocol(HttpProtocol.H2, HttpProtocol.HTTP11);
+                break;
+            case H2C:
+                httpClient = httpClient.protocol(HttpProtocol.H2C, HttpProtocol.HTTP11);
+                break;
+            default:
+                return httpClient;
+        }
+        return httpClient.http2Settings(settings -> settings
+                .maxConcurrentStreams(h2.getMaxConcurrentStreams())
+                .initialWindowSize(h2.getInitialWindowSize()));
+    }
+
+    /**
+     * Returns the base url when the client has a single endpoint, null when its
+     * calls are balanced across several.
+     */
+    private String singleBaseUrl() {
+        if (Objects.isNull(this.baseUrls) || this.baseUrls.isEmpty()) {
+            return this.baseUrl;
         }
+        return this.baseUrls.size() == 1 ? this.baseUrls.get(0) : null;
     }
 
     private void setSpecialHeaders(String key, String value) {
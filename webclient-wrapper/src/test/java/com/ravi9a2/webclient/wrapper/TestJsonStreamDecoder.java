@@ -0,0 +1,64 @@
+package com.ravi9a2.webclient.wrapper;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.MediaType;
+import reactor.core.publisher.Flux;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+public class TestJsonStreamDecoder {
+
+    private final JsonStreamDecoder decoder = new JsonStreamDecoder();
+
+    @Test
+    public void testDecode_ChunkedTopLevelArray() {
+        List<Object> items = decode(MediaType.APPLICATION_JSON,
+                "[{\"id\":1,\"na", "me\":\"a\"},{\"id\"", ":2,\"name\":\"b\"}", "]");
+
+        Assertions.assertEquals(2, items.size());
+        Assertions.assertEquals(item(1, "a"), items.get(0));
+        Assertions.assertEquals(item(2, "b"), items.get(1));
+    }
+
+    @Test
+    public void testDecode_Ndjson() {
+        List<Object> items = decode(MediaType.APPLICATION_NDJSON,
+                "{\"id\":1,\"name\":\"a\"}\n{\"id\":2,", "\"name\":\"b\"}\n");
+
+        Assertions.assertEquals(2, items.size());
+        Assertions.assertEquals(item(1, "a"), items.get(0));
+        Assertions.assertEquals(item(2, "b"), items.get(1));
+    }
+
+    @Test
+    public void testDecode_NdjsonOfArrays() {
+        List<Object> items = decode(MediaType.APPLICATION_NDJSON, "[1,2]\n[3]\n");
+
+        Assertions.assertEquals(Arrays.asList(Arrays.asList(1, 2), Collections.singletonList(3)), items);
+    }
+
+    private List<Object> decode(MediaType mediaType, String... chunks) {
+        DefaultDataBufferFactory factory = new DefaultDataBufferFactory();
+        Flux<DataBuffer> body = Flux.fromArray(chunks)
+                .map(chunk -> factory.wrap(chunk.getBytes(StandardCharsets.UTF_8)));
+        return decoder.decode(body, ResolvableType.forClass(Object.class), mediaType, Collections.emptyMap())
+                .collectList()
+                .block();
+    }
+
+    private static Map<String, Object> item(int id, String name) {
+        Map<String, Object> item = new LinkedHashMap<>();
+        item.put("id", id);
+        item.put("name", name);
+        return item;
+    }
+}
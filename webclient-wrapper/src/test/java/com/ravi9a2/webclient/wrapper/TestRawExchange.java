@@ -0,0 +1,142 @@
+package com.ravi9a2.webclient.wrapper;
+
+import com.ravi9a2.nca.data.RawResponse;
+import com.ravi9a2.nca.data.RestRequestSpec;
+import io.netty.buffer.ByteBufAllocator;
+import io.netty.buffer.UnpooledByteBufAllocator;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.NettyDataBuffer;
+import org.springframework.core.io.buffer.NettyDataBufferFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+public class TestRawExchange {
+
+    NettyDataBufferFactory buffers;
+    List<NettyDataBuffer> body;
+    HttpStatus status;
+
+    WebClientWrapper wrapper;
+
+    @BeforeEach
+    public void init() {
+        ByteBufAllocator allocator = new UnpooledByteBufAllocator(false);
+        buffers = new NettyDataBufferFactory(allocator);
+        body = Arrays.asList(buffer("{\"id\":"), buffer("1}"));
+        status = HttpStatus.OK;
+        wrapper = new WebClientWrapper(WebClient.builder()
+                .exchangeFunction(request -> Mono.just(ClientResponse.create(status)
+                        .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                        .header("X-Trace", "a", "b")
+                        .body(Flux.fromIterable(body))
+                        .build()))
+                .build()).baseUrl("http://users.local/");
+    }
+
+    @Test
+    public void testExchange_PassesBuffersThroughUndecoded() {
+        RawResponse<DataBuffer> response = wrapper.<DataBuffer>exchange(spec(String.class))
+                .block(Duration.ofSeconds(5));
+
+        List<DataBuffer> received = response.getBody().collectList().block(Duration.ofSeconds(5));
+
+        Assertions.assertEquals(200, response.getStatus());
+        Assertions.assertEquals(Collections.singletonList(MediaType.APPLICATION_JSON_VALUE),
+                response.getHeaders().get(HttpHeaders.CONTENT_TYPE));
+        Assertions.assertEquals(Arrays.asList("a", "b"), response.getHeaders().get("X-Trace"));
+        Assertions.assertEquals(body.size(), received.size());
+        for (int i = 0; i < body.size(); i++) {
+            Assertions.assertSame(body.get(i), received.get(i));
+        }
+        Assertions.assertEquals("{\"id\":1}", text(received));
+    }
+
+    @Test
+    public void testExchange_ConsumerReleasesBuffers() {
+        RawResponse<DataBuffer> response = wrapper.<DataBuffer>exchange(spec(String.class))
+                .block(Duration.ofSeconds(5));
+
+        response.getBody().doOnNext(DataBufferUtils::release).blockLast(Duration.ofSeconds(5));
+
+        for (NettyDataBuffer buffer : body) {
+            Assertions.assertEquals(0, buffer.getNativeBuffer().refCnt());
+        }
+    }
+
+    @Test
+    public void testGetToMono_RawResponseTypeSkipsDecoding() {
+        RawResponse<DataBuffer> response = wrapper.<RawResponse<DataBuffer>>getToMono(spec(rawType()))
+                .block(Duration.ofSeconds(5));
+
+        List<DataBuffer> received = response.getBody().collectList().block(Duration.ofSeconds(5));
+
+        Assertions.assertSame(body.get(0), received.get(0));
+        Assertions.assertEquals("{\"id\":1}", text(received));
+    }
+
+    @Test
+    public void testExchange_ErrorStatusReleasesBody() {
+        status = HttpStatus.SERVICE_UNAVAILABLE;
+
+        Mono<RawResponse<DataBuffer>> response = wrapper.exchange(spec(String.class));
+
+        Assertions.assertThrows(WebClientResponseException.class, () -> response.block(Duration.ofSeconds(5)));
+        for (NettyDataBuffer buffer : body) {
+            Assertions.assertEquals(0, buffer.getNativeBuffer().refCnt());
+        }
+    }
+
+    private NettyDataBuffer buffer(String text) {
+        return (NettyDataBuffer) buffers.wrap(text.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String text(List<DataBuffer> received) {
+        StringBuilder text = new StringBuilder();
+        for (DataBuffer buffer : received) {
+            text.append(buffer.toString(StandardCharsets.UTF_8));
+            DataBufferUtils.release(buffer);
+        }
+        return text.toString();
+    }
+
+    private static RestRequestSpec spec(Type type) {
+        return RestRequestSpec.builder().url("/users/1").type(type).build();
+    }
+
+    private static Type rawType() {
+        return new ParameterizedType() {
+            @Override
+            public Type[] getActualTypeArguments() {
+                return new Type[]{DataBuffer.class};
+            }
+
+            @Override
+            public Type getRawType() {
+                return RawResponse.class;
+            }
+
+            @Override
+            public Type getOwnerType() {
+                return null;
+            }
+        };
+    }
+}
@@ -0,0 +1,180 @@
+package com.ravi9a2.webclient.wrapper;
+
+import com.ravi9a2.nca.cache.ResponseCache;
+import com.ravi9a2.nca.data.CacheConfig;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeFunction;
+import org.springframework.web.reactive.function.client.ExchangeStrategies;
+import reactor.core.publisher.Mono;
+
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Function;
+
+public class TestResponseCacheFilter {
+
+    private static final URI URL = URI.create("http://users.local/users?page=1");
+
+    ResponseCache cache;
+    ResponseCacheFilter filter;
+    List<ClientRequest> sent;
+    Queue<ClientResponse> responses;
+    ExchangeFunction next;
+
+    @BeforeEach
+    public void init() {
+        cache = new ResponseCache("users", CacheConfig.builder().enabled(true).build(), null);
+        filter = new ResponseCacheFilter(cache, ExchangeStrategies.withDefaults());
+        sent = new CopyOnWriteArrayList<>();
+        responses = new ConcurrentLinkedQueue<>();
+        next = request -> {
+            sent.add(request);
+            return Mono.justOrEmpty(responses.poll());
+        };
+    }
+
+    @Test
+    public void testFilter_FreshResponseServedFromCache() {
+        responses.add(response(HttpStatus.OK, "first", HttpHeaders.CACHE_CONTROL, "max-age=60"));
+
+        Assertions.assertEquals("first", body(get()));
+        Assertions.assertEquals("first", body(get()));
+        Assertions.assertEquals(1, sent.size());
+        Assertions.assertEquals(1, cache.size());
+    }
+
+    @Test
+    public void testFilter_NotFoundCachedForNegativeTtl() {
+        responses.add(response(HttpStatus.NOT_FOUND, "missing"));
+
+        ClientResponse first = get();
+        Assertions.assertEquals(HttpStatus.NOT_FOUND, first.statusCode());
+        Assertions.assertEquals("missing", body(first));
+        ClientResponse second = get();
+
+        Assertions.assertEquals(HttpStatus.NOT_FOUND, second.statusCode());
+        Assertions.assertEquals(1, sent.size());
+    }
+
+    @Test
+    public void testFilter_StaleResponseRevalidated() {
+        responses.add(response(HttpStatus.OK, "v1", HttpHeaders.ETAG, "\"v1\""));
+        responses.add(response(HttpStatus.NOT_MODIFIED, "", HttpHeaders.CACHE_CONTROL, "max-age=60"));
+
+        Assertions.assertEquals("v1", body(get()));
+        Assertions.assertEquals("v1", body(get()));
+        Assertions.assertEquals("v1", body(get()));
+
+        Assertions.assertEquals(2, sent.size());
+        Assertions.assertNull(sent.get(0).headers().getFirst(HttpHeaders.IF_NONE_MATCH));
+        Assertions.assertEquals("\"v1\"", sent.get(1).headers().getFirst(HttpHeaders.IF_NONE_MATCH));
+    }
+
+    @Test
+    public void testFilter_StaleWhileRevalidateServedAtOnce() {
+        Function<String, String> noHeaders = name -> null;
+        cache.store(ResponseCache.key("GET", "/users?page=1", null, null), 200,
+                new HttpHeaders(headers(HttpHeaders.CACHE_CONTROL, "max-age=1, stale-while-revalidate=60")),
+                "stale".getBytes(StandardCharsets.UTF_8), noHeaders, System.currentTimeMillis() - 5_000);
+        responses.add(response(HttpStatus.OK, "fresh", HttpHeaders.CACHE_CONTROL, "max-age=60"));
+
+        Assertions.assertEquals("stale", body(get()));
+
+        Assertions.assertEquals(1, sent.size());
+        Assertions.assertEquals("fresh", body(get()));
+        Assertions.assertEquals(1, sent.size());
+    }
+
+    @Test
+    public void testFilter_NoCacheRequestGoesDownstream() {
+        responses.add(response(HttpStatus.OK, "first", HttpHeaders.CACHE_CONTROL, "max-age=60"));
+        responses.add(response(HttpStatus.OK, "second", HttpHeaders.CACHE_CONTROL, "max-age=60"));
+        get();
+
+        ClientResponse response = filter.filter(ClientRequest.create(HttpMethod.GET, URL)
+                .header(HttpHeaders.CACHE_CONTROL, "no-cache").build(), next).block(Duration.ofSeconds(5));
+
+        Assertions.assertEquals("second", body(response));
+        Assertions.assertEquals(2, sent.size());
+    }
+
+    @Test
+    public void testFilter_UncacheableRequestsPassThrough() {
+        responses.add(response(HttpStatus.OK, "posted", HttpHeaders.CACHE_CONTROL, "max-age=60"));
+        responses.add(response(HttpStatus.OK, "download", HttpHeaders.CACHE_CONTROL, "max-age=60"));
+
+        filter.filter(ClientRequest.create(HttpMethod.POST, URL).build(), next).block(Duration.ofSeconds(5));
+        filter.filter(ClientRequest.create(HttpMethod.GET, URL)
+                .attribute(ResponseCacheFilter.BYPASS_ATTRIBUTE, true).build(), next).block(Duration.ofSeconds(5));
+
+        Assertions.assertEquals(2, sent.size());
+        Assertions.assertEquals(0, cache.size());
+    }
+
+    @Test
+    public void testFilter_PrivateResponseNotCached() {
+        responses.add(response(HttpStatus.OK, "mine", HttpHeaders.CACHE_CONTROL, "private, max-age=60"));
+        responses.add(response(HttpStatus.OK, "mine again", HttpHeaders.CACHE_CONTROL, "private, max-age=60"));
+
+        Assertions.assertEquals("mine", body(get()));
+        Assertions.assertEquals("mine again", body(get()));
+        Assertions.assertEquals(2, sent.size());
+        Assertions.assertEquals(0, cache.size());
+    }
+
+    @Test
+    public void testFilter_CookiesKeepResponsesApart() {
+        responses.add(response(HttpStatus.OK, "a", HttpHeaders.CACHE_CONTROL, "max-age=60"));
+        responses.add(response(HttpStatus.OK, "b", HttpHeaders.CACHE_CONTROL, "max-age=60"));
+
+        Assertions.assertEquals("a", body(getWithCookie("session=a")));
+        Assertions.assertEquals("b", body(getWithCookie("session=b")));
+        Assertions.assertEquals("a", body(getWithCookie("session=a")));
+
+        Assertions.assertEquals(2, sent.size());
+        Assertions.assertEquals(2, cache.size());
+    }
+
+    private ClientResponse getWithCookie(String cookie) {
+        return filter.filter(ClientRequest.create(HttpMethod.GET, URL).header(HttpHeaders.COOKIE, cookie).build(),
+                next).block(Duration.ofSeconds(5));
+    }
+
+    private ClientResponse get() {
+        return filter.filter(ClientRequest.create(HttpMethod.GET, URL).build(), next).block(Duration.ofSeconds(5));
+    }
+
+    private static ClientResponse response(HttpStatus status, String body, String... headers) {
+        return ClientResponse.create(status)
+                .headers(h -> h.putAll(headers(headers)))
+                .header(HttpHeaders.CONTENT_TYPE, MediaType.TEXT_PLAIN_VALUE)
+                .body(body)
+                .build();
+    }
+
+    private static HttpHeaders headers(String... keyValues) {
+        HttpHeaders headers = new HttpHeaders();
+        for (int i = 0; i < keyValues.length; i += 2) {
+            headers.put(keyValues[i], Collections.singletonList(keyValues[i + 1]));
+        }
+        return headers;
+    }
+
+    private static String body(ClientResponse response) {
+        return response.bodyToMono(String.class).defaultIfEmpty("").block(Duration.ofSeconds(5));
+    }
+}
@@ -0,0 +1,44 @@
+package com.ravi9a2.webclient.wrapper;
+
+import com.ravi9a2.nca.data.RequestTemplate;
+import com.ravi9a2.nca.data.RestRequestSpec;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+public class TestWebClientWrapper {
+
+    private final AtomicReference<ClientRequest> sent = new AtomicReference<>();
+
+    @Test
+    public void testGetToMono_KeepsUriTemplate() {
+        WebClientWrapper wrapper = new WebClientWrapper(WebClient.builder()
+                .exchangeFunction(request -> {
+                    sent.set(request);
+                    return Mono.just(ClientResponse.create(HttpStatus.OK)
+                            .header(HttpHeaders.CONTENT_TYPE, MediaType.TEXT_PLAIN_VALUE)
+                            .body("ok")
+                            .build());
+                })
+                .build()).baseUrl("http://users.local/");
+
+        String response = wrapper.<String>getToMono(RestRequestSpec.builder()
+                .template(RequestTemplate.of("GET", "/users/{id}"))
+                .pathParam("id", "a b")
+                .type(String.class)
+                .build()).block();
+
+        Assertions.assertEquals("ok", response);
+        Assertions.assertEquals("http://users.local/users/a%20b", sent.get().url().toString());
+        Assertions.assertEquals("/users/{id}",
+                sent.get().attribute(WebClient.class.getName() + ".uriTemplate").orElse(null));
+    }
+}
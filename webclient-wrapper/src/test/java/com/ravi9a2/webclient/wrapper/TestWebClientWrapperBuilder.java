@@ -0,0 +1,157 @@
+package com.ravi9a2.webclient.wrapper;
+
+import com.ravi9a2.nca.data.Http2Config;
+import com.ravi9a2.nca.data.RestRequestSpec;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.HttpProtocol;
+import reactor.netty.http.server.HttpServer;
+
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+public class TestWebClientWrapperBuilder {
+
+    /**
+     * Set by reactor netty on the requests of an HTTP/2 stream, which it hands
+     * to the handler as HTTP/1.1 requests.
+     */
+    private static final String HTTP2_STREAM_ID = "x-http2-stream-id";
+
+    final Set<Integer> clientPorts = ConcurrentHashMap.newKeySet();
+    DisposableServer server;
+
+    @AfterEach
+    public void destroy() {
+        if (Objects.nonNull(server)) {
+            server.disposeNow();
+        }
+    }
+
+    @Test
+    public void testBuild_H2cMultiplexesOverOneConnection() {
+        start(HttpProtocol.H2C, HttpProtocol.HTTP11);
+        WebClientWrapper wrapper = builder("h2c-users")
+                .http2Config(Http2Config.builder().protocol("h2c").maxConcurrentStreams(50).build())
+                .build();
+
+        get(wrapper).block(Duration.ofSeconds(10));
+        List<String> versions = Flux.range(0, 20)
+                .flatMap(i -> get(wrapper))
+                .collectList()
+                .block(Duration.ofSeconds(10));
+
+        Assertions.assertEquals(20, versions.size());
+        Assertions.assertEquals(1, new HashSet<>(versions).size());
+        Assertions.assertEquals("h2", versions.get(0));
+        Assertions.assertEquals(1, clientPorts.size());
+    }
+
+    @Test
+    public void testBuild_H2cFallsBackToHttp11() {
+        start(HttpProtocol.HTTP11);
+        WebClientWrapper wrapper = builder("h2c-legacy")
+                .http2Config(Http2Config.builder().protocol(Http2Config.Protocol.H2C).build())
+                .build();
+
+        Assertions.assertEquals("http/1.1", get(wrapper).block(Duration.ofSeconds(10)));
+    }
+
+    @Test
+    public void testBuild_Http11ByDefault() {
+        start(HttpProtocol.H2C, HttpProtocol.HTTP11);
+        WebClientWrapper wrapper = builder("http11-users").build();
+
+        Set<String> versions = new HashSet<>(Flux.range(0, 4)
+                .flatMap(i -> get(wrapper))
+                .collectList()
+                .block(Duration.ofSeconds(10)));
+
+        Assertions.assertEquals(1, versions.size());
+        Assertions.assertTrue(versions.contains("http/1.1"));
+    }
+
+    @Test
+    public void testProtocol_ParsedFromConfig() {
+        Assertions.assertEquals(Http2Config.Protocol.HTTP11, Http2Config.Protocol.of(null));
+        Assertions.assertEquals(Http2Config.Protocol.HTTP11, Http2Config.Protocol.of("http1.1"));
+        Assertions.assertEquals(Http2Config.Protocol.H2, Http2Config.Protocol.of(" H2 "));
+        Assertions.assertEquals(Http2Config.Protocol.H2C, Http2Config.Protocol.of("h2c"));
+        Assertions.assertFalse(Http2Config.builder().build().isEnabled());
+        Assertions.assertThrows(IllegalArgumentException.class, () -> Http2Config.Protocol.of("spdy"));
+    }
+
+    @Test
+    public void testBuild_ClientsShareEventLoops() {
+        start(HttpProtocol.HTTP11);
+
+        String first = eventLoopThread(builder("shared-a").build());
+        String second = eventLoopThread(builder("shared-b").build());
+
+        Assertions.assertSame(EventLoops.shared(), EventLoops.shared());
+        Assertions.assertTrue(first.startsWith("webclient-nio-"), first);
+        Assertions.assertTrue(second.startsWith("webclient-nio-"), second);
+    }
+
+    @Test
+    public void testBuild_DedicatedEventLoopOptIn() {
+        start(HttpProtocol.HTTP11);
+
+        String thread = eventLoopThread(builder("critical").dedicatedEventLoop(true).eventLoopThreads(1).build());
+
+        Assertions.assertTrue(thread.startsWith("critical-loop-nio-"), thread);
+    }
+
+    @Test
+    public void testBuild_NativeTransportWhereAvailable() {
+        start(HttpProtocol.HTTP11);
+
+        String thread = eventLoopThread(builder("native-users").nativeTransport(true).build());
+
+        if (EventLoops.isNativeAvailable()) {
+            Assertions.assertFalse(thread.contains("-nio-"), thread);
+        } else {
+            Assertions.assertTrue(thread.startsWith("webclient-nio-"), thread);
+        }
+    }
+
+    private void start(HttpProtocol... protocols) {
+        server = HttpServer.create()
+                .host("127.0.0.1")
+                .port(0)
+                .protocol(protocols)
+                .handle((request, response) -> {
+                    clientPorts.add(request.remoteAddress().getPort());
+                    return response.sendString(Mono.just(
+                        request.requestHeaders().contains(HTTP2_STREAM_ID) ? "h2" : "http/1.1"));
+                })
+                .bindNow();
+    }
+
+    private WebClientWrapperBuilder builder(String clientName) {
+        return new WebClientWrapperBuilder()
+                .clientName(clientName)
+                .baseUrl("http://127.0.0.1:" + server.port())
+                .maxConnections(10)
+                .connectTimeout(5000)
+                .readTimeout(5000)
+                .writeTimeout(5000)
+                .inMemoryBufferSizeInKB(256);
+    }
+
+    private static String eventLoopThread(WebClientWrapper wrapper) {
+        return get(wrapper).map(version -> Thread.currentThread().getName()).block(Duration.ofSeconds(10));
+    }
+
+    private static Mono<String> get(WebClientWrapper wrapper) {
+        return wrapper.getToMono(RestRequestSpec.builder().url("/version").type(String.class).build());
+    }
+}